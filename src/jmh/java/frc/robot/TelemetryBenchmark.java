@@ -0,0 +1,54 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.ctre.phoenix6.swerve.SwerveDrivetrain.SwerveDriveState;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import frc.robot.telemetry.BlackBoxRecorder;
+import frc.robot.telemetry.SwerveStateMirror;
+
+/**
+ * Drive state hand-off from the odometry thread, which runs at the odometry rate
+ * The log and dashboard tiers keep running on their own threads meanwhile, as on the robot.
+ */
+@State(Scope.Thread)
+public class TelemetryBenchmark {
+  private Telemetry m_telemetry;
+  private final SwerveDriveState m_state = new SwerveDriveState();
+
+  @Setup
+  public void setup() {
+    HAL.initialize(500, 0);
+    m_telemetry = new Telemetry(4.5, new SwerveStateMirror(), new BlackBoxRecorder());
+    m_state.Pose = new Pose2d(3.0, 4.0, Rotation2d.fromDegrees(30));
+    m_state.Speeds = new ChassisSpeeds(1.0, 0.5, 0.2);
+    m_state.ModuleStates = new SwerveModuleState[4];
+    m_state.ModuleTargets = new SwerveModuleState[4];
+    m_state.ModulePositions = new SwerveModulePosition[4];
+    for (int i = 0; i < 4; i++) {
+      m_state.ModuleStates[i] = new SwerveModuleState(2.0, Rotation2d.fromDegrees(10 * i));
+      m_state.ModuleTargets[i] = new SwerveModuleState(2.1, Rotation2d.fromDegrees(10 * i));
+      m_state.ModulePositions[i] = new SwerveModulePosition(1.0 + i, Rotation2d.fromDegrees(10 * i));
+    }
+    m_state.OdometryPeriod = 0.004;
+  }
+
+  @Benchmark
+  public void telemeterize() {
+    m_state.Timestamp += 0.004;
+    m_telemetry.telemeterize(m_state);
+  }
+}
@@ -0,0 +1,54 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.commands;
+
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Rotation3d;
+import edu.wpi.first.math.geometry.Transform3d;
+import frc.robot.Constants;
+import frc.robot.subsystems.VisionTarget;
+
+/**
+ * One tag alignment control step against a dry-run drivetrain
+ * INTERMITTENT hides the tags for half of every second, as in the warmup dry run,
+ * so steps alternate between vision tracking and odometry prediction.
+ */
+@State(Scope.Thread)
+public class DriveToAprilTagBenchmark {
+  @Param({"VISIBLE", "INTERMITTENT"})
+  public String visibility;
+
+  private final DryRunDrivetrain m_drivetrain = new DryRunDrivetrain();
+  private DriveToAprilTag m_command;
+
+  @Setup
+  public void setup() {
+    HAL.initialize(500, 0);
+    List<VisionTarget> targets = List.of(
+        new VisionTarget(1, Constants.Vision.FRONT_CAMERA_NAME,
+            new Transform3d(1.5, 0.2, 0.0, new Rotation3d()), 0.0, 0.1),
+        new VisionTarget(2, Constants.Vision.REAR_CAMERA_NAME,
+            new Transform3d(-2.5, 1.0, 0.0, new Rotation3d(0, 0, Math.PI)), 0.0, 0.2));
+    boolean intermittent = visibility.equals("INTERMITTENT");
+    m_command = DriveToAprilTag.dryRun(m_drivetrain,
+        () -> !intermittent || (long) (m_drivetrain.getTime() * 2.0) % 2 == 0 ? targets : List.of(),
+        -1, Constants.Auto.APRILTAG_DISTANCE_METERS);
+    m_command.initialize();
+  }
+
+  @Benchmark
+  public void execute() {
+    m_drivetrain.advance(0.02);
+    m_command.execute();
+  }
+}
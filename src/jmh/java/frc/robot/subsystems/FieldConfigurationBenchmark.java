@@ -0,0 +1,33 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import edu.wpi.first.apriltag.AprilTagFieldLayout;
+import edu.wpi.first.hal.HAL;
+
+/**
+ * Field layout loading, done when vision starts and when the field mode changes
+ */
+@State(Scope.Thread)
+public class FieldConfigurationBenchmark {
+  @Param({"REAL_FIELD", "TRAINING_FIELD_3_TAGS"})
+  public FieldConfiguration.FieldMode mode;
+
+  @Setup
+  public void setup() {
+    HAL.initialize(500, 0);
+  }
+
+  @Benchmark
+  public AprilTagFieldLayout getFieldLayout() {
+    return FieldConfiguration.getFieldLayout(mode);
+  }
+}
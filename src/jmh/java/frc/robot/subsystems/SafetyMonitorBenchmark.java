@@ -0,0 +1,33 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import edu.wpi.first.hal.HAL;
+import frc.robot.telemetry.BlackBoxRecorder;
+
+/**
+ * Power and CAN monitoring, run every main loop iteration
+ * Reads come from the simulated HAL, so this measures our own work rather than CAN latency.
+ */
+@State(Scope.Thread)
+public class SafetyMonitorBenchmark {
+  private SafetyMonitor m_safetyMonitor;
+
+  @Setup
+  public void setup() {
+    HAL.initialize(500, 0);
+    m_safetyMonitor = new SafetyMonitor(new BlackBoxRecorder());
+  }
+
+  @Benchmark
+  public void periodic() {
+    m_safetyMonitor.periodic();
+  }
+}
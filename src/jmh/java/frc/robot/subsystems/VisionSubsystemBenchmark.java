@@ -0,0 +1,64 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.photonvision.EstimatedRobotPose;
+import org.photonvision.PhotonPoseEstimator.PoseStrategy;
+import org.photonvision.targeting.PhotonPipelineResult;
+import org.photonvision.targeting.PhotonTrackedTarget;
+
+import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Pose3d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Rotation3d;
+import edu.wpi.first.math.geometry.Transform3d;
+import edu.wpi.first.math.geometry.Translation3d;
+import edu.wpi.first.math.numbers.N1;
+import edu.wpi.first.math.numbers.N3;
+
+/**
+ * Vision measurement gating and weighting, run for every camera frame with targets
+ */
+@State(Scope.Thread)
+public class VisionSubsystemBenchmark {
+  @Param({"1", "3"})
+  public int tagCount;
+
+  private final Pose2d m_currentPose = new Pose2d(3.0, 4.0, Rotation2d.fromDegrees(30));
+  private EstimatedRobotPose m_estimate;
+  private PhotonPipelineResult m_result;
+
+  @Setup
+  public void setup() {
+    List<PhotonTrackedTarget> targets = new ArrayList<>();
+    for (int i = 0; i < tagCount; i++) {
+      Transform3d cameraToTarget = new Transform3d(2.0 + i, 0.3 * i, 0.5, new Rotation3d(0, 0, Math.PI));
+      targets.add(new PhotonTrackedTarget(5.0 * i, 2.0, 1.5, 0.0, i + 1, -1, -1.0f,
+          cameraToTarget, cameraToTarget, 0.1, List.of(), List.of()));
+    }
+    m_result = new PhotonPipelineResult(1, 1_000_000, 1_005_000, 0, targets);
+    Pose3d estimatedPose = new Pose3d(new Translation3d(3.2, 4.1, 0.0), new Rotation3d(0, 0, 0.5));
+    m_estimate = new EstimatedRobotPose(estimatedPose, 1.0, targets, PoseStrategy.MULTI_TAG_PNP_ON_COPROCESSOR);
+  }
+
+  @Benchmark
+  public boolean shouldUseVisionMeasurement() {
+    return VisionSubsystem.shouldUseVisionMeasurement(m_currentPose, m_estimate, m_result);
+  }
+
+  @Benchmark
+  public Matrix<N3, N1> calculateStdDevs() {
+    return VisionSubsystem.calculateStdDevs(m_currentPose, m_estimate);
+  }
+}
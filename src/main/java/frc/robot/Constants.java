@@ -51,8 +51,254 @@ public final class Constants {
     public static final double TEMPERATURE_WARNING_THRESHOLD = 70.0;
     public static final double TEMPERATURE_CRITICAL_THRESHOLD = 85.0;
 
-    // Monitoring period
+    // Dashboard values are republished at least this often, even when unchanged
     public static final double MONITORING_PERIOD_SECONDS = 1.0;
+
+    // Sample rates per metric
+    public static final double POWER_SAMPLE_PERIOD_SECONDS = 0.02; // 50 Hz voltage, current, brownout
+    public static final double SYSTEM_SAMPLE_PERIOD_SECONDS = 0.1; // 10 Hz system active
+    public static final double CAN_SAMPLE_PERIOD_SECONDS = 0.5; // 2 Hz CAN status
+
+    // Smallest change that is published to the dashboard before the next refresh
+    public static final double VOLTAGE_PUBLISH_DEADBAND = 0.05; // Volts
+    public static final double CURRENT_PUBLISH_DEADBAND = 0.5; // Amps
+    public static final double CAN_PUBLISH_DEADBAND = 1.0; // Percent
+
+    // Rolling statistics windows, plus whole-match statistics
+    public static final double SHORT_WINDOW_SECONDS = 1.0;
+    public static final double LONG_WINDOW_SECONDS = 10.0;
+    public static final double STATS_LOG_PERIOD_SECONDS = 0.1; // 10 Hz
+  }
+
+  /**
+   * Battery internal-resistance estimator constants
+   */
+  public static final class Battery {
+    // Sliding regression window, in power samples (3 s at 50 Hz)
+    public static final int WINDOW_SAMPLES = 150;
+
+    // Current must vary by at least this much (standard deviation, amps) to fit resistance
+    public static final double MIN_CURRENT_SPREAD = 5.0;
+
+    // Plausible battery plus wiring resistance range (ohms)
+    public static final double MIN_RESISTANCE = 0.005;
+    public static final double MAX_RESISTANCE = 0.1;
+
+    // Current headroom is how much more current keeps voltage above this (roboRIO browns out at 6.75 V)
+    public static final double HEADROOM_MIN_VOLTAGE = 7.5;
+  }
+
+  /**
+   * Charge and energy accounting and per-battery history
+   */
+  public static final class Energy {
+    // Per-battery history files live here, under the operating directory (/home/lvuser on the roboRIO)
+    public static final String HISTORY_DIRECTORY = "battery_history";
+
+    // Dashboard key the pit crew enters the installed battery's ID under
+    public static final String BATTERY_ID_KEY = "Safety/Battery ID";
+
+    public static final double AMP_HOUR_PUBLISH_DEADBAND = 0.01;
+    public static final double WATT_HOUR_PUBLISH_DEADBAND = 0.1;
+  }
+
+  /**
+   * Runtime drive motor current limit governor
+   */
+  public static final class CurrentLimits {
+    // Drive supply limit range (amps per motor), full above VOLTAGE_WARNING_THRESHOLD
+    public static final double MIN_SUPPLY_LIMIT = 30.0;
+    public static final double MAX_SUPPLY_LIMIT = 70.0;
+
+    // Stator limit follows the supply limit; the maximum matches the slip current in TunerConstants
+    public static final double STATOR_PER_SUPPLY = 1.7;
+    public static final double MIN_STATOR_LIMIT = 60.0;
+    public static final double MAX_STATOR_LIMIT = 120.0;
+
+    // Share of the battery's current headroom the drive motors may use
+    public static final double DRIVE_BUDGET_FRACTION = 0.8;
+
+    // Limits drop immediately but rise at this rate
+    public static final double RAISE_RATE_AMPS_PER_SECOND = 20.0;
+
+    // Config writes: only for changes of at least this much, at most this often per motor
+    public static final double WRITE_DEADBAND_AMPS = 5.0;
+    public static final double MIN_WRITE_INTERVAL_SECONDS = 0.25;
+  }
+
+  /**
+   * Asynchronous text logging
+   */
+  public static final class Logging {
+    // Messages queued between callers and the writer thread
+    public static final int QUEUE_CAPACITY = 1024;
+
+    // The writer writes up to this many messages at a time, at least this often
+    public static final int BATCH_SIZE = 64;
+    public static final double FLUSH_PERIOD_SECONDS = 0.1;
+
+    // Which message is lost when the queue is full
+    public static final frc.robot.util.AsyncLog.DropPolicy DROP_POLICY =
+        frc.robot.util.AsyncLog.DropPolicy.DROP_NEWEST;
+  }
+
+  /**
+   * Log recording lifecycle and disk quota
+   */
+  public static final class LogLifecycle {
+    // Keep recording this long after the robot is disabled and off the FMS
+    public static final double STOP_DELAY_SECONDS = 5.0;
+
+    // Recording at boot, so startup messages are kept
+    public static final double BOOT_RECORD_SECONDS = 15.0;
+
+    // Most disk space .hoot and .wpilog files may use, sized for a USB stick
+    public static final long QUOTA_BYTES = 512L * 1024 * 1024;
+    // Logs may also use at most this fraction of the space open to them (their own size plus
+    // free space), so the quota still applies on internal storage (about 200 MB free on a roboRIO 1)
+    public static final double MAX_DISK_FRACTION = 0.5;
+    public static final double QUOTA_CHECK_PERIOD_SECONDS = 30.0;
+  }
+
+  /**
+   * Dashboard telemetry bandwidth budget
+   */
+  public static final class TelemetryBudget {
+    // Bandwidth for all registry channels, and the burst the bucket can hold
+    public static final double BYTES_PER_SECOND = 32 * 1024;
+    public static final double BURST_SECONDS = 0.5;
+
+    // Debug channels only send while more than this fraction of the burst is unused
+    public static final double DEBUG_RESERVE_FRACTION = 0.5;
+
+    // Estimated NT4 framing per update: topic id, timestamp and type
+    public static final int UPDATE_OVERHEAD_BYTES = 16;
+
+    // Minimum intervals for channels the drive team watches, and for debug channels
+    public static final double DASHBOARD_INTERVAL_SECONDS = 0.1;
+    public static final double DEBUG_INTERVAL_SECONDS = 0.5;
+
+    // Unchanged values are resent this often for dashboards that connect late
+    public static final double REFRESH_PERIOD_SECONDS = 1.0;
+
+    // Bandwidth stats
+    public static final double STATS_PERIOD_SECONDS = 1.0;
+    public static final int TOP_N = 8;
+  }
+
+  /**
+   * Main loop load shedding
+   */
+  public static final class LoadShed {
+    // A loop using more than this fraction of its period is over budget
+    public static final double BUDGET_FRACTION = 0.8;
+
+    // Consecutive over-budget loops before shedding one more priority
+    public static final int ESCALATE_LOOPS = 3;
+
+    // A loop using less than this fraction of its period has headroom
+    public static final double RESTORE_FRACTION = 0.5;
+
+    // Consecutive loops with headroom before restoring one priority (1 s at 50 Hz)
+    public static final int RESTORE_LOOPS = 50;
+
+    // The highest shed priority runs once every this many calls
+    public static final int DECIMATION_FACTOR = 5;
+  }
+
+  /**
+   * Main loop profiler
+   */
+  public static final class Profiler {
+    // Duration histograms: 10 us bins up to 20 ms, then overflow
+    public static final double HISTOGRAM_BIN_SECONDS = 0.00001;
+    public static final int HISTOGRAM_BINS = 2000;
+
+    // Ranked lists of the sections with the worst p99 and the heaviest allocation
+    public static final int TOP_N = 8;
+    public static final double PUBLISH_PERIOD_SECONDS = 1.0;
+
+    // Estimated payload of the three lists, about 48 bytes a line, plus framing for the
+    // two topics beyond the first
+    public static final int RANKINGS_FRAME_BYTES = 3 * TOP_N * 48 + 2 * 16;
+
+    // Smoothing of bytes allocated per call (fraction of each new call)
+    public static final double ALLOCATION_SMOOTHING = 0.05;
+
+    // A section allocating more than this per call, unless given its own budget, is a regression
+    public static final long DEFAULT_ALLOCATION_BUDGET_BYTES = 16 * 1024;
+    public static final long ALLOCATION_TOLERANCE_BYTES = 64;
+  }
+
+  /**
+   * Odometry thread configuration and timing instrumentation
+   */
+  public static final class Odometry {
+    // Odometry loop rate (Phoenix defaults to 250 Hz on CAN FD, 100 Hz on CAN 2.0)
+    public static final double UPDATE_FREQUENCY_HZ = 250.0;
+
+    // Real-time priority of the odometry thread (1-99); the main robot thread is not real-time
+    public static final int THREAD_PRIORITY = 1;
+
+    // An odometry period beyond this many times nominal is an overrun
+    public static final double OVERRUN_FACTOR = 2.0;
+
+    // A main loop iteration starting this many periods after the previous one is an overrun
+    public static final double MAIN_LOOP_OVERRUN_FACTOR = 1.5;
+
+    // Odometry overruns this close before a late main loop iteration are counted as correlated
+    public static final double CORRELATION_WINDOW_SECONDS = 0.02;
+
+    // Period and jitter histograms: 0.1 ms bins up to 20 ms, then overflow
+    public static final double HISTOGRAM_BIN_SECONDS = 0.0001;
+    public static final int HISTOGRAM_BINS = 200;
+  }
+
+  /**
+   * Garbage collection and heap telemetry
+   */
+  public static final class Gc {
+    // Heap and metaspace occupancy sample period
+    public static final double HEAP_SAMPLE_PERIOD_SECONDS = 1.0;
+
+    // A GC pause ending this close before a late main loop iteration is counted as its cause
+    public static final double CORRELATION_WINDOW_SECONDS = 0.1;
+  }
+
+  /**
+   * Drivetrain CAN bus status signal optimization
+   */
+  public static final class CanBus {
+    // Set false to leave every status signal at its Phoenix default (e.g. while debugging in Tuner X)
+    public static final boolean OPTIMIZE_STATUS_SIGNALS = true;
+
+    // Signals only read from the hoot log (SysId, match review) are kept at this rate
+    public static final double LOGGED_SIGNAL_HZ = 50.0;
+
+    // Wait before measuring utilization after optimizing, so the bus average reflects the new rates
+    public static final double SETTLE_SECONDS = 2.0;
+  }
+
+  /**
+   * Per-device swerve motor and encoder health monitoring
+   */
+  public static final class MotorHealth {
+    // Health signals are refreshed together at this period, and sent by the devices at this rate
+    public static final double REFRESH_PERIOD_SECONDS = 0.25;
+    public static final double SIGNAL_UPDATE_HZ = 4.0;
+
+    // Temperature smoothing and trend; a motor heating toward critical within the horizon is a warning
+    public static final double TREND_TIME_CONSTANT_SECONDS = 5.0;
+    public static final double TREND_HORIZON_SECONDS = 30.0;
+
+    // A level is only left once the temperature is this far below its threshold (Celsius)
+    public static final double TEMPERATURE_HYSTERESIS = 3.0;
+
+    // Fraction of normal output a module uses while its hottest motor is at each level
+    public static final double WARNING_DERATE_SCALE = 0.7;
+    public static final double CRITICAL_DERATE_SCALE = 0.4;
+
+    public static final double TEMPERATURE_PUBLISH_DEADBAND = 0.5; // Celsius
   }
 
   /**
@@ -63,6 +309,12 @@ public final class Constants {
     public static final double DRIVE_FORWARD_SPEED = 1.0; // m/s
     public static final double DRIVE_FORWARD_DURATION = 2.0; // seconds
 
+    // Short and long drive forward variants
+    public static final double DRIVE_FORWARD_SHORT_DISTANCE = 1.0; // meters
+    public static final double DRIVE_FORWARD_SHORT_SPEED = 1.0; // m/s
+    public static final double DRIVE_FORWARD_LONG_DISTANCE = 4.5; // meters
+    public static final double DRIVE_FORWARD_LONG_SPEED = 1.5; // m/s
+
     // Auto balance parameters
     public static final double BALANCE_SPEED = 0.5; // m/s
     public static final double BALANCE_ANGLE_TOLERANCE = 2.5; // degrees
@@ -79,6 +331,106 @@ public final class Constants {
     public static final double[] APRILTAG_STRAFE_PID = {0.05, 0.0, 0.005}; // Left/right centering
     public static final double[] APRILTAG_ROTATION_PID = {0.08, 0.0, 0.01}; // Rotation to face tag
     public static final double APRILTAG_STRAFE_TOLERANCE = 2.0; // degrees yaw tolerance for centering
+
+    // Estimated dashboard payload of the selected routine: name, duration, fixed start flag
+    // and starting pose, plus framing for the three topics beyond the first
+    public static final int METADATA_FRAME_BYTES = 32 + 8 + 1 + 3 * 8 + 3 * 16;
+  }
+
+  /**
+   * Trajectory generation and following constants
+   */
+  public static final class Trajectory {
+    // Default generation limits
+    public static final double MAX_VELOCITY = 2.0; // m/s
+    public static final double MAX_ACCELERATION = 2.0; // m/s²
+    public static final double MAX_ANGULAR_VELOCITY = Math.PI; // rad/s
+    public static final double MAX_ANGULAR_ACCELERATION = 2.0 * Math.PI; // rad/s²
+
+    // Time between stored trajectory samples
+    public static final double SAMPLE_PERIOD_SECONDS = 0.02;
+
+    // Robot mass properties for module force feedforwards
+    public static final double ROBOT_MASS_KG = 50.0;
+    public static final double ROBOT_MOI_KG_M2 = 6.0;
+
+    // Pose feedback gains (velocity correction per unit of error)
+    public static final double TRANSLATION_KP = 5.0; // (m/s) per meter
+    public static final double ROTATION_KP = 5.0; // (rad/s) per radian
+
+    // End-of-trajectory tolerances
+    public static final double POSITION_TOLERANCE = 0.05; // meters
+    public static final double ROTATION_TOLERANCE = Math.toRadians(3.0); // radians
+    public static final double END_TIMEOUT_SECONDS = 0.5; // extra time allowed to settle
+
+    // Precomputed trajectory cache in the deploy directory (see TrajectoryCacheGenerator)
+    public static final String CACHE_FILE_NAME = "trajectories.bin";
+  }
+
+  /**
+   * Drivetrain telemetry tiers
+   */
+  public static final class Telemetry {
+    // States buffered between the odometry thread and the log tier (power of two)
+    // 64 states is 256 ms at 250 Hz odometry
+    public static final int RING_CAPACITY = 64;
+
+    // Full-rate log tier drains every buffered state at this period
+    public static final double LOG_PERIOD_SECONDS = 0.02;
+
+    // Decimated NetworkTables tier
+    public static final double DASHBOARD_PERIOD_SECONDS = 0.05; // 20 Hz
+
+    // Dashboard frames are only sent when the state moved more than these
+    public static final double DASHBOARD_DISTANCE_DEADBAND_METERS = 0.005;
+    public static final double DASHBOARD_ANGLE_DEADBAND_RADIANS = 0.01;
+    public static final double DASHBOARD_SPEED_DEADBAND_MPS = 0.01;
+
+    // Estimated dashboard frame payload: pose, speeds, three module arrays and scalars,
+    // plus framing for the eight topics beyond the first
+    public static final int DASHBOARD_FRAME_BYTES = 288 + 8 * 16;
+
+    // Low-priority Mechanism2d tier
+    public static final double MECHANISM_PERIOD_SECONDS = 0.1; // 10 Hz
+
+    // How often drivetrain state readers report missed updates
+    public static final double MIRROR_STATS_PERIOD_SECONDS = 1.0;
+  }
+
+  /**
+   * Black box flight recorder constants
+   */
+  public static final class BlackBox {
+    // Records kept in memory (power of two, 80 bytes each)
+    // 4096 records is about 12 s of 250 Hz odometry plus 50 Hz power and vision
+    public static final int CAPACITY_RECORDS = 4096;
+
+    // Keep recording this long after a trigger before dumping
+    public static final double POST_TRIGGER_SECONDS = 0.5;
+
+    // Repeated triggers within this window are marked but not dumped again
+    public static final double MIN_DUMP_INTERVAL_SECONDS = 5.0;
+  }
+
+  /**
+   * Disabled-mode warm-up constants
+   */
+  public static final class Warmup {
+    // Time warm-up may use in each disabledPeriodic() call
+    public static final double BUDGET_SECONDS = 0.004;
+
+    // Simulated robot loops per dry-run command round
+    public static final int LOOPS_PER_ROUND = 50;
+    public static final double LOOP_PERIOD_SECONDS = 0.02;
+
+    // Steady state: STEADY_WINDOWS consecutive windows of WINDOW_ROUNDS rounds whose
+    // mean time is within STEADY_TOLERANCE of the previous window
+    public static final int WINDOW_ROUNDS = 10;
+    public static final int STEADY_WINDOWS = 3;
+    public static final double STEADY_TOLERANCE = 0.10; // fraction of previous window mean
+
+    // Give up on a path that never settles (e.g. a noisy machine)
+    public static final int MAX_ROUNDS = 3000;
   }
 
   /**
@@ -128,6 +480,22 @@ public final class Constants {
     // Reject detections with ambiguity above this value
     public static final double MAX_AMBIGUITY = 0.3;
 
+    // Target selection cost weights (lower cost = preferred target)
+    public static final double TARGET_COST_DISTANCE_WEIGHT = 1.0; // per meter
+    public static final double TARGET_COST_ROTATION_WEIGHT = 0.5; // per radian of turn needed
+    public static final double TARGET_COST_TIME_WEIGHT = 1.0; // per second to reach
+
+    // Cost margin a new tag must beat the locked tag by before switching
+    public static final double TARGET_SWITCH_HYSTERESIS = 0.5;
+
+    // How long to keep following a tag from odometry after it leaves every camera's view
+    // Covers the gap while the tag moves between front and rear fields of view
+    public static final double TARGET_HANDOFF_TIMEOUT_SECONDS = 0.5;
+
+    // Smallest change in a vision pose estimate worth publishing
+    public static final double POSE_PUBLISH_DEADBAND_METERS = 0.01;
+    public static final double ROTATION_PUBLISH_DEADBAND_DEGREES = 0.5;
+
     // Training Field Configuration
     // Training field dimensions (smaller practice area)
     public static final double TRAINING_FIELD_LENGTH = 8.0; // meters (smaller than real field)
@@ -4,18 +4,31 @@
 
 package frc.robot;
 
+import com.ctre.phoenix6.Utils;
+
 import edu.wpi.first.wpilibj.DataLogManager;
 import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.robot.telemetry.GcTelemetry;
+import frc.robot.telemetry.LogLifecycleManager;
+import frc.robot.util.AsyncLog;
+import frc.robot.util.LoadShedder;
+import frc.robot.util.LoopProfiler;
+import frc.robot.util.TelemetryRegistry;
 
 public class Robot extends TimedRobot {
   private Command m_autonomousCommand;
   private final RobotContainer m_robotContainer;
+  private final LoopProfiler.Section m_schedulerProfile = LoopProfiler.getInstance().section("CommandScheduler.run");
+  private GcTelemetry m_gcTelemetry;
+  private LogLifecycleManager m_logLifecycle;
 
   public Robot() {
     m_robotContainer = new RobotContainer();
+    LoopProfiler.getInstance().setLoopSection(m_schedulerProfile);
   }
 
   @Override
@@ -23,13 +36,42 @@ public class Robot extends TimedRobot {
     // Start comprehensive data logging
     DataLogManager.start();
     DriverStation.startDataLog(DataLogManager.getLog());
+    m_gcTelemetry = new GcTelemetry(DataLogManager.getLog());
+    m_logLifecycle = new LogLifecycleManager();
+
+    AsyncLog.log("Robot initialized");
+  }
 
-    DataLogManager.log("Robot initialized");
+  @Override
+  protected void loopFunc() {
+    long startNanos = System.nanoTime();
+    super.loopFunc();
+
+    // The whole iteration: mode periodic, robotPeriodic, dashboard and LiveWindow updates.
+    // Add how late it started, so stalls between iterations (e.g. GC pauses) count too.
+    double busy = (System.nanoTime() - startNanos) / 1e9;
+    double interval = m_robotContainer.drivetrain.getOdometryTiming().getMainLoopInterval();
+    double late = Double.isNaN(interval) ? 0.0 : Math.max(0.0, interval - getPeriod());
+    // Shed optional work when recent loops ran long, restore it once there is headroom
+    LoadShedder.getInstance().update(busy + late, getPeriod());
   }
 
   @Override
   public void robotPeriodic() {
+    // Mark late iterations on the odometry timebase so they line up with odometry overruns
+    double now = Utils.getCurrentTimeSeconds();
+    if (m_robotContainer.drivetrain.getOdometryTiming().recordMainLoop(now, getPeriod())) {
+      m_gcTelemetry.recordLoopOverrun(now);
+    }
+
+    m_schedulerProfile.start();
     CommandScheduler.getInstance().run();
+    m_schedulerProfile.stop();
+
+    LoopProfiler.getInstance().publish(Timer.getFPGATimestamp());
+    AsyncLog.getInstance().publishMetrics(Timer.getFPGATimestamp());
+    m_logLifecycle.update(DriverStation.isEnabled(), DriverStation.isFMSAttached(), Timer.getFPGATimestamp());
+    TelemetryRegistry.getInstance().publishStats(Timer.getFPGATimestamp());
   }
 
 
@@ -37,13 +79,23 @@ public class Robot extends TimedRobot {
   public void disabledInit() {}
 
   @Override
-  public void disabledPeriodic() {}
+  public void disabledPeriodic() {
+    // Build the selected auto in the background so autonomousInit() only schedules it
+    m_robotContainer.getAutoSelector().prebuildSelected();
+
+    // Warm up auto, alignment and trajectory code so the match starts with it compiled
+    m_robotContainer.getWarmupService().run();
+  }
 
   @Override
   public void disabledExit() {}
 
   @Override
   public void autonomousInit() {
+    if (!m_robotContainer.getWarmupService().isSteady()) {
+      AsyncLog.log("WARNING: Autonomous started before warm-up reached steady state");
+    }
+
     m_autonomousCommand = m_robotContainer.getAutonomousCommand();
 
     if (m_autonomousCommand != null) {
@@ -6,30 +6,62 @@ package frc.robot;
 
 import static edu.wpi.first.units.Units.*;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import com.ctre.phoenix6.hardware.CANcoder;
+import com.ctre.phoenix6.hardware.ParentDevice;
+import com.ctre.phoenix6.hardware.TalonFX;
+import com.ctre.phoenix6.swerve.SwerveModule;
 import com.ctre.phoenix6.swerve.SwerveModule.DriveRequestType;
 import com.ctre.phoenix6.swerve.SwerveRequest;
 
 import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Rotation3d;
+import edu.wpi.first.math.geometry.Transform3d;
 import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.Commands;
 import edu.wpi.first.wpilibj2.command.button.CommandXboxController;
 import edu.wpi.first.wpilibj2.command.button.RobotModeTriggers;
 import edu.wpi.first.wpilibj2.command.sysid.SysIdRoutine.Direction;
 
 import frc.robot.commands.AutoSelector;
 import frc.robot.commands.DriveToAprilTag;
+import frc.robot.commands.DryRunDrivetrain;
 import frc.robot.generated.TunerConstants;
 import frc.robot.subsystems.CommandSwerveDrivetrain;
+import frc.robot.subsystems.CurrentLimitGovernor;
+import frc.robot.subsystems.MotorHealthMonitor;
 import frc.robot.subsystems.SafetyMonitor;
 import frc.robot.subsystems.VisionSubsystem;
+import frc.robot.subsystems.VisionTarget;
+import frc.robot.telemetry.BlackBoxRecorder;
+import frc.robot.trajectory.HolonomicTrajectory;
+import frc.robot.trajectory.TrajectoryCache;
+import frc.robot.trajectory.TrajectoryLibrary;
+import frc.robot.trajectory.TrajectorySample;
+import frc.robot.util.CanBusOptimizer;
+import frc.robot.util.LoopProfiler;
 
 public class RobotContainer {
 
     public final CommandSwerveDrivetrain drivetrain = TunerConstants.createDrivetrain();
 
-    private final SafetyMonitor safetyMonitor = new SafetyMonitor();
-    private final VisionSubsystem visionSubsystem = new VisionSubsystem(drivetrain);
+    // Last few seconds of drive, power and vision data, dumped on brownout or on request
+    private final BlackBoxRecorder m_blackBox = new BlackBoxRecorder();
+
+    private final SafetyMonitor safetyMonitor = new SafetyMonitor(m_blackBox);
+    private final VisionSubsystem visionSubsystem = new VisionSubsystem(drivetrain, m_blackBox);
+    private final MotorHealthMonitor m_motorHealth = new MotorHealthMonitor(drivetrain);
+    private final CurrentLimitGovernor m_currentLimitGovernor =
+        new CurrentLimitGovernor(drivetrain, safetyMonitor, m_motorHealth);
     private final AutoSelector m_autoSelector;
 
+    // Precomputed trajectories from the deploy directory - no path generation at auto start
+    private final TrajectoryCache m_trajectoryCache = TrajectoryCache.loadFromDeploy();
+    private final WarmupService m_warmup = new WarmupService();
+    private DriveToAprilTag m_driveToTag;
+
     private double MaxSpeed = TunerConstants.kSpeedAt12Volts.in(MetersPerSecond) * Constants.Drivetrain.SPEED_MULTIPLIER;
     private double MaxAngularRate = RotationsPerSecond.of(Constants.Drivetrain.MAX_ANGULAR_RATE_FRACTION).in(RadiansPerSecond) * Constants.Drivetrain.SPEED_MULTIPLIER;
 
@@ -41,32 +73,61 @@ public class RobotContainer {
     private final SwerveRequest.SwerveDriveBrake brake = new SwerveRequest.SwerveDriveBrake();
     private final SwerveRequest.PointWheelsAt point = new SwerveRequest.PointWheelsAt();
 
-    private final Telemetry logger = new Telemetry(MaxSpeed);
+    private final Telemetry logger = new Telemetry(MaxSpeed, drivetrain.getStateMirror(), m_blackBox);
 
     private final CommandXboxController joystick = new CommandXboxController(Constants.OI.DRIVER_CONTROLLER_PORT);
 
     public RobotContainer() {
-        m_autoSelector = new AutoSelector(drivetrain);
+        m_autoSelector = new AutoSelector(drivetrain, m_trajectoryCache);
 
         // Register SafetyMonitor to ensure periodic() is called
         safetyMonitor.setDefaultCommand(
             safetyMonitor.run(() -> {})
         );
 
+        // Account swerve charge per subsystem; the rest of the input current is "Other"
+        safetyMonitor.addEnergySource("Drive", m_motorHealth::getDriveSupplyCurrent);
+        safetyMonitor.addEnergySource("Steer", m_motorHealth::getSteerSupplyCurrent);
+
         configureBindings();
+        configureWarmup();
+        optimizeCanBus();
+    }
+
+    /**
+     * Trim drivetrain status signals to what is consumed
+     * Runs after every subsystem has set the signal rates it reads (odometry, motor health).
+     */
+    private void optimizeCanBus() {
+        if (!Constants.CanBus.OPTIMIZE_STATUS_SIGNALS) {
+            return;
+        }
+        CanBusOptimizer optimizer = new CanBusOptimizer(TunerConstants.kCANBus);
+        List<ParentDevice> devices = new ArrayList<>();
+        for (SwerveModule<TalonFX, TalonFX, CANcoder> module : drivetrain.getModules()) {
+            // Applied voltage is only read from the hoot log, by SysId and match review
+            optimizer.require(Constants.CanBus.LOGGED_SIGNAL_HZ,
+                module.getDriveMotor().getMotorVoltage(), module.getSteerMotor().getMotorVoltage());
+            devices.add(module.getDriveMotor());
+            devices.add(module.getSteerMotor());
+            devices.add(module.getEncoder());
+        }
+        devices.add(drivetrain.getPigeon2());
+        optimizer.apply(devices.toArray(new ParentDevice[0]));
     }
 
     private void configureBindings() {
 
         // Note that X is defined as forward according to WPILib convention,
         // and Y is defined as to the left according to WPILib convention.
+        LoopProfiler profiler = LoopProfiler.getInstance();
         drivetrain.setDefaultCommand(
             // Drivetrain will execute this command periodically
-            drivetrain.applyRequest(() ->
+            profiler.profile("TeleopDrive", drivetrain.applyRequest(() ->
                 drive.withVelocityX(-joystick.getLeftY() * MaxSpeed) // Drive forward with negative Y (forward)
                     .withVelocityY(-joystick.getLeftX() * MaxSpeed) // Drive left with negative X (left)
                     .withRotationalRate(-joystick.getRightX() * MaxAngularRate) // Drive counterclockwise with negative X (left)
-            )
+            ))
         );
 
         // Idle while the robot is disabled. This ensures the configured
@@ -86,7 +147,8 @@ public class RobotContainer {
 
         // Drive to AprilTag 1 at 20 inches using front camera on X button
         // To change: DriveToAprilTag.toTag(drivetrain, visionSubsystem, tagID, distanceInches)
-        joystick.x().whileTrue(DriveToAprilTag.toTag(drivetrain, visionSubsystem, 1, 20));
+        m_driveToTag = DriveToAprilTag.toTag(drivetrain, visionSubsystem, 1, 20);
+        joystick.x().whileTrue(profiler.profile("DriveToAprilTag", m_driveToTag));
 
         // Run SysId routines when holding back and X/Y
         // Note that each routine should be run exactly once in a single log
@@ -96,9 +158,59 @@ public class RobotContainer {
         // Reset the field-centric heading on left bumper press
         joystick.leftBumper().onTrue(drivetrain.runOnce(() -> drivetrain.seedFieldCentric()));
 
+        // Mark and dump the black box on start button press, e.g. right after something odd happened
+        joystick.start().onTrue(
+            Commands.runOnce(() -> m_blackBox.trigger(BlackBoxRecorder.Trigger.DRIVER_MARKER)).ignoringDisable(true)
+        );
+
         drivetrain.registerTelemetry(logger::telemeterize);
     }
 
+    private void configureWarmup() {
+        DryRunDrivetrain dryRun = m_warmup.getDrivetrain();
+
+        // Whatever auto is selected right now, rebuilt when the selection changes
+        m_warmup.addCommandPath("Autonomous", () -> m_autoSelector.getSelectedDryRun(dryRun));
+
+        // Tag alignment against a synthetic tag that drops out for half of every second,
+        // so both the vision tracking and odometry prediction paths are exercised
+        List<VisionTarget> fakeTargets = List.of(new VisionTarget(1, Constants.Vision.FRONT_CAMERA_NAME,
+            new Transform3d(1.5, 0.2, 0.0, new Rotation3d()), 0.0, 0.1));
+        DriveToAprilTag tagDryRun = m_driveToTag.createDryRun(dryRun,
+            () -> (long) (dryRun.getTime() * 2.0) % 2 == 0 ? fakeTargets : List.of());
+        m_warmup.addCommandPath("DriveToAprilTag", () -> tagDryRun);
+
+        // Vision measurement gating and weighting on synthetic estimates
+        m_warmup.addPath("Vision", VisionSubsystem.createWarmupRound());
+
+        // Trajectory sampling over every cached trajectory
+        TrajectorySample sample = new TrajectorySample();
+        m_warmup.addPath("Trajectory sampling", () -> {
+            for (String name : TrajectoryLibrary.getNames()) {
+                HolonomicTrajectory trajectory = m_trajectoryCache.get(name);
+                for (double t = 0.0; t <= trajectory.getTotalTimeSeconds(); t += Constants.Trajectory.SAMPLE_PERIOD_SECONDS) {
+                    trajectory.sample(t, sample);
+                }
+            }
+        });
+    }
+
+    /**
+     * Get the autonomous selector
+     * @return The auto selector
+     */
+    public AutoSelector getAutoSelector() {
+        return m_autoSelector;
+    }
+
+    /**
+     * Get the warm-up service to run while disabled
+     * @return The warm-up service
+     */
+    public WarmupService getWarmupService() {
+        return m_warmup;
+    }
+
     public Command getAutonomousCommand() {
         return m_autoSelector.getSelected();
     }
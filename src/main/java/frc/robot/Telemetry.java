@@ -1,41 +1,118 @@
 package frc.robot;
 
 import com.ctre.phoenix6.SignalLogger;
+import com.ctre.phoenix6.Utils;
 import com.ctre.phoenix6.swerve.SwerveDrivetrain.SwerveDriveState;
 
 import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.kinematics.ChassisSpeeds;
 import edu.wpi.first.math.kinematics.SwerveModulePosition;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
 import edu.wpi.first.networktables.DoubleArrayPublisher;
 import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.IntegerPublisher;
 import edu.wpi.first.networktables.NetworkTable;
 import edu.wpi.first.networktables.NetworkTableInstance;
 import edu.wpi.first.networktables.StringPublisher;
 import edu.wpi.first.networktables.StructArrayPublisher;
 import edu.wpi.first.networktables.StructPublisher;
+import edu.wpi.first.wpilibj.Notifier;
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.smartdashboard.Mechanism2d;
 import edu.wpi.first.wpilibj.smartdashboard.MechanismLigament2d;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj.util.Color;
 import edu.wpi.first.wpilibj.util.Color8Bit;
 
+import frc.robot.telemetry.BlackBoxRecorder;
+import frc.robot.telemetry.SwerveStateMirror;
+import frc.robot.telemetry.SwerveStateRing;
+import frc.robot.telemetry.SwerveStateSnapshot;
+import frc.robot.util.LoadShedder;
+import frc.robot.util.LoopProfiler;
+import frc.robot.util.TelemetryRegistry;
+
+/**
+ * Swerve drive telemetry, split into tiers so publishing can never delay odometry.
+ * <p>
+ * The odometry thread only copies each state into a preallocated ring. A log notifier
+ * drains the ring and writes every state to SignalLogger with its original timing.
+ * A dashboard notifier publishes the latest state to NetworkTables at a lower rate,
+ * and a low-priority thread updates the module Mechanism2d widgets; both read the
+ * drivetrain's lock-free state mirror.
+ */
 public class Telemetry {
     private final double MaxSpeed;
 
+    /* Odometry thread -> log tier handoff */
+    private final SwerveStateRing m_ring = new SwerveStateRing(Constants.Telemetry.RING_CAPACITY);
+    private final SwerveStateSnapshot m_logSnapshot = new SwerveStateSnapshot();
+    private final BlackBoxRecorder m_blackBox;
+
+    /* Newest state for the dashboard and mechanism tiers, one reader per thread */
+    private final SwerveStateMirror.Reader m_dashboardReader;
+    private final SwerveStateMirror.Reader m_mechanismReader;
+
+    /* Per-call time and allocation of each tier; the odometry thread handoff must not allocate */
+    private final LoopProfiler.Section m_telemeterizeProfile =
+        LoopProfiler.getInstance().section("Telemetry.telemeterize").setAllocationBudget(0);
+    private final LoopProfiler.Section m_logProfile = LoopProfiler.getInstance().section("Telemetry.drainToLog");
+    private final LoopProfiler.Section m_dashboardProfile = LoopProfiler.getInstance().section("Telemetry.publishDashboard");
+
+    /* Dashboard and mechanism tiers are shed when the main loop runs long; the log tier never is */
+    private final LoadShedder.WorkItem m_dashboardWork =
+        LoadShedder.getInstance().register("Telemetry.dashboard", LoadShedder.Priority.DASHBOARD);
+    private final LoadShedder.WorkItem m_mechanismWork =
+        LoadShedder.getInstance().register("Telemetry.mechanisms", LoadShedder.Priority.DASHBOARD);
+
+    /* Dashboard tier bandwidth; frames are only sent when the drivetrain state moved */
+    private final TelemetryRegistry.FrameChannel m_dashboardChannel = TelemetryRegistry.getInstance().frameChannel(
+        "DriveState", TelemetryRegistry.Tier.NORMAL, Constants.Telemetry.DASHBOARD_PERIOD_SECONDS,
+        Constants.Telemetry.DASHBOARD_FRAME_BYTES);
+    private final SwerveStateSnapshot m_publishedSnapshot = new SwerveStateSnapshot();
+
+    private final Notifier m_logNotifier = new Notifier(() -> {
+        m_logProfile.start();
+        drainToLog();
+        m_logProfile.stop();
+    });
+    private final Notifier m_dashboardNotifier = new Notifier(() -> {
+        if (!m_dashboardWork.shouldRun()) {
+            return;
+        }
+        m_dashboardProfile.start();
+        publishDashboard();
+        m_dashboardProfile.stop();
+    });
+    private final Thread m_mechanismThread = new Thread(this::runMechanisms, "TelemetryMechanisms");
+
     /**
      * Construct a telemetry object, with the specified max speed of the robot
-     * 
+     *
      * @param maxSpeed Maximum speed in meters per second
+     * @param stateMirror Drivetrain state mirror for the decimated tiers
+     * @param blackBox Flight recorder that the log tier also feeds
      */
-    public Telemetry(double maxSpeed) {
+    public Telemetry(double maxSpeed, SwerveStateMirror stateMirror, BlackBoxRecorder blackBox) {
         MaxSpeed = maxSpeed;
-        SignalLogger.start();
+        m_blackBox = blackBox;
+        m_dashboardReader = stateMirror.createReader("TelemetryDashboard");
+        m_mechanismReader = stateMirror.createReader("TelemetryMechanisms");
 
         /* Set up the module state Mechanism2d telemetry */
         for (int i = 0; i < 4; ++i) {
             SmartDashboard.putData("Module " + i, m_moduleMechanisms[i]);
         }
+        fieldTypePub.set("Field2d");
+
+        m_logNotifier.setName("TelemetryLog");
+        m_logNotifier.startPeriodic(Constants.Telemetry.LOG_PERIOD_SECONDS);
+        m_dashboardNotifier.setName("TelemetryDashboard");
+        m_dashboardNotifier.startPeriodic(Constants.Telemetry.DASHBOARD_PERIOD_SECONDS);
+        m_mechanismThread.setDaemon(true);
+        m_mechanismThread.setPriority(Thread.MIN_PRIORITY);
+        m_mechanismThread.start();
     }
 
     /* What to publish over networktables for telemetry */
@@ -50,6 +127,7 @@ public class Telemetry {
     private final StructArrayPublisher<SwerveModulePosition> driveModulePositions = driveStateTable.getStructArrayTopic("ModulePositions", SwerveModulePosition.struct).publish();
     private final DoublePublisher driveTimestamp = driveStateTable.getDoubleTopic("Timestamp").publish();
     private final DoublePublisher driveOdometryFrequency = driveStateTable.getDoubleTopic("OdometryFrequency").publish();
+    private final IntegerPublisher driveTelemetryDropped = driveStateTable.getIntegerTopic("TelemetryDropped").publish();
 
     /* Robot pose for field positioning */
     private final NetworkTable table = inst.getTable("Pose");
@@ -82,46 +160,139 @@ public class Telemetry {
             .append(new MechanismLigament2d("Direction", 0.1, 0, 0, new Color8Bit(Color.kWhite))),
     };
 
+    /* Log tier buffers */
     private final double[] m_poseArray = new double[3];
     private final double[] m_moduleStatesArray = new double[8];
     private final double[] m_moduleTargetsArray = new double[8];
 
-    /** Accept the swerve drive state and telemeterize it to SmartDashboard and SignalLogger. */
+    /* Dashboard tier buffers; module states and positions are mutable, so reuse them */
+    private final double[] m_fieldPoseArray = new double[3];
+    private final SwerveModuleState[] m_dashboardStates = newModuleStates();
+    private final SwerveModuleState[] m_dashboardTargets = newModuleStates();
+    private final SwerveModulePosition[] m_dashboardPositions = new SwerveModulePosition[] {
+        new SwerveModulePosition(), new SwerveModulePosition(), new SwerveModulePosition(), new SwerveModulePosition(),
+    };
+    private final ChassisSpeeds m_dashboardSpeeds = new ChassisSpeeds();
+
+    /**
+     * Accept the swerve drive state from the odometry thread.
+     * Only copies the state into a preallocated buffer; publishing happens on other threads.
+     */
     public void telemeterize(SwerveDriveState state) {
-        /* Telemeterize the swerve drive state */
-        drivePose.set(state.Pose);
-        driveSpeeds.set(state.Speeds);
-        driveModuleStates.set(state.ModuleStates);
-        driveModuleTargets.set(state.ModuleTargets);
-        driveModulePositions.set(state.ModulePositions);
-        driveTimestamp.set(state.Timestamp);
-        driveOdometryFrequency.set(1.0 / state.OdometryPeriod);
-
-        /* Also write to log file */
-        m_poseArray[0] = state.Pose.getX();
-        m_poseArray[1] = state.Pose.getY();
-        m_poseArray[2] = state.Pose.getRotation().getDegrees();
-        for (int i = 0; i < 4; ++i) {
-            m_moduleStatesArray[i*2 + 0] = state.ModuleStates[i].angle.getRadians();
-            m_moduleStatesArray[i*2 + 1] = state.ModuleStates[i].speedMetersPerSecond;
-            m_moduleTargetsArray[i*2 + 0] = state.ModuleTargets[i].angle.getRadians();
-            m_moduleTargetsArray[i*2 + 1] = state.ModuleTargets[i].speedMetersPerSecond;
+        m_telemeterizeProfile.start();
+        m_ring.offer(state);
+        m_telemeterizeProfile.stop();
+    }
+
+    /** Full-rate tier: write every queued state to SignalLogger with its original timestamp. */
+    private void drainToLog() {
+        while (m_ring.poll(m_logSnapshot)) {
+            double latency = Math.max(0.0, Utils.getCurrentTimeSeconds() - m_logSnapshot.timestamp);
+
+            m_poseArray[0] = m_logSnapshot.poseX;
+            m_poseArray[1] = m_logSnapshot.poseY;
+            m_poseArray[2] = Math.toDegrees(m_logSnapshot.poseHeadingRadians);
+            for (int i = 0; i < 4; ++i) {
+                m_moduleStatesArray[i*2 + 0] = m_logSnapshot.moduleAngleRadians[i];
+                m_moduleStatesArray[i*2 + 1] = m_logSnapshot.moduleSpeeds[i];
+                m_moduleTargetsArray[i*2 + 0] = m_logSnapshot.targetAngleRadians[i];
+                m_moduleTargetsArray[i*2 + 1] = m_logSnapshot.targetSpeeds[i];
+            }
+
+            SignalLogger.writeDoubleArray("DriveState/Pose", m_poseArray, "", latency);
+            SignalLogger.writeDoubleArray("DriveState/ModuleStates", m_moduleStatesArray, "", latency);
+            SignalLogger.writeDoubleArray("DriveState/ModuleTargets", m_moduleTargetsArray, "", latency);
+            SignalLogger.writeDouble("DriveState/OdometryPeriod", m_logSnapshot.odometryPeriod, "seconds", latency);
+            m_blackBox.recordDrive(m_logSnapshot);
+        }
+    }
+
+    /** Decimated tier: publish the newest state to NetworkTables. */
+    private void publishDashboard() {
+        SwerveStateSnapshot s = m_dashboardReader.read();
+        if (s.timestamp == 0.0) {
+            return; // nothing from odometry yet
+        }
+        if (!m_dashboardChannel.tryPublish(hasMoved(s), Timer.getFPGATimestamp())) {
+            return;
         }
+        m_publishedSnapshot.copyFrom(s);
 
-        SignalLogger.writeDoubleArray("DriveState/Pose", m_poseArray);
-        SignalLogger.writeDoubleArray("DriveState/ModuleStates", m_moduleStatesArray);
-        SignalLogger.writeDoubleArray("DriveState/ModuleTargets", m_moduleTargetsArray);
-        SignalLogger.writeDouble("DriveState/OdometryPeriod", state.OdometryPeriod, "seconds");
+        drivePose.set(s.pose);
+        m_dashboardSpeeds.vxMetersPerSecond = s.vx;
+        m_dashboardSpeeds.vyMetersPerSecond = s.vy;
+        m_dashboardSpeeds.omegaRadiansPerSecond = s.omega;
+        driveSpeeds.set(m_dashboardSpeeds);
+        for (int i = 0; i < 4; ++i) {
+            m_dashboardStates[i].speedMetersPerSecond = s.moduleSpeeds[i];
+            m_dashboardStates[i].angle = Rotation2d.fromRadians(s.moduleAngleRadians[i]);
+            m_dashboardTargets[i].speedMetersPerSecond = s.targetSpeeds[i];
+            m_dashboardTargets[i].angle = Rotation2d.fromRadians(s.targetAngleRadians[i]);
+            m_dashboardPositions[i].distanceMeters = s.moduleDistances[i];
+            m_dashboardPositions[i].angle = Rotation2d.fromRadians(s.modulePositionAngleRadians[i]);
+        }
+        driveModuleStates.set(m_dashboardStates);
+        driveModuleTargets.set(m_dashboardTargets);
+        driveModulePositions.set(m_dashboardPositions);
+        driveTimestamp.set(s.timestamp);
+        driveOdometryFrequency.set(1.0 / s.odometryPeriod);
+        driveTelemetryDropped.set(m_ring.getDroppedCount());
 
         /* Telemeterize the pose to a Field2d */
-        fieldTypePub.set("Field2d");
-        fieldPub.set(m_poseArray);
+        m_fieldPoseArray[0] = s.poseX;
+        m_fieldPoseArray[1] = s.poseY;
+        m_fieldPoseArray[2] = Math.toDegrees(s.poseHeadingRadians);
+        fieldPub.set(m_fieldPoseArray);
+    }
 
-        /* Telemeterize each module state to a Mechanism2d */
+    /** Whether the state differs from the last one published by more than the dashboard deadbands. */
+    private boolean hasMoved(SwerveStateSnapshot s) {
+        SwerveStateSnapshot last = m_publishedSnapshot;
+        double distance = Constants.Telemetry.DASHBOARD_DISTANCE_DEADBAND_METERS;
+        double angle = Constants.Telemetry.DASHBOARD_ANGLE_DEADBAND_RADIANS;
+        double speed = Constants.Telemetry.DASHBOARD_SPEED_DEADBAND_MPS;
+        if (Math.abs(s.poseX - last.poseX) > distance || Math.abs(s.poseY - last.poseY) > distance
+                || Math.abs(s.poseHeadingRadians - last.poseHeadingRadians) > angle
+                || Math.abs(s.vx - last.vx) > speed || Math.abs(s.vy - last.vy) > speed
+                || Math.abs(s.omega - last.omega) > angle) {
+            return true;
+        }
         for (int i = 0; i < 4; ++i) {
-            m_moduleSpeeds[i].setAngle(state.ModuleStates[i].angle);
-            m_moduleDirections[i].setAngle(state.ModuleStates[i].angle);
-            m_moduleSpeeds[i].setLength(state.ModuleStates[i].speedMetersPerSecond / (2 * MaxSpeed));
+            if (Math.abs(s.moduleAngleRadians[i] - last.moduleAngleRadians[i]) > angle
+                    || Math.abs(s.moduleSpeeds[i] - last.moduleSpeeds[i]) > speed
+                    || Math.abs(s.targetAngleRadians[i] - last.targetAngleRadians[i]) > angle
+                    || Math.abs(s.targetSpeeds[i] - last.targetSpeeds[i]) > speed
+                    || Math.abs(s.moduleDistances[i] - last.moduleDistances[i]) > distance) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Low-priority tier: update the module Mechanism2d widgets until the program exits. */
+    private void runMechanisms() {
+        long periodMillis = (long) (Constants.Telemetry.MECHANISM_PERIOD_SECONDS * 1000);
+        while (!Thread.currentThread().isInterrupted()) {
+            if (m_mechanismWork.shouldRun()) {
+                SwerveStateSnapshot s = m_mechanismReader.read();
+                for (int i = 0; i < 4; ++i) {
+                    double angleDegrees = Math.toDegrees(s.moduleAngleRadians[i]);
+                    m_moduleSpeeds[i].setAngle(angleDegrees);
+                    m_moduleDirections[i].setAngle(angleDegrees);
+                    m_moduleSpeeds[i].setLength(s.moduleSpeeds[i] / (2 * MaxSpeed));
+                }
+            }
+            try {
+                Thread.sleep(periodMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
         }
     }
+
+    private static SwerveModuleState[] newModuleStates() {
+        return new SwerveModuleState[] {
+            new SwerveModuleState(), new SwerveModuleState(), new SwerveModuleState(), new SwerveModuleState(),
+        };
+    }
 }
@@ -0,0 +1,291 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.Command;
+import frc.robot.commands.DryRunDrivetrain;
+import frc.robot.util.AsyncLog;
+import frc.robot.util.TelemetryRegistry;
+import frc.robot.util.TelemetryRegistry.Tier;
+
+/**
+ * Warms up the match-critical code paths while the robot is disabled
+ * The first run of a command pays for class loading, interpreted execution and JIT
+ * compilation, which shows up as loop overruns early in the match. Each registered path
+ * is run repeatedly from disabledPeriodic() against a dry-run drivetrain until its
+ * per-round time settles, then it is reported as steady and left alone.
+ */
+public class WarmupService {
+  private final DryRunDrivetrain m_drivetrain = new DryRunDrivetrain();
+  private final List<WarmupPath> m_paths = new ArrayList<>();
+  private boolean m_steadyReported = false;
+  private int m_nextPath = 0;
+  private final TelemetryRegistry.BooleanChannel m_steadyPub = TelemetryRegistry.getInstance().booleanChannel(
+      "Warmup/Steady", Tier.NORMAL, Constants.TelemetryBudget.DASHBOARD_INTERVAL_SECONDS);
+
+  /**
+   * Get the stand-in drivetrain dry-run commands should drive
+   * @return The dry-run drivetrain
+   */
+  public DryRunDrivetrain getDrivetrain() {
+    return m_drivetrain;
+  }
+
+  /**
+   * Register a path that runs a dry-run command
+   * The supplier is asked for the command every round; when it returns a different
+   * command (e.g. a new auto selection) that path starts warming up again
+   * @param name Name for reporting
+   * @param dryRunSupplier Supplies a dry-run command, or null if there is nothing to run
+   */
+  public void addCommandPath(String name, Supplier<Command> dryRunSupplier) {
+    m_paths.add(new CommandPath(name, dryRunSupplier));
+  }
+
+  /**
+   * Register a path that runs a plain block of code
+   * @param name Name for reporting
+   * @param round One round of work, e.g. sampling every trajectory once
+   */
+  public void addPath(String name, Runnable round) {
+    m_paths.add(new WarmupPath(name) {
+      @Override
+      void runRound() {
+        round.run();
+      }
+    });
+  }
+
+  /**
+   * Run warm-up rounds until the per-loop time budget is used up
+   * Call from disabledPeriodic()
+   */
+  public void run() {
+    long deadline = System.nanoTime() + (long) (Constants.Warmup.BUDGET_SECONDS * 1e9);
+    int idle = 0;
+    while (idle < m_paths.size() && System.nanoTime() < deadline) {
+      WarmupPath path = m_paths.get(m_nextPath);
+      m_nextPath = (m_nextPath + 1) % m_paths.size();
+
+      // Prepare even finished paths, so a changed auto selection restarts its warm-up
+      if (!path.refresh() || path.isDone()) {
+        idle++;
+        continue;
+      }
+      idle = 0;
+
+      long start = System.nanoTime();
+      path.runRound();
+      path.record(System.nanoTime() - start);
+    }
+
+    boolean steady = isSteady();
+    if (steady != m_steadyReported) {
+      m_steadyReported = steady;
+      if (steady) {
+        AsyncLog.log("Warm-up: all paths at steady state");
+      }
+    }
+
+    double now = Timer.getFPGATimestamp();
+    m_steadyPub.set(steady, now);
+    for (int i = 0; i < m_paths.size(); i++) {
+      m_paths.get(i).publish(now);
+    }
+  }
+
+  /**
+   * Check whether every path has reached steady-state timing
+   * Only reads what the last run() found. Paths with nothing to run (e.g. the
+   * "Do Nothing" auto) count as steady; paths that gave up without settling don't.
+   * @return True when warm-up is complete
+   */
+  public boolean isSteady() {
+    for (WarmupPath path : m_paths) {
+      if (!path.isSteady()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * A block of work that is repeated until its timing settles
+   */
+  private abstract static class WarmupPath {
+    private final String m_name;
+    private final SteadyStateDetector m_detector = new SteadyStateDetector();
+    private final TelemetryRegistry.DoubleChannel m_timePub;
+    private long m_firstRoundNanos = -1;
+    private boolean m_gaveUp = false;
+    // Until the first prepare() there is assumed to be work to do
+    private boolean m_hasWork = true;
+
+    WarmupPath(String name) {
+      m_name = name;
+      m_timePub = TelemetryRegistry.getInstance().doubleChannel("Warmup/" + name + " us", Tier.DEBUG,
+          Constants.TelemetryBudget.DEBUG_INTERVAL_SECONDS, 0.0);
+    }
+
+    /**
+     * Get ready for the next round
+     * @return False if there is nothing to run right now
+     */
+    boolean prepare() {
+      return true;
+    }
+
+    abstract void runRound();
+
+    /**
+     * Prepare for the next round and remember whether there is anything to run
+     * @return False if there is nothing to run right now
+     */
+    final boolean refresh() {
+      m_hasWork = prepare();
+      return m_hasWork;
+    }
+
+    /* No more rounds: settled, or gave up */
+    boolean isDone() {
+      return m_detector.isSteady() || m_gaveUp;
+    }
+
+    /* Settled, or nothing to run as of the last refresh */
+    boolean isSteady() {
+      return !m_hasWork || m_detector.isSteady();
+    }
+
+    /* Offer the settled round time; unsent until the path is steady */
+    void publish(double now) {
+      if (m_detector.isSteady()) {
+        m_timePub.set(m_detector.getSteadyMean() / 1e3, now);
+      }
+    }
+
+    void restart() {
+      m_detector.reset();
+      m_firstRoundNanos = -1;
+      m_gaveUp = false;
+    }
+
+    void record(long nanos) {
+      if (m_firstRoundNanos < 0) {
+        m_firstRoundNanos = nanos;
+      }
+      m_detector.addSample(nanos);
+
+      if (m_detector.isSteady()) {
+        AsyncLog.log(String.format("Warm-up: %s steady at %.1f us/round after %d rounds (first round %.1f us)",
+            m_name, m_detector.getSteadyMean() / 1e3, m_detector.getSampleCount(), m_firstRoundNanos / 1e3));
+      } else if (m_detector.getSampleCount() >= Constants.Warmup.MAX_ROUNDS) {
+        m_gaveUp = true;
+        DriverStation.reportWarning("Warm-up: " + m_name + " did not reach steady timing after "
+            + Constants.Warmup.MAX_ROUNDS + " rounds", false);
+      }
+    }
+  }
+
+  /**
+   * Runs a dry-run command for a fixed number of simulated loops per round
+   */
+  private final class CommandPath extends WarmupPath {
+    private final Supplier<Command> m_dryRunSupplier;
+    private Command m_command;
+
+    CommandPath(String name, Supplier<Command> dryRunSupplier) {
+      super(name);
+      m_dryRunSupplier = dryRunSupplier;
+    }
+
+    @Override
+    boolean prepare() {
+      Command command = m_dryRunSupplier.get();
+      if (command != m_command) {
+        m_command = command;
+        restart();
+        if (command != null) {
+          command.initialize();
+        }
+      }
+      return command != null;
+    }
+
+    @Override
+    void runRound() {
+      for (int i = 0; i < Constants.Warmup.LOOPS_PER_ROUND; i++) {
+        m_drivetrain.advance(Constants.Warmup.LOOP_PERIOD_SECONDS);
+        m_command.execute();
+        if (m_command.isFinished()) {
+          m_command.end(false);
+          m_command.initialize();
+        }
+      }
+    }
+  }
+
+  /**
+   * Detects when round times stop improving
+   * Rounds are averaged in fixed windows; timing is steady once several consecutive
+   * window means stay within a tolerance of the previous one
+   */
+  static final class SteadyStateDetector {
+    private double m_windowSum = 0.0;
+    private int m_windowCount = 0;
+    private double m_previousMean = -1.0;
+    private int m_stableWindows = 0;
+    private int m_sampleCount = 0;
+    private boolean m_steady = false;
+
+    void addSample(double value) {
+      m_sampleCount++;
+      m_windowSum += value;
+      m_windowCount++;
+      if (m_windowCount < Constants.Warmup.WINDOW_ROUNDS) {
+        return;
+      }
+
+      double mean = m_windowSum / m_windowCount;
+      m_windowSum = 0.0;
+      m_windowCount = 0;
+
+      if (m_previousMean > 0.0
+          && Math.abs(mean - m_previousMean) <= Constants.Warmup.STEADY_TOLERANCE * m_previousMean) {
+        m_stableWindows++;
+      } else {
+        m_stableWindows = 0;
+      }
+      m_previousMean = mean;
+      m_steady = m_stableWindows >= Constants.Warmup.STEADY_WINDOWS;
+    }
+
+    void reset() {
+      m_windowSum = 0.0;
+      m_windowCount = 0;
+      m_previousMean = -1.0;
+      m_stableWindows = 0;
+      m_sampleCount = 0;
+      m_steady = false;
+    }
+
+    boolean isSteady() {
+      return m_steady;
+    }
+
+    double getSteadyMean() {
+      return m_previousMean;
+    }
+
+    int getSampleCount() {
+      return m_sampleCount;
+    }
+  }
+}
@@ -0,0 +1,81 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.commands;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.wpilibj2.command.Command;
+
+/**
+ * An autonomous routine offered by the AutoSelector
+ * Holds a factory instead of a built command, so only the selected routine is ever
+ * constructed, plus metadata the drive team can check before the match
+ */
+public class AutoRoutine {
+  private final String m_name;
+  private final double m_expectedDurationSeconds;
+  private final Pose2d m_startingPose;
+  private final Supplier<Command> m_factory;
+
+  /**
+   * Creates a routine that can start anywhere on the field
+   * @param name Name shown in the dashboard chooser
+   * @param expectedDurationSeconds How long the routine should take
+   * @param factory Builds the routine's command; may be called off the main thread
+   */
+  public AutoRoutine(String name, double expectedDurationSeconds, Supplier<Command> factory) {
+    this(name, expectedDurationSeconds, null, factory);
+  }
+
+  /**
+   * Creates a routine with a required starting pose
+   * @param name Name shown in the dashboard chooser
+   * @param expectedDurationSeconds How long the routine should take
+   * @param startingPose Field pose the robot must be placed at, or null if it runs
+   *                     relative to wherever the robot starts
+   * @param factory Builds the routine's command; may be called off the main thread
+   */
+  public AutoRoutine(String name, double expectedDurationSeconds, Pose2d startingPose,
+                     Supplier<Command> factory) {
+    m_name = name;
+    m_expectedDurationSeconds = expectedDurationSeconds;
+    m_startingPose = startingPose;
+    m_factory = factory;
+  }
+
+  /**
+   * Get the routine name
+   * @return Name shown in the dashboard chooser
+   */
+  public String getName() {
+    return m_name;
+  }
+
+  /**
+   * Get how long the routine is expected to take
+   * @return Expected duration in seconds
+   */
+  public double getExpectedDurationSeconds() {
+    return m_expectedDurationSeconds;
+  }
+
+  /**
+   * Get the field pose the robot must start at
+   * @return The starting pose, or empty if the routine runs relative to the start pose
+   */
+  public Optional<Pose2d> getStartingPose() {
+    return Optional.ofNullable(m_startingPose);
+  }
+
+  /**
+   * Build a new instance of the routine's command
+   * @return The command
+   */
+  public Command build() {
+    return m_factory.get();
+  }
+}
@@ -4,50 +4,217 @@
 
 package frc.robot.commands;
 
-import edu.wpi.first.wpilibj.DataLogManager;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.networktables.BooleanPublisher;
+import edu.wpi.first.networktables.DoubleArrayPublisher;
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.StringPublisher;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.smartdashboard.SendableChooser;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.Commands;
+import frc.robot.Constants;
 import frc.robot.subsystems.CommandSwerveDrivetrain;
+import frc.robot.trajectory.HolonomicTrajectory;
+import frc.robot.trajectory.TrajectoryCache;
+import frc.robot.trajectory.TrajectoryLibrary;
+import frc.robot.util.AsyncLog;
+import frc.robot.util.TelemetryRegistry;
 
 /**
  * Autonomous selector for choosing between different auto routines
+ * Routines are registered as factories; only the routine selected on the dashboard is
+ * built, on a background thread while the robot is disabled
  */
 public class AutoSelector {
-  private final SendableChooser<Command> m_chooser = new SendableChooser<>();
+  private static final String kDoNothing = "Do Nothing";
+
+  private final SendableChooser<String> m_chooser = new SendableChooser<>();
+  private final Map<String, AutoRoutine> m_routines = new LinkedHashMap<>();
   private final CommandSwerveDrivetrain m_drivetrain;
 
-  public AutoSelector(CommandSwerveDrivetrain drivetrain) {
+  // Background build of the selected routine
+  private final ExecutorService m_builder = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "AutoPrebuild");
+    thread.setDaemon(true);
+    thread.setPriority(Thread.MIN_PRIORITY);
+    return thread;
+  });
+  private String m_prebuiltName = null;
+  private Future<Command> m_prebuilt = null;
+
+  // Dry-run copy of the prebuilt routine for warm-up
+  private Command m_dryRunSource = null;
+  private Command m_dryRun = null;
+
+  // Selected routine metadata, published together as one frame
+  private final TelemetryRegistry.FrameChannel m_metadataChannel = TelemetryRegistry.getInstance().frameChannel(
+      "Auto/Metadata", TelemetryRegistry.Tier.NORMAL, Constants.TelemetryBudget.DASHBOARD_INTERVAL_SECONDS,
+      Constants.Auto.METADATA_FRAME_BYTES);
+  private final StringPublisher m_selectedPub;
+  private final DoublePublisher m_durationPub;
+  private final BooleanPublisher m_fixedStartPub;
+  private final DoubleArrayPublisher m_startingPosePub;
+  private String m_publishedName = null;
+
+  /**
+   * Creates the selector with the standard routines
+   * @param drivetrain The drivetrain subsystem
+   * @param trajectories Trajectory cache loaded at startup
+   */
+  public AutoSelector(CommandSwerveDrivetrain drivetrain, TrajectoryCache trajectories) {
     m_drivetrain = drivetrain;
+    NetworkTable table = NetworkTableInstance.getDefault().getTable("SmartDashboard");
+    m_selectedPub = table.getStringTopic("Auto/Selected").publish();
+    m_durationPub = table.getDoubleTopic("Auto/Expected Duration").publish();
+    m_fixedStartPub = table.getBooleanTopic("Auto/Fixed Start").publish();
+    m_startingPosePub = table.getDoubleArrayTopic("Auto/Starting Pose").publish();
 
     // Add autonomous options
-    m_chooser.setDefaultOption("Do Nothing", Commands.print("No autonomous action"));
-    m_chooser.addOption("Drive Forward", new DriveForwardAuto(m_drivetrain));
-    m_chooser.addOption("Drive Forward (Short)", new DriveForwardAuto(m_drivetrain, 1.0, 1.0));
-    m_chooser.addOption("Drive Forward (Long)", new DriveForwardAuto(m_drivetrain, 1.5, 3.0));
+    addRoutine(new AutoRoutine(kDoNothing, 0.0, () -> Commands.print("No autonomous action")), true);
+    addTrajectoryRoutine("Drive Forward", trajectories, TrajectoryLibrary.DRIVE_FORWARD);
+    addTrajectoryRoutine("Drive Forward (Short)", trajectories, TrajectoryLibrary.DRIVE_FORWARD_SHORT);
+    addTrajectoryRoutine("Drive Forward (Long)", trajectories, TrajectoryLibrary.DRIVE_FORWARD_LONG);
 
     // Publish to SmartDashboard
     SmartDashboard.putData("Auto Selector", m_chooser);
 
-    DataLogManager.log("AutoSelector initialized with " + getAvailableOptions() + " options");
+    AsyncLog.log("AutoSelector initialized with " + getAvailableOptions() + " options");
+  }
+
+  /**
+   * Register an autonomous routine
+   * @param routine The routine; its name must be unique
+   * @param isDefault True to make it the default selection
+   */
+  public void addRoutine(AutoRoutine routine, boolean isDefault) {
+    if (m_routines.putIfAbsent(routine.getName(), routine) != null) {
+      throw new IllegalArgumentException("Duplicate auto routine: " + routine.getName());
+    }
+    if (isDefault) {
+      m_chooser.setDefaultOption(routine.getName(), routine.getName());
+    } else {
+      m_chooser.addOption(routine.getName(), routine.getName());
+    }
+  }
+
+  private void addTrajectoryRoutine(String name, TrajectoryCache trajectories, String trajectoryName) {
+    HolonomicTrajectory trajectory = trajectories.get(trajectoryName);
+    addRoutine(new AutoRoutine(name, trajectory.getTotalTimeSeconds(),
+        () -> new DriveForwardAuto(m_drivetrain, trajectory)), false);
+  }
+
+  /**
+   * Start building the selected routine in the background if it changed
+   * Call from disabledPeriodic()
+   */
+  public void prebuildSelected() {
+    String name = getSelectedName();
+    publishMetadata(name, Timer.getFPGATimestamp());
+    if (name.equals(m_prebuiltName)) {
+      return;
+    }
+
+    AutoRoutine routine = m_routines.get(name);
+    m_prebuiltName = name;
+    m_prebuilt = m_builder.submit(routine::build);
   }
 
   /**
    * Get the selected autonomous command
+   * Uses the prebuilt command when it matches the selection, otherwise builds it now
    * @return The selected autonomous command
    */
   public Command getSelected() {
-    Command selected = m_chooser.getSelected();
-    DataLogManager.log("Selected autonomous: " + m_chooser.getSelected().getName());
+    String name = getSelectedName();
+    Command selected = null;
+
+    if (name.equals(m_prebuiltName)) {
+      try {
+        selected = m_prebuilt.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (ExecutionException e) {
+        DriverStation.reportError("Failed to prebuild auto " + name + ": " + e.getCause(), false);
+      }
+    }
+    if (selected == null) {
+      DriverStation.reportWarning("Auto " + name + " was not prebuilt, building it now", false);
+      selected = m_routines.get(name).build();
+    }
+
+    AsyncLog.log("Selected autonomous: " + name);
     return selected;
   }
 
+  /**
+   * Get a dry-run copy of the selected routine for warm-up
+   * Only available once the routine has been prebuilt
+   * @param drivetrain Stand-in drivetrain the copy drives
+   * @return The dry-run command, or null if the selected routine is not ready or does not drive
+   */
+  public Command getSelectedDryRun(DryRunDrivetrain drivetrain) {
+    if (m_prebuilt == null || !m_prebuilt.isDone() || !getSelectedName().equals(m_prebuiltName)) {
+      return null;
+    }
+
+    Command selected;
+    try {
+      selected = m_prebuilt.get();
+    } catch (InterruptedException | ExecutionException e) {
+      return null;
+    }
+    if (selected != m_dryRunSource) {
+      m_dryRunSource = selected;
+      m_dryRun = selected instanceof FollowTrajectory
+          ? ((FollowTrajectory) selected).createDryRun(drivetrain)
+          : null;
+    }
+    return m_dryRun;
+  }
+
+  /**
+   * Get the routine currently selected on the dashboard
+   * @return The selected routine
+   */
+  public AutoRoutine getSelectedRoutine() {
+    return m_routines.get(getSelectedName());
+  }
+
+  private String getSelectedName() {
+    String name = m_chooser.getSelected();
+    return name != null && m_routines.containsKey(name) ? name : kDoNothing;
+  }
+
+  private void publishMetadata(String name, double now) {
+    if (!m_metadataChannel.tryPublish(!name.equals(m_publishedName), now)) {
+      return;
+    }
+    AutoRoutine routine = m_routines.get(name);
+    m_selectedPub.set(routine.getName());
+    m_durationPub.set(routine.getExpectedDurationSeconds());
+    m_fixedStartPub.set(routine.getStartingPose().isPresent());
+    Pose2d start = routine.getStartingPose().orElse(new Pose2d());
+    m_startingPosePub.set(new double[] {start.getX(), start.getY(), start.getRotation().getDegrees()});
+    m_publishedName = name;
+  }
+
   /**
    * Get the number of available auto options
    * @return Number of options
    */
   private int getAvailableOptions() {
-    return 4; // Update if more options are added
+    return m_routines.size();
   }
 }
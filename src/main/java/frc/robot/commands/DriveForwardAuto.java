@@ -4,44 +4,27 @@
 
 package frc.robot.commands;
 
-import static edu.wpi.first.units.Units.*;
-
-import com.ctre.phoenix6.swerve.SwerveModule.DriveRequestType;
-import com.ctre.phoenix6.swerve.SwerveRequest;
-
-import edu.wpi.first.wpilibj.DataLogManager;
-import edu.wpi.first.wpilibj2.command.Command;
 import frc.robot.Constants;
 import frc.robot.subsystems.CommandSwerveDrivetrain;
+import frc.robot.trajectory.HolonomicTrajectory;
+import frc.robot.trajectory.TrajectoryLibrary;
 
 /**
- * Simple autonomous command that drives forward for a set duration
+ * Simple autonomous command that drives straight forward (or backward)
+ * Follows a profiled trajectory with pose feedback, so the distance covered does not
+ * depend on battery voltage or carpet
  */
-public class DriveForwardAuto extends Command {
-  private final CommandSwerveDrivetrain m_drivetrain;
-  private final SwerveRequest.FieldCentric m_driveRequest;
-  private final double m_speed;
-  private final double m_duration;
-  private double m_startTime;
-
+public class DriveForwardAuto extends FollowTrajectory {
   /**
    * Creates a new DriveForwardAuto command
+   * The robot covers speed * duration meters, cruising at the given speed
    *
    * @param drivetrain The drivetrain subsystem
-   * @param speed Speed in meters per second
-   * @param duration Duration in seconds
+   * @param speed Cruise speed in meters per second (negative drives backward)
+   * @param duration Time at cruise speed in seconds, used to size the distance
    */
   public DriveForwardAuto(CommandSwerveDrivetrain drivetrain, double speed, double duration) {
-    m_drivetrain = drivetrain;
-    m_speed = speed;
-    m_duration = duration;
-
-    m_driveRequest = new SwerveRequest.FieldCentric()
-        .withDriveRequestType(DriveRequestType.OpenLoopVoltage)
-        .withDeadband(0.0)
-        .withRotationalDeadband(0.0);
-
-    addRequirements(drivetrain);
+    super(drivetrain, createTrajectory(speed * duration, Math.abs(speed)), true);
   }
 
   /**
@@ -51,40 +34,25 @@ public class DriveForwardAuto extends Command {
     this(drivetrain, Constants.Auto.DRIVE_FORWARD_SPEED, Constants.Auto.DRIVE_FORWARD_DURATION);
   }
 
-  @Override
-  public void initialize() {
-    m_startTime = edu.wpi.first.wpilibj.Timer.getFPGATimestamp();
-    DataLogManager.log("DriveForwardAuto started: " + m_speed + " m/s for " + m_duration + " seconds");
-  }
-
-  @Override
-  public void execute() {
-    m_drivetrain.setControl(
-        m_driveRequest
-            .withVelocityX(m_speed)
-            .withVelocityY(0.0)
-            .withRotationalRate(0.0)
-    );
-  }
-
-  @Override
-  public void end(boolean interrupted) {
-    m_drivetrain.setControl(
-        m_driveRequest
-            .withVelocityX(0.0)
-            .withVelocityY(0.0)
-            .withRotationalRate(0.0)
-    );
-
-    if (interrupted) {
-      DataLogManager.log("DriveForwardAuto interrupted");
-    } else {
-      DataLogManager.log("DriveForwardAuto completed");
-    }
+  /**
+   * Creates a DriveForwardAuto from a precomputed trajectory
+   * Used with TrajectoryCache so no trajectory is generated on the robot
+   *
+   * @param drivetrain The drivetrain subsystem
+   * @param trajectory Straight robot-relative trajectory, e.g. from TrajectoryLibrary
+   */
+  public DriveForwardAuto(CommandSwerveDrivetrain drivetrain, HolonomicTrajectory trajectory) {
+    super(drivetrain, trajectory, true);
   }
 
-  @Override
-  public boolean isFinished() {
-    return (edu.wpi.first.wpilibj.Timer.getFPGATimestamp() - m_startTime) >= m_duration;
+  /**
+   * Build a straight robot-relative trajectory
+   * @param distance Distance to drive in meters (negative drives backward)
+   * @param cruiseSpeed Maximum speed in meters per second
+   * @return The trajectory, starting at the origin facing +X
+   */
+  static HolonomicTrajectory createTrajectory(double distance, double cruiseSpeed) {
+    return TrajectoryLibrary.straightForward(
+        String.format("DriveForward_%.2fm", distance), distance, cruiseSpeed);
   }
 }
@@ -6,55 +6,75 @@ package frc.robot.commands;
 
 import static edu.wpi.first.units.Units.*;
 
+import java.util.List;
 import java.util.Optional;
-
-import org.photonvision.targeting.PhotonPipelineResult;
-import org.photonvision.targeting.PhotonTrackedTarget;
+import java.util.function.Consumer;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
 
 import com.ctre.phoenix6.swerve.SwerveModule.DriveRequestType;
 import com.ctre.phoenix6.swerve.SwerveRequest;
 
 import edu.wpi.first.math.controller.PIDController;
-import edu.wpi.first.wpilibj.DataLogManager;
-import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.Subsystem;
 import frc.robot.Constants;
 import frc.robot.subsystems.CommandSwerveDrivetrain;
+import frc.robot.subsystems.TargetTracker;
 import frc.robot.subsystems.VisionSubsystem;
+import frc.robot.subsystems.VisionTarget;
+import frc.robot.util.AsyncLog;
 
 /**
- * Command to autonomously drive to an AprilTag detected by the front camera
- * Uses vision feedback to center the robot on the tag and maintain specified distance
- * Can target a specific tag ID or the nearest visible tag
+ * Command to autonomously drive to an AprilTag detected by any camera
+ * Uses vision feedback to turn the front camera onto the tag, center on it and maintain specified distance
+ * Can target a specific tag ID or the lowest cost visible tag
+ * A tag first seen by the rear camera stays tracked while the robot turns it into the front camera's view
  */
 public class DriveToAprilTag extends Command {
-  private final CommandSwerveDrivetrain m_drivetrain;
-  private final VisionSubsystem m_visionSubsystem;
+  private final Supplier<List<VisionTarget>> m_targetSupplier;
+  private final Supplier<Pose2d> m_poseSupplier;
+  private final Consumer<SwerveRequest> m_output;
+  private final DoubleSupplier m_clock;
+  private final boolean m_logging;
   private final double m_targetDistance;
-  private final int m_targetTagId; // -1 = nearest tag, otherwise specific ID
+  private final int m_targetTagId; // -1 = lowest cost tag, otherwise specific ID
 
   private final PIDController m_forwardController;
   private final PIDController m_strafeController;
   private final PIDController m_rotationController;
 
   private final SwerveRequest.RobotCentric m_driveRequest;
-  private PhotonTrackedTarget m_currentTarget;
-  private PhotonPipelineResult m_lastResult;
+  private final TargetTracker m_tracker;
+  private VisionTarget m_currentTarget;
 
   /**
    * Creates a DriveToAprilTag command with all parameters
    * @param drivetrain The swerve drivetrain
    * @param visionSubsystem The vision subsystem for AprilTag detection
-   * @param targetTagId The AprilTag ID to target (-1 for nearest tag)
+   * @param targetTagId The AprilTag ID to target (-1 for lowest cost tag)
    * @param targetDistanceMeters Distance to maintain from tag (meters)
    */
   public DriveToAprilTag(CommandSwerveDrivetrain drivetrain, VisionSubsystem visionSubsystem,
                          int targetTagId, double targetDistanceMeters) {
-    m_drivetrain = drivetrain;
-    m_visionSubsystem = visionSubsystem;
+    this(visionSubsystem::getVisibleTargets, drivetrain::getPose, drivetrain::setControl,
+        Timer::getFPGATimestamp, true, targetTagId, targetDistanceMeters, drivetrain);
+  }
+
+  private DriveToAprilTag(Supplier<List<VisionTarget>> targetSupplier, Supplier<Pose2d> poseSupplier,
+                          Consumer<SwerveRequest> output, DoubleSupplier clock, boolean logging,
+                          int targetTagId, double targetDistanceMeters, Subsystem... requirements) {
+    m_targetSupplier = targetSupplier;
+    m_poseSupplier = poseSupplier;
+    m_output = output;
+    m_clock = clock;
+    m_logging = logging;
     m_targetTagId = targetTagId;
     m_targetDistance = targetDistanceMeters;
     m_currentTarget = null;
+    m_tracker = new TargetTracker(targetTagId, targetDistanceMeters);
 
     // PID controllers - using robot-centric control based on vision angles/distances
     // Forward/backward to achieve target distance
@@ -63,7 +83,7 @@ public class DriveToAprilTag extends Command {
         Constants.Auto.APRILTAG_FORWARD_PID[1],
         Constants.Auto.APRILTAG_FORWARD_PID[2]
     );
-    // Left/right to center on tag (yaw angle)
+    // Left/right to center on tag (bearing angle)
     m_strafeController = new PIDController(
         Constants.Auto.APRILTAG_STRAFE_PID[0],
         Constants.Auto.APRILTAG_STRAFE_PID[1],
@@ -89,11 +109,11 @@ public class DriveToAprilTag extends Command {
         .withDeadband(0.0)
         .withRotationalDeadband(0.0);
 
-    addRequirements(drivetrain);
+    addRequirements(requirements);
   }
 
   /**
-   * Creates a DriveToAprilTag command targeting nearest tag with default distance
+   * Creates a DriveToAprilTag command targeting the lowest cost tag with default distance
    * @param drivetrain The swerve drivetrain
    * @param visionSubsystem The vision subsystem
    */
@@ -129,13 +149,40 @@ public class DriveToAprilTag extends Command {
                                distanceInches * 0.0254); // Convert inches to meters
   }
 
+  /**
+   * Create a copy of this command that drives a dry-run drivetrain instead of the robot
+   * The copy requires no subsystems, does not log and runs on the dry-run clock
+   * @param drivetrain Stand-in drivetrain that discards every request
+   * @param targetSupplier Supplies the robot-relative targets to track
+   * @return The dry-run command
+   */
+  public DriveToAprilTag createDryRun(DryRunDrivetrain drivetrain, Supplier<List<VisionTarget>> targetSupplier) {
+    return dryRun(drivetrain, targetSupplier, m_targetTagId, m_targetDistance);
+  }
+
+  /**
+   * Create a dry-run command without a robot drivetrain or vision subsystem, e.g. for benchmarks
+   * @param drivetrain Stand-in drivetrain that discards every request
+   * @param targetSupplier Supplies the robot-relative targets to track
+   * @param targetTagId The AprilTag ID to target (-1 for lowest cost tag)
+   * @param targetDistanceMeters Distance to maintain from tag (meters)
+   * @return The dry-run command
+   */
+  static DriveToAprilTag dryRun(DryRunDrivetrain drivetrain, Supplier<List<VisionTarget>> targetSupplier,
+                                int targetTagId, double targetDistanceMeters) {
+    return new DriveToAprilTag(targetSupplier, drivetrain::getPose, drivetrain::setControl,
+        drivetrain::getTime, false, targetTagId, targetDistanceMeters);
+  }
+
   @Override
   public void initialize() {
-    if (m_targetTagId == -1) {
-      DataLogManager.log("DriveToAprilTag started: Targeting nearest tag at " + m_targetDistance + "m using vision");
-    } else {
-      DataLogManager.log("DriveToAprilTag started: Targeting tag " + m_targetTagId +
-                         " at " + m_targetDistance + "m using vision");
+    if (m_logging) {
+      if (m_targetTagId == -1) {
+        AsyncLog.log("DriveToAprilTag started: Targeting best visible tag at " + m_targetDistance + "m using vision");
+      } else {
+        AsyncLog.log("DriveToAprilTag started: Targeting tag " + m_targetTagId +
+                           " at " + m_targetDistance + "m using vision");
+      }
     }
 
     // Reset PID controllers
@@ -144,71 +191,47 @@ public class DriveToAprilTag extends Command {
     m_rotationController.reset();
 
     m_currentTarget = null;
-    m_lastResult = null;
+    m_tracker.reset();
   }
 
   @Override
   public void execute() {
-    // Get the latest camera result (cached to avoid creating new objects)
-    m_lastResult = m_visionSubsystem.getFrontCameraResult();
+    // Find the target (either specific ID or lowest cost) across all cameras
+    Optional<VisionTarget> target = m_tracker.update(
+        m_targetSupplier.get(),
+        m_poseSupplier.get(),
+        m_clock.getAsDouble()
+    );
 
-    if (!m_lastResult.hasTargets()) {
-      // No target visible, stop
-      m_drivetrain.setControl(m_driveRequest.withVelocityX(0).withVelocityY(0).withRotationalRate(0));
+    if (target.isEmpty()) {
+      // No target visible or predictable, stop
+      m_output.accept(m_driveRequest.withVelocityX(0).withVelocityY(0).withRotationalRate(0));
       m_currentTarget = null;
       return;
     }
 
-    // Find the target (either specific ID or nearest)
-    PhotonTrackedTarget target = null;
+    m_currentTarget = target.get();
 
-    if (m_targetTagId == -1) {
-      // Target nearest tag (best target)
-      target = m_lastResult.getBestTarget();
-    } else {
-      // Target specific tag by ID
-      for (PhotonTrackedTarget t : m_lastResult.getTargets()) {
-        if (t.getFiducialId() == m_targetTagId) {
-          target = t;
-          break;
-        }
-      }
-    }
+    // Target is in robot frame regardless of which camera saw it
+    // Bearing: horizontal angle to target (positive = target to the left)
+    double bearing = Math.toDegrees(m_currentTarget.getBearingRadians());
 
-    if (target == null) {
-      // Specific tag not found, stop
-      m_drivetrain.setControl(m_driveRequest.withVelocityX(0).withVelocityY(0).withRotationalRate(0));
-      m_currentTarget = null;
-      return;
-    }
+    // Distance is held from the front camera, which is the one that ends up facing the tag
+    double distance = m_currentTarget.getDistance() - Constants.Vision.FRONT_CAMERA_X_OFFSET;
 
-    m_currentTarget = target;
-
-    // Get target data from PhotonVision
-    // Yaw: horizontal angle to target (positive = target to the right)
-    // Pitch: vertical angle to target
-    // Area: percentage of image occupied by target
-    double yaw = m_currentTarget.getYaw();
-    double pitch = m_currentTarget.getPitch();
-
-    // Estimate distance using camera pitch and known camera height
-    // This is approximate - works best when camera height and tag height are known
-    // For now, use the target's best camera-to-target transform if available
-    double estimatedDistance = 0.0;
-    if (m_currentTarget.getBestCameraToTarget().getTranslation().getNorm() > 0) {
-      estimatedDistance = m_currentTarget.getBestCameraToTarget().getTranslation().getNorm();
-    }
+    // Only translate once the tag is in front of the robot; a tag seen by the rear
+    // camera is first turned toward the front camera
+    double facing = Math.max(0.0, Math.cos(m_currentTarget.getBearingRadians()));
 
     // Calculate control outputs
     // Forward speed: close the distance to target distance
-    double distanceError = estimatedDistance - m_targetDistance;
-    double forwardSpeed = m_forwardController.calculate(0, -distanceError);
+    double forwardSpeed = -m_forwardController.calculate(distance, m_targetDistance) * facing;
 
-    // Strafe speed: center on target (eliminate yaw)
-    double strafeSpeed = m_strafeController.calculate(0, -yaw);
+    // Strafe speed: center on target (eliminate bearing)
+    double strafeSpeed = -m_strafeController.calculate(bearing, 0) * facing;
 
-    // Rotation speed: face the tag (yaw should be zero when centered)
-    double rotSpeed = m_rotationController.calculate(0, -yaw);
+    // Rotation speed: face the tag (bearing should be zero when centered)
+    double rotSpeed = -m_rotationController.calculate(bearing, 0);
 
     // Limit speeds
     forwardSpeed = Math.max(-Constants.Auto.APRILTAG_MAX_SPEED, Math.min(Constants.Auto.APRILTAG_MAX_SPEED, forwardSpeed));
@@ -216,7 +239,7 @@ public class DriveToAprilTag extends Command {
     rotSpeed = Math.max(-Constants.Auto.APRILTAG_MAX_ROTATION_SPEED, Math.min(Constants.Auto.APRILTAG_MAX_ROTATION_SPEED, rotSpeed));
 
     // Apply control to drivetrain (robot-centric)
-    m_drivetrain.setControl(
+    m_output.accept(
         m_driveRequest
             .withVelocityX(forwardSpeed)
             .withVelocityY(strafeSpeed)
@@ -227,12 +250,15 @@ public class DriveToAprilTag extends Command {
   @Override
   public void end(boolean interrupted) {
     // Stop the robot
-    m_drivetrain.setControl(m_driveRequest.withVelocityX(0).withVelocityY(0).withRotationalRate(0));
+    m_output.accept(m_driveRequest.withVelocityX(0).withVelocityY(0).withRotationalRate(0));
 
+    if (!m_logging) {
+      return;
+    }
     if (interrupted) {
-      DataLogManager.log("DriveToAprilTag interrupted");
+      AsyncLog.log("DriveToAprilTag interrupted");
     } else {
-      DataLogManager.log("DriveToAprilTag completed - arrived at target");
+      AsyncLog.log("DriveToAprilTag completed - arrived at target");
     }
   }
 
@@ -0,0 +1,60 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.commands;
+
+import com.ctre.phoenix6.swerve.SwerveRequest;
+
+import edu.wpi.first.math.geometry.Pose2d;
+
+/**
+ * Stand-in drivetrain for running drive commands without moving the robot
+ * Requests are counted and discarded, the pose stays put and time only advances
+ * when told to, so a dry-run command behaves the same on every pass
+ */
+public class DryRunDrivetrain {
+  private final Pose2d m_pose = new Pose2d();
+  private double m_time = 0.0;
+  private long m_requestCount = 0;
+
+  /**
+   * Get the simulated robot pose
+   * @return Field-relative pose (always the origin)
+   */
+  public Pose2d getPose() {
+    return m_pose;
+  }
+
+  /**
+   * Accept a swerve request and discard it
+   * @param request The request a command would have applied
+   */
+  public void setControl(SwerveRequest request) {
+    m_requestCount++;
+  }
+
+  /**
+   * Get the simulated clock
+   * @return Simulated time in seconds
+   */
+  public double getTime() {
+    return m_time;
+  }
+
+  /**
+   * Advance the simulated clock
+   * @param seconds Time step in seconds
+   */
+  public void advance(double seconds) {
+    m_time += seconds;
+  }
+
+  /**
+   * Get how many requests dry-run commands have sent
+   * @return Number of discarded requests
+   */
+  public long getRequestCount() {
+    return m_requestCount;
+  }
+}
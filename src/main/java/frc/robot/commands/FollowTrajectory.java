@@ -0,0 +1,267 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.commands;
+
+import java.util.function.Consumer;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+import com.ctre.phoenix6.swerve.SwerveModule.DriveRequestType;
+import com.ctre.phoenix6.swerve.SwerveRequest;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.Subsystem;
+import frc.robot.Constants;
+import frc.robot.generated.TunerConstants;
+import frc.robot.subsystems.CommandSwerveDrivetrain;
+import frc.robot.trajectory.HolonomicTrajectory;
+import frc.robot.trajectory.TrajectorySample;
+import frc.robot.util.AsyncLog;
+
+/**
+ * Follows a time-parameterized holonomic trajectory with the swerve drivetrain
+ * Combines the trajectory velocity feedforward with proportional pose feedback and
+ * sends per-module force feedforwards from the trajectory acceleration
+ * The execute loop does not allocate
+ */
+public class FollowTrajectory extends Command {
+  private static final int kModuleCount = 4;
+
+  private final HolonomicTrajectory m_trajectory;
+  private final boolean m_relativeToStart;
+  private final Supplier<Pose2d> m_poseSupplier;
+  private final Consumer<SwerveRequest> m_output;
+  private final DoubleSupplier m_clock;
+  private final boolean m_logging;
+
+  private final SwerveRequest.ApplyRobotSpeeds m_request;
+  private final ChassisSpeeds m_speeds = new ChassisSpeeds();
+  private final double[] m_forceX = new double[kModuleCount];
+  private final double[] m_forceY = new double[kModuleCount];
+  private final double[] m_moduleX = new double[kModuleCount];
+  private final double[] m_moduleY = new double[kModuleCount];
+  private final double m_moduleRadiusSquaredSum;
+
+  private final TrajectorySample m_sample = new TrajectorySample();
+  private double m_startTime;
+
+  // Transform from the trajectory frame to the field, captured at initialize()
+  private double m_originX;
+  private double m_originY;
+  private double m_originHeading;
+  private double m_originCos = 1.0;
+  private double m_originSin = 0.0;
+
+  // Latest tracking error, kept for isFinished() and telemetry
+  private double m_positionError;
+  private double m_rotationError;
+
+  /**
+   * Creates a FollowTrajectory command for the drivetrain
+   * @param drivetrain The swerve drivetrain
+   * @param trajectory The trajectory to follow
+   * @param relativeToStart True to start the trajectory from wherever the robot is when the
+   *                        command starts; false if the trajectory is in field coordinates
+   */
+  public FollowTrajectory(CommandSwerveDrivetrain drivetrain, HolonomicTrajectory trajectory,
+                          boolean relativeToStart) {
+    this(trajectory, relativeToStart, drivetrain::getPose, drivetrain::setControl, drivetrain);
+  }
+
+  /**
+   * Creates a FollowTrajectory command with an explicit pose source and request sink
+   * @param trajectory The trajectory to follow
+   * @param relativeToStart True to start the trajectory from the pose when the command starts
+   * @param poseSupplier Supplies the current field-relative robot pose
+   * @param output Receives the swerve request to apply every loop
+   * @param requirements Subsystems this command requires
+   */
+  public FollowTrajectory(HolonomicTrajectory trajectory, boolean relativeToStart,
+                          Supplier<Pose2d> poseSupplier, Consumer<SwerveRequest> output,
+                          Subsystem... requirements) {
+    this(trajectory, relativeToStart, poseSupplier, output, Timer::getFPGATimestamp, true, requirements);
+  }
+
+  private FollowTrajectory(HolonomicTrajectory trajectory, boolean relativeToStart,
+                           Supplier<Pose2d> poseSupplier, Consumer<SwerveRequest> output,
+                           DoubleSupplier clock, boolean logging, Subsystem... requirements) {
+    m_trajectory = trajectory;
+    m_relativeToStart = relativeToStart;
+    m_poseSupplier = poseSupplier;
+    m_output = output;
+    m_clock = clock;
+    m_logging = logging;
+
+    // Module locations in the same order as TunerConstants.createDrivetrain()
+    m_moduleX[0] = TunerConstants.FrontLeft.LocationX;
+    m_moduleY[0] = TunerConstants.FrontLeft.LocationY;
+    m_moduleX[1] = TunerConstants.FrontRight.LocationX;
+    m_moduleY[1] = TunerConstants.FrontRight.LocationY;
+    m_moduleX[2] = TunerConstants.BackLeft.LocationX;
+    m_moduleY[2] = TunerConstants.BackLeft.LocationY;
+    m_moduleX[3] = TunerConstants.BackRight.LocationX;
+    m_moduleY[3] = TunerConstants.BackRight.LocationY;
+
+    double radiusSquaredSum = 0.0;
+    for (int i = 0; i < kModuleCount; i++) {
+      radiusSquaredSum += m_moduleX[i] * m_moduleX[i] + m_moduleY[i] * m_moduleY[i];
+    }
+    m_moduleRadiusSquaredSum = radiusSquaredSum;
+
+    m_request = new SwerveRequest.ApplyRobotSpeeds()
+        .withDriveRequestType(DriveRequestType.Velocity)
+        .withSpeeds(m_speeds)
+        .withWheelForceFeedforwardsX(m_forceX)
+        .withWheelForceFeedforwardsY(m_forceY);
+
+    setName("FollowTrajectory(" + trajectory.getName() + ")");
+    addRequirements(requirements);
+  }
+
+  @Override
+  public void initialize() {
+    if (m_relativeToStart) {
+      Pose2d start = m_poseSupplier.get();
+      m_trajectory.getInitialState(m_sample);
+
+      // Choose the origin so the trajectory's first point lands on the current pose
+      m_originHeading = start.getRotation().getRadians() - m_sample.heading;
+      m_originCos = Math.cos(m_originHeading);
+      m_originSin = Math.sin(m_originHeading);
+      m_originX = start.getX() - (m_originCos * m_sample.x - m_originSin * m_sample.y);
+      m_originY = start.getY() - (m_originSin * m_sample.x + m_originCos * m_sample.y);
+    } else {
+      m_originX = 0.0;
+      m_originY = 0.0;
+      m_originHeading = 0.0;
+      m_originCos = 1.0;
+      m_originSin = 0.0;
+    }
+
+    m_positionError = Double.POSITIVE_INFINITY;
+    m_rotationError = Double.POSITIVE_INFINITY;
+    m_startTime = m_clock.getAsDouble();
+
+    if (m_logging) {
+      AsyncLog.log(String.format("FollowTrajectory started: %s (%.2f s)",
+          m_trajectory.getName(), m_trajectory.getTotalTimeSeconds()));
+    }
+  }
+
+  @Override
+  public void execute() {
+    m_trajectory.sample(m_clock.getAsDouble() - m_startTime, m_sample);
+    Pose2d pose = m_poseSupplier.get();
+
+    // Reference state in field frame
+    double c = m_originCos;
+    double s = m_originSin;
+    double refX = m_originX + c * m_sample.x - s * m_sample.y;
+    double refY = m_originY + s * m_sample.x + c * m_sample.y;
+    double refHeading = m_originHeading + m_sample.heading;
+    double refVx = c * m_sample.vx - s * m_sample.vy;
+    double refVy = s * m_sample.vx + c * m_sample.vy;
+    double refAx = c * m_sample.ax - s * m_sample.ay;
+    double refAy = s * m_sample.ax + c * m_sample.ay;
+
+    // Feedforward plus proportional pose feedback, in field frame
+    double errorX = refX - pose.getX();
+    double errorY = refY - pose.getY();
+    double robotHeading = pose.getRotation().getRadians();
+    m_rotationError = MathUtil.angleModulus(refHeading - robotHeading);
+    m_positionError = Math.hypot(errorX, errorY);
+
+    double fieldVx = refVx + Constants.Trajectory.TRANSLATION_KP * errorX;
+    double fieldVy = refVy + Constants.Trajectory.TRANSLATION_KP * errorY;
+    double omega = m_sample.omega + Constants.Trajectory.ROTATION_KP * m_rotationError;
+
+    // Rotate into robot frame
+    double cosHeading = Math.cos(robotHeading);
+    double sinHeading = Math.sin(robotHeading);
+    m_speeds.vxMetersPerSecond = fieldVx * cosHeading + fieldVy * sinHeading;
+    m_speeds.vyMetersPerSecond = -fieldVx * sinHeading + fieldVy * cosHeading;
+    m_speeds.omegaRadiansPerSecond = omega;
+
+    // Module force feedforwards: share the linear force evenly and add the
+    // tangential force each module needs for the angular acceleration
+    double robotAx = refAx * cosHeading + refAy * sinHeading;
+    double robotAy = -refAx * sinHeading + refAy * cosHeading;
+    double linearX = Constants.Trajectory.ROBOT_MASS_KG * robotAx / kModuleCount;
+    double linearY = Constants.Trajectory.ROBOT_MASS_KG * robotAy / kModuleCount;
+    double torquePerRadiusSquared = m_moduleRadiusSquaredSum > 0.0
+        ? Constants.Trajectory.ROBOT_MOI_KG_M2 * m_sample.alpha / m_moduleRadiusSquaredSum
+        : 0.0;
+    for (int i = 0; i < kModuleCount; i++) {
+      m_forceX[i] = linearX - torquePerRadiusSquared * m_moduleY[i];
+      m_forceY[i] = linearY + torquePerRadiusSquared * m_moduleX[i];
+    }
+
+    m_output.accept(m_request);
+  }
+
+  @Override
+  public void end(boolean interrupted) {
+    m_speeds.vxMetersPerSecond = 0.0;
+    m_speeds.vyMetersPerSecond = 0.0;
+    m_speeds.omegaRadiansPerSecond = 0.0;
+    for (int i = 0; i < kModuleCount; i++) {
+      m_forceX[i] = 0.0;
+      m_forceY[i] = 0.0;
+    }
+    m_output.accept(m_request);
+
+    if (!m_logging) {
+      return;
+    }
+    if (interrupted) {
+      AsyncLog.log("FollowTrajectory interrupted: " + m_trajectory.getName());
+    } else {
+      AsyncLog.log(String.format("FollowTrajectory completed: %s (error %.3f m, %.1f°)",
+          m_trajectory.getName(), m_positionError, Math.toDegrees(m_rotationError)));
+    }
+  }
+
+  @Override
+  public boolean isFinished() {
+    double elapsed = m_clock.getAsDouble() - m_startTime;
+    if (elapsed < m_trajectory.getTotalTimeSeconds()) {
+      return false;
+    }
+    boolean settled = m_positionError <= Constants.Trajectory.POSITION_TOLERANCE
+        && Math.abs(m_rotationError) <= Constants.Trajectory.ROTATION_TOLERANCE;
+    return settled || elapsed >= m_trajectory.getTotalTimeSeconds() + Constants.Trajectory.END_TIMEOUT_SECONDS;
+  }
+
+  /**
+   * Create a copy of this command that drives a dry-run drivetrain instead of the robot
+   * The copy requires no subsystems, does not log and runs on the dry-run clock
+   * @param drivetrain Stand-in drivetrain that discards every request
+   * @return The dry-run command
+   */
+  public FollowTrajectory createDryRun(DryRunDrivetrain drivetrain) {
+    return new FollowTrajectory(m_trajectory, m_relativeToStart, drivetrain::getPose,
+        drivetrain::setControl, drivetrain::getTime, false);
+  }
+
+  /**
+   * Get the trajectory this command follows
+   * @return The trajectory
+   */
+  public HolonomicTrajectory getTrajectory() {
+    return m_trajectory;
+  }
+
+  /**
+   * Get the distance between the robot and the reference pose on the last loop
+   * @return Position error in meters
+   */
+  public double getPositionError() {
+    return m_positionError;
+  }
+}
@@ -14,6 +14,7 @@ import edu.wpi.first.math.numbers.N1;
 import edu.wpi.first.math.numbers.N3;
 import edu.wpi.first.units.measure.*;
 
+import frc.robot.Constants;
 import frc.robot.subsystems.CommandSwerveDrivetrain;
 
 // Generated by the Tuner X Swerve Project Generator
@@ -197,7 +198,8 @@ public class TunerConstants {
      */
     public static CommandSwerveDrivetrain createDrivetrain() {
         return new CommandSwerveDrivetrain(
-            DrivetrainConstants, FrontLeft, FrontRight, BackLeft, BackRight
+            DrivetrainConstants, Constants.Odometry.UPDATE_FREQUENCY_HZ, Constants.Odometry.THREAD_PRIORITY,
+            FrontLeft, FrontRight, BackLeft, BackRight
         );
     }
 
@@ -2,10 +2,15 @@ package frc.robot.subsystems;
 
 import static edu.wpi.first.units.Units.*;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
+import com.ctre.phoenix6.CANBus;
 import com.ctre.phoenix6.SignalLogger;
 import com.ctre.phoenix6.Utils;
+import com.ctre.phoenix6.swerve.SwerveDrivetrain.SwerveDriveState;
 import com.ctre.phoenix6.swerve.SwerveDrivetrainConstants;
 import com.ctre.phoenix6.swerve.SwerveModuleConstants;
 import com.ctre.phoenix6.swerve.SwerveRequest;
@@ -15,15 +20,24 @@ import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.numbers.N1;
 import edu.wpi.first.math.numbers.N3;
+import edu.wpi.first.wpilibj.DataLogManager;
 import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.DriverStation.Alliance;
 import edu.wpi.first.wpilibj.Notifier;
 import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.Subsystem;
 import edu.wpi.first.wpilibj2.command.sysid.SysIdRoutine;
 
+import frc.robot.Constants;
 import frc.robot.generated.TunerConstants.TunerSwerveDrivetrain;
+import frc.robot.telemetry.OdometryTimingMonitor;
+import frc.robot.telemetry.SwerveStateMirror;
+import frc.robot.util.LatencyHistogram;
+import frc.robot.util.LoopProfiler;
+import frc.robot.util.TelemetryRegistry;
+import frc.robot.util.TelemetryRegistry.Tier;
 
 /**
  * Class that extends the Phoenix 6 SwerveDrivetrain class and implements
@@ -41,6 +55,28 @@ public class CommandSwerveDrivetrain extends TunerSwerveDrivetrain implements Su
     /* Keep track if we've ever applied the operator perspective before or not */
     private boolean m_hasAppliedOperatorPerspective = false;
 
+    /* Lock-free copy of the newest odometry state, filled on the odometry thread */
+    private final SwerveStateMirror m_stateMirror = new SwerveStateMirror();
+    /* Shared reader for commands, which all run on the main robot thread */
+    private final SwerveStateMirror.Reader m_commandReader = m_stateMirror.createReader("Commands");
+    private double m_lastMirrorStatsTime = 0.0;
+    /* Missed-update channels, one per reader in creation order; readers can be added after construction */
+    private final List<TelemetryRegistry.DoubleChannel> m_missedPubs = new ArrayList<>();
+
+    /* Odometry period, jitter and overruns, recorded on the odometry thread */
+    private final OdometryTimingMonitor m_odometryTiming;
+    private final TelemetryRegistry.DoubleChannel m_periodP50Pub = debugChannel("Odometry/Period p50 ms");
+    private final TelemetryRegistry.DoubleChannel m_periodP99Pub = debugChannel("Odometry/Period p99 ms");
+    private final TelemetryRegistry.DoubleChannel m_periodMaxPub = debugChannel("Odometry/Period Max ms");
+    private final TelemetryRegistry.DoubleChannel m_jitterP99Pub = debugChannel("Odometry/Jitter p99 ms");
+    private final TelemetryRegistry.DoubleChannel m_overrunsPub = TelemetryRegistry.getInstance().doubleChannel(
+        "Odometry/Overruns", Tier.NORMAL, Constants.TelemetryBudget.DASHBOARD_INTERVAL_SECONDS, 0.0);
+    private final TelemetryRegistry.DoubleChannel m_mainLoopOverrunsPub = debugChannel("Odometry/Main Loop Overruns");
+    private final TelemetryRegistry.DoubleChannel m_correlatedOverrunsPub = debugChannel("Odometry/Correlated Overruns");
+
+    /* Time spent in periodic(), for the loop profiler */
+    private final LoopProfiler.Section m_profile = LoopProfiler.getInstance().section("CommandSwerveDrivetrain.periodic");
+
     /* Swerve requests to apply during SysId characterization */
     private final SwerveRequest.SysIdSwerveTranslation m_translationCharacterization = new SwerveRequest.SysIdSwerveTranslation();
     private final SwerveRequest.SysIdSwerveSteerGains m_steerCharacterization = new SwerveRequest.SysIdSwerveSteerGains();
@@ -123,9 +159,9 @@ public class CommandSwerveDrivetrain extends TunerSwerveDrivetrain implements Su
         SwerveModuleConstants<?, ?, ?>... modules
     ) {
         super(drivetrainConstants, modules);
-        if (Utils.isSimulation()) {
-            startSimThread();
-        }
+        m_odometryTiming = new OdometryTimingMonitor(DataLogManager.getLog(),
+            nominalOdometryPeriod(drivetrainConstants, 0.0));
+        initialize();
     }
 
     /**
@@ -147,9 +183,36 @@ public class CommandSwerveDrivetrain extends TunerSwerveDrivetrain implements Su
         SwerveModuleConstants<?, ?, ?>... modules
     ) {
         super(drivetrainConstants, odometryUpdateFrequency, modules);
-        if (Utils.isSimulation()) {
-            startSimThread();
-        }
+        m_odometryTiming = new OdometryTimingMonitor(DataLogManager.getLog(),
+            nominalOdometryPeriod(drivetrainConstants, odometryUpdateFrequency));
+        initialize();
+    }
+
+    /**
+     * Constructs a CTRE SwerveDrivetrain using the specified constants.
+     * <p>
+     * This constructs the underlying hardware devices, so users should not construct
+     * the devices themselves. If they need the devices, they can access them through
+     * getters in the classes.
+     *
+     * @param drivetrainConstants     Drivetrain-wide constants for the swerve drive
+     * @param odometryUpdateFrequency The frequency to run the odometry loop. If
+     *                                unspecified or set to 0 Hz, this is 250 Hz on
+     *                                CAN FD, and 100 Hz on CAN 2.0.
+     * @param odometryThreadPriority  Real-time priority of the odometry thread (1-99)
+     * @param modules                 Constants for each specific module
+     */
+    public CommandSwerveDrivetrain(
+        SwerveDrivetrainConstants drivetrainConstants,
+        double odometryUpdateFrequency,
+        int odometryThreadPriority,
+        SwerveModuleConstants<?, ?, ?>... modules
+    ) {
+        super(drivetrainConstants, odometryUpdateFrequency, modules);
+        getOdometryThread().setThreadPriority(odometryThreadPriority);
+        m_odometryTiming = new OdometryTimingMonitor(DataLogManager.getLog(),
+            nominalOdometryPeriod(drivetrainConstants, odometryUpdateFrequency));
+        initialize();
     }
 
     /**
@@ -179,11 +242,33 @@ public class CommandSwerveDrivetrain extends TunerSwerveDrivetrain implements Su
         SwerveModuleConstants<?, ?, ?>... modules
     ) {
         super(drivetrainConstants, odometryUpdateFrequency, odometryStandardDeviation, visionStandardDeviation, modules);
+        m_odometryTiming = new OdometryTimingMonitor(DataLogManager.getLog(),
+            nominalOdometryPeriod(drivetrainConstants, odometryUpdateFrequency));
+        initialize();
+    }
+
+    private void initialize() {
+        super.registerTelemetry(this::onOdometryState);
         if (Utils.isSimulation()) {
             startSimThread();
         }
     }
 
+    /* Runs on the odometry thread for every new state, before any registered telemetry */
+    private void onOdometryState(SwerveDriveState state) {
+        m_odometryTiming.recordOdometry(state.Timestamp);
+        m_stateMirror.update(state);
+    }
+
+    private static double nominalOdometryPeriod(SwerveDrivetrainConstants drivetrainConstants,
+                                                double odometryUpdateFrequency) {
+        if (odometryUpdateFrequency > 0.0) {
+            return 1.0 / odometryUpdateFrequency;
+        }
+        /* Same defaults Phoenix uses when the frequency is unspecified */
+        return new CANBus(drivetrainConstants.CANBusName).isNetworkFD() ? 1.0 / 250.0 : 1.0 / 100.0;
+    }
+
     /**
      * Returns a command that applies the specified control request to this swerve drivetrain.
      *
@@ -194,6 +279,65 @@ public class CommandSwerveDrivetrain extends TunerSwerveDrivetrain implements Su
         return run(() -> this.setControl(requestSupplier.get()));
     }
 
+    /**
+     * Register a telemetry function to call on the odometry thread with every new state.
+     * The state mirror and odometry timing are always updated first, so
+     * {@link #createStateReader(String)} keeps working whatever telemetry function is registered.
+     *
+     * @param telemetryFunction Function to call with each state
+     */
+    @Override
+    public void registerTelemetry(Consumer<SwerveDriveState> telemetryFunction) {
+        super.registerTelemetry(state -> {
+            onOdometryState(state);
+            telemetryFunction.accept(state);
+        });
+    }
+
+    /**
+     * Creates a reader for the newest drivetrain state.
+     * <p>
+     * Unlike {@link #getState()}, reading never takes the drivetrain state lock, so it
+     * cannot block odometry or be blocked by it. Each consumer should create its own
+     * reader and use it from a single thread.
+     *
+     * @param name Consumer name, reported with the number of states it missed
+     * @return A new state reader
+     */
+    public SwerveStateMirror.Reader createStateReader(String name) {
+        return m_stateMirror.createReader(name);
+    }
+
+    /**
+     * Returns the newest estimated robot pose without taking the drivetrain state lock.
+     * Must only be called from the main robot thread (commands and subsystems).
+     *
+     * @return Field-relative robot pose
+     */
+    public Pose2d getPose() {
+        return m_commandReader.read().pose;
+    }
+
+    /**
+     * Returns the state mirror shared by all state readers.
+     *
+     * @return The state mirror
+     */
+    public SwerveStateMirror getStateMirror() {
+        return m_stateMirror;
+    }
+
+    /**
+     * Returns the odometry thread timing monitor.
+     * The main loop should call {@link OdometryTimingMonitor#recordMainLoop(double, double)}
+     * every iteration so overruns can be correlated.
+     *
+     * @return The odometry timing monitor
+     */
+    public OdometryTimingMonitor getOdometryTiming() {
+        return m_odometryTiming;
+    }
+
     /**
      * Runs the SysId Quasistatic test in the given direction for the routine
      * specified by {@link #m_sysIdRoutineToApply}.
@@ -218,6 +362,8 @@ public class CommandSwerveDrivetrain extends TunerSwerveDrivetrain implements Su
 
     @Override
     public void periodic() {
+        m_profile.start();
+
         /*
          * Periodically try to apply the operator perspective.
          * If we haven't applied the operator perspective before, then we should apply it regardless of DS state.
@@ -235,6 +381,39 @@ public class CommandSwerveDrivetrain extends TunerSwerveDrivetrain implements Su
                 m_hasAppliedOperatorPerspective = true;
             });
         }
+
+        /* Report how many odometry updates each state reader has missed */
+        double now = Timer.getFPGATimestamp();
+        if (now - m_lastMirrorStatsTime >= Constants.Telemetry.MIRROR_STATS_PERIOD_SECONDS) {
+            m_lastMirrorStatsTime = now;
+            List<SwerveStateMirror.Reader> readers = m_stateMirror.getReaders();
+            for (int i = 0; i < readers.size(); i++) {
+                if (i == m_missedPubs.size()) {
+                    m_missedPubs.add(debugChannel("StateMirror/" + readers.get(i).getName() + " Missed"));
+                }
+                m_missedPubs.get(i).set(readers.get(i).getMissedUpdates(), now);
+            }
+            publishOdometryTiming(now);
+        }
+
+        m_profile.stop();
+    }
+
+    private void publishOdometryTiming(double now) {
+        LatencyHistogram period = m_odometryTiming.getPeriodHistogram();
+        LatencyHistogram jitter = m_odometryTiming.getJitterHistogram();
+        m_periodP50Pub.set(period.getPercentile(0.5) * 1000.0, now);
+        m_periodP99Pub.set(period.getPercentile(0.99) * 1000.0, now);
+        m_periodMaxPub.set(period.getMax() * 1000.0, now);
+        m_jitterP99Pub.set(jitter.getPercentile(0.99) * 1000.0, now);
+        m_overrunsPub.set(m_odometryTiming.getOverrunCount(), now);
+        m_mainLoopOverrunsPub.set(m_odometryTiming.getMainLoopOverrunCount(), now);
+        m_correlatedOverrunsPub.set(m_odometryTiming.getCorrelatedOverrunCount(), now);
+    }
+
+    private static TelemetryRegistry.DoubleChannel debugChannel(String key) {
+        return TelemetryRegistry.getInstance().doubleChannel(key, Tier.DEBUG,
+            Constants.TelemetryBudget.DEBUG_INTERVAL_SECONDS, 0.0);
     }
 
     private void startSimThread() {
@@ -0,0 +1,203 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import com.ctre.phoenix6.StatusCode;
+import com.ctre.phoenix6.configs.CurrentLimitsConfigs;
+import com.ctre.phoenix6.configs.TalonFXConfigurator;
+import com.ctre.phoenix6.hardware.CANcoder;
+import com.ctre.phoenix6.hardware.TalonFX;
+import com.ctre.phoenix6.swerve.SwerveModule;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.Constants;
+import frc.robot.util.AsyncLog;
+import frc.robot.util.LoopProfiler;
+import frc.robot.util.TelemetryRegistry;
+import frc.robot.util.TelemetryRegistry.Tier;
+
+/**
+ * Adjusts drive motor current limits at runtime from battery health
+ * The supply limit follows the battery: full limits while voltage is healthy,
+ * tighter ones as it sags toward critical or as the estimated current headroom
+ * shrinks. Limits drop immediately but rise at a limited rate, each module is
+ * scaled by its thermal derating, and config writes are rate limited and
+ * non-blocking so they never stall the main loop or flood the CAN bus.
+ */
+public class CurrentLimitGovernor extends SubsystemBase {
+  private final SafetyMonitor m_safetyMonitor;
+  private final TalonFXConfigurator[] m_configurators;
+  private final double[] m_moduleScales;
+
+  // Limits actually written to each motor, and when
+  private final double[] m_appliedSupply;
+  private final double[] m_lastWriteTime;
+
+  // Reused for every write; apply() copies it
+  private final CurrentLimitsConfigs m_limits = new CurrentLimitsConfigs();
+  private final LoopProfiler.Section m_profile = LoopProfiler.getInstance().section("CurrentLimitGovernor.periodic");
+  private final TelemetryRegistry.DoubleChannel m_supplyLimitPub = TelemetryRegistry.getInstance().doubleChannel(
+      "CurrentLimits/Drive Supply Limit", Tier.NORMAL, Constants.TelemetryBudget.DASHBOARD_INTERVAL_SECONDS,
+      Constants.Safety.CURRENT_PUBLISH_DEADBAND);
+  private final TelemetryRegistry.DoubleChannel m_statorLimitPub = TelemetryRegistry.getInstance().doubleChannel(
+      "CurrentLimits/Drive Stator Limit", Tier.DEBUG, Constants.TelemetryBudget.DEBUG_INTERVAL_SECONDS,
+      Constants.Safety.CURRENT_PUBLISH_DEADBAND);
+  private final TelemetryRegistry.DoubleChannel m_writesPub = TelemetryRegistry.getInstance().doubleChannel(
+      "CurrentLimits/Config Writes", Tier.DEBUG, Constants.TelemetryBudget.DEBUG_INTERVAL_SECONDS, 0.0);
+
+  private double m_supplyLimit = Constants.CurrentLimits.MAX_SUPPLY_LIMIT;
+  private double m_lastTime = Double.NaN;
+  private long m_writeCount = 0;
+
+  /**
+   * Creates a governor for the drive motors of a drivetrain
+   * @param drivetrain The swerve drivetrain
+   * @param safetyMonitor Source of battery voltage and current headroom
+   * @param motorHealth Source of per-module thermal derating
+   */
+  public CurrentLimitGovernor(CommandSwerveDrivetrain drivetrain, SafetyMonitor safetyMonitor,
+                              MotorHealthMonitor motorHealth) {
+    m_safetyMonitor = safetyMonitor;
+
+    SwerveModule<TalonFX, TalonFX, CANcoder>[] modules = drivetrain.getModules();
+    m_configurators = new TalonFXConfigurator[modules.length];
+    m_moduleScales = new double[modules.length];
+    m_appliedSupply = new double[modules.length];
+    m_lastWriteTime = new double[modules.length];
+    for (int i = 0; i < modules.length; i++) {
+      m_configurators[i] = modules[i].getDriveMotor().getConfigurator();
+      m_moduleScales[i] = 1.0;
+      m_appliedSupply[i] = Double.NaN; // unknown until the first write
+      m_lastWriteTime[i] = Double.NEGATIVE_INFINITY;
+    }
+
+    motorHealth.addDeratingListener((module, scale) -> m_moduleScales[module] = scale);
+
+    AsyncLog.log("CurrentLimitGovernor initialized for " + modules.length + " drive motors");
+  }
+
+  @Override
+  public void periodic() {
+    m_profile.start();
+
+    double now = Timer.getFPGATimestamp();
+    double dt = Double.isNaN(m_lastTime) ? 0.0 : now - m_lastTime;
+    m_lastTime = now;
+
+    double voltage = m_safetyMonitor.getBatteryVoltage();
+    double budget = m_safetyMonitor.getTotalCurrent() + m_safetyMonitor.getCurrentHeadroom();
+    double target = supplyLimitFor(voltage, budget, m_configurators.length);
+    m_supplyLimit = slew(m_supplyLimit, target, dt);
+
+    for (int i = 0; i < m_configurators.length; i++) {
+      double supply = Math.max(Constants.CurrentLimits.MIN_SUPPLY_LIMIT, m_supplyLimit * m_moduleScales[i]);
+      if (shouldWrite(supply, m_appliedSupply[i], now - m_lastWriteTime[i])) {
+        write(i, supply, now);
+      }
+    }
+
+    m_supplyLimitPub.set(m_supplyLimit, now);
+    m_statorLimitPub.set(statorLimitFor(m_supplyLimit), now);
+    m_writesPub.set(m_writeCount, now);
+
+    m_profile.stop();
+  }
+
+  /**
+   * Get the drive supply current limit before module derating
+   * @return Limit in amps
+   */
+  public double getSupplyLimit() {
+    return m_supplyLimit;
+  }
+
+  /**
+   * Get the number of current limit configs written since construction
+   * @return Write count
+   */
+  public long getWriteCount() {
+    return m_writeCount;
+  }
+
+  /**
+   * Target drive supply limit per motor for the battery state
+   * The lower of a voltage-based limit (full above the warning threshold, minimum at
+   * the critical threshold) and the motors' share of the current the battery can supply
+   * before sagging to Constants.Battery.HEADROOM_MIN_VOLTAGE.
+   * @param voltage Battery voltage in volts
+   * @param currentBudget Current draw plus headroom in amps (infinite if unknown)
+   * @param motorCount Number of drive motors sharing the budget
+   * @return Supply limit in amps
+   */
+  static double supplyLimitFor(double voltage, double currentBudget, int motorCount) {
+    double fraction = MathUtil.inverseInterpolate(
+        Constants.Safety.VOLTAGE_CRITICAL_THRESHOLD, Constants.Safety.VOLTAGE_WARNING_THRESHOLD, voltage);
+    double byVoltage = MathUtil.interpolate(
+        Constants.CurrentLimits.MIN_SUPPLY_LIMIT, Constants.CurrentLimits.MAX_SUPPLY_LIMIT, fraction);
+    double byBudget = currentBudget * Constants.CurrentLimits.DRIVE_BUDGET_FRACTION / motorCount;
+    return MathUtil.clamp(Math.min(byVoltage, byBudget),
+        Constants.CurrentLimits.MIN_SUPPLY_LIMIT, Constants.CurrentLimits.MAX_SUPPLY_LIMIT);
+  }
+
+  /**
+   * Stator limit that goes with a supply limit
+   * @param supplyLimit Supply limit in amps
+   * @return Stator limit in amps
+   */
+  static double statorLimitFor(double supplyLimit) {
+    return MathUtil.clamp(supplyLimit * Constants.CurrentLimits.STATOR_PER_SUPPLY,
+        Constants.CurrentLimits.MIN_STATOR_LIMIT, Constants.CurrentLimits.MAX_STATOR_LIMIT);
+  }
+
+  /**
+   * Move a limit toward its target: down immediately, up at RAISE_RATE_AMPS_PER_SECOND
+   * @param current Current limit in amps
+   * @param target Target limit in amps
+   * @param dt Time since the last step in seconds
+   * @return New limit in amps
+   */
+  static double slew(double current, double target, double dt) {
+    if (target <= current) {
+      return target;
+    }
+    return Math.min(target, current + Constants.CurrentLimits.RAISE_RATE_AMPS_PER_SECOND * dt);
+  }
+
+  /**
+   * Whether a new limit is worth a config write
+   * @param limit New limit in amps
+   * @param applied Limit last written (NaN if never)
+   * @param sinceLastWrite Time since the last write in seconds
+   * @return True to write
+   */
+  static boolean shouldWrite(double limit, double applied, double sinceLastWrite) {
+    if (Double.isNaN(applied)) {
+      return true;
+    }
+    return Math.abs(limit - applied) >= Constants.CurrentLimits.WRITE_DEADBAND_AMPS
+        && sinceLastWrite >= Constants.CurrentLimits.MIN_WRITE_INTERVAL_SECONDS;
+  }
+
+  private void write(int module, double supply, double now) {
+    m_limits.SupplyCurrentLimit = supply;
+    m_limits.SupplyCurrentLowerLimit = supply; // no separate sustained limit
+    m_limits.SupplyCurrentLimitEnable = true;
+    m_limits.StatorCurrentLimit = statorLimitFor(supply);
+    m_limits.StatorCurrentLimitEnable = true;
+
+    // Zero timeout: queue the write and return instead of waiting for the device
+    StatusCode status = m_configurators[module].apply(m_limits, 0.0);
+    m_lastWriteTime[module] = now;
+    if (!status.isOK()) {
+      DriverStation.reportWarning("Failed to set module " + module + " drive current limit: " + status, false);
+      return;
+    }
+    m_appliedSupply[module] = supply;
+    m_writeCount++;
+  }
+}
@@ -10,8 +10,8 @@ import edu.wpi.first.apriltag.AprilTagFields;
 import edu.wpi.first.math.geometry.Pose3d;
 import edu.wpi.first.math.geometry.Rotation3d;
 import edu.wpi.first.math.geometry.Translation3d;
-import edu.wpi.first.wpilibj.DataLogManager;
 import frc.robot.Constants;
+import frc.robot.util.AsyncLog;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -53,7 +53,7 @@ public class FieldConfiguration {
       case TRAINING_FIELD_3_TAGS:
         return getTrainingFieldLayout(3);
       default:
-        DataLogManager.log("WARNING: Unknown field mode, defaulting to REAL_FIELD");
+        AsyncLog.log("WARNING: Unknown field mode, defaulting to REAL_FIELD");
         return getRealFieldLayout();
     }
   }
@@ -66,7 +66,7 @@ public class FieldConfiguration {
     // Load the 2025 field layout
     // Note: Field name may vary by WPILib version (k2025Reefscape, kDefaultField, etc.)
     AprilTagFieldLayout layout = AprilTagFieldLayout.loadField(AprilTagFields.kDefaultField);
-    DataLogManager.log("Loaded 2025 field layout with " + layout.getTags().size() + " AprilTags");
+    AsyncLog.log("Loaded 2025 field layout with " + layout.getTags().size() + " AprilTags");
     return layout;
   }
 
@@ -143,7 +143,7 @@ public class FieldConfiguration {
         Constants.Vision.TRAINING_FIELD_WIDTH
     );
 
-    DataLogManager.log(String.format(
+    AsyncLog.log(String.format(
         "Created training field layout with %d tag(s)", numTags
     ));
 
@@ -0,0 +1,378 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.StatusSignal;
+import com.ctre.phoenix6.hardware.CANcoder;
+import com.ctre.phoenix6.hardware.TalonFX;
+import com.ctre.phoenix6.signals.MagnetHealthValue;
+import com.ctre.phoenix6.swerve.SwerveModule;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.Constants;
+import frc.robot.util.AsyncLog;
+import frc.robot.util.LoopProfiler;
+import frc.robot.util.SamplingScheduler;
+import frc.robot.util.TelemetryRegistry;
+import frc.robot.util.TelemetryRegistry.Tier;
+
+/**
+ * Per-device health monitoring for every swerve TalonFX and CANcoder
+ * All health signals are refreshed together in one BaseStatusSignal.refreshAll()
+ * at a low rate. Motor temperatures are smoothed and trended; a module whose
+ * drive or steer motor is hot, or heating toward critical, is derated and any
+ * registered derating listeners are told.
+ */
+public class MotorHealthMonitor extends SubsystemBase {
+  /**
+   * Health level of a motor
+   */
+  public enum Level {
+    OK,
+    WARNING,
+    CRITICAL
+  }
+
+  /**
+   * Called when a module's derating changes
+   */
+  @FunctionalInterface
+  public interface DeratingListener {
+    /**
+     * @param module Module index
+     * @param scale Fraction of normal output the module should use (1.0 = no derating)
+     */
+    void onDeratingChanged(int module, double scale);
+  }
+
+  private final MotorHealth[] m_motors;
+  private final EncoderHealth[] m_encoders;
+  private final BaseStatusSignal[] m_signals;
+  private final double[] m_moduleScales;
+  private final List<DeratingListener> m_listeners = new ArrayList<>();
+
+  private final SamplingScheduler m_scheduler = new SamplingScheduler();
+  private final LoopProfiler.Section m_profile = LoopProfiler.getInstance().section("MotorHealthMonitor.periodic");
+  private final TelemetryRegistry.DoubleChannel m_hottestPub = TelemetryRegistry.getInstance().doubleChannel(
+      "MotorHealth/Hottest", Tier.NORMAL, Constants.TelemetryBudget.DASHBOARD_INTERVAL_SECONDS,
+      Constants.MotorHealth.TEMPERATURE_PUBLISH_DEADBAND);
+  private double m_currentTime = 0.0;
+
+  /**
+   * Creates a monitor for every module of a drivetrain
+   * @param drivetrain The swerve drivetrain
+   */
+  public MotorHealthMonitor(CommandSwerveDrivetrain drivetrain) {
+    SwerveModule<TalonFX, TalonFX, CANcoder>[] modules = drivetrain.getModules();
+    m_motors = new MotorHealth[modules.length * 2];
+    m_encoders = new EncoderHealth[modules.length];
+    m_moduleScales = new double[modules.length];
+
+    List<BaseStatusSignal> signals = new ArrayList<>();
+    for (int i = 0; i < modules.length; i++) {
+      m_motors[i * 2] = new MotorHealth("Module " + i + " Drive", modules[i].getDriveMotor());
+      m_motors[i * 2 + 1] = new MotorHealth("Module " + i + " Steer", modules[i].getSteerMotor());
+      m_encoders[i] = new EncoderHealth("Module " + i + " Encoder", modules[i].getEncoder());
+      m_moduleScales[i] = 1.0;
+      m_motors[i * 2].addSignals(signals);
+      m_motors[i * 2 + 1].addSignals(signals);
+      m_encoders[i].addSignals(signals);
+    }
+    m_signals = signals.toArray(new BaseStatusSignal[0]);
+
+    // Health data changes slowly; don't let it cost CAN bandwidth
+    BaseStatusSignal.setUpdateFrequencyForAll(Constants.MotorHealth.SIGNAL_UPDATE_HZ, m_signals);
+
+    m_scheduler.addSampler("Refresh", Constants.MotorHealth.REFRESH_PERIOD_SECONDS, this::refresh);
+
+    AsyncLog.log("MotorHealthMonitor initialized with " + m_motors.length + " motors and "
+        + m_encoders.length + " encoders");
+  }
+
+  @Override
+  public void periodic() {
+    m_profile.start();
+    m_currentTime = Timer.getFPGATimestamp();
+    m_scheduler.run(m_currentTime);
+    m_profile.stop();
+  }
+
+  /**
+   * Register a listener for module derating changes
+   * The listener is called immediately with every module's current scale.
+   * @param listener Listener to add
+   */
+  public void addDeratingListener(DeratingListener listener) {
+    m_listeners.add(listener);
+    for (int i = 0; i < m_moduleScales.length; i++) {
+      listener.onDeratingChanged(i, m_moduleScales[i]);
+    }
+  }
+
+  /**
+   * Get the current derating scale of a module
+   * @param module Module index
+   * @return Fraction of normal output (1.0 = no derating)
+   */
+  public double getModuleScale(int module) {
+    return m_moduleScales[module];
+  }
+
+  /**
+   * Get the worst health level of any motor
+   * @return Worst level
+   */
+  public Level getWorstLevel() {
+    Level worst = Level.OK;
+    for (MotorHealth motor : m_motors) {
+      if (motor.m_level.ordinal() > worst.ordinal()) {
+        worst = motor.m_level;
+      }
+    }
+    return worst;
+  }
+
+  /**
+   * Get the hottest smoothed motor temperature
+   * @return Temperature in Celsius
+   */
+  public double getHottestTemperature() {
+    double hottest = 0.0;
+    for (MotorHealth motor : m_motors) {
+      hottest = Math.max(hottest, motor.m_trend.getFiltered());
+    }
+    return hottest;
+  }
+
+  /**
+   * Get the summed supply current of every drive motor
+   * Updated at REFRESH_PERIOD_SECONDS; a disconnected motor counts as zero.
+   * @return Current in amps
+   */
+  public double getDriveSupplyCurrent() {
+    return sumSupplyCurrent(0);
+  }
+
+  /**
+   * Get the summed supply current of every steer motor
+   * Updated at REFRESH_PERIOD_SECONDS; a disconnected motor counts as zero.
+   * @return Current in amps
+   */
+  public double getSteerSupplyCurrent() {
+    return sumSupplyCurrent(1);
+  }
+
+  /**
+   * Classify a motor temperature
+   * A level is only left once the temperature is TEMPERATURE_HYSTERESIS below its threshold.
+   * @param temperature Smoothed temperature in Celsius
+   * @param predicted Temperature predicted TREND_HORIZON_SECONDS ahead
+   * @param previous Level from the previous refresh
+   * @return New level
+   */
+  static Level classify(double temperature, double predicted, Level previous) {
+    double critical = Constants.Safety.TEMPERATURE_CRITICAL_THRESHOLD;
+    double warning = Constants.Safety.TEMPERATURE_WARNING_THRESHOLD;
+    double hysteresis = Constants.MotorHealth.TEMPERATURE_HYSTERESIS;
+
+    if (temperature >= critical || (previous == Level.CRITICAL && temperature > critical - hysteresis)) {
+      return Level.CRITICAL;
+    }
+    if (temperature >= warning || predicted >= critical
+        || (previous != Level.OK && temperature > warning - hysteresis)) {
+      return Level.WARNING;
+    }
+    return Level.OK;
+  }
+
+  /**
+   * Get the derating scale for a level
+   * @param level Health level
+   * @return Fraction of normal output
+   */
+  static double scaleFor(Level level) {
+    switch (level) {
+      case CRITICAL:
+        return Constants.MotorHealth.CRITICAL_DERATE_SCALE;
+      case WARNING:
+        return Constants.MotorHealth.WARNING_DERATE_SCALE;
+      default:
+        return 1.0;
+    }
+  }
+
+  private double sumSupplyCurrent(int offset) {
+    double total = 0.0;
+    for (int i = offset; i < m_motors.length; i += 2) {
+      total += m_motors[i].m_lastSupplyCurrent;
+    }
+    return total;
+  }
+
+  /**
+   * Refresh every health signal in one call and evaluate them
+   */
+  private void refresh() {
+    BaseStatusSignal.refreshAll(m_signals);
+
+    for (MotorHealth motor : m_motors) {
+      motor.update(m_currentTime);
+    }
+    for (EncoderHealth encoder : m_encoders) {
+      encoder.update(m_currentTime);
+    }
+
+    // A module runs at the scale of its worse motor
+    for (int module = 0; module < m_moduleScales.length; module++) {
+      Level drive = m_motors[module * 2].m_level;
+      Level steer = m_motors[module * 2 + 1].m_level;
+      double scale = scaleFor(drive.ordinal() > steer.ordinal() ? drive : steer);
+      if (scale != m_moduleScales[module]) {
+        m_moduleScales[module] = scale;
+        AsyncLog.log(String.format("Module %d derated to %.0f%%", module, scale * 100.0));
+        for (int i = 0; i < m_listeners.size(); i++) {
+          m_listeners.get(i).onDeratingChanged(module, scale);
+        }
+      }
+    }
+
+    m_hottestPub.set(getHottestTemperature(), m_currentTime);
+  }
+
+  /**
+   * Health of one TalonFX
+   */
+  private final class MotorHealth {
+    private final String m_name;
+    private final StatusSignal<?> m_temperature;
+    private final StatusSignal<?> m_supplyCurrent;
+    private final StatusSignal<?> m_statorCurrent;
+    private final TemperatureTrend m_trend = new TemperatureTrend(Constants.MotorHealth.TREND_TIME_CONSTANT_SECONDS);
+    private Level m_level = Level.OK;
+    private double m_lastSupplyCurrent = 0.0;
+
+    // Dashboard channels; temperature and connection are what the pit crew watches
+    private final TelemetryRegistry.DoubleChannel m_temperaturePub;
+    private final TelemetryRegistry.DoubleChannel m_trendPub;
+    private final TelemetryRegistry.DoubleChannel m_supplyPub;
+    private final TelemetryRegistry.DoubleChannel m_statorPub;
+    private final TelemetryRegistry.BooleanChannel m_connectedPub;
+
+    private MotorHealth(String name, TalonFX motor) {
+      m_name = name;
+      m_temperature = motor.getDeviceTemp();
+      m_supplyCurrent = motor.getSupplyCurrent();
+      m_statorCurrent = motor.getStatorCurrent();
+      TelemetryRegistry registry = TelemetryRegistry.getInstance();
+      String prefix = "MotorHealth/" + name + "/";
+      m_temperaturePub = registry.doubleChannel(prefix + "Temperature", Tier.NORMAL,
+          Constants.TelemetryBudget.DASHBOARD_INTERVAL_SECONDS, Constants.MotorHealth.TEMPERATURE_PUBLISH_DEADBAND);
+      m_trendPub = registry.doubleChannel(prefix + "Trend C per min", Tier.DEBUG,
+          Constants.TelemetryBudget.DEBUG_INTERVAL_SECONDS, Constants.MotorHealth.TEMPERATURE_PUBLISH_DEADBAND);
+      m_supplyPub = registry.doubleChannel(prefix + "Supply Current", Tier.DEBUG,
+          Constants.TelemetryBudget.DEBUG_INTERVAL_SECONDS, Constants.Safety.CURRENT_PUBLISH_DEADBAND);
+      m_statorPub = registry.doubleChannel(prefix + "Stator Current", Tier.DEBUG,
+          Constants.TelemetryBudget.DEBUG_INTERVAL_SECONDS, Constants.Safety.CURRENT_PUBLISH_DEADBAND);
+      m_connectedPub = registry.booleanChannel(prefix + "Connected", Tier.CRITICAL, 0.0);
+    }
+
+    private void addSignals(List<BaseStatusSignal> signals) {
+      signals.add(m_temperature);
+      signals.add(m_supplyCurrent);
+      signals.add(m_statorCurrent);
+    }
+
+    private void update(double now) {
+      boolean connected = m_temperature.getStatus().isOK();
+      m_connectedPub.set(connected, now);
+      if (!connected) {
+        m_lastSupplyCurrent = 0.0;
+        return;
+      }
+      m_lastSupplyCurrent = m_supplyCurrent.getValueAsDouble();
+
+      m_trend.update(m_temperature.getValueAsDouble(), now);
+      Level level = classify(m_trend.getFiltered(),
+          m_trend.predict(Constants.MotorHealth.TREND_HORIZON_SECONDS), m_level);
+      if (level != m_level) {
+        reportLevelChange(level);
+        m_level = level;
+      }
+
+      m_temperaturePub.set(m_trend.getFiltered(), now);
+      m_trendPub.set(m_trend.getSlopePerSecond() * 60.0, now);
+      m_supplyPub.set(m_lastSupplyCurrent, now);
+      m_statorPub.set(m_statorCurrent.getValueAsDouble(), now);
+    }
+
+    private void reportLevelChange(Level level) {
+      String message = String.format("%s: %s -> %s (%.1fC, %+.1fC/min)", m_name, m_level, level,
+          m_trend.getFiltered(), m_trend.getSlopePerSecond() * 60.0);
+      if (level == Level.CRITICAL) {
+        DriverStation.reportError("CRITICAL: Motor overheating - " + message, false);
+      } else if (level == Level.WARNING) {
+        DriverStation.reportWarning("WARNING: Motor hot - " + message, false);
+      }
+      AsyncLog.log("Motor health " + message);
+    }
+  }
+
+  /**
+   * Health of one CANcoder
+   */
+  private final class EncoderHealth {
+    private final String m_name;
+    private final StatusSignal<?> m_supplyVoltage;
+    private final StatusSignal<MagnetHealthValue> m_magnetHealth;
+    private boolean m_magnetOk = true;
+
+    private final TelemetryRegistry.DoubleChannel m_voltagePub;
+    private final TelemetryRegistry.BooleanChannel m_magnetPub;
+    private final TelemetryRegistry.BooleanChannel m_connectedPub;
+
+    private EncoderHealth(String name, CANcoder encoder) {
+      m_name = name;
+      m_supplyVoltage = encoder.getSupplyVoltage();
+      m_magnetHealth = encoder.getMagnetHealth();
+      TelemetryRegistry registry = TelemetryRegistry.getInstance();
+      String prefix = "MotorHealth/" + name + "/";
+      m_voltagePub = registry.doubleChannel(prefix + "Supply Voltage", Tier.DEBUG,
+          Constants.TelemetryBudget.DEBUG_INTERVAL_SECONDS, Constants.Safety.VOLTAGE_PUBLISH_DEADBAND);
+      m_magnetPub = registry.booleanChannel(prefix + "Magnet OK", Tier.NORMAL,
+          Constants.TelemetryBudget.DASHBOARD_INTERVAL_SECONDS);
+      m_connectedPub = registry.booleanChannel(prefix + "Connected", Tier.CRITICAL, 0.0);
+    }
+
+    private void addSignals(List<BaseStatusSignal> signals) {
+      signals.add(m_supplyVoltage);
+      signals.add(m_magnetHealth);
+    }
+
+    private void update(double now) {
+      boolean connected = m_supplyVoltage.getStatus().isOK();
+      m_connectedPub.set(connected, now);
+      if (!connected) {
+        return;
+      }
+
+      // Orange still reads correctly, red or invalid does not
+      MagnetHealthValue magnet = m_magnetHealth.getValue();
+      boolean magnetOk = magnet == MagnetHealthValue.Magnet_Green || magnet == MagnetHealthValue.Magnet_Orange;
+      if (!magnetOk && m_magnetOk) {
+        DriverStation.reportWarning("WARNING: " + m_name + " magnet health " + magnet, false);
+      }
+      m_magnetOk = magnetOk;
+
+      m_voltagePub.set(m_supplyVoltage.getValueAsDouble(), now);
+      m_magnetPub.set(magnetOk, now);
+    }
+  }
+}
@@ -4,39 +4,215 @@
 
 package frc.robot.subsystems;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.DoubleSupplier;
+
+import edu.wpi.first.hal.can.CANJNI;
+import edu.wpi.first.hal.can.CANStatus;
 import edu.wpi.first.wpilibj.DataLogManager;
 import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Filesystem;
 import edu.wpi.first.wpilibj.RobotController;
 import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import frc.robot.Constants;
+import frc.robot.telemetry.BlackBoxRecorder;
+import frc.robot.util.AsyncLog;
+import frc.robot.util.BatteryEstimator;
+import frc.robot.util.BatteryHistory;
+import frc.robot.util.EnergyAccountant;
+import frc.robot.util.LoopProfiler;
+import frc.robot.util.RollingMetric;
+import frc.robot.util.SamplingScheduler;
+import frc.robot.util.TelemetryRegistry;
+import frc.robot.util.TelemetryRegistry.Tier;
 
 /**
  * Safety monitoring subsystem that tracks robot health metrics
  * and reports warnings/errors for voltage, current, and temperature issues
+ * Each metric is sampled at its own rate, and dashboard values go through
+ * TelemetryRegistry channels, so they are only sent when they change.
+ * Charge and energy drawn are integrated per mode and per registered subsystem,
+ * and a record is appended to the battery's history file when a match ends.
  */
 public class SafetyMonitor extends SubsystemBase {
+  private final BlackBoxRecorder m_blackBox;
+  private final SamplingScheduler m_scheduler = new SamplingScheduler();
+  private final LoopProfiler.Section m_profile = LoopProfiler.getInstance().section("SafetyMonitor.periodic");
+
+  // Dashboard channels; voltage and brownout are what the drive team watches
+  private final TelemetryRegistry.DoubleChannel m_voltagePub = TelemetryRegistry.getInstance().doubleChannel(
+      "Safety/Battery Voltage", Tier.CRITICAL, Constants.TelemetryBudget.DASHBOARD_INTERVAL_SECONDS,
+      Constants.Safety.VOLTAGE_PUBLISH_DEADBAND);
+  private final TelemetryRegistry.BooleanChannel m_brownedOutPub = TelemetryRegistry.getInstance().booleanChannel(
+      "Safety/Browned Out", Tier.CRITICAL, 0.0);
+  private final TelemetryRegistry.DoubleChannel m_currentPub = TelemetryRegistry.getInstance().doubleChannel(
+      "Safety/Total Current", Tier.NORMAL, Constants.TelemetryBudget.DASHBOARD_INTERVAL_SECONDS,
+      Constants.Safety.CURRENT_PUBLISH_DEADBAND);
+  private final TelemetryRegistry.DoubleChannel m_peakCurrentPub = TelemetryRegistry.getInstance().doubleChannel(
+      "Safety/Peak Current", Tier.NORMAL, Constants.TelemetryBudget.DASHBOARD_INTERVAL_SECONDS,
+      Constants.Safety.CURRENT_PUBLISH_DEADBAND);
+  private final TelemetryRegistry.DoubleChannel m_lowestVoltagePub = TelemetryRegistry.getInstance().doubleChannel(
+      "Safety/Lowest Voltage", Tier.NORMAL, Constants.TelemetryBudget.DASHBOARD_INTERVAL_SECONDS,
+      Constants.Safety.VOLTAGE_PUBLISH_DEADBAND);
+  private final TelemetryRegistry.BooleanChannel m_systemActivePub = TelemetryRegistry.getInstance().booleanChannel(
+      "Safety/System Active", Tier.NORMAL, 0.0);
+  private final TelemetryRegistry.DoubleChannel m_canPub = TelemetryRegistry.getInstance().doubleChannel(
+      "Safety/CAN Utilization %", Tier.NORMAL, Constants.TelemetryBudget.DASHBOARD_INTERVAL_SECONDS,
+      Constants.Safety.CAN_PUBLISH_DEADBAND);
+  private final TelemetryRegistry.DoubleChannel m_headroomPub = TelemetryRegistry.getInstance().doubleChannel(
+      "Safety/Current Headroom", Tier.NORMAL, Constants.TelemetryBudget.DASHBOARD_INTERVAL_SECONDS,
+      Constants.Safety.CURRENT_PUBLISH_DEADBAND);
+  private final TelemetryRegistry.DoubleChannel m_voltageMinPub = TelemetryRegistry.getInstance().doubleChannel(
+      "Safety/Voltage 10s Min", Tier.DEBUG, Constants.TelemetryBudget.DEBUG_INTERVAL_SECONDS,
+      Constants.Safety.VOLTAGE_PUBLISH_DEADBAND);
+  private final TelemetryRegistry.DoubleChannel m_currentMeanPub = TelemetryRegistry.getInstance().doubleChannel(
+      "Safety/Current 10s Mean", Tier.DEBUG, Constants.TelemetryBudget.DEBUG_INTERVAL_SECONDS,
+      Constants.Safety.CURRENT_PUBLISH_DEADBAND);
+  private final TelemetryRegistry.DoubleChannel m_ampHoursPub = TelemetryRegistry.getInstance().doubleChannel(
+      "Safety/Energy Ah", Tier.DEBUG, Constants.TelemetryBudget.DEBUG_INTERVAL_SECONDS,
+      Constants.Energy.AMP_HOUR_PUBLISH_DEADBAND);
+  private final TelemetryRegistry.DoubleChannel m_wattHoursPub = TelemetryRegistry.getInstance().doubleChannel(
+      "Safety/Energy Wh", Tier.DEBUG, Constants.TelemetryBudget.DEBUG_INTERVAL_SECONDS,
+      Constants.Energy.WATT_HOUR_PUBLISH_DEADBAND);
+  private final TelemetryRegistry.DoubleChannel m_openCircuitPub = TelemetryRegistry.getInstance().doubleChannel(
+      "Safety/Battery Open Circuit Voltage", Tier.DEBUG, Constants.TelemetryBudget.DEBUG_INTERVAL_SECONDS,
+      Constants.Safety.VOLTAGE_PUBLISH_DEADBAND);
+  private final TelemetryRegistry.DoubleChannel m_resistancePub = TelemetryRegistry.getInstance().doubleChannel(
+      "Safety/Battery Resistance mOhm", Tier.DEBUG, Constants.TelemetryBudget.DEBUG_INTERVAL_SECONDS, 0.5);
+
+  // Open-circuit voltage and internal resistance, fitted from the power samples
+  private final BatteryEstimator m_battery = new BatteryEstimator(
+      Constants.Battery.WINDOW_SAMPLES,
+      Constants.Battery.MIN_CURRENT_SPREAD,
+      Constants.Battery.MIN_RESISTANCE,
+      Constants.Battery.MAX_RESISTANCE);
+
+  // Latest samples; CAN status is filled in place instead of allocating per call
+  private final CANStatus m_canStatus = new CANStatus();
+  private double m_currentTime = 0.0;
+  private double m_batteryVoltage = 0.0;
+  private double m_totalCurrent = 0.0;
+  private boolean m_brownedOut = false;
+  private boolean m_systemActive = false;
+  private double m_canUtilization = 0.0;
+
+  // Rolling 1 s / 10 s / whole-match statistics, logged to DataLog
+  private final RollingMetric m_voltageStats;
+  private final RollingMetric m_currentStats;
+  private final RollingMetric m_canStats;
+  private boolean m_wasAutonomousEnabled = false;
+
+  // Charge and energy since the last history record, split by mode and subsystem
+  private final EnergyAccountant m_energy = new EnergyAccountant();
+  private final List<DoubleSupplier> m_energySources = new ArrayList<>();
+  private double[] m_sourceCurrents = new double[0];
+  private final BatteryHistory m_batteryHistory;
+  private double m_lastPowerSampleTime = Double.NaN;
+  private boolean m_wasEnabled = false;
+
   private double m_lastWarningTime = 0.0;
   private boolean m_brownoutWarningActive = false;
+  private boolean m_criticalVoltageActive = false;
   private boolean m_currentWarningActive = false;
 
   // Peak tracking
   private double m_peakCurrent = 0.0;
   private double m_lowestVoltage = 13.0;
 
-  public SafetyMonitor() {
-    DataLogManager.log("SafetyMonitor subsystem initialized");
+  /**
+   * Creates a new SafetyMonitor
+   * @param blackBox Flight recorder to feed power data to and dump on faults
+   */
+  public SafetyMonitor(BlackBoxRecorder blackBox) {
+    m_blackBox = blackBox;
+    m_batteryHistory = new BatteryHistory(
+        Filesystem.getOperatingDirectory().toPath().resolve(Constants.Energy.HISTORY_DIRECTORY));
+    SmartDashboard.setDefaultString(Constants.Energy.BATTERY_ID_KEY, "");
+
+    m_voltageStats = new RollingMetric(DataLogManager.getLog(), "Safety/Voltage",
+        Constants.Safety.POWER_SAMPLE_PERIOD_SECONDS,
+        Constants.Safety.SHORT_WINDOW_SECONDS, Constants.Safety.LONG_WINDOW_SECONDS);
+    m_currentStats = new RollingMetric(DataLogManager.getLog(), "Safety/Current",
+        Constants.Safety.POWER_SAMPLE_PERIOD_SECONDS,
+        Constants.Safety.SHORT_WINDOW_SECONDS, Constants.Safety.LONG_WINDOW_SECONDS);
+    m_canStats = new RollingMetric(DataLogManager.getLog(), "Safety/CAN Utilization",
+        Constants.Safety.CAN_SAMPLE_PERIOD_SECONDS,
+        Constants.Safety.SHORT_WINDOW_SECONDS, Constants.Safety.LONG_WINDOW_SECONDS);
+
+    // CAN first so the first power sample has a utilization to record
+    m_scheduler.addSampler("CAN", Constants.Safety.CAN_SAMPLE_PERIOD_SECONDS, this::sampleCan);
+    m_scheduler.addSampler("Power", Constants.Safety.POWER_SAMPLE_PERIOD_SECONDS, this::samplePower);
+    m_scheduler.addSampler("System", Constants.Safety.SYSTEM_SAMPLE_PERIOD_SECONDS, this::sampleSystem);
+    m_scheduler.addSampler("Stats", Constants.Safety.STATS_LOG_PERIOD_SECONDS, this::logStats);
+
+    AsyncLog.log("SafetyMonitor subsystem initialized");
   }
 
   @Override
   public void periodic() {
-    double currentTime = Timer.getFPGATimestamp();
+    m_profile.start();
+
+    m_currentTime = Timer.getFPGATimestamp();
+
+    // Whole-match statistics start over when autonomous is enabled
+    boolean autonomousEnabled = DriverStation.isAutonomousEnabled();
+    if (autonomousEnabled && !m_wasAutonomousEnabled) {
+      resetMatchStats();
+    }
+    m_wasAutonomousEnabled = autonomousEnabled;
+
+    // A match ends when teleop (or a practice session) is disabled; the gap after auto doesn't count
+    boolean enabled = DriverStation.isEnabled();
+    if (m_wasEnabled && !enabled && !DriverStation.isAutonomous()) {
+      recordBatteryHistory();
+    }
+    m_wasEnabled = enabled;
+
+    m_scheduler.run(m_currentTime);
+
+    // Publish telemetry
+    m_voltagePub.set(m_batteryVoltage, m_currentTime);
+    m_brownedOutPub.set(m_brownedOut, m_currentTime);
+    m_currentPub.set(m_totalCurrent, m_currentTime);
+    m_peakCurrentPub.set(m_peakCurrent, m_currentTime);
+    m_lowestVoltagePub.set(m_lowestVoltage, m_currentTime);
+    m_systemActivePub.set(m_systemActive, m_currentTime);
+    m_canPub.set(m_canUtilization, m_currentTime);
+    m_voltageMinPub.set(m_voltageStats.getLongWindow().getMin(), m_currentTime);
+    m_currentMeanPub.set(m_currentStats.getLongWindow().getMean(), m_currentTime);
+    m_ampHoursPub.set(m_energy.getTotalAmpHours(), m_currentTime);
+    m_wattHoursPub.set(m_energy.getTotalWattHours(), m_currentTime);
+    if (m_battery.hasEstimate()) {
+      m_openCircuitPub.set(m_battery.getOpenCircuitVoltage(), m_currentTime);
+      m_resistancePub.set(m_battery.getResistance() * 1000.0, m_currentTime);
+      m_headroomPub.set(getCurrentHeadroom(), m_currentTime);
+    }
+
+    m_profile.stop();
+  }
 
-    // Get current measurements
-    double batteryVoltage = RobotController.getBatteryVoltage();
-    double totalCurrent = RobotController.getInputCurrent();
-    boolean brownedOut = RobotController.isBrownedOut();
+  /**
+   * Sample battery voltage, input current and brownout state and check their thresholds
+   */
+  private void samplePower() {
+    m_batteryVoltage = RobotController.getBatteryVoltage();
+    m_totalCurrent = RobotController.getInputCurrent();
+    m_brownedOut = RobotController.isBrownedOut();
+    m_blackBox.recordPower(m_batteryVoltage, m_totalCurrent, m_canUtilization, m_brownedOut);
+    if (m_batteryVoltage > 0) {
+      m_battery.addSample(m_totalCurrent, m_batteryVoltage);
+      m_voltageStats.add(m_batteryVoltage);
+    }
+    m_currentStats.add(m_totalCurrent);
+    integrateEnergy();
+
+    double batteryVoltage = m_batteryVoltage;
+    double totalCurrent = m_totalCurrent;
+    double currentTime = m_currentTime;
 
     // Update peaks
     if (totalCurrent > m_peakCurrent) {
@@ -46,25 +222,25 @@ public class SafetyMonitor extends SubsystemBase {
       m_lowestVoltage = batteryVoltage;
     }
 
-    // Publish telemetry
-    SmartDashboard.putNumber("Safety/Battery Voltage", batteryVoltage);
-    SmartDashboard.putNumber("Safety/Total Current", totalCurrent);
-    SmartDashboard.putNumber("Safety/Peak Current", m_peakCurrent);
-    SmartDashboard.putNumber("Safety/Lowest Voltage", m_lowestVoltage);
-    SmartDashboard.putBoolean("Safety/Browned Out", brownedOut);
-    SmartDashboard.putBoolean("Safety/System Active", RobotController.isSysActive());
-
     // Check for brownout condition
-    if (brownedOut) {
+    if (m_brownedOut) {
       if (!m_brownoutWarningActive) {
         DriverStation.reportError("BROWNOUT DETECTED - Battery critically low!", false);
-        DataLogManager.log("CRITICAL: Brownout detected at " + batteryVoltage + "V");
+        AsyncLog.log("CRITICAL: Brownout detected at " + batteryVoltage + "V");
+        m_blackBox.trigger(BlackBoxRecorder.Trigger.BROWNOUT);
         m_brownoutWarningActive = true;
       }
     } else {
       m_brownoutWarningActive = false;
     }
 
+    // Dump the black box when voltage first drops below critical (0 V means no reading)
+    boolean criticalVoltage = batteryVoltage > 0 && batteryVoltage < Constants.Safety.VOLTAGE_CRITICAL_THRESHOLD;
+    if (criticalVoltage && !m_criticalVoltageActive) {
+      m_blackBox.trigger(BlackBoxRecorder.Trigger.CRITICAL_VOLTAGE);
+    }
+    m_criticalVoltageActive = criticalVoltage;
+
     // Check voltage thresholds (throttle warnings to every 5 seconds)
     if (currentTime - m_lastWarningTime > 5.0) {
       if (batteryVoltage < Constants.Safety.VOLTAGE_CRITICAL_THRESHOLD) {
@@ -72,7 +248,7 @@ public class SafetyMonitor extends SubsystemBase {
             String.format("CRITICAL: Battery voltage critically low! (%.2fV)", batteryVoltage),
             false
         );
-        DataLogManager.log("CRITICAL: Voltage at " + batteryVoltage + "V");
+        AsyncLog.log("CRITICAL: Voltage at " + batteryVoltage + "V");
         m_lastWarningTime = currentTime;
       } else if (batteryVoltage < Constants.Safety.VOLTAGE_WARNING_THRESHOLD) {
         DriverStation.reportWarning(
@@ -88,7 +264,7 @@ public class SafetyMonitor extends SubsystemBase {
             String.format("CRITICAL: Total current extremely high! (%.1fA)", totalCurrent),
             false
         );
-        DataLogManager.log("CRITICAL: Current at " + totalCurrent + "A");
+        AsyncLog.log("CRITICAL: Current at " + totalCurrent + "A");
         m_lastWarningTime = currentTime;
         m_currentWarningActive = true;
       } else if (totalCurrent > Constants.Safety.CURRENT_WARNING_THRESHOLD) {
@@ -104,28 +280,145 @@ public class SafetyMonitor extends SubsystemBase {
         m_currentWarningActive = false;
       }
     }
+  }
+
+  /**
+   * Add the latest power sample to the charge and energy totals
+   */
+  private void integrateEnergy() {
+    double dt = Double.isNaN(m_lastPowerSampleTime) ? 0.0 : m_currentTime - m_lastPowerSampleTime;
+    m_lastPowerSampleTime = m_currentTime;
+    if (m_batteryVoltage <= 0) {
+      return; // no reading
+    }
+    for (int i = 0; i < m_sourceCurrents.length; i++) {
+      m_sourceCurrents[i] = m_energySources.get(i).getAsDouble();
+    }
+    m_energy.addSample(currentMode(), m_batteryVoltage, m_totalCurrent, m_sourceCurrents, dt);
+  }
+
+  private static EnergyAccountant.Mode currentMode() {
+    if (DriverStation.isDisabled()) {
+      return EnergyAccountant.Mode.DISABLED;
+    }
+    if (DriverStation.isAutonomous()) {
+      return EnergyAccountant.Mode.AUTONOMOUS;
+    }
+    return DriverStation.isTest() ? EnergyAccountant.Mode.TEST : EnergyAccountant.Mode.TELEOP;
+  }
+
+  /**
+   * Append the totals since the last record to the battery's history file and start over
+   * The battery is identified by the ID entered on the dashboard under Constants.Energy.BATTERY_ID_KEY.
+   */
+  public void recordBatteryHistory() {
+    String batteryId = SmartDashboard.getString(Constants.Energy.BATTERY_ID_KEY, "");
+    String label = DriverStation.isFMSAttached()
+        ? DriverStation.getEventName() + " " + DriverStation.getMatchType() + " " + DriverStation.getMatchNumber()
+        : "Practice";
+    double resistance = m_battery.hasEstimate() ? m_battery.getResistance() : 0.0;
+    m_batteryHistory.record(batteryId, label, m_energy, m_voltageStats.getMatch().getMin(), resistance);
+    AsyncLog.log(String.format("Battery %s used %.3f Ah / %.1f Wh (%s)",
+        batteryId.isBlank() ? BatteryHistory.UNKNOWN_BATTERY : batteryId,
+        m_energy.getTotalAmpHours(), m_energy.getTotalWattHours(), label));
+    m_energy.reset();
+  }
 
-    // Check CAN bus utilization
-    double canUtilization = RobotController.getCANStatus().percentBusUtilization;
-    SmartDashboard.putNumber("Safety/CAN Utilization %", canUtilization);
+  /**
+   * Register a subsystem whose charge and energy are accounted separately
+   * Whatever input current the subsystems don't account for is booked as "Other".
+   * @param name Subsystem name, used in the battery history columns
+   * @param supplyCurrent Supplier of the subsystem's summed supply current in amps
+   */
+  public void addEnergySource(String name, DoubleSupplier supplyCurrent) {
+    m_energy.addSubsystem(name);
+    m_energySources.add(supplyCurrent);
+    m_sourceCurrents = Arrays.copyOf(m_sourceCurrents, m_energySources.size());
+  }
+
+  /**
+   * Get the charge and energy totals since the last history record
+   * @return Energy accountant
+   */
+  public EnergyAccountant getEnergyAccountant() {
+    return m_energy;
+  }
+
+  /**
+   * Sample whether robot outputs are enabled
+   */
+  private void sampleSystem() {
+    m_systemActive = RobotController.isSysActive();
+  }
 
-    if (canUtilization > 90.0 && currentTime - m_lastWarningTime > 10.0) {
+  /**
+   * Sample CAN bus utilization into the preallocated status and check it
+   */
+  private void sampleCan() {
+    CANJNI.getCANStatus(m_canStatus);
+    m_canUtilization = m_canStatus.percentBusUtilization;
+    m_canStats.add(m_canUtilization);
+
+    if (m_canUtilization > 90.0 && m_currentTime - m_lastWarningTime > 10.0) {
       DriverStation.reportWarning(
-          String.format("WARNING: CAN bus utilization high (%.1f%%)", canUtilization),
+          String.format("WARNING: CAN bus utilization high (%.1f%%)", m_canUtilization),
           false
       );
-      DataLogManager.log("WARNING: CAN utilization at " + canUtilization + "%");
-      m_lastWarningTime = currentTime;
+      AsyncLog.log("WARNING: CAN utilization at " + m_canUtilization + "%");
+      m_lastWarningTime = m_currentTime;
     }
   }
 
+  /**
+   * Write the rolling statistics to the data log
+   */
+  private void logStats() {
+    m_voltageStats.log();
+    m_currentStats.log();
+    m_canStats.log();
+  }
+
+  /**
+   * Clear the whole-match statistics
+   */
+  public void resetMatchStats() {
+    m_voltageStats.resetMatch();
+    m_currentStats.resetMatch();
+    m_canStats.resetMatch();
+    AsyncLog.log("Safety match statistics reset");
+  }
+
+  /**
+   * Get the rolling battery voltage statistics
+   * @return Voltage statistics
+   */
+  public RollingMetric getVoltageStats() {
+    return m_voltageStats;
+  }
+
+  /**
+   * Get the rolling input current statistics
+   * @return Current statistics
+   */
+  public RollingMetric getCurrentStats() {
+    return m_currentStats;
+  }
+
+  /**
+   * Get the rolling CAN utilization statistics
+   * @return CAN utilization statistics
+   */
+  public RollingMetric getCanStats() {
+    return m_canStats;
+  }
+
   /**
    * Reset peak tracking values
    */
   public void resetPeaks() {
     m_peakCurrent = 0.0;
     m_lowestVoltage = RobotController.getBatteryVoltage();
-    DataLogManager.log("Safety peaks reset");
+    AsyncLog.log("Safety peaks reset");
   }
 
   /**
@@ -152,6 +445,32 @@ public class SafetyMonitor extends SubsystemBase {
     return RobotController.isBrownedOut();
   }
 
+  /**
+   * Get how much more current the robot can draw before the battery sags to
+   * Constants.Battery.HEADROOM_MIN_VOLTAGE, from the fitted internal resistance
+   * @return Extra current in amps (infinite until the battery has been characterized)
+   */
+  public double getCurrentHeadroom() {
+    return m_battery.getCurrentHeadroom(Constants.Battery.HEADROOM_MIN_VOLTAGE);
+  }
+
+  /**
+   * Predict battery voltage if current rises
+   * @param additionalCurrent Extra current in amps
+   * @return Predicted voltage in volts
+   */
+  public double predictBatteryVoltage(double additionalCurrent) {
+    return m_battery.predictVoltage(additionalCurrent);
+  }
+
+  /**
+   * Get the battery model fitted from voltage and current samples
+   * @return The battery estimator
+   */
+  public BatteryEstimator getBatteryEstimator() {
+    return m_battery;
+  }
+
   /**
    * Get peak current since last reset
    * @return Peak current in amps
@@ -0,0 +1,189 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import java.util.List;
+import java.util.Optional;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation3d;
+import edu.wpi.first.math.geometry.Transform2d;
+import edu.wpi.first.math.geometry.Transform3d;
+import edu.wpi.first.math.geometry.Translation3d;
+import frc.robot.Constants;
+import frc.robot.util.AsyncLog;
+
+/**
+ * Selects and follows a single AprilTag across all cameras
+ * Picks targets with a cost function (distance, required rotation, time to reach),
+ * keeps the lock while the tag moves between camera fields of view, and bridges
+ * short gaps by predicting the tag position from odometry, even while other tags
+ * are in view
+ */
+public class TargetTracker {
+  private final int m_requestedId; // -1 = lowest cost tag, otherwise specific ID
+  private final double m_desiredDistance;
+
+  private int m_lockedId = -1;
+  private String m_lastCameraName = null;
+  private Pose2d m_fieldToTarget = null;
+  private double m_targetZ = 0.0;
+  private double m_lastSeenTimestamp = 0.0;
+
+  /**
+   * Creates a new TargetTracker
+   * @param requestedId The AprilTag ID to follow (-1 for the lowest cost tag)
+   * @param desiredDistance Distance the robot will stop from the tag (meters)
+   */
+  public TargetTracker(int requestedId, double desiredDistance) {
+    m_requestedId = requestedId;
+    m_desiredDistance = desiredDistance;
+  }
+
+  /**
+   * Forget the current lock and any predicted target
+   */
+  public void reset() {
+    m_lockedId = -1;
+    m_lastCameraName = null;
+    m_fieldToTarget = null;
+  }
+
+  /**
+   * Update the tracker with the latest observations from all cameras
+   * @param visibleTargets Robot-relative targets seen this loop
+   * @param robotPose Current robot pose from odometry
+   * @param timestampSeconds Current time
+   * @return The tracked target, or empty if nothing suitable is visible or predictable
+   */
+  public Optional<VisionTarget> update(List<VisionTarget> visibleTargets, Pose2d robotPose,
+                                       double timestampSeconds) {
+    VisionTarget selected = select(visibleTargets, robotPose, timestampSeconds);
+    if (selected == null) {
+      reset();
+      return Optional.empty();
+    }
+    if (selected.isPredicted()) {
+      return Optional.of(selected);
+    }
+
+    if (m_lastCameraName != null && !m_lastCameraName.equals(selected.getCameraName())) {
+      AsyncLog.log("TargetTracker: Tag " + selected.getFiducialId() + " handed off from "
+          + m_lastCameraName + " to " + selected.getCameraName());
+    }
+    m_lockedId = selected.getFiducialId();
+    m_lastCameraName = selected.getCameraName();
+    m_lastSeenTimestamp = timestampSeconds;
+
+    // Remember where the tag is on the field so it can be predicted during a handoff gap
+    Transform3d robotToTarget = selected.getRobotToTarget();
+    m_fieldToTarget = robotPose.plus(new Transform2d(
+        robotToTarget.getTranslation().toTranslation2d(),
+        robotToTarget.getRotation().toRotation2d()));
+    m_targetZ = robotToTarget.getZ();
+    return Optional.of(selected);
+  }
+
+  /**
+   * Get the ID of the tag currently locked on
+   * @return Locked fiducial ID, or -1 if none
+   */
+  public int getLockedId() {
+    return m_lockedId;
+  }
+
+  /**
+   * Choose the observation to follow this loop
+   * While the locked tag is out of view, its predicted position stands in for it,
+   * so another visible tag only takes over once it is clearly better.
+   * @param visibleTargets Robot-relative targets seen this loop
+   * @param robotPose Current robot pose from odometry
+   * @param timestampSeconds Current time
+   * @return The chosen observation or prediction, or null if none qualify
+   */
+  private VisionTarget select(List<VisionTarget> visibleTargets, Pose2d robotPose, double timestampSeconds) {
+    VisionTarget best = null;
+    double bestCost = Double.POSITIVE_INFINITY;
+    VisionTarget locked = null;
+    double lockedCost = Double.POSITIVE_INFINITY;
+
+    for (VisionTarget target : visibleTargets) {
+      int id = target.getFiducialId();
+      if (m_requestedId != -1 && id != m_requestedId) {
+        continue;
+      }
+
+      double cost = cost(target, m_desiredDistance);
+      if (cost < bestCost) {
+        best = target;
+        bestCost = cost;
+      }
+      // Both cameras can see the same tag - keep the cheaper of the two views
+      if (id == m_lockedId && cost < lockedCost) {
+        locked = target;
+        lockedCost = cost;
+      }
+    }
+
+    // Tag is between cameras (or briefly occluded) - predict it from odometry
+    if (locked == null) {
+      locked = predict(robotPose, timestampSeconds);
+      if (locked == null) {
+        return best;
+      }
+      lockedCost = cost(locked, m_desiredDistance);
+    }
+
+    // Stay on the locked tag unless another one is clearly better
+    if (best == null || lockedCost <= bestCost + Constants.Vision.TARGET_SWITCH_HYSTERESIS) {
+      return locked;
+    }
+    return best;
+  }
+
+  /**
+   * Predict the locked tag from where it was last seen and the robot's odometry
+   * @param robotPose Current robot pose from odometry
+   * @param timestampSeconds Current time
+   * @return Predicted target, or null if there is no lock or it was last seen too long ago
+   */
+  private VisionTarget predict(Pose2d robotPose, double timestampSeconds) {
+    if (m_fieldToTarget == null
+        || timestampSeconds - m_lastSeenTimestamp > Constants.Vision.TARGET_HANDOFF_TIMEOUT_SECONDS) {
+      return null;
+    }
+    Pose2d robotToTarget = m_fieldToTarget.relativeTo(robotPose);
+    return new VisionTarget(
+        m_lockedId,
+        VisionTarget.PREDICTED_SOURCE,
+        new Transform3d(
+            new Translation3d(robotToTarget.getX(), robotToTarget.getY(), m_targetZ),
+            new Rotation3d(0.0, 0.0, robotToTarget.getRotation().getRadians())),
+        m_lastSeenTimestamp,
+        0.0);
+  }
+
+  /**
+   * Cost of driving to a target - lower is better
+   * Combines distance, the rotation needed to face the tag with the front camera,
+   * and the estimated time to get there
+   * @param target The robot-relative target
+   * @param desiredDistance Distance the robot will stop from the tag (meters)
+   * @return Target cost
+   */
+  public static double cost(VisionTarget target, double desiredDistance) {
+    double distance = target.getDistance();
+    double rotation = Math.abs(target.getBearingRadians());
+
+    // Translation and rotation happen together, so the slower of the two dominates
+    double timeToReach = Math.max(
+        Math.max(0.0, distance - desiredDistance) / Constants.Auto.APRILTAG_MAX_SPEED,
+        rotation / Constants.Auto.APRILTAG_MAX_ROTATION_SPEED);
+
+    return Constants.Vision.TARGET_COST_DISTANCE_WEIGHT * distance
+        + Constants.Vision.TARGET_COST_ROTATION_WEIGHT * rotation
+        + Constants.Vision.TARGET_COST_TIME_WEIGHT * timeToReach;
+  }
+}
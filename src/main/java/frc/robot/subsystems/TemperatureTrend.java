@@ -0,0 +1,75 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+/**
+ * Smoothed temperature and rate of change for one device
+ * Both are exponential moving averages with the same time constant, so irregular
+ * sample spacing (a missed refresh, a long loop) is handled correctly.
+ */
+class TemperatureTrend {
+  private final double m_timeConstantSeconds;
+  private boolean m_initialized = false;
+  private double m_lastTime;
+  private double m_filtered;
+  private double m_slopePerSecond;
+
+  /**
+   * Creates a trend
+   * @param timeConstantSeconds Time constant of the moving averages in seconds
+   */
+  TemperatureTrend(double timeConstantSeconds) {
+    m_timeConstantSeconds = timeConstantSeconds;
+  }
+
+  /**
+   * Add a sample
+   * @param temperature Measured temperature in Celsius
+   * @param now Sample time in seconds
+   */
+  void update(double temperature, double now) {
+    if (!m_initialized) {
+      m_filtered = temperature;
+      m_slopePerSecond = 0.0;
+      m_lastTime = now;
+      m_initialized = true;
+      return;
+    }
+    double dt = now - m_lastTime;
+    if (dt <= 0.0) {
+      return;
+    }
+    double alpha = 1.0 - Math.exp(-dt / m_timeConstantSeconds);
+    double previous = m_filtered;
+    m_filtered += alpha * (temperature - m_filtered);
+    m_slopePerSecond += alpha * ((m_filtered - previous) / dt - m_slopePerSecond);
+    m_lastTime = now;
+  }
+
+  /**
+   * Get the smoothed temperature
+   * @return Temperature in Celsius
+   */
+  double getFiltered() {
+    return m_filtered;
+  }
+
+  /**
+   * Get the smoothed rate of change
+   * @return Rate in Celsius per second
+   */
+  double getSlopePerSecond() {
+    return m_slopePerSecond;
+  }
+
+  /**
+   * Extrapolate a rising temperature; a falling one is held at its current value
+   * @param horizonSeconds How far ahead to predict
+   * @return Predicted temperature in Celsius
+   */
+  double predict(double horizonSeconds) {
+    return m_filtered + Math.max(0.0, m_slopePerSecond) * horizonSeconds;
+  }
+}
@@ -4,6 +4,9 @@
 
 package frc.robot.subsystems;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import org.photonvision.EstimatedRobotPose;
@@ -11,22 +14,31 @@ import org.photonvision.PhotonCamera;
 import org.photonvision.PhotonPoseEstimator;
 import org.photonvision.PhotonPoseEstimator.PoseStrategy;
 import org.photonvision.targeting.PhotonPipelineResult;
+import org.photonvision.targeting.PhotonTrackedTarget;
 
 import edu.wpi.first.apriltag.AprilTagFieldLayout;
 import edu.wpi.first.apriltag.AprilTagFields;
 import edu.wpi.first.math.Matrix;
 import edu.wpi.first.math.VecBuilder;
 import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Pose3d;
+import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Rotation3d;
 import edu.wpi.first.math.geometry.Transform3d;
 import edu.wpi.first.math.geometry.Translation3d;
 import edu.wpi.first.math.numbers.N1;
 import edu.wpi.first.math.numbers.N3;
-import edu.wpi.first.wpilibj.DataLogManager;
 import edu.wpi.first.wpilibj.DriverStation;
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import frc.robot.Constants;
+import frc.robot.telemetry.BlackBoxRecorder;
+import frc.robot.telemetry.SwerveStateMirror;
+import frc.robot.util.AsyncLog;
+import frc.robot.util.LoadShedder;
+import frc.robot.util.LoopProfiler;
+import frc.robot.util.TelemetryRegistry;
+import frc.robot.util.TelemetryRegistry.Tier;
 
 /**
  * Vision subsystem for AprilTag-based robot localization
@@ -36,24 +48,85 @@ public class VisionSubsystem extends SubsystemBase {
   // Front camera
   private final PhotonCamera m_frontCamera;
   private final PhotonPoseEstimator m_frontPoseEstimator;
+  private final Transform3d m_robotToFrontCamera;
 
   // Rear camera
   private final PhotonCamera m_rearCamera;
   private final PhotonPoseEstimator m_rearPoseEstimator;
+  private final Transform3d m_robotToRearCamera;
 
   private final CommandSwerveDrivetrain m_drivetrain;
+  private final SwerveStateMirror.Reader m_stateReader;
+  private final BlackBoxRecorder m_blackBox;
+  private final LoopProfiler.Section m_profile = LoopProfiler.getInstance().section("VisionSubsystem.periodic");
+
+  // Work shed when the main loop runs long; target tracking for commands is never shed
+  private final LoadShedder.WorkItem m_fusionWork =
+      LoadShedder.getInstance().register("Vision.fusion", LoadShedder.Priority.VISION_FUSION);
+  private final LoadShedder.WorkItem m_dashboardWork =
+      LoadShedder.getInstance().register("Vision.dashboard", LoadShedder.Priority.DASHBOARD);
+  private final LoadShedder.WorkItem m_logWork =
+      LoadShedder.getInstance().register("Vision.log", LoadShedder.Priority.TEXT_LOG);
+  private boolean m_fuseThisLoop = true;
+  private double m_currentTime = 0.0;
+  private boolean m_publishThisLoop = true;
+  private boolean m_logThisLoop = true;
 
   private boolean m_frontInitialized = false;
   private boolean m_rearInitialized = false;
   private double m_lastFrontEstimateTimestamp = 0.0;
   private double m_lastRearEstimateTimestamp = 0.0;
 
+  // Latest results, read once per loop so every consumer sees the same frame
+  private PhotonPipelineResult m_frontResult = new PhotonPipelineResult();
+  private PhotonPipelineResult m_rearResult = new PhotonPipelineResult();
+
+  // Dashboard channels, only sent on change
+  private final CameraTelemetry m_frontTelemetry = new CameraTelemetry("Front");
+  private final CameraTelemetry m_rearTelemetry = new CameraTelemetry("Rear");
+  private final TelemetryRegistry.BooleanChannel m_frontInitializedPub =
+      TelemetryRegistry.getInstance().booleanChannel("Vision/Front Initialized", Tier.NORMAL, 0.0);
+  private final TelemetryRegistry.BooleanChannel m_rearInitializedPub =
+      TelemetryRegistry.getInstance().booleanChannel("Vision/Rear Initialized", Tier.NORMAL, 0.0);
+
+  // Targets from all cameras in robot frame, rebuilt every loop
+  private final List<VisionTarget> m_visibleTargets = new ArrayList<>();
+  private final List<VisionTarget> m_visibleTargetsView = Collections.unmodifiableList(m_visibleTargets);
+
   /**
    * Creates a new VisionSubsystem with dual cameras
    * @param drivetrain The swerve drivetrain for pose updates
+   * @param blackBox Flight recorder for accepted and rejected estimates
    */
-  public VisionSubsystem(CommandSwerveDrivetrain drivetrain) {
+  public VisionSubsystem(CommandSwerveDrivetrain drivetrain, BlackBoxRecorder blackBox) {
     m_drivetrain = drivetrain;
+    m_stateReader = drivetrain.createStateReader("Vision");
+    m_blackBox = blackBox;
+
+    m_robotToFrontCamera = new Transform3d(
+        new Translation3d(
+            Constants.Vision.FRONT_CAMERA_X_OFFSET,
+            Constants.Vision.FRONT_CAMERA_Y_OFFSET,
+            Constants.Vision.FRONT_CAMERA_Z_OFFSET
+        ),
+        new Rotation3d(
+            Math.toRadians(Constants.Vision.FRONT_CAMERA_ROLL_DEGREES),
+            Math.toRadians(Constants.Vision.FRONT_CAMERA_PITCH_DEGREES),
+            Math.toRadians(Constants.Vision.FRONT_CAMERA_YAW_DEGREES)
+        )
+    );
+    m_robotToRearCamera = new Transform3d(
+        new Translation3d(
+            Constants.Vision.REAR_CAMERA_X_OFFSET,
+            Constants.Vision.REAR_CAMERA_Y_OFFSET,
+            Constants.Vision.REAR_CAMERA_Z_OFFSET
+        ),
+        new Rotation3d(
+            Math.toRadians(Constants.Vision.REAR_CAMERA_ROLL_DEGREES),
+            Math.toRadians(Constants.Vision.REAR_CAMERA_PITCH_DEGREES),
+            Math.toRadians(Constants.Vision.REAR_CAMERA_YAW_DEGREES)
+        )
+    );
 
     // Initialize front camera
     PhotonCamera frontCamera = null;
@@ -63,31 +136,18 @@ public class VisionSubsystem extends SubsystemBase {
 
       AprilTagFieldLayout fieldLayout = FieldConfiguration.getFieldLayout(Constants.Vision.FIELD_MODE);
 
-      Transform3d robotToFrontCamera = new Transform3d(
-          new Translation3d(
-              Constants.Vision.FRONT_CAMERA_X_OFFSET,
-              Constants.Vision.FRONT_CAMERA_Y_OFFSET,
-              Constants.Vision.FRONT_CAMERA_Z_OFFSET
-          ),
-          new Rotation3d(
-              Math.toRadians(Constants.Vision.FRONT_CAMERA_ROLL_DEGREES),
-              Math.toRadians(Constants.Vision.FRONT_CAMERA_PITCH_DEGREES),
-              Math.toRadians(Constants.Vision.FRONT_CAMERA_YAW_DEGREES)
-          )
-      );
-
       frontEstimator = new PhotonPoseEstimator(
           fieldLayout,
           PoseStrategy.MULTI_TAG_PNP_ON_COPROCESSOR,
-          robotToFrontCamera
+          m_robotToFrontCamera
       );
       frontEstimator.setMultiTagFallbackStrategy(PoseStrategy.LOWEST_AMBIGUITY);
 
       m_frontInitialized = true;
-      DataLogManager.log("Front camera initialized: " + Constants.Vision.FRONT_CAMERA_NAME);
+      AsyncLog.log("Front camera initialized: " + Constants.Vision.FRONT_CAMERA_NAME);
     } catch (Exception e) {
       DriverStation.reportError("Failed to initialize front camera: " + e.getMessage(), true);
-      DataLogManager.log("ERROR: Front camera initialization failed - " + e.getMessage());
+      AsyncLog.log("ERROR: Front camera initialization failed - " + e.getMessage());
       m_frontInitialized = false;
     }
     m_frontCamera = frontCamera;
@@ -101,38 +161,25 @@ public class VisionSubsystem extends SubsystemBase {
 
       AprilTagFieldLayout fieldLayout = FieldConfiguration.getFieldLayout(Constants.Vision.FIELD_MODE);
 
-      Transform3d robotToRearCamera = new Transform3d(
-          new Translation3d(
-              Constants.Vision.REAR_CAMERA_X_OFFSET,
-              Constants.Vision.REAR_CAMERA_Y_OFFSET,
-              Constants.Vision.REAR_CAMERA_Z_OFFSET
-          ),
-          new Rotation3d(
-              Math.toRadians(Constants.Vision.REAR_CAMERA_ROLL_DEGREES),
-              Math.toRadians(Constants.Vision.REAR_CAMERA_PITCH_DEGREES),
-              Math.toRadians(Constants.Vision.REAR_CAMERA_YAW_DEGREES)
-          )
-      );
-
       rearEstimator = new PhotonPoseEstimator(
           fieldLayout,
           PoseStrategy.MULTI_TAG_PNP_ON_COPROCESSOR,
-          robotToRearCamera
+          m_robotToRearCamera
       );
       rearEstimator.setMultiTagFallbackStrategy(PoseStrategy.LOWEST_AMBIGUITY);
 
       m_rearInitialized = true;
-      DataLogManager.log("Rear camera initialized: " + Constants.Vision.REAR_CAMERA_NAME);
+      AsyncLog.log("Rear camera initialized: " + Constants.Vision.REAR_CAMERA_NAME);
     } catch (Exception e) {
       DriverStation.reportError("Failed to initialize rear camera: " + e.getMessage(), true);
-      DataLogManager.log("ERROR: Rear camera initialization failed - " + e.getMessage());
+      AsyncLog.log("ERROR: Rear camera initialization failed - " + e.getMessage());
       m_rearInitialized = false;
     }
     m_rearCamera = rearCamera;
     m_rearPoseEstimator = rearEstimator;
 
     if (m_frontInitialized || m_rearInitialized) {
-      DataLogManager.log("VisionSubsystem initialized with " +
+      AsyncLog.log("VisionSubsystem initialized with " +
           (m_frontInitialized ? "front " : "") +
           (m_rearInitialized ? "rear" : "") + " camera(s)");
     } else {
@@ -142,43 +189,57 @@ public class VisionSubsystem extends SubsystemBase {
 
   @Override
   public void periodic() {
+    m_profile.start();
+    m_currentTime = Timer.getFPGATimestamp();
+    m_visibleTargets.clear();
+    m_fuseThisLoop = m_fusionWork.shouldRun();
+    m_publishThisLoop = m_dashboardWork.shouldRun();
+    m_logThisLoop = m_logWork.shouldRun();
+
     // Process front camera
     if (m_frontInitialized) {
-      processCamera(m_frontCamera, m_frontPoseEstimator, "Front", true);
+      m_frontResult = m_frontCamera.getLatestResult();
+      processCamera(m_frontCamera, m_frontResult, m_frontPoseEstimator, m_frontTelemetry, true);
+      addVisibleTargets(m_frontResult, m_robotToFrontCamera, Constants.Vision.FRONT_CAMERA_NAME);
     }
 
     // Process rear camera
     if (m_rearInitialized) {
-      processCamera(m_rearCamera, m_rearPoseEstimator, "Rear", false);
+      m_rearResult = m_rearCamera.getLatestResult();
+      processCamera(m_rearCamera, m_rearResult, m_rearPoseEstimator, m_rearTelemetry, false);
+      addVisibleTargets(m_rearResult, m_robotToRearCamera, Constants.Vision.REAR_CAMERA_NAME);
     }
 
     // Overall telemetry
-    SmartDashboard.putBoolean("Vision/Front Initialized", m_frontInitialized);
-    SmartDashboard.putBoolean("Vision/Rear Initialized", m_rearInitialized);
+    if (m_publishThisLoop) {
+      m_frontInitializedPub.set(m_frontInitialized, m_currentTime);
+      m_rearInitializedPub.set(m_rearInitialized, m_currentTime);
+    }
+    m_profile.stop();
   }
 
   /**
    * Process a single camera's vision measurements
    * @param camera The PhotonCamera to process
+   * @param result The latest pipeline result from this camera
    * @param poseEstimator The pose estimator for this camera
-   * @param cameraName Name for telemetry logging
+   * @param telemetry Dashboard channels and name of this camera
    * @param isFront Whether this is the front camera (for timestamp tracking)
    */
-  private void processCamera(PhotonCamera camera, PhotonPoseEstimator poseEstimator,
-                             String cameraName, boolean isFront) {
-    // Get latest camera result
-    PhotonPipelineResult result = camera.getLatestResult();
-
+  private void processCamera(PhotonCamera camera, PhotonPipelineResult result,
+                             PhotonPoseEstimator poseEstimator, CameraTelemetry telemetry, boolean isFront) {
     // Publish camera-specific telemetry
-    String prefix = "Vision/" + cameraName + "/";
-    SmartDashboard.putBoolean(prefix + "Has Targets", result.hasTargets());
-    SmartDashboard.putNumber(prefix + "Target Count", result.getTargets().size());
-    SmartDashboard.putBoolean(prefix + "Connected", camera.isConnected());
+    if (m_publishThisLoop) {
+      telemetry.m_hasTargets.set(result.hasTargets(), m_currentTime);
+      telemetry.m_targetCount.set(result.getTargets().size(), m_currentTime);
+      telemetry.m_connected.set(camera.isConnected(), m_currentTime);
+    }
 
-    // Process vision measurement if we have targets
-    if (result.hasTargets()) {
+    // Process vision measurement if we have targets and fusion isn't shed this loop
+    if (m_fuseThisLoop && result.hasTargets()) {
       // Update pose estimator with current robot pose
-      poseEstimator.setReferencePose(m_drivetrain.getState().Pose);
+      Pose2d currentPose = m_stateReader.read().pose;
+      poseEstimator.setReferencePose(currentPose);
 
       // Get estimated pose from vision
       Optional<EstimatedRobotPose> estimatedPose = poseEstimator.update(result);
@@ -187,17 +248,23 @@ public class VisionSubsystem extends SubsystemBase {
         EstimatedRobotPose visionPose = estimatedPose.get();
 
         // Check quality of the estimate
-        boolean shouldUse = shouldUseVisionMeasurement(visionPose, result);
-
-        SmartDashboard.putBoolean(prefix + "Using Measurement", shouldUse);
-        SmartDashboard.putNumber(prefix + "Estimated X", visionPose.estimatedPose.getX());
-        SmartDashboard.putNumber(prefix + "Estimated Y", visionPose.estimatedPose.getY());
-        SmartDashboard.putNumber(prefix + "Estimated Rotation",
-            visionPose.estimatedPose.getRotation().toRotation2d().getDegrees());
+        boolean shouldUse = shouldUseVisionMeasurement(currentPose, visionPose, result);
+        m_blackBox.recordVision(isFront ? 0 : 1, shouldUse, visionPose.targetsUsed.size(),
+            visionPose.estimatedPose.getX(),
+            visionPose.estimatedPose.getY(),
+            visionPose.estimatedPose.getRotation().getZ());
+
+        if (m_publishThisLoop) {
+          telemetry.m_usingMeasurement.set(shouldUse, m_currentTime);
+          telemetry.m_estimatedX.set(visionPose.estimatedPose.getX(), m_currentTime);
+          telemetry.m_estimatedY.set(visionPose.estimatedPose.getY(), m_currentTime);
+          telemetry.m_estimatedRotation.set(
+              visionPose.estimatedPose.getRotation().toRotation2d().getDegrees(), m_currentTime);
+        }
 
         if (shouldUse) {
           // Calculate dynamic standard deviations based on distance and number of tags
-          Matrix<N3, N1> stdDevs = calculateStdDevs(visionPose, result);
+          Matrix<N3, N1> stdDevs = calculateStdDevs(currentPose, visionPose);
 
           // Add vision measurement to drivetrain
           m_drivetrain.addVisionMeasurement(
@@ -213,24 +280,58 @@ public class VisionSubsystem extends SubsystemBase {
             m_lastRearEstimateTimestamp = visionPose.timestampSeconds;
           }
 
-          DataLogManager.log(String.format("%s Vision: Updated pose to (%.2f, %.2f, %.1f°) with %d tags",
-              cameraName,
-              visionPose.estimatedPose.getX(),
-              visionPose.estimatedPose.getY(),
-              visionPose.estimatedPose.getRotation().toRotation2d().getDegrees(),
-              visionPose.targetsUsed.size()));
+          if (m_logThisLoop) {
+            AsyncLog.log(String.format("%s Vision: Updated pose to (%.2f, %.2f, %.1f°) with %d tags",
+                telemetry.m_name,
+                visionPose.estimatedPose.getX(),
+                visionPose.estimatedPose.getY(),
+                visionPose.estimatedPose.getRotation().toRotation2d().getDegrees(),
+                visionPose.targetsUsed.size()));
+          }
         }
       }
     }
   }
 
+  /**
+   * Convert a camera's targets to robot frame and add them to the visible target list
+   * @param result The latest pipeline result from the camera
+   * @param robotToCamera Mounting transform of the camera
+   * @param cameraName Name of the camera
+   */
+  private void addVisibleTargets(PhotonPipelineResult result, Transform3d robotToCamera, String cameraName) {
+    if (!result.hasTargets()) {
+      return;
+    }
+
+    double timestamp = result.getTimestampSeconds();
+    for (PhotonTrackedTarget target : result.getTargets()) {
+      Transform3d cameraToTarget = target.getBestCameraToTarget();
+
+      // A zero transform means the pipeline has no 3D solve for this tag
+      if (cameraToTarget.getTranslation().getNorm() <= 0) {
+        continue;
+      }
+
+      m_visibleTargets.add(new VisionTarget(
+          target.getFiducialId(),
+          cameraName,
+          robotToCamera.plus(cameraToTarget),
+          timestamp,
+          target.getPoseAmbiguity()
+      ));
+    }
+  }
+
   /**
    * Determine if vision measurement should be used
+   * @param currentPose The robot's current odometry pose
    * @param pose The estimated pose from vision
    * @param result The pipeline result
    * @return True if measurement should be used
    */
-  private boolean shouldUseVisionMeasurement(EstimatedRobotPose pose, PhotonPipelineResult result) {
+  static boolean shouldUseVisionMeasurement(Pose2d currentPose, EstimatedRobotPose pose,
+                                            PhotonPipelineResult result) {
     // Don't use if we don't have targets
     if (!result.hasTargets()) {
       return false;
@@ -245,7 +346,6 @@ public class VisionSubsystem extends SubsystemBase {
     }
 
     // Check distance - vision gets unreliable at long distances
-    Pose2d currentPose = m_drivetrain.getState().Pose;
     double distance = currentPose.getTranslation().getDistance(pose.estimatedPose.toPose2d().getTranslation());
 
     if (distance > Constants.Vision.MAX_VISION_DISTANCE) {
@@ -257,17 +357,16 @@ public class VisionSubsystem extends SubsystemBase {
 
   /**
    * Calculate dynamic standard deviations based on measurement quality
+   * @param currentPose The robot's current odometry pose
    * @param pose The estimated pose
-   * @param result The pipeline result
    * @return Standard deviation matrix [x, y, rotation]
    */
-  private Matrix<N3, N1> calculateStdDevs(EstimatedRobotPose pose, PhotonPipelineResult result) {
+  static Matrix<N3, N1> calculateStdDevs(Pose2d currentPose, EstimatedRobotPose pose) {
     // Start with base standard deviations
     double xyStdDev = Constants.Vision.VISION_MEASUREMENT_STD_DEVS[0];
     double rotStdDev = Constants.Vision.VISION_MEASUREMENT_STD_DEVS[2];
 
     // Calculate distance to target
-    Pose2d currentPose = m_drivetrain.getState().Pose;
     double distance = currentPose.getTranslation().getDistance(pose.estimatedPose.toPose2d().getTranslation());
 
     // Increase standard deviation with distance
@@ -286,6 +385,52 @@ public class VisionSubsystem extends SubsystemBase {
     return VecBuilder.fill(xyStdDev, xyStdDev, rotStdDev);
   }
 
+  /**
+   * Create one warm-up round of the vision measurement checks
+   * Gates and weights synthetic single-tag, multi-tag and out-of-range estimates the
+   * same way periodic() does, without touching the cameras or the drivetrain
+   * @return One round of work for WarmupService
+   */
+  public static Runnable createWarmupRound() {
+    Pose2d currentPose = new Pose2d(3.0, 4.0, new Rotation2d(0.5));
+    double farX = currentPose.getX() + Constants.Vision.MAX_VISION_DISTANCE + 1.0;
+    List<PhotonPipelineResult> results = new ArrayList<>();
+    List<EstimatedRobotPose> estimates = new ArrayList<>();
+    addWarmupEstimate(results, estimates, 1, 3.2, 4.1);
+    addWarmupEstimate(results, estimates, 3, 3.2, 4.1);
+    addWarmupEstimate(results, estimates, 1, farX, 4.0);
+
+    return () -> {
+      for (int i = 0; i < estimates.size(); i++) {
+        EstimatedRobotPose visionPose = estimates.get(i);
+        if (shouldUseVisionMeasurement(currentPose, visionPose, results.get(i))) {
+          calculateStdDevs(currentPose, visionPose);
+        }
+      }
+    };
+  }
+
+  /**
+   * Add a synthetic pipeline result and the estimate built from it
+   * @param results List to add the pipeline result to
+   * @param estimates List to add the estimate to
+   * @param tagCount Number of tags in the result
+   * @param x Field X of the estimate in meters
+   * @param y Field Y of the estimate in meters
+   */
+  private static void addWarmupEstimate(List<PhotonPipelineResult> results, List<EstimatedRobotPose> estimates,
+                                        int tagCount, double x, double y) {
+    List<PhotonTrackedTarget> targets = new ArrayList<>();
+    for (int i = 0; i < tagCount; i++) {
+      Transform3d cameraToTarget = new Transform3d(2.0 + i, 0.3 * i, 0.5, new Rotation3d(0, 0, Math.PI));
+      targets.add(new PhotonTrackedTarget(5.0 * i, 2.0, 1.5, 0.0, i + 1, -1, -1.0f,
+          cameraToTarget, cameraToTarget, 0.1, List.of(), List.of()));
+    }
+    results.add(new PhotonPipelineResult(1, 1_000_000, 1_005_000, 0, targets));
+    Pose3d estimatedPose = new Pose3d(new Translation3d(x, y, 0.0), new Rotation3d(0, 0, 0.5));
+    estimates.add(new EstimatedRobotPose(estimatedPose, 1.0, targets, PoseStrategy.MULTI_TAG_PNP_ON_COPROCESSOR));
+  }
+
   /**
    * Check if any camera initialized successfully
    * @return True if at least one camera initialized
@@ -342,6 +487,45 @@ public class VisionSubsystem extends SubsystemBase {
     return m_lastRearEstimateTimestamp;
   }
 
+  /**
+   * Get all AprilTags currently seen by any camera, in robot frame
+   * @return Unmodifiable list of targets from the latest loop
+   */
+  public List<VisionTarget> getVisibleTargets() {
+    return m_visibleTargetsView;
+  }
+
+  /**
+   * Get the nearest AprilTag seen by any camera
+   * @return Optional containing the robot-relative target, or empty if no targets detected
+   */
+  public Optional<VisionTarget> getNearestTarget() {
+    VisionTarget nearest = null;
+    for (VisionTarget target : m_visibleTargets) {
+      if (nearest == null || target.getDistance() < nearest.getDistance()) {
+        nearest = target;
+      }
+    }
+    return Optional.ofNullable(nearest);
+  }
+
+  /**
+   * Get a specific AprilTag by ID from any camera
+   * If both cameras see the tag, the less ambiguous view is returned
+   * @param targetId The AprilTag ID to find
+   * @return Optional containing the robot-relative target, or empty if not found
+   */
+  public Optional<VisionTarget> getTargetById(int targetId) {
+    VisionTarget found = null;
+    for (VisionTarget target : m_visibleTargets) {
+      if (target.getFiducialId() == targetId
+          && (found == null || target.getAmbiguity() < found.getAmbiguity())) {
+        found = target;
+      }
+    }
+    return Optional.ofNullable(found);
+  }
+
   /**
    * Get the nearest AprilTag detected by the front camera
    * @return Optional containing the target data, or empty if no targets detected
@@ -408,4 +592,37 @@ public class VisionSubsystem extends SubsystemBase {
     }
     return m_rearCamera.getLatestResult();
   }
+
+  /**
+   * Dashboard channels of one camera
+   */
+  private static final class CameraTelemetry {
+    private final String m_name;
+    private final TelemetryRegistry.BooleanChannel m_hasTargets;
+    private final TelemetryRegistry.DoubleChannel m_targetCount;
+    private final TelemetryRegistry.BooleanChannel m_connected;
+    private final TelemetryRegistry.BooleanChannel m_usingMeasurement;
+    private final TelemetryRegistry.DoubleChannel m_estimatedX;
+    private final TelemetryRegistry.DoubleChannel m_estimatedY;
+    private final TelemetryRegistry.DoubleChannel m_estimatedRotation;
+
+    private CameraTelemetry(String name) {
+      TelemetryRegistry registry = TelemetryRegistry.getInstance();
+      String prefix = "Vision/" + name + "/";
+      m_name = name;
+      m_connected = registry.booleanChannel(prefix + "Connected", Tier.CRITICAL, 0.0);
+      m_hasTargets = registry.booleanChannel(prefix + "Has Targets", Tier.NORMAL,
+          Constants.TelemetryBudget.DASHBOARD_INTERVAL_SECONDS);
+      m_targetCount = registry.doubleChannel(prefix + "Target Count", Tier.NORMAL,
+          Constants.TelemetryBudget.DASHBOARD_INTERVAL_SECONDS, 0.0);
+      m_usingMeasurement = registry.booleanChannel(prefix + "Using Measurement", Tier.NORMAL,
+          Constants.TelemetryBudget.DASHBOARD_INTERVAL_SECONDS);
+      m_estimatedX = registry.doubleChannel(prefix + "Estimated X", Tier.DEBUG,
+          Constants.TelemetryBudget.DASHBOARD_INTERVAL_SECONDS, Constants.Vision.POSE_PUBLISH_DEADBAND_METERS);
+      m_estimatedY = registry.doubleChannel(prefix + "Estimated Y", Tier.DEBUG,
+          Constants.TelemetryBudget.DASHBOARD_INTERVAL_SECONDS, Constants.Vision.POSE_PUBLISH_DEADBAND_METERS);
+      m_estimatedRotation = registry.doubleChannel(prefix + "Estimated Rotation", Tier.DEBUG,
+          Constants.TelemetryBudget.DASHBOARD_INTERVAL_SECONDS, Constants.Vision.ROTATION_PUBLISH_DEADBAND_DEGREES);
+    }
+  }
 }
@@ -0,0 +1,105 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import edu.wpi.first.math.geometry.Transform3d;
+
+/**
+ * A single AprilTag observation expressed in the robot frame
+ * Produced by VisionSubsystem from any camera, so consumers do not need to know
+ * which camera saw the tag or how that camera is mounted
+ */
+public class VisionTarget {
+  /** Camera name used for targets that are predicted from odometry rather than observed */
+  public static final String PREDICTED_SOURCE = "odometry";
+
+  private final int m_fiducialId;
+  private final String m_cameraName;
+  private final Transform3d m_robotToTarget;
+  private final double m_timestampSeconds;
+  private final double m_ambiguity;
+
+  /**
+   * Creates a new robot-relative target observation
+   * @param fiducialId The AprilTag ID
+   * @param cameraName Name of the camera that saw the tag (or {@link #PREDICTED_SOURCE})
+   * @param robotToTarget Transform from robot center to the tag
+   * @param timestampSeconds Capture timestamp of the observation
+   * @param ambiguity PhotonVision pose ambiguity (0-1, lower is better)
+   */
+  public VisionTarget(int fiducialId, String cameraName, Transform3d robotToTarget,
+                      double timestampSeconds, double ambiguity) {
+    m_fiducialId = fiducialId;
+    m_cameraName = cameraName;
+    m_robotToTarget = robotToTarget;
+    m_timestampSeconds = timestampSeconds;
+    m_ambiguity = ambiguity;
+  }
+
+  /**
+   * Get the AprilTag ID
+   * @return Fiducial ID
+   */
+  public int getFiducialId() {
+    return m_fiducialId;
+  }
+
+  /**
+   * Get the name of the camera that produced this observation
+   * @return Camera name
+   */
+  public String getCameraName() {
+    return m_cameraName;
+  }
+
+  /**
+   * Get the transform from the robot center to the tag
+   * @return Robot-to-target transform
+   */
+  public Transform3d getRobotToTarget() {
+    return m_robotToTarget;
+  }
+
+  /**
+   * Get the capture timestamp
+   * @return Timestamp in seconds
+   */
+  public double getTimestampSeconds() {
+    return m_timestampSeconds;
+  }
+
+  /**
+   * Get the pose ambiguity reported by PhotonVision
+   * @return Ambiguity (0-1, lower is better)
+   */
+  public double getAmbiguity() {
+    return m_ambiguity;
+  }
+
+  /**
+   * Check if this target was predicted from odometry instead of seen by a camera
+   * @return True if predicted
+   */
+  public boolean isPredicted() {
+    return PREDICTED_SOURCE.equals(m_cameraName);
+  }
+
+  /**
+   * Get the ground-plane distance from the robot center to the tag
+   * @return Distance in meters
+   */
+  public double getDistance() {
+    return Math.hypot(m_robotToTarget.getX(), m_robotToTarget.getY());
+  }
+
+  /**
+   * Get the bearing to the tag relative to the robot's forward direction
+   * Positive is counter-clockwise (tag to the left)
+   * @return Bearing in radians, in (-pi, pi]
+   */
+  public double getBearingRadians() {
+    return Math.atan2(m_robotToTarget.getY(), m_robotToTarget.getX());
+  }
+}
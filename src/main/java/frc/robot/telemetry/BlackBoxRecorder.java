@@ -0,0 +1,318 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.telemetry;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleSupplier;
+
+import com.ctre.phoenix6.Utils;
+
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.DriverStation;
+import frc.robot.Constants;
+
+/**
+ * In-memory flight recorder for the last few seconds before a fault
+ * Drive state, power and vision events go into a fixed-size off-heap ring of
+ * fixed-size records. Recording never allocates or blocks, and any thread may record.
+ * When a brownout, critical voltage or driver marker fires, the ring is copied and
+ * written to a compact file on a background thread.
+ * <p>
+ * Record layout (little endian, {@link #RECORD_BYTES} bytes):
+ * stamp (long, sequence + 1 once complete), timestamp (double, CTRE timebase),
+ * type (int), arg (int), then {@link #VALUE_COUNT} doubles whose meaning depends on type.
+ * <p>
+ * Dump layout: magic, version, record size, record count (ints), trigger (int),
+ * reserved (int), trigger timestamp (double), then the records oldest first.
+ */
+public class BlackBoxRecorder {
+  /** x, y, heading (rad), vx, vy, omega, odometry period; arg = failed DAQs */
+  public static final int TYPE_DRIVE = 1;
+  /** battery voltage, input current, CAN utilization (%); arg = 1 if browned out */
+  public static final int TYPE_POWER = 2;
+  /** camera (0 front, 1 rear), x, y, heading (rad); arg = tags used */
+  public static final int TYPE_VISION_ACCEPTED = 3;
+  /** same as TYPE_VISION_ACCEPTED */
+  public static final int TYPE_VISION_REJECTED = 4;
+  /** no values; arg = trigger ordinal */
+  public static final int TYPE_MARKER = 5;
+
+  static final int MAGIC = 0x58424242; // "BBBX"
+  static final int VERSION = 1;
+  static final int HEADER_BYTES = 32;
+  static final int VALUE_COUNT = 7;
+  static final int RECORD_BYTES = 80;
+  static final int OFFSET_STAMP = 0;
+  static final int OFFSET_TIMESTAMP = 8;
+  static final int OFFSET_TYPE = 16;
+  static final int OFFSET_ARG = 20;
+  static final int OFFSET_VALUES = 24;
+
+  // Ordered access to the per-record stamps in the direct buffer
+  private static final VarHandle STAMP =
+      MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+  /**
+   * What caused a dump
+   */
+  public enum Trigger {
+    BROWNOUT,
+    CRITICAL_VOLTAGE,
+    DRIVER_MARKER
+  }
+
+  private final ByteBuffer m_ring;
+  private final int m_capacity;
+  private final int m_mask;
+  private final AtomicLong m_next = new AtomicLong();
+  private final DoubleSupplier m_clock;
+  private final Path m_directory;
+
+  // Dump state: one dump at a time, into a buffer preallocated for it
+  private final ByteBuffer m_dumpBuffer;
+  private final AtomicBoolean m_dumpPending = new AtomicBoolean(false);
+  private double m_lastTriggerTime = Double.NEGATIVE_INFINITY;
+  private int m_dumpCount = 0;
+  private final ScheduledExecutorService m_dumper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "BlackBoxDump");
+    thread.setDaemon(true);
+    thread.setPriority(Thread.MIN_PRIORITY);
+    return thread;
+  });
+
+  /**
+   * Creates a recorder sized from Constants.BlackBox that dumps into the log directory
+   */
+  public BlackBoxRecorder() {
+    this(Constants.BlackBox.CAPACITY_RECORDS, Utils::getCurrentTimeSeconds, Path.of(DataLogManager.getLogDir()));
+  }
+
+  /**
+   * Creates a recorder
+   * @param capacity Number of records kept; must be a power of two
+   * @param clock Time source for power, vision and marker records, in the drive state timebase
+   * @param directory Directory to write dumps to
+   */
+  BlackBoxRecorder(int capacity, DoubleSupplier clock, Path directory) {
+    if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+      throw new IllegalArgumentException("Black box capacity must be a power of two");
+    }
+    m_capacity = capacity;
+    m_mask = capacity - 1;
+    m_clock = clock;
+    m_directory = directory;
+    m_ring = ByteBuffer.allocateDirect(capacity * RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    m_dumpBuffer = ByteBuffer.allocateDirect(HEADER_BYTES + capacity * RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  /**
+   * Record a drive state
+   * @param state Drained state from the telemetry log tier
+   */
+  public void recordDrive(SwerveStateSnapshot state) {
+    long seq = begin(state.timestamp, TYPE_DRIVE, state.failedDaqs);
+    int offset = offset(seq);
+    putValue(offset, 0, state.poseX);
+    putValue(offset, 1, state.poseY);
+    putValue(offset, 2, state.poseHeadingRadians);
+    putValue(offset, 3, state.vx);
+    putValue(offset, 4, state.vy);
+    putValue(offset, 5, state.omega);
+    putValue(offset, 6, state.odometryPeriod);
+    end(seq);
+  }
+
+  /**
+   * Record the power state
+   * @param batteryVoltage Battery voltage in volts
+   * @param totalCurrent Input current in amps
+   * @param canUtilization CAN bus utilization in percent
+   * @param brownedOut Whether the robot is browned out
+   */
+  public void recordPower(double batteryVoltage, double totalCurrent, double canUtilization, boolean brownedOut) {
+    long seq = begin(m_clock.getAsDouble(), TYPE_POWER, brownedOut ? 1 : 0);
+    int offset = offset(seq);
+    putValue(offset, 0, batteryVoltage);
+    putValue(offset, 1, totalCurrent);
+    putValue(offset, 2, canUtilization);
+    clearValues(offset, 3);
+    end(seq);
+  }
+
+  /**
+   * Record a vision estimate and whether it was fused
+   * @param camera Camera index (0 front, 1 rear)
+   * @param accepted Whether the estimate was added to odometry
+   * @param tagCount Tags used by the estimate
+   * @param x Estimated x in meters
+   * @param y Estimated y in meters
+   * @param headingRadians Estimated heading in radians
+   */
+  public void recordVision(int camera, boolean accepted, int tagCount, double x, double y, double headingRadians) {
+    long seq = begin(m_clock.getAsDouble(), accepted ? TYPE_VISION_ACCEPTED : TYPE_VISION_REJECTED, tagCount);
+    int offset = offset(seq);
+    putValue(offset, 0, camera);
+    putValue(offset, 1, x);
+    putValue(offset, 2, y);
+    putValue(offset, 3, headingRadians);
+    clearValues(offset, 4);
+    end(seq);
+  }
+
+  /**
+   * Mark the recording and dump it
+   * Triggers within Constants.BlackBox.MIN_DUMP_INTERVAL_SECONDS of the previous one
+   * are marked but not dumped again; call from the main robot thread
+   * @param trigger What caused the dump
+   */
+  public void trigger(Trigger trigger) {
+    double now = m_clock.getAsDouble();
+    long seq = begin(now, TYPE_MARKER, trigger.ordinal());
+    clearValues(offset(seq), 0);
+    end(seq);
+
+    if (now - m_lastTriggerTime < Constants.BlackBox.MIN_DUMP_INTERVAL_SECONDS) {
+      return;
+    }
+    if (!m_dumpPending.compareAndSet(false, true)) {
+      return;
+    }
+    m_lastTriggerTime = now;
+    int index = ++m_dumpCount;
+
+    // Keep recording briefly so the dump shows what happened right after the trigger
+    m_dumper.schedule(() -> {
+      try {
+        Path path = dump(trigger, now, index);
+        DataLogManager.log("Black box dumped to " + path + " (" + trigger + ")");
+      } catch (IOException e) {
+        DriverStation.reportError("Failed to write black box dump: " + e.getMessage(), false);
+      } finally {
+        m_dumpPending.set(false);
+      }
+    }, (long) (Constants.BlackBox.POST_TRIGGER_SECONDS * 1000), TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Get the number of records written since construction
+   * @return Record count, including ones already overwritten
+   */
+  public long getRecordCount() {
+    return m_next.get();
+  }
+
+  /**
+   * Get the number of records the ring holds
+   * @return Capacity in records
+   */
+  public int getCapacity() {
+    return m_capacity;
+  }
+
+  /**
+   * Copy the current ring contents, oldest first, into a buffer
+   * Records overwritten or still being written while copying are skipped.
+   * @param out Buffer to append complete records to
+   * @return Number of records copied
+   */
+  int snapshot(ByteBuffer out) {
+    long end = m_next.get();
+    long start = Math.max(0, end - m_capacity);
+    int copied = 0;
+    for (long seq = start; seq < end; seq++) {
+      int offset = offset(seq);
+      if ((long) STAMP.getAcquire(m_ring, offset + OFFSET_STAMP) != seq + 1) {
+        continue;
+      }
+      int position = out.position();
+      out.put(out.position(), m_ring, offset, RECORD_BYTES);
+      // Seqlock check: if the slot was reused while copying, drop the copy
+      VarHandle.acquireFence();
+      if ((long) STAMP.getAcquire(m_ring, offset + OFFSET_STAMP) != seq + 1) {
+        continue;
+      }
+      out.position(position + RECORD_BYTES);
+      copied++;
+    }
+    return copied;
+  }
+
+  /**
+   * Write the ring to a new dump file (dump thread only)
+   * @param trigger What caused the dump
+   * @param triggerTime When it fired
+   * @param index Dump number, used in the file name
+   * @return Path of the written file
+   * @throws IOException If the file can't be written
+   */
+  Path dump(Trigger trigger, double triggerTime, int index) throws IOException {
+    m_dumpBuffer.clear();
+    m_dumpBuffer.position(HEADER_BYTES);
+    int count = snapshot(m_dumpBuffer);
+    m_dumpBuffer.putInt(0, MAGIC);
+    m_dumpBuffer.putInt(4, VERSION);
+    m_dumpBuffer.putInt(8, RECORD_BYTES);
+    m_dumpBuffer.putInt(12, count);
+    m_dumpBuffer.putInt(16, trigger.ordinal());
+    m_dumpBuffer.putInt(20, 0);
+    m_dumpBuffer.putDouble(24, triggerTime);
+    m_dumpBuffer.flip();
+
+    Files.createDirectories(m_directory);
+    // Wall-clock millis keep names unique across reboots; the index covers an unset clock
+    Path path = m_directory.resolve(String.format("blackbox_%d_%03d_%s.bin",
+        System.currentTimeMillis(), index, trigger.name().toLowerCase()));
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+      while (m_dumpBuffer.hasRemaining()) {
+        channel.write(m_dumpBuffer);
+      }
+    }
+    return path;
+  }
+
+  private int offset(long seq) {
+    return (int) (seq & m_mask) * RECORD_BYTES;
+  }
+
+  private long begin(double timestamp, int type, int arg) {
+    long seq = m_next.getAndIncrement();
+    int offset = offset(seq);
+    // Mark the slot incomplete before touching the rest of it
+    STAMP.setOpaque(m_ring, offset + OFFSET_STAMP, 0L);
+    VarHandle.storeStoreFence();
+    m_ring.putDouble(offset + OFFSET_TIMESTAMP, timestamp);
+    m_ring.putInt(offset + OFFSET_TYPE, type);
+    m_ring.putInt(offset + OFFSET_ARG, arg);
+    return seq;
+  }
+
+  private void putValue(int offset, int index, double value) {
+    m_ring.putDouble(offset + OFFSET_VALUES + index * Double.BYTES, value);
+  }
+
+  private void clearValues(int offset, int from) {
+    for (int i = from; i < VALUE_COUNT; i++) {
+      putValue(offset, i, 0.0);
+    }
+  }
+
+  private void end(long seq) {
+    // Release store: the record is visible before its stamp
+    STAMP.setRelease(m_ring, offset(seq) + OFFSET_STAMP, seq + 1);
+  }
+}
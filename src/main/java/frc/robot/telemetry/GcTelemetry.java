@@ -0,0 +1,202 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.telemetry;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryUsage;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+
+import com.ctre.phoenix6.Utils;
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import edu.wpi.first.util.datalog.DataLog;
+import edu.wpi.first.util.datalog.DoubleLogEntry;
+import edu.wpi.first.util.datalog.StringLogEntry;
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.Notifier;
+import edu.wpi.first.wpilibj.Timer;
+import frc.robot.Constants;
+import frc.robot.util.TelemetryRegistry;
+import frc.robot.util.TelemetryRegistry.Tier;
+
+/**
+ * Garbage collection and heap telemetry
+ * Subscribes to the JVM's GC notifications, so every collection is logged as it
+ * happens with its pause, collector and cause; nothing is polled for pauses. Heap
+ * and metaspace occupancy are sampled at a low rate on a notifier. When the main
+ * loop reports an overrun, a pause just before it is counted as the likely cause,
+ * and both go to the same data log so they line up on one timeline. Dashboard
+ * values go through TelemetryRegistry, each channel set from one thread.
+ */
+public class GcTelemetry {
+  private final DoubleLogEntry m_pauseLog;
+  private final StringLogEntry m_collectionLog;
+  private final DoubleLogEntry m_heapUsedLog;
+  private final DoubleLogEntry m_metaspaceUsedLog;
+
+  // Set on the JMX notification thread
+  private final TelemetryRegistry.DoubleChannel m_lastPausePub = normalChannel("GC/Last Pause ms");
+  private final TelemetryRegistry.DoubleChannel m_maxPausePub = normalChannel("GC/Max Pause ms");
+  private final TelemetryRegistry.DoubleChannel m_pauseCountPub = normalChannel("GC/Pauses");
+  private final TelemetryRegistry.DoubleChannel m_concurrentCountPub = normalChannel("GC/Concurrent Cycles");
+  // Set on the heap notifier thread
+  private final TelemetryRegistry.DoubleChannel m_heapUsedPub = debugChannel("GC/Heap Used MB");
+  private final TelemetryRegistry.DoubleChannel m_heapCommittedPub = debugChannel("GC/Heap Committed MB");
+  private final TelemetryRegistry.DoubleChannel m_heapMaxPub = debugChannel("GC/Heap Max MB");
+  private final TelemetryRegistry.DoubleChannel m_metaspaceUsedPub = debugChannel("GC/Metaspace Used MB");
+  // Set on the main thread
+  private final TelemetryRegistry.DoubleChannel m_overrunsWithPausePub = normalChannel("GC/Loop Overruns With Pause");
+
+  private final MemoryPoolMXBean m_metaspace;
+  private final Notifier m_heapNotifier = new Notifier(this::sampleHeap);
+
+  // Written by the JMX notification thread
+  private volatile long m_pauseCount = 0;
+  private volatile long m_concurrentCount = 0;
+  private volatile double m_maxPauseMillis = 0.0;
+  private volatile double m_lastPauseTime = Double.NEGATIVE_INFINITY;
+
+  // Main thread
+  private long m_overrunsWithPause = 0;
+
+  /**
+   * Creates the telemetry and subscribes to every collector
+   * @param log Data log to write collections and occupancy to
+   */
+  public GcTelemetry(DataLog log) {
+    m_pauseLog = new DoubleLogEntry(log, "GC/Pause ms");
+    m_collectionLog = new StringLogEntry(log, "GC/Collection");
+    m_heapUsedLog = new DoubleLogEntry(log, "GC/Heap Used MB");
+    m_metaspaceUsedLog = new DoubleLogEntry(log, "GC/Metaspace Used MB");
+
+    int subscribed = 0;
+    for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+      if (collector instanceof NotificationEmitter) {
+        ((NotificationEmitter) collector).addNotificationListener((notification, handback) -> onNotification(notification), null, null);
+        subscribed++;
+      }
+    }
+
+    MemoryPoolMXBean metaspace = null;
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getName().equals("Metaspace")) {
+        metaspace = pool;
+      }
+    }
+    m_metaspace = metaspace;
+
+    m_heapNotifier.setName("GcTelemetry");
+    m_heapNotifier.startPeriodic(Constants.Gc.HEAP_SAMPLE_PERIOD_SECONDS);
+    DataLogManager.log("GcTelemetry subscribed to " + subscribed + " collectors");
+  }
+
+  /**
+   * Report a main loop overrun so a GC pause just before it is counted as its likely cause
+   * @param now Current time in seconds, in the Phoenix timebase
+   */
+  public void recordLoopOverrun(double now) {
+    if (now - m_lastPauseTime <= Constants.Gc.CORRELATION_WINDOW_SECONDS) {
+      m_overrunsWithPause++;
+      m_overrunsWithPausePub.set(m_overrunsWithPause, Timer.getFPGATimestamp());
+    }
+  }
+
+  /**
+   * Get the number of stop-the-world collections seen
+   * @return Pause count
+   */
+  public long getPauseCount() {
+    return m_pauseCount;
+  }
+
+  /**
+   * Get the longest pause seen
+   * @return Pause in milliseconds
+   */
+  public double getMaxPauseMillis() {
+    return m_maxPauseMillis;
+  }
+
+  /**
+   * Get the number of main loop overruns that followed a GC pause
+   * @return Overrun count
+   */
+  public long getOverrunsWithPause() {
+    return m_overrunsWithPause;
+  }
+
+  /**
+   * Whether a collector runs concurrently with the application rather than pausing it
+   * @param collectorName Collector name from the notification
+   * @return True for concurrent cycles
+   */
+  static boolean isConcurrent(String collectorName) {
+    return collectorName.contains("Concurrent") || collectorName.contains("Cycles");
+  }
+
+  /* JMX notification thread */
+  private void onNotification(Notification notification) {
+    if (!notification.getType().equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION)) {
+      return;
+    }
+    GarbageCollectionNotificationInfo info =
+        GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+    double durationMillis = info.getGcInfo().getDuration();
+    m_collectionLog.append(String.format("%s: %s (%s) %.0f ms",
+        info.getGcName(), info.getGcAction(), info.getGcCause(), durationMillis));
+
+    if (isConcurrent(info.getGcName())) {
+      m_concurrentCount = m_concurrentCount + 1; // one notification thread, so not a lost update
+      m_concurrentCountPub.set(m_concurrentCount, Timer.getFPGATimestamp());
+      return;
+    }
+    m_lastPauseTime = Utils.getCurrentTimeSeconds();
+    m_pauseCount = m_pauseCount + 1;
+    if (durationMillis > m_maxPauseMillis) {
+      m_maxPauseMillis = durationMillis;
+    }
+    m_pauseLog.append(durationMillis);
+    double now = Timer.getFPGATimestamp();
+    m_lastPausePub.set(durationMillis, now);
+    m_maxPausePub.set(m_maxPauseMillis, now);
+    m_pauseCountPub.set(m_pauseCount, now);
+  }
+
+  /* Heap notifier thread */
+  private void sampleHeap() {
+    MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+    double usedMb = toMegabytes(heap.getUsed());
+    double now = Timer.getFPGATimestamp();
+    m_heapUsedLog.append(usedMb);
+    m_heapUsedPub.set(usedMb, now);
+    m_heapCommittedPub.set(toMegabytes(heap.getCommitted()), now);
+    m_heapMaxPub.set(toMegabytes(heap.getMax()), now);
+
+    if (m_metaspace != null) {
+      double metaspaceMb = toMegabytes(m_metaspace.getUsage().getUsed());
+      m_metaspaceUsedLog.append(metaspaceMb);
+      m_metaspaceUsedPub.set(metaspaceMb, now);
+    }
+  }
+
+  private static TelemetryRegistry.DoubleChannel normalChannel(String key) {
+    return TelemetryRegistry.getInstance().doubleChannel(key, Tier.NORMAL,
+        Constants.TelemetryBudget.DASHBOARD_INTERVAL_SECONDS, 0.0);
+  }
+
+  private static TelemetryRegistry.DoubleChannel debugChannel(String key) {
+    return TelemetryRegistry.getInstance().doubleChannel(key, Tier.DEBUG,
+        Constants.TelemetryBudget.DEBUG_INTERVAL_SECONDS, 0.0);
+  }
+
+  private static double toMegabytes(long bytes) {
+    return bytes / (1024.0 * 1024.0);
+  }
+}
@@ -0,0 +1,269 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.telemetry;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import com.ctre.phoenix6.SignalLogger;
+import com.ctre.phoenix6.StatusCode;
+
+import edu.wpi.first.util.datalog.DataLog;
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.DriverStation;
+import frc.robot.Constants;
+import frc.robot.util.AsyncLog;
+
+/**
+ * Starts and stops log recording by robot state and keeps the log directory under a quota
+ * Recording runs while the robot is enabled or attached to the FMS, and for
+ * STOP_DELAY_SECONDS after, so a robot sitting in the pit doesn't fill the disk.
+ * Each stop closes the hoot file, so every match (one FMS attach) gets its own.
+ * The data log is flushed as soon as the robot is disabled. After every stop, and
+ * every QUOTA_CHECK_PERIOD_SECONDS while recording, the oldest .hoot and .wpilog
+ * files are deleted on a background thread until the directory is under
+ * QUOTA_BYTES, or under MAX_DISK_FRACTION of the space open to logs if the disk
+ * is smaller; the newest file of each type is never deleted, since it may still
+ * be open.
+ */
+public class LogLifecycleManager {
+  private static final String[] LOG_EXTENSIONS = {".hoot", ".wpilog"};
+
+  /**
+   * What is started and stopped
+   */
+  interface Recorder {
+    void start();
+
+    void stop();
+
+    void flush();
+  }
+
+  private final Recorder m_recorder;
+  private final Path m_directory;
+  private final long m_quotaBytes;
+  private final ExecutorService m_quotaExecutor = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "LogLifecycle");
+    thread.setDaemon(true);
+    thread.setPriority(Thread.MIN_PRIORITY);
+    return thread;
+  });
+
+  // Main thread
+  private boolean m_recording = false;
+  private boolean m_wasEnabled = false;
+  private double m_recordUntil = Double.NaN;
+  private double m_lastQuotaCheck = Double.NEGATIVE_INFINITY;
+
+  /**
+   * Creates a manager for SignalLogger and the DataLogManager log, both written to the data log directory
+   */
+  public LogLifecycleManager() {
+    this(new PhoenixAndDataLogRecorder(Paths.get(DataLogManager.getLogDir())),
+        Paths.get(DataLogManager.getLogDir()), Constants.LogLifecycle.QUOTA_BYTES);
+  }
+
+  /**
+   * Creates a manager
+   * @param recorder Recorder to start and stop
+   * @param directory Log directory to keep under quota, or null for none
+   * @param quotaBytes Most bytes of logs to keep
+   */
+  LogLifecycleManager(Recorder recorder, Path directory, long quotaBytes) {
+    m_recorder = recorder;
+    m_directory = directory;
+    m_quotaBytes = quotaBytes;
+  }
+
+  /**
+   * Start or stop recording for the current robot state (main thread only)
+   * Logs recorded during boot are kept for BOOT_RECORD_SECONDS.
+   * @param enabled Whether the robot is enabled
+   * @param fmsAttached Whether the robot is attached to the FMS
+   * @param now Current time in seconds
+   */
+  public void update(boolean enabled, boolean fmsAttached, double now) {
+    if (Double.isNaN(m_recordUntil)) {
+      m_recordUntil = now + Constants.LogLifecycle.BOOT_RECORD_SECONDS;
+    }
+    if (enabled || fmsAttached) {
+      m_recordUntil = Math.max(m_recordUntil, now + Constants.LogLifecycle.STOP_DELAY_SECONDS);
+    }
+
+    // Get the end of an enabled period onto storage without waiting for the stop
+    if (m_wasEnabled && !enabled) {
+      m_recorder.flush();
+    }
+    m_wasEnabled = enabled;
+
+    boolean record = now < m_recordUntil;
+    if (record && !m_recording) {
+      m_recorder.start();
+      m_recording = true;
+      AsyncLog.log("Log recording started (" + (enabled ? "enabled" : fmsAttached ? "FMS attached" : "boot") + ")");
+    } else if (!record && m_recording) {
+      m_recorder.stop();
+      m_recording = false;
+      AsyncLog.log("Log recording stopped");
+      checkQuota(now);
+    }
+
+    if (m_recording && now - m_lastQuotaCheck >= Constants.LogLifecycle.QUOTA_CHECK_PERIOD_SECONDS) {
+      checkQuota(now);
+    }
+  }
+
+  /**
+   * Whether logs are being recorded
+   * @return True while recording
+   */
+  public boolean isRecording() {
+    return m_recording;
+  }
+
+  private void checkQuota(double now) {
+    m_lastQuotaCheck = now;
+    if (m_directory == null) {
+      return;
+    }
+    m_quotaExecutor.execute(() -> {
+      try {
+        List<Path> deleted = enforceQuota(m_directory, m_quotaBytes);
+        for (Path file : deleted) {
+          DataLogManager.log("Deleted log over quota: " + file.getFileName());
+        }
+      } catch (IOException e) {
+        DriverStation.reportWarning("Log quota check failed: " + e.getMessage(), false);
+      }
+    });
+  }
+
+  /**
+   * Delete the oldest log files until the logs in a directory fit a quota and the disk
+   * @param directory Log directory
+   * @param quotaBytes Most bytes of logs to keep
+   * @return Files deleted, oldest first
+   * @throws IOException If the directory or its disk can't be read
+   */
+  static List<Path> enforceQuota(Path directory, long quotaBytes) throws IOException {
+    return enforceQuota(directory, quotaBytes, Files.getFileStore(directory).getUsableSpace());
+  }
+
+  /**
+   * Delete the oldest log files until the logs in a directory fit a quota
+   * Looks one directory level deep. The newest file of each log type is kept.
+   * The quota is capped at MAX_DISK_FRACTION of the logs' size plus the free space.
+   * @param directory Log directory
+   * @param quotaBytes Most bytes of logs to keep
+   * @param usableBytes Free space on the log directory's disk
+   * @return Files deleted, oldest first
+   * @throws IOException If the directory can't be listed
+   */
+  static List<Path> enforceQuota(Path directory, long quotaBytes, long usableBytes) throws IOException {
+    List<LogFile> logs = new ArrayList<>();
+    try (Stream<Path> files = Files.walk(directory, 2)) {
+      for (Path file : (Iterable<Path>) files::iterator) {
+        if (Files.isRegularFile(file) && extensionOf(file) != null) {
+          logs.add(new LogFile(file, Files.size(file), Files.getLastModifiedTime(file).toMillis()));
+        }
+      }
+    }
+
+    long total = 0;
+    Map<String, LogFile> newest = new HashMap<>();
+    for (LogFile log : logs) {
+      total += log.m_size;
+      newest.merge(extensionOf(log.m_path), log, (a, b) -> a.m_modified >= b.m_modified ? a : b);
+    }
+
+    long limit = Math.min(quotaBytes, (long) ((total + usableBytes) * Constants.LogLifecycle.MAX_DISK_FRACTION));
+
+    logs.sort(Comparator.comparingLong((LogFile log) -> log.m_modified));
+    List<Path> deleted = new ArrayList<>();
+    for (LogFile log : logs) {
+      if (total <= limit) {
+        break;
+      }
+      if (newest.containsValue(log)) {
+        continue;
+      }
+      Files.deleteIfExists(log.m_path);
+      total -= log.m_size;
+      deleted.add(log.m_path);
+    }
+    return deleted;
+  }
+
+  private static String extensionOf(Path file) {
+    String name = file.getFileName().toString();
+    for (String extension : LOG_EXTENSIONS) {
+      if (name.endsWith(extension)) {
+        return extension;
+      }
+    }
+    return null;
+  }
+
+  private static final class LogFile {
+    private final Path m_path;
+    private final long m_size;
+    private final long m_modified;
+
+    private LogFile(Path path, long size, long modified) {
+      m_path = path;
+      m_size = size;
+      m_modified = modified;
+    }
+  }
+
+  /**
+   * Starts and stops SignalLogger, and pauses the DataLogManager log while stopped
+   * DataLogManager itself keeps running, since log entries created at startup hold its log.
+   */
+  private static final class PhoenixAndDataLogRecorder implements Recorder {
+    private final DataLog m_log = DataLogManager.getLog();
+
+    private PhoenixAndDataLogRecorder(Path directory) {
+      // Recording is decided here, not by Phoenix starting on its own when the FMS connects
+      SignalLogger.enableAutoLogging(false);
+      report("set SignalLogger path", SignalLogger.setPath(directory.toString()));
+    }
+
+    @Override
+    public void start() {
+      m_log.resume();
+      report("start SignalLogger", SignalLogger.start());
+    }
+
+    @Override
+    public void stop() {
+      report("stop SignalLogger", SignalLogger.stop());
+      m_log.flush();
+      m_log.pause();
+    }
+
+    @Override
+    public void flush() {
+      m_log.flush();
+    }
+
+    private static void report(String action, StatusCode status) {
+      if (!status.isOK()) {
+        DriverStation.reportWarning("Failed to " + action + ": " + status, false);
+      }
+    }
+  }
+}
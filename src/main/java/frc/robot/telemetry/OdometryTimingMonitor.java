@@ -0,0 +1,153 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.telemetry;
+
+import edu.wpi.first.util.datalog.DataLog;
+import edu.wpi.first.util.datalog.DoubleLogEntry;
+import frc.robot.Constants;
+import frc.robot.util.LatencyHistogram;
+
+/**
+ * Timing of the odometry thread, and how it lines up with main loop overruns
+ * The odometry thread records each state's timestamp; the period between states
+ * and its deviation from nominal (jitter) go into histograms, and a period beyond
+ * Constants.Odometry.OVERRUN_FACTOR times nominal is an overrun. The main loop
+ * records the start of every iteration; when an iteration starts late, any
+ * odometry overrun during the late loop is counted as correlated, which points at
+ * a shared cause such as GC rather than CAN or odometry load. Both kinds of
+ * overrun are written to the data log as markers on a common timebase.
+ */
+public class OdometryTimingMonitor {
+  private final double m_nominalPeriod;
+  private final LatencyHistogram m_period = new LatencyHistogram(
+      Constants.Odometry.HISTOGRAM_BIN_SECONDS, Constants.Odometry.HISTOGRAM_BINS);
+  private final LatencyHistogram m_jitter = new LatencyHistogram(
+      Constants.Odometry.HISTOGRAM_BIN_SECONDS, Constants.Odometry.HISTOGRAM_BINS);
+  private final DoubleLogEntry m_overrunLog;
+  private final DoubleLogEntry m_mainLoopOverrunLog;
+
+  // Odometry thread
+  private double m_lastTimestamp = Double.NaN;
+  private volatile long m_overrunCount = 0;
+  private volatile double m_lastOverrunTime = Double.NEGATIVE_INFINITY;
+
+  // Main thread
+  private double m_lastLoopStart = Double.NaN;
+  private double m_lastLoopInterval = Double.NaN;
+  private long m_mainLoopOverrunCount = 0;
+  private long m_correlatedCount = 0;
+
+  /**
+   * Creates a monitor
+   * @param log Data log to write overrun markers to
+   * @param nominalPeriodSeconds Configured odometry period
+   */
+  public OdometryTimingMonitor(DataLog log, double nominalPeriodSeconds) {
+    m_nominalPeriod = nominalPeriodSeconds;
+    m_overrunLog = new DoubleLogEntry(log, "Odometry/Overrun Period");
+    m_mainLoopOverrunLog = new DoubleLogEntry(log, "Odometry/Main Loop Overrun Period");
+  }
+
+  /**
+   * Record an odometry update (odometry thread only)
+   * @param timestamp State timestamp in seconds, in the Phoenix timebase
+   */
+  public void recordOdometry(double timestamp) {
+    double last = m_lastTimestamp;
+    m_lastTimestamp = timestamp;
+    if (Double.isNaN(last) || timestamp <= last) {
+      return;
+    }
+    double period = timestamp - last;
+    m_period.record(period);
+    m_jitter.record(Math.abs(period - m_nominalPeriod));
+    if (period > m_nominalPeriod * Constants.Odometry.OVERRUN_FACTOR) {
+      m_lastOverrunTime = timestamp;
+      m_overrunCount = m_overrunCount + 1;
+      m_overrunLog.append(period);
+    }
+  }
+
+  /**
+   * Record the start of a main loop iteration (main thread only)
+   * @param now Current time in seconds, in the Phoenix timebase
+   * @param loopPeriodSeconds Nominal main loop period
+   * @return True if this iteration started late
+   */
+  public boolean recordMainLoop(double now, double loopPeriodSeconds) {
+    double last = m_lastLoopStart;
+    m_lastLoopStart = now;
+    if (Double.isNaN(last)) {
+      return false;
+    }
+    double interval = now - last;
+    m_lastLoopInterval = interval;
+    if (interval <= loopPeriodSeconds * Constants.Odometry.MAIN_LOOP_OVERRUN_FACTOR) {
+      return false;
+    }
+    m_mainLoopOverrunCount++;
+    m_mainLoopOverrunLog.append(interval);
+    if (m_lastOverrunTime >= last - Constants.Odometry.CORRELATION_WINDOW_SECONDS) {
+      m_correlatedCount++;
+    }
+    return true;
+  }
+
+  /**
+   * Get the nominal odometry period
+   * @return Period in seconds
+   */
+  public double getNominalPeriod() {
+    return m_nominalPeriod;
+  }
+
+  /**
+   * Get the histogram of odometry periods
+   * @return Period histogram, in seconds
+   */
+  public LatencyHistogram getPeriodHistogram() {
+    return m_period;
+  }
+
+  /**
+   * Get the histogram of deviation from the nominal period
+   * @return Jitter histogram, in seconds
+   */
+  public LatencyHistogram getJitterHistogram() {
+    return m_jitter;
+  }
+
+  /**
+   * Get the number of odometry periods beyond OVERRUN_FACTOR times nominal
+   * @return Overrun count
+   */
+  public long getOverrunCount() {
+    return m_overrunCount;
+  }
+
+  /**
+   * Get the time between the starts of the last two main loop iterations (main thread only)
+   * @return Interval in seconds, or NaN before the second iteration
+   */
+  public double getMainLoopInterval() {
+    return m_lastLoopInterval;
+  }
+
+  /**
+   * Get the number of main loop iterations that started late
+   * @return Main loop overrun count
+   */
+  public long getMainLoopOverrunCount() {
+    return m_mainLoopOverrunCount;
+  }
+
+  /**
+   * Get the number of main loop overruns during which odometry also overran
+   * @return Correlated overrun count
+   */
+  public long getCorrelatedOverrunCount() {
+    return m_correlatedCount;
+  }
+}
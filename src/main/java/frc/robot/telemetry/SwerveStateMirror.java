@@ -0,0 +1,135 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.telemetry;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.StampedLock;
+
+import com.ctre.phoenix6.swerve.SwerveDrivetrain.SwerveDriveState;
+
+/**
+ * Latest swerve drive state, handed from the odometry thread to any number of readers
+ * The odometry thread is the only writer. Readers use StampedLock optimistic reads
+ * (a seqlock): they copy the state and retry if the writer changed it meanwhile, so
+ * reading never blocks the writer, never blocks on other readers and never allocates.
+ */
+public class SwerveStateMirror {
+  private final StampedLock m_lock = new StampedLock();
+  private final SwerveStateSnapshot m_state = new SwerveStateSnapshot();
+  private final List<Reader> m_readers = new CopyOnWriteArrayList<>();
+  private long m_version = 0; // guarded by m_lock
+
+  /**
+   * Publish a new state (odometry thread only)
+   * @param state State to copy
+   */
+  public void update(SwerveDriveState state) {
+    long stamp = m_lock.writeLock();
+    try {
+      m_state.copyFrom(state);
+      m_version++;
+    } finally {
+      m_lock.unlockWrite(stamp);
+    }
+  }
+
+  /**
+   * Create a reader for one consumer
+   * Each reader must only be used from one thread
+   * @param name Consumer name for the missed-update statistics
+   * @return A new reader
+   */
+  public Reader createReader(String name) {
+    Reader reader = new Reader(name);
+    m_readers.add(reader);
+    return reader;
+  }
+
+  /**
+   * Get every reader created so far, for reporting
+   * @return The readers
+   */
+  public List<Reader> getReaders() {
+    return m_readers;
+  }
+
+  /**
+   * Copy the newest consistent state
+   * @param out Snapshot to fill
+   * @return Version of the copied state (0 if no state has been published yet)
+   */
+  long read(SwerveStateSnapshot out) {
+    while (true) {
+      long stamp = m_lock.tryOptimisticRead();
+      if (stamp == 0) {
+        // Writer is mid-update; it only copies a few dozen fields
+        Thread.onSpinWait();
+        continue;
+      }
+      out.copyFrom(m_state);
+      long version = m_version;
+      if (m_lock.validate(stamp)) {
+        return version;
+      }
+    }
+  }
+
+  /**
+   * Per-consumer view of the mirror with its own snapshot and statistics
+   */
+  public final class Reader {
+    private final String m_name;
+    private final SwerveStateSnapshot m_snapshot = new SwerveStateSnapshot();
+    private long m_lastVersion = 0;
+    // Volatile so other threads can report them without tearing
+    private volatile long m_reads = 0;
+    private volatile long m_missedUpdates = 0;
+
+    private Reader(String name) {
+      m_name = name;
+    }
+
+    /**
+     * Refresh and return the reader's snapshot
+     * The returned snapshot is owned by this reader and is overwritten by the next call
+     * @return The newest state
+     */
+    public SwerveStateSnapshot read() {
+      long version = SwerveStateMirror.this.read(m_snapshot);
+      m_reads++;
+      if (m_lastVersion != 0 && version > m_lastVersion + 1) {
+        m_missedUpdates += version - m_lastVersion - 1;
+      }
+      m_lastVersion = version;
+      return m_snapshot;
+    }
+
+    /**
+     * Get the consumer name
+     * @return Name
+     */
+    public String getName() {
+      return m_name;
+    }
+
+    /**
+     * Get how many times this consumer has read the state
+     * @return Read count
+     */
+    public long getReadCount() {
+      return m_reads;
+    }
+
+    /**
+     * Get how many published states this consumer never saw
+     * A consumer slower than odometry misses states by design; this shows by how much
+     * @return Missed update count
+     */
+    public long getMissedUpdates() {
+      return m_missedUpdates;
+    }
+  }
+}
@@ -0,0 +1,88 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.telemetry;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.ctre.phoenix6.swerve.SwerveDrivetrain.SwerveDriveState;
+
+/**
+ * Single-producer, single-consumer ring of preallocated swerve state snapshots
+ * The odometry thread offers every state it produces; one telemetry thread drains them.
+ * Neither side blocks or allocates. When the consumer falls behind, new states are
+ * dropped and counted rather than delaying odometry.
+ */
+public class SwerveStateRing {
+  private final SwerveStateSnapshot[] m_slots;
+  private final int m_mask;
+
+  // Next slot to read (written by the consumer) and next slot to write (written by the producer)
+  private final AtomicLong m_head = new AtomicLong();
+  private final AtomicLong m_tail = new AtomicLong();
+  private final AtomicLong m_dropped = new AtomicLong();
+
+  /**
+   * Creates a ring
+   * @param capacity Number of snapshots; must be a power of two
+   */
+  public SwerveStateRing(int capacity) {
+    if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+      throw new IllegalArgumentException("Ring capacity must be a power of two");
+    }
+    m_slots = new SwerveStateSnapshot[capacity];
+    for (int i = 0; i < capacity; i++) {
+      m_slots[i] = new SwerveStateSnapshot();
+    }
+    m_mask = capacity - 1;
+  }
+
+  /**
+   * Copy a state into the ring (producer thread only)
+   * @param state State to copy
+   * @return False if the ring was full and the state was dropped
+   */
+  public boolean offer(SwerveDriveState state) {
+    long tail = m_tail.get();
+    if (tail - m_head.get() >= m_slots.length) {
+      m_dropped.incrementAndGet();
+      return false;
+    }
+    m_slots[(int) (tail & m_mask)].copyFrom(state);
+    // Ordered store: the slot contents are visible before the new tail
+    m_tail.lazySet(tail + 1);
+    return true;
+  }
+
+  /**
+   * Take the oldest state from the ring (consumer thread only)
+   * @param out Snapshot to copy the state into
+   * @return False if the ring was empty
+   */
+  public boolean poll(SwerveStateSnapshot out) {
+    long head = m_head.get();
+    if (head >= m_tail.get()) {
+      return false;
+    }
+    out.copyFrom(m_slots[(int) (head & m_mask)]);
+    m_head.lazySet(head + 1);
+    return true;
+  }
+
+  /**
+   * Get the number of states waiting to be drained
+   * @return Queued state count
+   */
+  public int size() {
+    return (int) (m_tail.get() - m_head.get());
+  }
+
+  /**
+   * Get the number of states dropped because the ring was full
+   * @return Dropped state count since construction
+   */
+  public long getDroppedCount() {
+    return m_dropped.get();
+  }
+}
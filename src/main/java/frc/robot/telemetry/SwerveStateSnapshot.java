@@ -0,0 +1,109 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.telemetry;
+
+import com.ctre.phoenix6.swerve.SwerveDrivetrain.SwerveDriveState;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+
+/**
+ * Flat copy of a SwerveDriveState
+ * Copying into a preallocated snapshot does not allocate, so it is safe on the
+ * odometry thread; consumers rebuild WPILib objects only if and when they need them
+ * (the immutable pose is shared as-is)
+ */
+public class SwerveStateSnapshot {
+  public static final int kModuleCount = 4;
+
+  public double timestamp;
+  public double odometryPeriod;
+  public int successfulDaqs;
+  public int failedDaqs;
+
+  // Pose2d is immutable, so sharing the drivetrain's instance is safe and avoids allocating
+  public Pose2d pose = Pose2d.kZero;
+  public double poseX;
+  public double poseY;
+  public double poseHeadingRadians;
+
+  public double vx;
+  public double vy;
+  public double omega;
+
+  public final double[] moduleAngleRadians = new double[kModuleCount];
+  public final double[] moduleSpeeds = new double[kModuleCount];
+  public final double[] targetAngleRadians = new double[kModuleCount];
+  public final double[] targetSpeeds = new double[kModuleCount];
+  public final double[] moduleDistances = new double[kModuleCount];
+  public final double[] modulePositionAngleRadians = new double[kModuleCount];
+
+  /**
+   * Copy a drivetrain state into this snapshot
+   * @param state State from the odometry thread
+   */
+  public void copyFrom(SwerveDriveState state) {
+    timestamp = state.Timestamp;
+    odometryPeriod = state.OdometryPeriod;
+    successfulDaqs = state.SuccessfulDaqs;
+    failedDaqs = state.FailedDaqs;
+
+    pose = state.Pose;
+    poseX = state.Pose.getX();
+    poseY = state.Pose.getY();
+    poseHeadingRadians = state.Pose.getRotation().getRadians();
+
+    vx = state.Speeds.vxMetersPerSecond;
+    vy = state.Speeds.vyMetersPerSecond;
+    omega = state.Speeds.omegaRadiansPerSecond;
+
+    copyStates(state.ModuleStates, moduleAngleRadians, moduleSpeeds);
+    copyStates(state.ModuleTargets, targetAngleRadians, targetSpeeds);
+    if (state.ModulePositions != null) {
+      int count = Math.min(kModuleCount, state.ModulePositions.length);
+      for (int i = 0; i < count; i++) {
+        SwerveModulePosition position = state.ModulePositions[i];
+        moduleDistances[i] = position.distanceMeters;
+        modulePositionAngleRadians[i] = position.angle.getRadians();
+      }
+    }
+  }
+
+  /**
+   * Copy another snapshot into this one
+   * @param other Snapshot to copy
+   */
+  public void copyFrom(SwerveStateSnapshot other) {
+    timestamp = other.timestamp;
+    odometryPeriod = other.odometryPeriod;
+    successfulDaqs = other.successfulDaqs;
+    failedDaqs = other.failedDaqs;
+    pose = other.pose;
+    poseX = other.poseX;
+    poseY = other.poseY;
+    poseHeadingRadians = other.poseHeadingRadians;
+    vx = other.vx;
+    vy = other.vy;
+    omega = other.omega;
+    System.arraycopy(other.moduleAngleRadians, 0, moduleAngleRadians, 0, kModuleCount);
+    System.arraycopy(other.moduleSpeeds, 0, moduleSpeeds, 0, kModuleCount);
+    System.arraycopy(other.targetAngleRadians, 0, targetAngleRadians, 0, kModuleCount);
+    System.arraycopy(other.targetSpeeds, 0, targetSpeeds, 0, kModuleCount);
+    System.arraycopy(other.moduleDistances, 0, moduleDistances, 0, kModuleCount);
+    System.arraycopy(other.modulePositionAngleRadians, 0, modulePositionAngleRadians, 0, kModuleCount);
+  }
+
+  private static void copyStates(SwerveModuleState[] states, double[] angles, double[] speeds) {
+    if (states == null) {
+      return;
+    }
+    int count = Math.min(kModuleCount, states.length);
+    for (int i = 0; i < count; i++) {
+      angles[i] = states[i].angle.getRadians();
+      speeds[i] = states[i].speedMetersPerSecond;
+    }
+  }
+}
@@ -0,0 +1,219 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.trajectory;
+
+/**
+ * Time-parameterized holonomic trajectory stored as precomputed primitive arrays
+ * Position, heading, velocity and acceleration are independent, so the robot can
+ * translate and rotate at the same time. Sampling interpolates between stored
+ * points and never allocates.
+ */
+public final class HolonomicTrajectory {
+  private final String m_name;
+  private final double[] m_time;
+  private final double[] m_x;
+  private final double[] m_y;
+  private final double[] m_heading;
+  private final double[] m_vx;
+  private final double[] m_vy;
+  private final double[] m_omega;
+  private final double[] m_ax;
+  private final double[] m_ay;
+  private final double[] m_alpha;
+
+  /**
+   * Creates a trajectory from precomputed samples
+   * The arrays are used directly (not copied) and must not be modified afterwards
+   * @param name Trajectory name, used for logging and the trajectory cache
+   * @param time Sample times in seconds, starting at 0 and strictly increasing
+   * @param x X positions (meters)
+   * @param y Y positions (meters)
+   * @param heading Headings (radians, unwrapped)
+   * @param vx X velocities (meters per second)
+   * @param vy Y velocities (meters per second)
+   * @param omega Angular velocities (radians per second)
+   * @param ax X accelerations (meters per second²)
+   * @param ay Y accelerations (meters per second²)
+   * @param alpha Angular accelerations (radians per second²)
+   */
+  public HolonomicTrajectory(String name, double[] time, double[] x, double[] y, double[] heading,
+                             double[] vx, double[] vy, double[] omega,
+                             double[] ax, double[] ay, double[] alpha) {
+    int count = time.length;
+    if (count == 0) {
+      throw new IllegalArgumentException("Trajectory " + name + " has no samples");
+    }
+    if (x.length != count || y.length != count || heading.length != count
+        || vx.length != count || vy.length != count || omega.length != count
+        || ax.length != count || ay.length != count || alpha.length != count) {
+      throw new IllegalArgumentException("Trajectory " + name + " sample arrays differ in length");
+    }
+    for (int i = 1; i < count; i++) {
+      if (time[i] <= time[i - 1]) {
+        throw new IllegalArgumentException("Trajectory " + name + " times must be strictly increasing");
+      }
+    }
+
+    m_name = name;
+    m_time = time;
+    m_x = x;
+    m_y = y;
+    m_heading = heading;
+    m_vx = vx;
+    m_vy = vy;
+    m_omega = omega;
+    m_ax = ax;
+    m_ay = ay;
+    m_alpha = alpha;
+  }
+
+  /**
+   * Sample the trajectory at a time, interpolating between stored points
+   * Times before the start or after the end are clamped; past the end the robot is
+   * commanded to hold the final pose with zero velocity
+   * @param timeSeconds Time since the start of the trajectory
+   * @param out Sample to fill in
+   * @return The same sample, for chaining
+   */
+  public TrajectorySample sample(double timeSeconds, TrajectorySample out) {
+    int last = m_time.length - 1;
+    out.timeSeconds = timeSeconds;
+
+    if (timeSeconds >= m_time[last]) {
+      out.x = m_x[last];
+      out.y = m_y[last];
+      out.heading = m_heading[last];
+      out.vx = 0.0;
+      out.vy = 0.0;
+      out.omega = 0.0;
+      out.ax = 0.0;
+      out.ay = 0.0;
+      out.alpha = 0.0;
+      out.segmentHint = Math.max(0, last - 1);
+      return out;
+    }
+    if (timeSeconds <= m_time[0]) {
+      copyPoint(0, out);
+      out.segmentHint = 0;
+      return out;
+    }
+
+    int i = findSegment(timeSeconds, out.segmentHint);
+    out.segmentHint = i;
+
+    double t = (timeSeconds - m_time[i]) / (m_time[i + 1] - m_time[i]);
+    out.x = lerp(m_x[i], m_x[i + 1], t);
+    out.y = lerp(m_y[i], m_y[i + 1], t);
+    out.heading = lerp(m_heading[i], m_heading[i + 1], t);
+    out.vx = lerp(m_vx[i], m_vx[i + 1], t);
+    out.vy = lerp(m_vy[i], m_vy[i + 1], t);
+    out.omega = lerp(m_omega[i], m_omega[i + 1], t);
+    out.ax = lerp(m_ax[i], m_ax[i + 1], t);
+    out.ay = lerp(m_ay[i], m_ay[i + 1], t);
+    out.alpha = lerp(m_alpha[i], m_alpha[i + 1], t);
+    return out;
+  }
+
+  /**
+   * Get the trajectory name
+   * @return Name
+   */
+  public String getName() {
+    return m_name;
+  }
+
+  /**
+   * Get the total duration of the trajectory
+   * @return Duration in seconds
+   */
+  public double getTotalTimeSeconds() {
+    return m_time[m_time.length - 1];
+  }
+
+  /**
+   * Get the number of stored samples
+   * @return Sample count
+   */
+  public int getSampleCount() {
+    return m_time.length;
+  }
+
+  /**
+   * Fill a sample with the first point of the trajectory
+   * @param out Sample to fill in
+   * @return The same sample, for chaining
+   */
+  public TrajectorySample getInitialState(TrajectorySample out) {
+    copyPoint(0, out);
+    out.segmentHint = 0;
+    return out;
+  }
+
+  /**
+   * Fill a sample with the last point of the trajectory
+   * @param out Sample to fill in
+   * @return The same sample, for chaining
+   */
+  public TrajectorySample getFinalState(TrajectorySample out) {
+    return sample(getTotalTimeSeconds(), out);
+  }
+
+  // Raw arrays for the generator and the trajectory cache; never modified
+  double[] times() { return m_time; }
+  double[] xs() { return m_x; }
+  double[] ys() { return m_y; }
+  double[] headings() { return m_heading; }
+  double[] vxs() { return m_vx; }
+  double[] vys() { return m_vy; }
+  double[] omegas() { return m_omega; }
+  double[] axs() { return m_ax; }
+  double[] ays() { return m_ay; }
+  double[] alphas() { return m_alpha; }
+
+  private void copyPoint(int i, TrajectorySample out) {
+    out.x = m_x[i];
+    out.y = m_y[i];
+    out.heading = m_heading[i];
+    out.vx = m_vx[i];
+    out.vy = m_vy[i];
+    out.omega = m_omega[i];
+    out.ax = m_ax[i];
+    out.ay = m_ay[i];
+    out.alpha = m_alpha[i];
+  }
+
+  /**
+   * Find the segment [i, i + 1] containing a time
+   * Followers sample forward in time, so checking the hint and its neighbor first
+   * avoids a binary search on almost every call
+   */
+  private int findSegment(double timeSeconds, int hint) {
+    int lastSegment = m_time.length - 2;
+    if (hint >= 0 && hint <= lastSegment) {
+      if (m_time[hint] <= timeSeconds && timeSeconds < m_time[hint + 1]) {
+        return hint;
+      }
+      if (hint + 1 <= lastSegment && m_time[hint + 1] <= timeSeconds && timeSeconds < m_time[hint + 2]) {
+        return hint + 1;
+      }
+    }
+
+    int low = 0;
+    int high = lastSegment;
+    while (low < high) {
+      int mid = (low + high + 1) >>> 1;
+      if (m_time[mid] <= timeSeconds) {
+        low = mid;
+      } else {
+        high = mid - 1;
+      }
+    }
+    return low;
+  }
+
+  private static double lerp(double a, double b, double t) {
+    return a + (b - a) * t;
+  }
+}
@@ -0,0 +1,197 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.trajectory;
+
+/**
+ * Generates time-parameterized holonomic trajectories
+ * Each segment is a straight line with the heading turned over the same time, following
+ * a trapezoidal motion profile that respects both translational and rotational limits
+ */
+public final class HolonomicTrajectoryGenerator {
+  private static final double kEpsilon = 1e-9;
+
+  private HolonomicTrajectoryGenerator() {}
+
+  /**
+   * Generate a straight-line trajectory that starts and ends at rest
+   * @param name Trajectory name
+   * @param startX Start X (meters)
+   * @param startY Start Y (meters)
+   * @param startHeading Start heading (radians)
+   * @param endX End X (meters)
+   * @param endY End Y (meters)
+   * @param endHeading End heading (radians); the shortest turn is taken
+   * @param constraints Velocity and acceleration limits
+   * @param samplePeriod Time between stored samples (seconds)
+   * @return The generated trajectory
+   */
+  public static HolonomicTrajectory straightLine(String name,
+                                                 double startX, double startY, double startHeading,
+                                                 double endX, double endY, double endHeading,
+                                                 TrajectoryConstraints constraints, double samplePeriod) {
+    double dx = endX - startX;
+    double dy = endY - startY;
+    double dHeading = Math.IEEEremainder(endHeading - startHeading, 2.0 * Math.PI);
+    double distance = Math.hypot(dx, dy);
+
+    // Profile a normalized progress p in [0, 1]; the tighter of the translational
+    // and rotational limits decides how fast progress may change
+    double maxRate = Double.POSITIVE_INFINITY;
+    double maxAccel = Double.POSITIVE_INFINITY;
+    if (distance > kEpsilon) {
+      maxRate = Math.min(maxRate, constraints.getMaxVelocity() / distance);
+      maxAccel = Math.min(maxAccel, constraints.getMaxAcceleration() / distance);
+    }
+    if (Math.abs(dHeading) > kEpsilon) {
+      maxRate = Math.min(maxRate, constraints.getMaxAngularVelocity() / Math.abs(dHeading));
+      maxAccel = Math.min(maxAccel, constraints.getMaxAngularAcceleration() / Math.abs(dHeading));
+    }
+
+    if (Double.isInfinite(maxRate)) {
+      // Nothing to do - a single point holding the start pose
+      return new HolonomicTrajectory(name,
+          new double[] {0.0}, new double[] {startX}, new double[] {startY}, new double[] {startHeading},
+          new double[1], new double[1], new double[1], new double[1], new double[1], new double[1]);
+    }
+
+    double accelTime = maxRate / maxAccel;
+    double peakRate = maxRate;
+    double cruiseTime;
+    if (maxRate * accelTime >= 1.0) {
+      // Never reaches cruise speed - triangular profile
+      accelTime = Math.sqrt(1.0 / maxAccel);
+      peakRate = maxAccel * accelTime;
+      cruiseTime = 0.0;
+    } else {
+      cruiseTime = (1.0 - maxRate * accelTime) / maxRate;
+    }
+    double totalTime = 2.0 * accelTime + cruiseTime;
+
+    int segments = Math.max(1, (int) Math.ceil(totalTime / samplePeriod));
+    int count = segments + 1;
+    double[] time = new double[count];
+    double[] x = new double[count];
+    double[] y = new double[count];
+    double[] heading = new double[count];
+    double[] vx = new double[count];
+    double[] vy = new double[count];
+    double[] omega = new double[count];
+    double[] ax = new double[count];
+    double[] ay = new double[count];
+    double[] alpha = new double[count];
+
+    for (int i = 0; i < count; i++) {
+      double t = totalTime * i / segments;
+      double p;
+      double pRate;
+      double pAccel;
+      if (t < accelTime) {
+        p = 0.5 * maxAccel * t * t;
+        pRate = maxAccel * t;
+        pAccel = maxAccel;
+      } else if (t < accelTime + cruiseTime) {
+        p = 0.5 * maxAccel * accelTime * accelTime + peakRate * (t - accelTime);
+        pRate = peakRate;
+        pAccel = 0.0;
+      } else {
+        double remaining = totalTime - t;
+        p = 1.0 - 0.5 * maxAccel * remaining * remaining;
+        pRate = maxAccel * remaining;
+        pAccel = i == segments ? 0.0 : -maxAccel;
+      }
+
+      time[i] = t;
+      x[i] = startX + dx * p;
+      y[i] = startY + dy * p;
+      heading[i] = startHeading + dHeading * p;
+      vx[i] = dx * pRate;
+      vy[i] = dy * pRate;
+      omega[i] = dHeading * pRate;
+      ax[i] = dx * pAccel;
+      ay[i] = dy * pAccel;
+      alpha[i] = dHeading * pAccel;
+    }
+
+    return new HolonomicTrajectory(name, time, x, y, heading, vx, vy, omega, ax, ay, alpha);
+  }
+
+  /**
+   * Generate a trajectory through a list of waypoints, stopping at each one
+   * @param name Trajectory name
+   * @param waypoints Waypoints as {x, y, heading} in meters and radians
+   * @param constraints Velocity and acceleration limits
+   * @param samplePeriod Time between stored samples (seconds)
+   * @return The generated trajectory
+   */
+  public static HolonomicTrajectory throughWaypoints(String name, double[][] waypoints,
+                                                     TrajectoryConstraints constraints, double samplePeriod) {
+    if (waypoints.length < 2) {
+      throw new IllegalArgumentException("Trajectory " + name + " needs at least two waypoints");
+    }
+    HolonomicTrajectory[] parts = new HolonomicTrajectory[waypoints.length - 1];
+    for (int i = 0; i < parts.length; i++) {
+      double[] from = waypoints[i];
+      double[] to = waypoints[i + 1];
+      parts[i] = straightLine(name, from[0], from[1], from[2], to[0], to[1], to[2], constraints, samplePeriod);
+    }
+    return concatenate(name, parts);
+  }
+
+  /**
+   * Join trajectories end to end
+   * Each part must start where the previous one ended; parts from this generator
+   * start and end at rest, so the joins are continuous
+   * @param name Name of the combined trajectory
+   * @param parts Trajectories to join, in order
+   * @return The combined trajectory
+   */
+  public static HolonomicTrajectory concatenate(String name, HolonomicTrajectory... parts) {
+    int count = 0;
+    for (int i = 0; i < parts.length; i++) {
+      count += parts[i].getSampleCount() - (i == 0 ? 0 : 1);
+    }
+
+    double[] time = new double[count];
+    double[] x = new double[count];
+    double[] y = new double[count];
+    double[] heading = new double[count];
+    double[] vx = new double[count];
+    double[] vy = new double[count];
+    double[] omega = new double[count];
+    double[] ax = new double[count];
+    double[] ay = new double[count];
+    double[] alpha = new double[count];
+
+    int index = 0;
+    double timeOffset = 0.0;
+    double headingOffset = 0.0;
+    for (int p = 0; p < parts.length; p++) {
+      HolonomicTrajectory part = parts[p];
+      // The first point of later parts duplicates the previous part's last point
+      int first = p == 0 ? 0 : 1;
+      if (p > 0) {
+        // Keep heading unwrapped across the join
+        headingOffset = heading[index - 1] - part.headings()[0];
+        headingOffset = 2.0 * Math.PI * Math.round(headingOffset / (2.0 * Math.PI));
+      }
+      for (int i = first; i < part.getSampleCount(); i++) {
+        time[index] = timeOffset + part.times()[i];
+        x[index] = part.xs()[i];
+        y[index] = part.ys()[i];
+        heading[index] = part.headings()[i] + headingOffset;
+        vx[index] = part.vxs()[i];
+        vy[index] = part.vys()[i];
+        omega[index] = part.omegas()[i];
+        ax[index] = part.axs()[i];
+        ay[index] = part.ays()[i];
+        alpha[index] = part.alphas()[i];
+        index++;
+      }
+      timeOffset = time[index - 1];
+    }
+
+    return new HolonomicTrajectory(name, time, x, y, heading, vx, vy, omega, ax, ay, alpha);
+  }
+}
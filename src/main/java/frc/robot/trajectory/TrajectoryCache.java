@@ -0,0 +1,102 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.trajectory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Filesystem;
+import frc.robot.Constants;
+
+/**
+ * Precomputed autonomous trajectories, loaded once at startup
+ * The cache file is written by TrajectoryCacheGenerator at build time and memory-mapped
+ * here, so starting an auto routine does no trajectory math. Trajectories missing from
+ * the file or generated from different constants are regenerated with a warning, so a
+ * stale deploy still drives the right path.
+ */
+public final class TrajectoryCache {
+  private final Map<String, HolonomicTrajectory> m_trajectories;
+  private final int m_regeneratedCount;
+
+  private TrajectoryCache(Map<String, HolonomicTrajectory> trajectories, int regeneratedCount) {
+    m_trajectories = Collections.unmodifiableMap(trajectories);
+    m_regeneratedCount = regeneratedCount;
+  }
+
+  /**
+   * Load the cache from the deploy directory
+   * @return The loaded cache, with every library trajectory available
+   */
+  public static TrajectoryCache loadFromDeploy() {
+    return load(new File(Filesystem.getDeployDirectory(), Constants.Trajectory.CACHE_FILE_NAME).toPath());
+  }
+
+  /**
+   * Load the cache from a file
+   * @param path Cache file written by TrajectoryCacheGenerator
+   * @return The loaded cache, with every library trajectory available
+   */
+  public static TrajectoryCache load(Path path) {
+    long startNanos = System.nanoTime();
+
+    Map<String, TrajectoryCacheFile.Entry> cached;
+    try {
+      cached = TrajectoryCacheFile.read(path);
+    } catch (IOException e) {
+      DriverStation.reportWarning("Trajectory cache unavailable (" + e.getMessage()
+          + "), generating trajectories at startup", false);
+      cached = Collections.emptyMap();
+    }
+
+    Map<String, HolonomicTrajectory> trajectories = new HashMap<>();
+    int regenerated = 0;
+    for (String name : TrajectoryLibrary.getNames()) {
+      TrajectoryCacheFile.Entry entry = cached.get(name);
+      if (entry != null && entry.fingerprint == TrajectoryLibrary.getFingerprint(name)) {
+        trajectories.put(name, entry.trajectory);
+      } else {
+        if (entry != null) {
+          DriverStation.reportWarning("Trajectory cache entry " + name
+              + " is stale - run ./gradlew generateTrajectories", false);
+        }
+        trajectories.put(name, TrajectoryLibrary.generate(name));
+        regenerated++;
+      }
+    }
+
+    DataLogManager.log(String.format("Trajectory cache loaded %d trajectories in %.1f ms (%d regenerated)",
+        trajectories.size(), (System.nanoTime() - startNanos) / 1e6, regenerated));
+    return new TrajectoryCache(trajectories, regenerated);
+  }
+
+  /**
+   * Get a precomputed trajectory
+   * @param name Trajectory name from TrajectoryLibrary
+   * @return The trajectory
+   * @throws IllegalArgumentException If the trajectory is not in the library
+   */
+  public HolonomicTrajectory get(String name) {
+    HolonomicTrajectory trajectory = m_trajectories.get(name);
+    if (trajectory == null) {
+      throw new IllegalArgumentException("Unknown trajectory: " + name);
+    }
+    return trajectory;
+  }
+
+  /**
+   * Get how many trajectories had to be generated because the cache was missing or stale
+   * @return Number of regenerated trajectories (0 when the deploy is up to date)
+   */
+  public int getRegeneratedCount() {
+    return m_regeneratedCount;
+  }
+}
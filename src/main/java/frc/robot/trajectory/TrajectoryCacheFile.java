@@ -0,0 +1,195 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.trajectory;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary format for the precomputed trajectory cache
+ *
+ * <p>Layout (little-endian, matching the roboRIO):
+ * <pre>
+ * int    magic "TRJC"
+ * int    format version
+ * int    trajectory count, int reserved
+ * per trajectory:
+ *   int    name length, then UTF-8 name bytes, padded to 8 bytes
+ *   long   fingerprint of the generation parameters
+ *   int    sample count, int reserved
+ *   double[count] x 10 columns: time, x, y, heading, vx, vy, omega, ax, ay, alpha
+ * </pre>
+ * Columns are stored exactly as HolonomicTrajectory holds them, so loading is a
+ * bulk copy per column with no trajectory math.
+ */
+final class TrajectoryCacheFile {
+  static final int kMagic = 0x434A5254; // "TRJC" read little-endian
+  static final int kFormatVersion = 1;
+  private static final int kColumns = 10;
+
+  private TrajectoryCacheFile() {}
+
+  /**
+   * A trajectory read from the cache with the fingerprint it was generated from
+   */
+  static final class Entry {
+    final HolonomicTrajectory trajectory;
+    final long fingerprint;
+
+    Entry(HolonomicTrajectory trajectory, long fingerprint) {
+      this.trajectory = trajectory;
+      this.fingerprint = fingerprint;
+    }
+  }
+
+  /**
+   * Write trajectories to a cache file, replacing it atomically
+   * @param path File to write
+   * @param trajectories Trajectories to store
+   * @param fingerprints Fingerprint for each trajectory, same order
+   * @throws IOException If the file cannot be written
+   */
+  static void write(Path path, List<HolonomicTrajectory> trajectories, long[] fingerprints) throws IOException {
+    if (trajectories.size() != fingerprints.length) {
+      throw new IllegalArgumentException("Need one fingerprint per trajectory");
+    }
+
+    int size = 16;
+    for (HolonomicTrajectory trajectory : trajectories) {
+      size += entrySize(trajectory);
+    }
+
+    ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+    buffer.putInt(kMagic);
+    buffer.putInt(kFormatVersion);
+    buffer.putInt(trajectories.size());
+    buffer.putInt(0);
+    for (int i = 0; i < trajectories.size(); i++) {
+      HolonomicTrajectory trajectory = trajectories.get(i);
+      byte[] name = trajectory.getName().getBytes(StandardCharsets.UTF_8);
+      buffer.putInt(name.length);
+      buffer.put(name);
+      align(buffer);
+      buffer.putLong(fingerprints[i]);
+      buffer.putInt(trajectory.getSampleCount());
+      buffer.putInt(0);
+      for (double[] column : columns(trajectory)) {
+        buffer.asDoubleBuffer().put(column);
+        buffer.position(buffer.position() + column.length * Double.BYTES);
+      }
+    }
+    buffer.flip();
+
+    Path directory = path.toAbsolutePath().getParent();
+    if (directory != null) {
+      Files.createDirectories(directory);
+    }
+    Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+    try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+    }
+    Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  /**
+   * Memory-map a cache file and read every trajectory in it
+   * @param path File to read
+   * @return Trajectories by name, in file order
+   * @throws IOException If the file is missing, truncated or not a cache file
+   */
+  static Map<String, Entry> read(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      return read(mapped);
+    }
+  }
+
+  /**
+   * Read every trajectory from a buffer in cache format
+   * @param source Buffer positioned at the start of the cache data
+   * @return Trajectories by name, in file order
+   * @throws IOException If the data is truncated or not a cache file
+   */
+  static Map<String, Entry> read(ByteBuffer source) throws IOException {
+    ByteBuffer buffer = source.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    try {
+      if (buffer.getInt() != kMagic) {
+        throw new IOException("Not a trajectory cache file");
+      }
+      int version = buffer.getInt();
+      if (version != kFormatVersion) {
+        throw new IOException("Unsupported trajectory cache version " + version);
+      }
+
+      int count = buffer.getInt();
+      buffer.getInt();
+      Map<String, Entry> entries = new LinkedHashMap<>();
+      for (int i = 0; i < count; i++) {
+        int nameLength = buffer.getInt();
+        if (nameLength < 0 || nameLength > buffer.remaining()) {
+          throw new IOException("Trajectory cache is corrupt");
+        }
+        byte[] nameBytes = new byte[nameLength];
+        buffer.get(nameBytes);
+        align(buffer);
+        String name = new String(nameBytes, StandardCharsets.UTF_8);
+        long fingerprint = buffer.getLong();
+        int samples = buffer.getInt();
+        buffer.getInt();
+        if (samples < 0 || (long) samples * kColumns * Double.BYTES > buffer.remaining()) {
+          throw new IOException("Trajectory cache is truncated");
+        }
+
+        double[][] columns = new double[kColumns][samples];
+        for (double[] column : columns) {
+          buffer.asDoubleBuffer().get(column);
+          buffer.position(buffer.position() + samples * Double.BYTES);
+        }
+        HolonomicTrajectory trajectory = new HolonomicTrajectory(name,
+            columns[0], columns[1], columns[2], columns[3], columns[4],
+            columns[5], columns[6], columns[7], columns[8], columns[9]);
+        entries.put(name, new Entry(trajectory, fingerprint));
+      }
+      return entries;
+    } catch (BufferUnderflowException | IllegalArgumentException e) {
+      throw new IOException("Trajectory cache is truncated or corrupt", e);
+    }
+  }
+
+  private static int entrySize(HolonomicTrajectory trajectory) {
+    int nameBytes = trajectory.getName().getBytes(StandardCharsets.UTF_8).length;
+    int header = 4 + nameBytes;
+    header = (header + 7) & ~7;
+    return header + 16 + kColumns * trajectory.getSampleCount() * Double.BYTES;
+  }
+
+  // Keeps the double columns 8-byte aligned relative to the start of the file
+  private static void align(ByteBuffer buffer) {
+    buffer.position((buffer.position() + 7) & ~7);
+  }
+
+  private static double[][] columns(HolonomicTrajectory trajectory) {
+    return new double[][] {
+        trajectory.times(), trajectory.xs(), trajectory.ys(), trajectory.headings(),
+        trajectory.vxs(), trajectory.vys(), trajectory.omegas(),
+        trajectory.axs(), trajectory.ays(), trajectory.alphas()
+    };
+  }
+}
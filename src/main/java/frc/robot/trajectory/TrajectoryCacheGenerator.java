@@ -0,0 +1,47 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.trajectory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Offline generator for the trajectory cache
+ * Run on the development machine by the generateTrajectories Gradle task (deploy
+ * depends on it), so the robot never generates trajectories itself
+ */
+public final class TrajectoryCacheGenerator {
+  private TrajectoryCacheGenerator() {}
+
+  /**
+   * Generate every library trajectory and write the cache file
+   * @param args Output file path
+   * @throws IOException If the cache file cannot be written
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length != 1) {
+      System.err.println("Usage: TrajectoryCacheGenerator <output file>");
+      System.exit(1);
+    }
+    Path output = Paths.get(args[0]);
+
+    List<String> names = TrajectoryLibrary.getNames();
+    List<HolonomicTrajectory> trajectories = new ArrayList<>();
+    long[] fingerprints = new long[names.size()];
+    for (int i = 0; i < names.size(); i++) {
+      HolonomicTrajectory trajectory = TrajectoryLibrary.generate(names.get(i));
+      trajectories.add(trajectory);
+      fingerprints[i] = TrajectoryLibrary.getFingerprint(names.get(i));
+      System.out.println(String.format("  %-20s %5d samples  %.2f s",
+          trajectory.getName(), trajectory.getSampleCount(), trajectory.getTotalTimeSeconds()));
+    }
+
+    TrajectoryCacheFile.write(output, trajectories, fingerprints);
+    System.out.println("Wrote " + trajectories.size() + " trajectories to " + output);
+  }
+}
@@ -0,0 +1,74 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.trajectory;
+
+/**
+ * Velocity and acceleration limits used when generating holonomic trajectories
+ */
+public class TrajectoryConstraints {
+  private final double m_maxVelocity;
+  private final double m_maxAcceleration;
+  private final double m_maxAngularVelocity;
+  private final double m_maxAngularAcceleration;
+
+  /**
+   * Creates a new set of trajectory constraints
+   * @param maxVelocity Maximum translational speed (meters per second)
+   * @param maxAcceleration Maximum translational acceleration (meters per second²)
+   * @param maxAngularVelocity Maximum rotation rate (radians per second)
+   * @param maxAngularAcceleration Maximum rotational acceleration (radians per second²)
+   */
+  public TrajectoryConstraints(double maxVelocity, double maxAcceleration,
+                               double maxAngularVelocity, double maxAngularAcceleration) {
+    if (maxVelocity <= 0 || maxAcceleration <= 0 || maxAngularVelocity <= 0 || maxAngularAcceleration <= 0) {
+      throw new IllegalArgumentException("Trajectory constraints must be positive");
+    }
+    m_maxVelocity = maxVelocity;
+    m_maxAcceleration = maxAcceleration;
+    m_maxAngularVelocity = maxAngularVelocity;
+    m_maxAngularAcceleration = maxAngularAcceleration;
+  }
+
+  /**
+   * Get the maximum translational speed
+   * @return Speed in meters per second
+   */
+  public double getMaxVelocity() {
+    return m_maxVelocity;
+  }
+
+  /**
+   * Get the maximum translational acceleration
+   * @return Acceleration in meters per second²
+   */
+  public double getMaxAcceleration() {
+    return m_maxAcceleration;
+  }
+
+  /**
+   * Get the maximum rotation rate
+   * @return Rate in radians per second
+   */
+  public double getMaxAngularVelocity() {
+    return m_maxAngularVelocity;
+  }
+
+  /**
+   * Get the maximum rotational acceleration
+   * @return Acceleration in radians per second²
+   */
+  public double getMaxAngularAcceleration() {
+    return m_maxAngularAcceleration;
+  }
+
+  /**
+   * Create a copy of these constraints with a different maximum speed
+   * @param maxVelocity Maximum translational speed (meters per second)
+   * @return New constraints
+   */
+  public TrajectoryConstraints withMaxVelocity(double maxVelocity) {
+    return new TrajectoryConstraints(maxVelocity, m_maxAcceleration, m_maxAngularVelocity, m_maxAngularAcceleration);
+  }
+}
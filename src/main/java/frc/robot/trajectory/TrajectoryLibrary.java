@@ -0,0 +1,137 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.trajectory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import frc.robot.Constants;
+
+/**
+ * Named trajectories used by the autonomous routines
+ * This is the single source of truth for the trajectory cache: the generator writes
+ * every trajectory listed here, and the robot checks each cached trajectory's
+ * fingerprint against this list to detect a stale cache file
+ */
+public final class TrajectoryLibrary {
+  public static final String DRIVE_FORWARD = "DriveForward";
+  public static final String DRIVE_FORWARD_SHORT = "DriveForwardShort";
+  public static final String DRIVE_FORWARD_LONG = "DriveForwardLong";
+
+  // Bump when the generator changes in a way the parameters below do not capture
+  private static final int kGeneratorVersion = 1;
+
+  private static final Entry[] kEntries = {
+      new Entry(DRIVE_FORWARD,
+          Constants.Auto.DRIVE_FORWARD_SPEED * Constants.Auto.DRIVE_FORWARD_DURATION,
+          Constants.Auto.DRIVE_FORWARD_SPEED),
+      new Entry(DRIVE_FORWARD_SHORT,
+          Constants.Auto.DRIVE_FORWARD_SHORT_DISTANCE, Constants.Auto.DRIVE_FORWARD_SHORT_SPEED),
+      new Entry(DRIVE_FORWARD_LONG,
+          Constants.Auto.DRIVE_FORWARD_LONG_DISTANCE, Constants.Auto.DRIVE_FORWARD_LONG_SPEED),
+  };
+
+  private static final List<String> kNames;
+
+  static {
+    List<String> names = new ArrayList<>();
+    for (Entry entry : kEntries) {
+      names.add(entry.name);
+    }
+    kNames = Collections.unmodifiableList(names);
+  }
+
+  private TrajectoryLibrary() {}
+
+  /**
+   * Get the names of every trajectory in the library
+   * @return Trajectory names, in generation order
+   */
+  public static List<String> getNames() {
+    return kNames;
+  }
+
+  /**
+   * Generate a trajectory from the library
+   * This does the full trajectory math and allocates; use TrajectoryCache on the robot
+   * @param name Trajectory name
+   * @return The generated trajectory
+   */
+  public static HolonomicTrajectory generate(String name) {
+    Entry entry = find(name);
+    return straightForward(entry.name, entry.distance, entry.cruiseSpeed);
+  }
+
+  /**
+   * Get a fingerprint of the parameters a library trajectory is generated from
+   * The cache stores this next to each trajectory so changed constants are noticed
+   * @param name Trajectory name
+   * @return Fingerprint of the generation parameters
+   */
+  public static long getFingerprint(String name) {
+    Entry entry = find(name);
+    long hash = kGeneratorVersion;
+    hash = mix(hash, entry.distance);
+    hash = mix(hash, entry.cruiseSpeed);
+    hash = mix(hash, Constants.Trajectory.MAX_VELOCITY);
+    hash = mix(hash, Constants.Trajectory.MAX_ACCELERATION);
+    hash = mix(hash, Constants.Trajectory.MAX_ANGULAR_VELOCITY);
+    hash = mix(hash, Constants.Trajectory.MAX_ANGULAR_ACCELERATION);
+    hash = mix(hash, Constants.Trajectory.SAMPLE_PERIOD_SECONDS);
+    return hash;
+  }
+
+  /**
+   * Build a straight robot-relative trajectory that keeps the starting heading
+   * @param name Trajectory name
+   * @param distance Distance to drive in meters (negative drives backward)
+   * @param cruiseSpeed Maximum speed in meters per second
+   * @return The trajectory, starting at the origin facing +X
+   */
+  public static HolonomicTrajectory straightForward(String name, double distance, double cruiseSpeed) {
+    TrajectoryConstraints constraints = new TrajectoryConstraints(
+        cruiseSpeed > 0.0 ? cruiseSpeed : Constants.Trajectory.MAX_VELOCITY,
+        Constants.Trajectory.MAX_ACCELERATION,
+        Constants.Trajectory.MAX_ANGULAR_VELOCITY,
+        Constants.Trajectory.MAX_ANGULAR_ACCELERATION
+    );
+    return HolonomicTrajectoryGenerator.straightLine(
+        name,
+        0.0, 0.0, 0.0,
+        distance, 0.0, 0.0,
+        constraints,
+        Constants.Trajectory.SAMPLE_PERIOD_SECONDS
+    );
+  }
+
+  private static Entry find(String name) {
+    for (Entry entry : kEntries) {
+      if (entry.name.equals(name)) {
+        return entry;
+      }
+    }
+    throw new IllegalArgumentException("Unknown trajectory: " + name);
+  }
+
+  private static long mix(long hash, double value) {
+    return hash * 31 + Double.hashCode(value);
+  }
+
+  /**
+   * Parameters for one straight-line library trajectory
+   */
+  private static final class Entry {
+    final String name;
+    final double distance;
+    final double cruiseSpeed;
+
+    Entry(String name, double distance, double cruiseSpeed) {
+      this.name = name;
+      this.distance = distance;
+      this.cruiseSpeed = cruiseSpeed;
+    }
+  }
+}
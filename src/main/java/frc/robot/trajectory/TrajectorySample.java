@@ -0,0 +1,35 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.trajectory;
+
+/**
+ * Mutable holder for one sampled state of a holonomic trajectory
+ * Callers keep one instance and pass it to {@link HolonomicTrajectory#sample} every loop,
+ * so sampling never allocates
+ */
+public class TrajectorySample {
+  /** Time since the start of the trajectory (seconds) */
+  public double timeSeconds;
+
+  /** Position in the trajectory frame (meters) */
+  public double x;
+  public double y;
+
+  /** Heading in the trajectory frame (radians) */
+  public double heading;
+
+  /** Velocity in the trajectory frame (meters per second, radians per second) */
+  public double vx;
+  public double vy;
+  public double omega;
+
+  /** Acceleration in the trajectory frame (meters per second², radians per second²) */
+  public double ax;
+  public double ay;
+  public double alpha;
+
+  // Index of the segment used by the last sample, speeds up the next lookup
+  int segmentHint = 0;
+}
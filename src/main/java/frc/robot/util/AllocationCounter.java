@@ -0,0 +1,46 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.util;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Bytes allocated by the current thread, from the JVM's per-thread counters
+ * HotSpot keeps the count as part of TLAB accounting, so reading it is cheap and
+ * does not itself allocate. On a JVM without the counters every read is -1.
+ */
+public final class AllocationCounter {
+  private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+  private AllocationCounter() {}
+
+  /**
+   * Whether allocation counting works on this JVM
+   * @return True if counts are available
+   */
+  public static boolean isSupported() {
+    return THREADS != null;
+  }
+
+  /**
+   * Get the bytes allocated by the current thread since it started
+   * @return Allocated bytes, or -1 if unsupported
+   */
+  public static long currentThreadBytes() {
+    return THREADS == null ? -1 : THREADS.getCurrentThreadAllocatedBytes();
+  }
+
+  private static com.sun.management.ThreadMXBean threadBean() {
+    if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)) {
+      return null;
+    }
+    com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    if (!threads.isThreadAllocatedMemorySupported()) {
+      return null;
+    }
+    threads.setThreadAllocatedMemoryEnabled(true);
+    return threads;
+  }
+}
@@ -0,0 +1,299 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.util;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import edu.wpi.first.util.WPIUtilJNI;
+import edu.wpi.first.util.datalog.StringLogEntry;
+import edu.wpi.first.wpilibj.DataLogManager;
+import frc.robot.Constants;
+
+/**
+ * Text log that never blocks the caller on storage
+ * Drop-in for DataLogManager.log(): messages are stamped when logged and handed
+ * to a single writer thread through a preallocated ring, which writes them to the
+ * data log "messages" entry and the console in batches of up to BATCH_SIZE, at
+ * least every FLUSH_PERIOD_SECONDS. Callers only hold the ring's lock long enough
+ * to store a reference, so a stalled USB stick backs up the ring instead of the
+ * main loop. When the ring is full the drop policy decides which message is lost;
+ * drops are counted and noted in the log once the writer catches up.
+ */
+public final class AsyncLog {
+  /**
+   * What to do with a message when the queue is full
+   */
+  public enum DropPolicy {
+    /** Keep what is queued and drop the new message; the start of a burst usually shows its cause */
+    DROP_NEWEST,
+    /** Drop the oldest queued message to make room */
+    DROP_OLDEST
+  }
+
+  /**
+   * Destination of written messages (writer thread only)
+   */
+  interface Sink {
+    void write(String message, long timestampMicros);
+  }
+
+  private final Sink m_sink;
+  private final DropPolicy m_policy;
+  private final int m_batchSize;
+
+  // Ring, guarded by m_lock
+  private final String[] m_messages;
+  private final long[] m_timestamps;
+  private final ReentrantLock m_lock = new ReentrantLock();
+  private final Condition m_ready = m_lock.newCondition();
+  private final Condition m_drained = m_lock.newCondition();
+  private int m_head = 0;
+  private boolean m_writing = false;
+
+  // Written under m_lock, read from any thread
+  private volatile int m_size = 0;
+  private volatile int m_maxDepth = 0;
+  private volatile long m_dropped = 0;
+
+  // Writer thread
+  private final String[] m_batchMessages;
+  private final long[] m_batchTimestamps;
+  private long m_reportedDropped = 0;
+  private volatile long m_written = 0;
+
+  // Main thread metrics, created on first publish
+  private TelemetryRegistry.DoubleChannel m_depthPub;
+  private TelemetryRegistry.DoubleChannel m_maxDepthPub;
+  private TelemetryRegistry.DoubleChannel m_droppedPub;
+
+  private static final class Holder {
+    private static final AsyncLog INSTANCE = new AsyncLog(new DataLogSink(),
+        Constants.Logging.QUEUE_CAPACITY, Constants.Logging.BATCH_SIZE, Constants.Logging.DROP_POLICY);
+  }
+
+  /**
+   * Creates a log and starts its writer thread
+   * @param sink Where messages are written
+   * @param capacity Most messages queued at once
+   * @param batchSize Most messages written per batch
+   * @param policy What to drop when the queue is full
+   */
+  AsyncLog(Sink sink, int capacity, int batchSize, DropPolicy policy) {
+    if (capacity < 1 || batchSize < 1) {
+      throw new IllegalArgumentException("Log queue capacity and batch size must be positive");
+    }
+    m_sink = sink;
+    m_policy = policy;
+    m_batchSize = batchSize;
+    m_messages = new String[capacity];
+    m_timestamps = new long[capacity];
+    m_batchMessages = new String[batchSize];
+    m_batchTimestamps = new long[batchSize];
+
+    Thread writer = new Thread(this::runWriter, "AsyncLog");
+    writer.setDaemon(true);
+    writer.setPriority(Thread.MIN_PRIORITY);
+    writer.start();
+  }
+
+  /**
+   * Log a message to the data log and console without waiting for storage
+   * @param message Message
+   */
+  public static void log(String message) {
+    Holder.INSTANCE.enqueue(message, WPIUtilJNI.now());
+  }
+
+  /**
+   * Get the shared log
+   * @return The log
+   */
+  public static AsyncLog getInstance() {
+    return Holder.INSTANCE;
+  }
+
+  /**
+   * Queue a message
+   * @param message Message
+   * @param timestampMicros Data log timestamp
+   * @return True if the message was queued, false if it was dropped
+   */
+  boolean enqueue(String message, long timestampMicros) {
+    int capacity = m_messages.length;
+    m_lock.lock();
+    try {
+      if (m_size == capacity) {
+        m_dropped = m_dropped + 1;
+        if (m_policy == DropPolicy.DROP_NEWEST) {
+          return false;
+        }
+        m_messages[m_head] = null;
+        m_head = (m_head + 1) % capacity;
+        m_size = m_size - 1;
+      }
+      int tail = (m_head + m_size) % capacity;
+      m_messages[tail] = message;
+      m_timestamps[tail] = timestampMicros;
+      int size = m_size + 1;
+      m_size = size;
+      if (size > m_maxDepth) {
+        m_maxDepth = size;
+      }
+      // Wake the writer when work arrives, and again once a full batch is waiting
+      if (size == 1 || size == m_batchSize) {
+        m_ready.signal();
+      }
+      return true;
+    } finally {
+      m_lock.unlock();
+    }
+  }
+
+  /**
+   * Wait until every queued message has been written
+   * @param timeoutSeconds Longest time to wait
+   * @return True if the queue drained in time
+   */
+  public boolean flush(double timeoutSeconds) {
+    long remaining = (long) (timeoutSeconds * 1e9);
+    m_lock.lock();
+    try {
+      m_ready.signal();
+      while (m_size > 0 || m_writing) {
+        if (remaining <= 0) {
+          return false;
+        }
+        remaining = m_drained.awaitNanos(remaining);
+      }
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    } finally {
+      m_lock.unlock();
+    }
+  }
+
+  /**
+   * Publish queue depth and drops (main thread only)
+   * @param now Current time in seconds
+   */
+  public void publishMetrics(double now) {
+    if (m_depthPub == null) {
+      TelemetryRegistry registry = TelemetryRegistry.getInstance();
+      m_depthPub = registry.doubleChannel("AsyncLog/Queue Depth", TelemetryRegistry.Tier.DEBUG,
+          Constants.TelemetryBudget.DEBUG_INTERVAL_SECONDS, 0.0);
+      m_maxDepthPub = registry.doubleChannel("AsyncLog/Max Queue Depth", TelemetryRegistry.Tier.DEBUG,
+          Constants.TelemetryBudget.DEBUG_INTERVAL_SECONDS, 0.0);
+      m_droppedPub = registry.doubleChannel("AsyncLog/Dropped", TelemetryRegistry.Tier.NORMAL,
+          Constants.TelemetryBudget.DASHBOARD_INTERVAL_SECONDS, 0.0);
+    }
+    m_depthPub.set(m_size, now);
+    m_maxDepthPub.set(m_maxDepth, now);
+    m_droppedPub.set(m_dropped, now);
+  }
+
+  /**
+   * Get the number of messages waiting to be written
+   * @return Queue depth
+   */
+  public int getDepth() {
+    return m_size;
+  }
+
+  /**
+   * Get the deepest the queue has been
+   * @return Maximum queue depth
+   */
+  public int getMaxDepth() {
+    return m_maxDepth;
+  }
+
+  /**
+   * Get the number of messages dropped because the queue was full
+   * @return Dropped count
+   */
+  public long getDroppedCount() {
+    return m_dropped;
+  }
+
+  /**
+   * Get the number of messages written
+   * @return Written count
+   */
+  public long getWrittenCount() {
+    return m_written;
+  }
+
+  /* Writer thread */
+  private void runWriter() {
+    long flushNanos = (long) (Constants.Logging.FLUSH_PERIOD_SECONDS * 1e9);
+    while (true) {
+      int count;
+      long dropped;
+      m_lock.lock();
+      try {
+        m_writing = false;
+        m_drained.signalAll();
+        while (m_size == 0) {
+          m_ready.await();
+        }
+        // Give a partial batch a moment to fill so writes are batched
+        if (m_size < m_batchSize) {
+          m_ready.awaitNanos(flushNanos);
+        }
+        count = takeBatch();
+        dropped = m_dropped;
+        m_writing = true;
+      } catch (InterruptedException e) {
+        return;
+      } finally {
+        m_lock.unlock();
+      }
+
+      if (dropped > m_reportedDropped) {
+        m_sink.write("AsyncLog dropped " + (dropped - m_reportedDropped) + " messages (queue full)",
+            m_batchTimestamps[0]);
+        m_reportedDropped = dropped;
+      }
+      for (int i = 0; i < count; i++) {
+        m_sink.write(m_batchMessages[i], m_batchTimestamps[i]);
+        m_batchMessages[i] = null;
+      }
+      m_written = m_written + count;
+    }
+  }
+
+  /* Move up to a batch out of the ring; caller holds m_lock */
+  private int takeBatch() {
+    int capacity = m_messages.length;
+    int count = Math.min(m_size, m_batchSize);
+    for (int i = 0; i < count; i++) {
+      m_batchMessages[i] = m_messages[m_head];
+      m_batchTimestamps[i] = m_timestamps[m_head];
+      m_messages[m_head] = null;
+      m_head = (m_head + 1) % capacity;
+    }
+    m_size = m_size - count;
+    return count;
+  }
+
+  /**
+   * Writes to the data log "messages" entry, like DataLogManager.log(), and the console
+   */
+  private static final class DataLogSink implements Sink {
+    private StringLogEntry m_entry;
+
+    @Override
+    public void write(String message, long timestampMicros) {
+      if (m_entry == null) {
+        m_entry = new StringLogEntry(DataLogManager.getLog(), "messages");
+      }
+      m_entry.append(message, timestampMicros);
+      System.out.println(message);
+    }
+  }
+}
@@ -0,0 +1,174 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.util;
+
+/**
+ * Online battery model: V = Voc - R * I
+ * Fits open-circuit voltage and internal resistance by least squares over a sliding
+ * window of (current, voltage) samples, using running sums so each sample is O(1)
+ * and allocation-free. A fit is only accepted when the window spans enough current
+ * to make the slope meaningful and the resistance is physically plausible; otherwise
+ * the last good fit is kept.
+ */
+public class BatteryEstimator {
+  private final double[] m_currents;
+  private final double[] m_voltages;
+  private final double m_minCurrentSpread;
+  private final double m_minResistance;
+  private final double m_maxResistance;
+  private int m_next = 0;
+  private int m_count = 0;
+  private int m_samplesSinceResum = 0;
+
+  // Running sums over the window
+  private double m_sumI = 0.0;
+  private double m_sumV = 0.0;
+  private double m_sumII = 0.0;
+  private double m_sumIV = 0.0;
+
+  private double m_lastCurrent = 0.0;
+  private double m_lastVoltage = 0.0;
+  private boolean m_hasFit = false;
+  private double m_openCircuitVoltage = 0.0;
+  private double m_resistance = 0.0;
+
+  /**
+   * Creates an estimator
+   * @param windowSamples Number of samples in the sliding window
+   * @param minCurrentSpread Smallest standard deviation of current in the window (amps) that gives a fit
+   * @param minResistance Smallest plausible internal resistance in ohms
+   * @param maxResistance Largest plausible internal resistance in ohms
+   */
+  public BatteryEstimator(int windowSamples, double minCurrentSpread, double minResistance, double maxResistance) {
+    if (windowSamples < 2) {
+      throw new IllegalArgumentException("Battery estimator window needs at least 2 samples");
+    }
+    m_currents = new double[windowSamples];
+    m_voltages = new double[windowSamples];
+    m_minCurrentSpread = minCurrentSpread;
+    m_minResistance = minResistance;
+    m_maxResistance = maxResistance;
+  }
+
+  /**
+   * Add a sample and refit
+   * @param current Total current in amps
+   * @param voltage Battery voltage in volts
+   */
+  public void addSample(double current, double voltage) {
+    if (m_count == m_currents.length) {
+      double oldI = m_currents[m_next];
+      double oldV = m_voltages[m_next];
+      m_sumI -= oldI;
+      m_sumV -= oldV;
+      m_sumII -= oldI * oldI;
+      m_sumIV -= oldI * oldV;
+    } else {
+      m_count++;
+    }
+    m_currents[m_next] = current;
+    m_voltages[m_next] = voltage;
+    m_sumI += current;
+    m_sumV += voltage;
+    m_sumII += current * current;
+    m_sumIV += current * voltage;
+    m_next = (m_next + 1) % m_currents.length;
+    m_lastCurrent = current;
+    m_lastVoltage = voltage;
+
+    // Adding and removing leaves rounding error behind; rebuild the sums once per window
+    if (++m_samplesSinceResum >= m_currents.length) {
+      resum();
+    }
+    fit();
+  }
+
+  /**
+   * Whether a fit is available
+   * @return True once the window has spanned enough current for a plausible fit
+   */
+  public boolean hasEstimate() {
+    return m_hasFit;
+  }
+
+  /**
+   * Get the estimated open-circuit voltage
+   * @return Voltage in volts, or 0 without an estimate
+   */
+  public double getOpenCircuitVoltage() {
+    return m_openCircuitVoltage;
+  }
+
+  /**
+   * Get the estimated internal resistance, including wiring
+   * @return Resistance in ohms, or 0 without an estimate
+   */
+  public double getResistance() {
+    return m_resistance;
+  }
+
+  /**
+   * Predict the battery voltage if current rises from the latest sample
+   * @param additionalCurrent Extra current in amps
+   * @return Predicted voltage in volts (the latest voltage without an estimate)
+   */
+  public double predictVoltage(double additionalCurrent) {
+    return m_lastVoltage - m_resistance * additionalCurrent;
+  }
+
+  /**
+   * Get how much more current can be drawn before voltage falls to a floor
+   * @param minimumVoltage Voltage to stay above
+   * @return Extra current in amps (0 if already below, infinite without an estimate)
+   */
+  public double getCurrentHeadroom(double minimumVoltage) {
+    if (!m_hasFit) {
+      return Double.POSITIVE_INFINITY;
+    }
+    return Math.max(0.0, (m_lastVoltage - minimumVoltage) / m_resistance);
+  }
+
+  /**
+   * Get the latest sampled current
+   * @return Current in amps
+   */
+  public double getLastCurrent() {
+    return m_lastCurrent;
+  }
+
+  private void resum() {
+    m_sumI = 0.0;
+    m_sumV = 0.0;
+    m_sumII = 0.0;
+    m_sumIV = 0.0;
+    for (int i = 0; i < m_count; i++) {
+      m_sumI += m_currents[i];
+      m_sumV += m_voltages[i];
+      m_sumII += m_currents[i] * m_currents[i];
+      m_sumIV += m_currents[i] * m_voltages[i];
+    }
+    m_samplesSinceResum = 0;
+  }
+
+  private void fit() {
+    if (m_count < 2) {
+      return;
+    }
+    double n = m_count;
+    double meanI = m_sumI / n;
+    double varianceI = m_sumII / n - meanI * meanI;
+    if (varianceI < m_minCurrentSpread * m_minCurrentSpread) {
+      return; // current too steady to separate resistance from voltage noise
+    }
+    double covarianceIV = m_sumIV / n - meanI * (m_sumV / n);
+    double resistance = -covarianceIV / varianceI;
+    if (resistance < m_minResistance || resistance > m_maxResistance) {
+      return;
+    }
+    m_resistance = resistance;
+    m_openCircuitVoltage = m_sumV / n + resistance * meanI;
+    m_hasFit = true;
+  }
+}
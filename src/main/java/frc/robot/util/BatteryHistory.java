@@ -0,0 +1,152 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.util;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.DriverStation;
+
+/**
+ * Per-battery usage history, one CSV file per battery
+ * Each record is one match (or practice session): when it ended, charge and energy
+ * drawn in total, per mode and per subsystem, plus the lowest voltage and fitted
+ * resistance. Rows are formatted on the caller's thread and appended on a
+ * background thread so file I/O never stalls the main loop.
+ */
+public class BatteryHistory {
+  /** Battery ID used when none has been entered */
+  public static final String UNKNOWN_BATTERY = "unknown";
+
+  private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+  private final Path m_directory;
+  private final ExecutorService m_writer = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "BatteryHistory");
+    thread.setDaemon(true);
+    thread.setPriority(Thread.MIN_PRIORITY);
+    return thread;
+  });
+
+  /**
+   * Creates a history
+   * @param directory Directory holding the per-battery files
+   */
+  public BatteryHistory(Path directory) {
+    m_directory = directory;
+  }
+
+  /**
+   * Append a record for a battery in the background
+   * @param batteryId Battery ID as entered on the dashboard
+   * @param label Match or session label
+   * @param energy Totals to record
+   * @param lowestVoltage Lowest battery voltage seen, in volts
+   * @param resistance Fitted internal resistance in ohms (0 if unknown)
+   */
+  public void record(String batteryId, String label, EnergyAccountant energy,
+                     double lowestVoltage, double resistance) {
+    String id = sanitizeId(batteryId);
+    String header = header(energy.getSubsystemNames());
+    String row = row(LocalDateTime.now().format(TIME_FORMAT), label, energy, lowestVoltage, resistance);
+    m_writer.execute(() -> {
+      try {
+        Path path = append(id, header, row);
+        DataLogManager.log("Battery history appended to " + path);
+      } catch (IOException e) {
+        DriverStation.reportError("Failed to write battery history: " + e.getMessage(), false);
+      }
+    });
+  }
+
+  /**
+   * Append a row to a battery's file, writing the header first if the file is new
+   * @param batteryId Sanitized battery ID
+   * @param header CSV header line
+   * @param row CSV row
+   * @return Path of the file
+   * @throws IOException If the file can't be written
+   */
+  Path append(String batteryId, String header, String row) throws IOException {
+    Files.createDirectories(m_directory);
+    Path path = m_directory.resolve("battery_" + batteryId + ".csv");
+    String text = Files.exists(path) ? row + "\n" : header + "\n" + row + "\n";
+    Files.writeString(path, text, StandardCharsets.UTF_8,
+        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    return path;
+  }
+
+  /**
+   * Make a battery ID safe to use in a file name
+   * @param batteryId ID as entered
+   * @return Letters, digits, '-' and '_' only; UNKNOWN_BATTERY if nothing is left
+   */
+  static String sanitizeId(String batteryId) {
+    String id = batteryId == null ? "" : batteryId.trim().replaceAll("[^A-Za-z0-9_-]", "_");
+    return id.isEmpty() ? UNKNOWN_BATTERY : id;
+  }
+
+  /**
+   * CSV header for a set of subsystems
+   * @param subsystems Subsystem names, in index order
+   * @return Header line
+   */
+  static String header(List<String> subsystems) {
+    StringBuilder header = new StringBuilder(
+        "time,label,total_ah,total_wh,auto_ah,teleop_ah,disabled_ah,test_ah,"
+        + "auto_wh,teleop_wh,disabled_wh,test_wh");
+    for (String name : subsystems) {
+      String column = name.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "_");
+      header.append(',').append(column).append("_ah,").append(column).append("_wh");
+    }
+    return header.append(",other_ah,other_wh,lowest_voltage,resistance_mohm").toString();
+  }
+
+  /**
+   * CSV row for one record
+   * @param time Wall-clock time the record was taken
+   * @param label Match or session label
+   * @param energy Totals to record
+   * @param lowestVoltage Lowest battery voltage seen, in volts
+   * @param resistance Fitted internal resistance in ohms
+   * @return Row matching header()
+   */
+  static String row(String time, String label, EnergyAccountant energy, double lowestVoltage, double resistance) {
+    StringBuilder row = new StringBuilder();
+    row.append(time).append(',').append(label.replace(',', ' '));
+    appendValue(row, energy.getTotalAmpHours());
+    appendValue(row, energy.getTotalWattHours());
+    appendValue(row, energy.getAmpHours(EnergyAccountant.Mode.AUTONOMOUS));
+    appendValue(row, energy.getAmpHours(EnergyAccountant.Mode.TELEOP));
+    appendValue(row, energy.getAmpHours(EnergyAccountant.Mode.DISABLED));
+    appendValue(row, energy.getAmpHours(EnergyAccountant.Mode.TEST));
+    appendValue(row, energy.getWattHours(EnergyAccountant.Mode.AUTONOMOUS));
+    appendValue(row, energy.getWattHours(EnergyAccountant.Mode.TELEOP));
+    appendValue(row, energy.getWattHours(EnergyAccountant.Mode.DISABLED));
+    appendValue(row, energy.getWattHours(EnergyAccountant.Mode.TEST));
+    for (int i = 0; i < energy.getSubsystemNames().size(); i++) {
+      appendValue(row, energy.getSubsystemAmpHours(i));
+      appendValue(row, energy.getSubsystemWattHours(i));
+    }
+    appendValue(row, energy.getOtherAmpHours());
+    appendValue(row, energy.getOtherWattHours());
+    row.append(String.format(Locale.ROOT, ",%.2f,%.1f", lowestVoltage, resistance * 1000.0));
+    return row.toString();
+  }
+
+  private static void appendValue(StringBuilder row, double value) {
+    row.append(String.format(Locale.ROOT, ",%.4f", value));
+  }
+}
@@ -0,0 +1,138 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.CANBus;
+import com.ctre.phoenix6.StatusCode;
+import com.ctre.phoenix6.hardware.ParentDevice;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Timer;
+import frc.robot.Constants;
+
+/**
+ * Startup stage that trims status signal traffic on a CAN bus to what is consumed
+ * Consumers declare the signals they read (and at what rate) with require(); signals
+ * that were already given a frequency elsewhere, such as by the swerve odometry
+ * thread or MotorHealthMonitor, are kept too. apply() sets the declared rates and
+ * then disables every other status signal of each device, except devices declared
+ * exempt. Bus utilization is reported before and, once traffic has settled, after.
+ */
+public class CanBusOptimizer {
+  private final CANBus m_bus;
+  private final Map<BaseStatusSignal, Double> m_required = new IdentityHashMap<>();
+  private final Set<ParentDevice> m_exempt = Collections.newSetFromMap(new IdentityHashMap<>());
+  private final ScheduledExecutorService m_reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "CanBusOptimizer");
+    thread.setDaemon(true);
+    thread.setPriority(Thread.MIN_PRIORITY);
+    return thread;
+  });
+
+  // Each is set once, so they must never be held back by the budget; after is set on the reporter thread
+  private final TelemetryRegistry.DoubleChannel m_beforePub = TelemetryRegistry.getInstance().doubleChannel(
+      "CAN/Utilization Before Optimization %", TelemetryRegistry.Tier.CRITICAL, 0.0, 0.0);
+  private final TelemetryRegistry.DoubleChannel m_afterPub = TelemetryRegistry.getInstance().doubleChannel(
+      "CAN/Utilization After Optimization %", TelemetryRegistry.Tier.CRITICAL, 0.0, 0.0);
+
+  /**
+   * Creates an optimizer for one bus
+   * @param bus CAN bus the devices are on
+   */
+  public CanBusOptimizer(CANBus bus) {
+    m_bus = bus;
+  }
+
+  /**
+   * Declare signals that are read, and the rate they are needed at
+   * A signal declared more than once keeps the highest rate.
+   * @param frequencyHz Update frequency in Hz
+   * @param signals Signals that are consumed
+   * @return This optimizer, for chaining
+   */
+  public CanBusOptimizer require(double frequencyHz, BaseStatusSignal... signals) {
+    for (BaseStatusSignal signal : signals) {
+      m_required.merge(signal, frequencyHz, Math::max);
+    }
+    return this;
+  }
+
+  /**
+   * Declare devices whose status signals must be left at their defaults
+   * @param devices Devices not to optimize
+   * @return This optimizer, for chaining
+   */
+  public CanBusOptimizer exempt(ParentDevice... devices) {
+    for (ParentDevice device : devices) {
+      m_exempt.add(device);
+    }
+    return this;
+  }
+
+  /**
+   * Apply the declared rates and disable every other signal of the given devices
+   * Call once every consumer has set its own signal frequencies; a signal given a
+   * frequency after this is turned back on.
+   * @param devices Devices to optimize
+   */
+  public void apply(ParentDevice... devices) {
+    double before = getUtilizationPercent();
+
+    for (Map.Entry<BaseStatusSignal, Double> entry : m_required.entrySet()) {
+      StatusCode status = entry.getKey().setUpdateFrequency(entry.getValue());
+      if (!status.isOK()) {
+        DriverStation.reportWarning("Failed to set " + entry.getKey().getName() + " update frequency: "
+            + status, false);
+      }
+    }
+
+    List<ParentDevice> optimized = new ArrayList<>();
+    for (ParentDevice device : devices) {
+      if (!m_exempt.contains(device)) {
+        optimized.add(device);
+      }
+    }
+    StatusCode status = ParentDevice.optimizeBusUtilizationForAll(optimized.toArray(new ParentDevice[0]));
+    if (!status.isOK()) {
+      DriverStation.reportWarning("CAN bus optimization incomplete: " + status, false);
+    }
+
+    AsyncLog.log(String.format("CAN bus %s optimized: %d devices, %d exempt, %d declared signals, "
+        + "utilization before %.1f%%", m_bus.getName(), optimized.size(), devices.length - optimized.size(),
+        m_required.size(), before));
+    m_beforePub.set(before, Timer.getFPGATimestamp());
+
+    // Utilization is averaged by the bus; give it time to reflect the new rates
+    m_reporter.schedule(() -> {
+      double after = getUtilizationPercent();
+      AsyncLog.log(String.format("CAN bus %s utilization after optimization %.1f%% (was %.1f%%)",
+          m_bus.getName(), after, before));
+      m_afterPub.set(after, Timer.getFPGATimestamp());
+    }, (long) (Constants.CanBus.SETTLE_SECONDS * 1000), TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Get the current bus utilization
+   * @return Utilization in percent, or NaN if the bus status can't be read
+   */
+  public double getUtilizationPercent() {
+    CANBus.CANBusStatus status = m_bus.getStatus();
+    if (!status.Status.isOK()) {
+      return Double.NaN;
+    }
+    return status.BusUtilization * 100.0;
+  }
+}
@@ -0,0 +1,174 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Integrates charge (Ah) and energy (Wh) drawn from the battery
+ * Totals are split by robot mode and by subsystem. Subsystem current comes from
+ * per-device measurements; whatever the subsystems don't account for is "Other".
+ */
+public class EnergyAccountant {
+  private static final double SECONDS_PER_HOUR = 3600.0;
+
+  /**
+   * Robot mode a sample was taken in
+   */
+  public enum Mode {
+    DISABLED,
+    AUTONOMOUS,
+    TELEOP,
+    TEST
+  }
+
+  private final double[] m_modeAmpHours = new double[Mode.values().length];
+  private final double[] m_modeWattHours = new double[Mode.values().length];
+  private final List<String> m_subsystemNames = new ArrayList<>();
+  private double[] m_subsystemAmpHours = new double[0];
+  private double[] m_subsystemWattHours = new double[0];
+  private double m_otherAmpHours = 0.0;
+  private double m_otherWattHours = 0.0;
+
+  /**
+   * Add a subsystem to account for
+   * Call before the first sample
+   * @param name Subsystem name
+   * @return Index to pass subsystem currents in
+   */
+  public int addSubsystem(String name) {
+    m_subsystemNames.add(name);
+    m_subsystemAmpHours = new double[m_subsystemNames.size()];
+    m_subsystemWattHours = new double[m_subsystemNames.size()];
+    return m_subsystemNames.size() - 1;
+  }
+
+  /**
+   * Integrate one sample
+   * @param mode Robot mode
+   * @param voltage Battery voltage in volts
+   * @param totalCurrent Total current in amps
+   * @param subsystemCurrents Current per subsystem in amps, in addSubsystem() order
+   * @param dtSeconds Time the sample covers
+   */
+  public void addSample(Mode mode, double voltage, double totalCurrent, double[] subsystemCurrents, double dtSeconds) {
+    if (dtSeconds <= 0.0) {
+      return;
+    }
+    double hours = dtSeconds / SECONDS_PER_HOUR;
+    m_modeAmpHours[mode.ordinal()] += totalCurrent * hours;
+    m_modeWattHours[mode.ordinal()] += voltage * totalCurrent * hours;
+
+    double accounted = 0.0;
+    for (int i = 0; i < m_subsystemAmpHours.length; i++) {
+      double current = subsystemCurrents[i];
+      accounted += current;
+      m_subsystemAmpHours[i] += current * hours;
+      m_subsystemWattHours[i] += voltage * current * hours;
+    }
+    // Measurements disagree slightly; never book negative "Other" usage
+    double other = Math.max(0.0, totalCurrent - accounted);
+    m_otherAmpHours += other * hours;
+    m_otherWattHours += voltage * other * hours;
+  }
+
+  /**
+   * Get the charge drawn in every mode
+   * @return Charge in amp-hours
+   */
+  public double getTotalAmpHours() {
+    double total = 0.0;
+    for (double ampHours : m_modeAmpHours) {
+      total += ampHours;
+    }
+    return total;
+  }
+
+  /**
+   * Get the energy drawn in every mode
+   * @return Energy in watt-hours
+   */
+  public double getTotalWattHours() {
+    double total = 0.0;
+    for (double wattHours : m_modeWattHours) {
+      total += wattHours;
+    }
+    return total;
+  }
+
+  /**
+   * Get the charge drawn in one mode
+   * @param mode Robot mode
+   * @return Charge in amp-hours
+   */
+  public double getAmpHours(Mode mode) {
+    return m_modeAmpHours[mode.ordinal()];
+  }
+
+  /**
+   * Get the energy drawn in one mode
+   * @param mode Robot mode
+   * @return Energy in watt-hours
+   */
+  public double getWattHours(Mode mode) {
+    return m_modeWattHours[mode.ordinal()];
+  }
+
+  /**
+   * Get the subsystem names, in index order
+   * @return Subsystem names
+   */
+  public List<String> getSubsystemNames() {
+    return m_subsystemNames;
+  }
+
+  /**
+   * Get the charge drawn by one subsystem
+   * @param index Subsystem index from addSubsystem()
+   * @return Charge in amp-hours
+   */
+  public double getSubsystemAmpHours(int index) {
+    return m_subsystemAmpHours[index];
+  }
+
+  /**
+   * Get the energy drawn by one subsystem
+   * @param index Subsystem index from addSubsystem()
+   * @return Energy in watt-hours
+   */
+  public double getSubsystemWattHours(int index) {
+    return m_subsystemWattHours[index];
+  }
+
+  /**
+   * Get the charge no subsystem accounts for
+   * @return Charge in amp-hours
+   */
+  public double getOtherAmpHours() {
+    return m_otherAmpHours;
+  }
+
+  /**
+   * Get the energy no subsystem accounts for
+   * @return Energy in watt-hours
+   */
+  public double getOtherWattHours() {
+    return m_otherWattHours;
+  }
+
+  /**
+   * Clear every total, keeping the subsystems
+   */
+  public void reset() {
+    Arrays.fill(m_modeAmpHours, 0.0);
+    Arrays.fill(m_modeWattHours, 0.0);
+    Arrays.fill(m_subsystemAmpHours, 0.0);
+    Arrays.fill(m_subsystemWattHours, 0.0);
+    m_otherAmpHours = 0.0;
+    m_otherWattHours = 0.0;
+  }
+}
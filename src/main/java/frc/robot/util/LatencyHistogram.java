@@ -0,0 +1,88 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-bin histogram of durations for one writer thread and any number of readers
+ * Bins are equal width starting at zero, with the last bin collecting everything
+ * beyond the range. Recording is allocation-free and lock-free, so it can be used
+ * from the odometry thread; percentiles are read from another thread without
+ * stopping the writer and are accurate to one bin width.
+ */
+public class LatencyHistogram {
+  private final double m_binWidth;
+  private final AtomicLongArray m_bins;
+  private volatile long m_count = 0;
+  private volatile double m_max = 0.0;
+
+  /**
+   * Creates a histogram
+   * @param binWidth Width of each bin, in the unit of the recorded values
+   * @param binCount Number of bins, including the overflow bin
+   */
+  public LatencyHistogram(double binWidth, int binCount) {
+    if (binWidth <= 0.0 || binCount < 2) {
+      throw new IllegalArgumentException("Histogram needs a positive bin width and at least 2 bins");
+    }
+    m_binWidth = binWidth;
+    m_bins = new AtomicLongArray(binCount);
+  }
+
+  /**
+   * Record a value (single writer thread only)
+   * @param value Value to record; negative values count as zero
+   */
+  public void record(double value) {
+    int bin = (int) Math.min(m_bins.length() - 1, Math.max(0.0, value) / m_binWidth);
+    m_bins.incrementAndGet(bin);
+    if (value > m_max) {
+      m_max = value;
+    }
+    m_count = m_count + 1; // single writer, so not a lost update
+  }
+
+  /**
+   * Get the number of values recorded
+   * @return Count
+   */
+  public long getCount() {
+    return m_count;
+  }
+
+  /**
+   * Get the largest value recorded
+   * @return Maximum, or 0 if empty
+   */
+  public double getMax() {
+    return m_max;
+  }
+
+  /**
+   * Get a percentile
+   * @param fraction Percentile as a fraction, e.g. 0.99
+   * @return Upper edge of the bin holding the percentile, the maximum if that is the
+   *     overflow bin, or 0 if empty
+   */
+  public double getPercentile(double fraction) {
+    long total = 0;
+    for (int i = 0; i < m_bins.length(); i++) {
+      total += m_bins.get(i);
+    }
+    if (total == 0) {
+      return 0.0;
+    }
+    long rank = (long) Math.ceil(fraction * total);
+    long seen = 0;
+    for (int i = 0; i < m_bins.length() - 1; i++) {
+      seen += m_bins.get(i);
+      if (seen >= Math.max(1, rank)) {
+        return (i + 1) * m_binWidth;
+      }
+    }
+    return m_max;
+  }
+}
@@ -0,0 +1,175 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.util;
+
+import edu.wpi.first.wpilibj.Timer;
+import frc.robot.Constants;
+
+/**
+ * Priority-based load shedding for when the main loop runs long
+ * Optional work registers a work item with a priority and asks it whether to run
+ * each time. The main loop reports how long each iteration took; after
+ * ESCALATE_LOOPS iterations over budget the shed level goes up by one, and after
+ * RESTORE_LOOPS iterations with headroom it comes back down by one. At each level
+ * the lowest priority still shed is decimated to one call in DECIMATION_FACTOR and
+ * everything below it is skipped. Control work is never shed. The level is set on
+ * the main thread and read from any thread; each work item must only be asked
+ * from one thread.
+ */
+public final class LoadShedder {
+  private static final LoadShedder INSTANCE = new LoadShedder();
+
+  /**
+   * Work priorities, most important first
+   */
+  public enum Priority {
+    /** Control output; never shed */
+    CONTROL,
+    /** Vision measurements fused into the pose estimate */
+    VISION_FUSION,
+    /** NetworkTables and SmartDashboard telemetry */
+    DASHBOARD,
+    /** Text log messages */
+    TEXT_LOG
+  }
+
+  private static final int PRIORITY_COUNT = Priority.values().length;
+
+  /** Highest shed level: everything but control is shed */
+  public static final int MAX_LEVEL = PRIORITY_COUNT - 1;
+
+  private volatile int m_level = 0;
+
+  // Main thread
+  private int m_overBudgetLoops = 0;
+  private int m_headroomLoops = 0;
+  // Only set when the level changes, so it must never be held back by the budget
+  private final TelemetryRegistry.DoubleChannel m_levelPub = TelemetryRegistry.getInstance().doubleChannel(
+      "LoadShed/Level", TelemetryRegistry.Tier.CRITICAL, 0.0, 0.0);
+
+  /**
+   * A piece of optional work
+   */
+  public static final class WorkItem {
+    private final LoadShedder m_shedder;
+    private final String m_name;
+    private final Priority m_priority;
+    private final int m_shedFromLevel;
+    private long m_calls = 0;
+    private volatile long m_skipped = 0;
+
+    private WorkItem(LoadShedder shedder, String name, Priority priority) {
+      m_shedder = shedder;
+      m_name = name;
+      m_priority = priority;
+      m_shedFromLevel = PRIORITY_COUNT - priority.ordinal();
+    }
+
+    /**
+     * Whether to do this work now; call once per opportunity, and skip the work if false
+     * @return True to run the work
+     */
+    public boolean shouldRun() {
+      int depth = m_shedder.m_level - m_shedFromLevel + 1;
+      long call = m_calls++;
+      if (depth <= 0 || (depth == 1 && call % Constants.LoadShed.DECIMATION_FACTOR == 0)) {
+        return true;
+      }
+      m_skipped = m_skipped + 1; // single caller thread, so not a lost update
+      return false;
+    }
+
+    /**
+     * Get the item name
+     * @return Name
+     */
+    public String getName() {
+      return m_name;
+    }
+
+    /**
+     * Get the item priority
+     * @return Priority
+     */
+    public Priority getPriority() {
+      return m_priority;
+    }
+
+    /**
+     * Get how many times this work has been shed
+     * @return Skipped call count
+     */
+    public long getSkippedCount() {
+      return m_skipped;
+    }
+  }
+
+  LoadShedder() {}
+
+  /**
+   * Get the load shedder for the main robot loop
+   * @return The load shedder
+   */
+  public static LoadShedder getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Register a piece of optional work
+   * Register once, e.g. in a constructor, not every loop.
+   * @param name Work name for reporting
+   * @param priority Work priority
+   * @return The work item
+   */
+  public WorkItem register(String name, Priority priority) {
+    return new WorkItem(this, name, priority);
+  }
+
+  /**
+   * Report how long a main loop iteration took (main thread only)
+   * @param loopSeconds Time spent in the iteration, plus how late it started
+   * @param periodSeconds Nominal main loop period
+   */
+  public void update(double loopSeconds, double periodSeconds) {
+    if (loopSeconds > periodSeconds * Constants.LoadShed.BUDGET_FRACTION) {
+      m_overBudgetLoops++;
+      m_headroomLoops = 0;
+    } else if (loopSeconds < periodSeconds * Constants.LoadShed.RESTORE_FRACTION) {
+      m_headroomLoops++;
+      m_overBudgetLoops = 0;
+    } else {
+      m_overBudgetLoops = 0;
+      m_headroomLoops = 0;
+    }
+
+    if (m_overBudgetLoops >= Constants.LoadShed.ESCALATE_LOOPS && m_level < MAX_LEVEL) {
+      m_overBudgetLoops = 0;
+      setLevel(m_level + 1);
+    } else if (m_headroomLoops >= Constants.LoadShed.RESTORE_LOOPS && m_level > 0) {
+      m_headroomLoops = 0;
+      setLevel(m_level - 1);
+    }
+  }
+
+  /**
+   * Get the current shed level
+   * @return 0 when nothing is shed, up to MAX_LEVEL
+   */
+  public int getLevel() {
+    return m_level;
+  }
+
+  private void setLevel(int level) {
+    m_level = level;
+    m_levelPub.set(level, Timer.getFPGATimestamp());
+    if (level == 0) {
+      AsyncLog.log("Load shedding off");
+      return;
+    }
+    Priority decimated = Priority.values()[PRIORITY_COUNT - level];
+    AsyncLog.log("Load shedding level " + level + ": decimating " + decimated
+        + (level > 1 ? ", skipping lower priorities" : ""));
+  }
+}
@@ -0,0 +1,317 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.StringArrayPublisher;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.WrapperCommand;
+import frc.robot.Constants;
+
+/**
+ * Loop profiler: how long each subsystem periodic(), command call and telemetry
+ * call takes, and how much it allocates
+ * Each timed section keeps a histogram of its durations, measured with
+ * System.nanoTime, and a smoothed count of bytes allocated per call, from the
+ * thread's allocation counter. Timing a section is four counter reads and a
+ * histogram update, with no allocation. Sections with the worst p99 and the
+ * heaviest allocators are published as ranked lists every PUBLISH_PERIOD_SECONDS,
+ * as a debug-tier TelemetryRegistry frame, and a section allocating more than its
+ * budget is flagged as a regression.
+ * Sections are created and published on the main robot thread; each section
+ * must only be timed from one thread.
+ */
+public final class LoopProfiler {
+  private static final double NANOS_PER_SECOND = 1e9;
+  private static final LoopProfiler INSTANCE = new LoopProfiler();
+
+  private final Map<String, Section> m_sections = new LinkedHashMap<>();
+  private final List<Section> m_ranked = new ArrayList<>();
+  private final Comparator<Section> m_byP99 =
+      Comparator.comparingDouble((Section section) -> section.m_histogram.getPercentile(0.99)).reversed();
+  private final Comparator<Section> m_byAllocation =
+      Comparator.comparingDouble((Section section) -> section.m_averageBytes).reversed();
+  private Section m_loopSection = null;
+  private double m_lastPublishTime = Double.NEGATIVE_INFINITY;
+
+  // Dashboard channels, created on the first publish
+  private TelemetryRegistry.FrameChannel m_rankingsChannel;
+  private StringArrayPublisher m_topPub;
+  private StringArrayPublisher m_allocatorsPub;
+  private StringArrayPublisher m_regressionsPub;
+  private TelemetryRegistry.DoubleChannel m_bytesPerLoopPub;
+
+  /**
+   * A timed piece of the main loop
+   */
+  public static final class Section {
+    private final String m_name;
+    private final LatencyHistogram m_histogram = new LatencyHistogram(
+        Constants.Profiler.HISTOGRAM_BIN_SECONDS, Constants.Profiler.HISTOGRAM_BINS);
+    private long m_startNanos;
+    private long m_startBytes;
+    private boolean m_hasAllocationSample = false;
+    private volatile double m_averageBytes = 0.0;
+    private volatile long m_allocationBudget = Constants.Profiler.DEFAULT_ALLOCATION_BUDGET_BYTES;
+    private boolean m_overBudget = false; // main thread
+
+    private Section(String name) {
+      m_name = name;
+    }
+
+    /**
+     * Start timing
+     */
+    public void start() {
+      m_startBytes = AllocationCounter.currentThreadBytes();
+      m_startNanos = System.nanoTime();
+    }
+
+    /**
+     * Stop timing and record the duration and allocation since start()
+     */
+    public void stop() {
+      long nanos = System.nanoTime() - m_startNanos;
+      long bytes = AllocationCounter.currentThreadBytes() - m_startBytes;
+      m_histogram.record(nanos / NANOS_PER_SECOND);
+      if (!m_hasAllocationSample) {
+        m_averageBytes = bytes;
+        m_hasAllocationSample = true;
+      } else {
+        m_averageBytes += Constants.Profiler.ALLOCATION_SMOOTHING * (bytes - m_averageBytes);
+      }
+    }
+
+    /**
+     * Set how many bytes per call this section may allocate before it is flagged
+     * Use 0 for paths that must not allocate.
+     * @param bytesPerCall Allocation budget in bytes per call
+     * @return This section, for chaining
+     */
+    public Section setAllocationBudget(long bytesPerCall) {
+      m_allocationBudget = bytesPerCall;
+      return this;
+    }
+
+    /**
+     * Get the smoothed allocation per call
+     * @return Bytes per call
+     */
+    public double getAverageBytes() {
+      return m_averageBytes;
+    }
+
+    /**
+     * Get the section name
+     * @return Name
+     */
+    public String getName() {
+      return m_name;
+    }
+
+    /**
+     * Get the recorded durations
+     * @return Duration histogram, in seconds
+     */
+    public LatencyHistogram getHistogram() {
+      return m_histogram;
+    }
+  }
+
+  private LoopProfiler() {}
+
+  /**
+   * Get the profiler for the main robot thread
+   * @return The profiler
+   */
+  public static LoopProfiler getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Get a section by name, creating it on first use
+   * Look sections up once, e.g. in a constructor, not every loop.
+   * @param name Section name, e.g. "VisionSubsystem.periodic"
+   * @return The section
+   */
+  public Section section(String name) {
+    return m_sections.computeIfAbsent(name, key -> {
+      Section section = new Section(key);
+      m_ranked.add(section);
+      return section;
+    });
+  }
+
+  /**
+   * Set the section that spans one main loop iteration, published as bytes per loop
+   * @param section Loop section
+   */
+  public void setLoopSection(Section section) {
+    m_loopSection = section;
+  }
+
+  /**
+   * Wrap a command so its initialize, execute, isFinished and end calls are timed
+   * @param command Command to profile
+   * @return Profiled command; schedule this instead of the original
+   */
+  public Command profile(Command command) {
+    return profile(command.getName(), command);
+  }
+
+  /**
+   * Wrap a command so its initialize, execute, isFinished and end calls are timed
+   * Give factory-made commands a name; they often share a generic one.
+   * @param name Section name prefix, also used as the command name
+   * @param command Command to profile
+   * @return Profiled command; schedule this instead of the original
+   */
+  public Command profile(String name, Command command) {
+    return new ProfiledCommand(name, command);
+  }
+
+  /**
+   * Publish the sections with the worst p99 and the heaviest allocators, and flag
+   * sections over their allocation budget, at most every PUBLISH_PERIOD_SECONDS
+   * @param now Current time in seconds
+   */
+  public void publish(double now) {
+    if (now - m_lastPublishTime < Constants.Profiler.PUBLISH_PERIOD_SECONDS) {
+      return;
+    }
+    m_lastPublishTime = now;
+    if (m_rankingsChannel == null) {
+      TelemetryRegistry registry = TelemetryRegistry.getInstance();
+      NetworkTable table = NetworkTableInstance.getDefault().getTable("SmartDashboard");
+      m_rankingsChannel = registry.frameChannel("Profiler/Rankings", TelemetryRegistry.Tier.DEBUG,
+          Constants.TelemetryBudget.DEBUG_INTERVAL_SECONDS, Constants.Profiler.RANKINGS_FRAME_BYTES);
+      m_topPub = table.getStringArrayTopic("Profiler/Top").publish();
+      m_allocatorsPub = table.getStringArrayTopic("Profiler/Top Allocators").publish();
+      m_regressionsPub = table.getStringArrayTopic("Profiler/Allocation Regressions").publish();
+      m_bytesPerLoopPub = registry.doubleChannel("Profiler/Bytes Per Loop", TelemetryRegistry.Tier.DEBUG,
+          Constants.TelemetryBudget.DEBUG_INTERVAL_SECONDS, Constants.Profiler.ALLOCATION_TOLERANCE_BYTES);
+    }
+
+    // Regressions are checked every period, whether or not the lists are sent
+    m_ranked.sort(m_byAllocation);
+    for (Section section : m_ranked) {
+      checkAllocationBudget(section);
+    }
+    if (m_loopSection != null) {
+      m_bytesPerLoopPub.set(m_loopSection.m_averageBytes, now);
+    }
+    // The lists change every period; only build them when the budget lets them out
+    if (!m_rankingsChannel.tryPublish(true, now)) {
+      return;
+    }
+
+    int count = Math.min(Constants.Profiler.TOP_N, m_ranked.size());
+    String[] allocators = new String[count];
+    for (int i = 0; i < count; i++) {
+      Section section = m_ranked.get(i);
+      allocators[i] = String.format("%s %.0f B/call", section.m_name, section.m_averageBytes);
+    }
+    List<String> regressions = new ArrayList<>();
+    for (Section section : m_ranked) {
+      if (section.m_overBudget) {
+        regressions.add(section.m_name);
+      }
+    }
+
+    m_ranked.sort(m_byP99);
+    String[] top = new String[count];
+    for (int i = 0; i < count; i++) {
+      Section section = m_ranked.get(i);
+      LatencyHistogram histogram = section.m_histogram;
+      top[i] = String.format("%s p50 %.2f p99 %.2f max %.2f ms", section.m_name,
+          histogram.getPercentile(0.5) * 1000.0, histogram.getPercentile(0.99) * 1000.0,
+          histogram.getMax() * 1000.0);
+    }
+
+    m_topPub.set(top);
+    m_allocatorsPub.set(allocators);
+    m_regressionsPub.set(regressions.toArray(new String[0]));
+  }
+
+  private static void checkAllocationBudget(Section section) {
+    double average = section.m_averageBytes;
+    long budget = section.m_allocationBudget;
+    // Tolerance keeps a rare allocation (class loading, JIT) from flagging a zero budget forever
+    double limit = budget + Constants.Profiler.ALLOCATION_TOLERANCE_BYTES;
+    if (!section.m_overBudget && average > limit) {
+      section.m_overBudget = true;
+      String message = String.format("%s allocates %.0f B/call, budget %d", section.m_name, average, budget);
+      DriverStation.reportWarning("WARNING: Allocation regression - " + message, false);
+      AsyncLog.log("Allocation regression: " + message);
+    } else if (section.m_overBudget && average <= limit / 2.0) {
+      // Hysteresis so a section hovering at its budget doesn't warn every second
+      section.m_overBudget = false;
+    }
+  }
+
+  /**
+   * Get every section, in creation order
+   * @return Sections
+   */
+  public Iterable<Section> getSections() {
+    return m_sections.values();
+  }
+
+  /**
+   * Times each lifecycle call of the wrapped command
+   */
+  private final class ProfiledCommand extends WrapperCommand {
+    private final Section m_initialize;
+    private final Section m_execute;
+    private final Section m_isFinished;
+    private final Section m_end;
+
+    private ProfiledCommand(String name, Command command) {
+      super(command);
+      setName(name);
+      m_initialize = section(name + ".initialize");
+      m_execute = section(name + ".execute");
+      m_isFinished = section(name + ".isFinished");
+      m_end = section(name + ".end");
+    }
+
+    @Override
+    public void initialize() {
+      m_initialize.start();
+      m_command.initialize();
+      m_initialize.stop();
+    }
+
+    @Override
+    public void execute() {
+      m_execute.start();
+      m_command.execute();
+      m_execute.stop();
+    }
+
+    @Override
+    public boolean isFinished() {
+      m_isFinished.start();
+      boolean finished = m_command.isFinished();
+      m_isFinished.stop();
+      return finished;
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+      m_end.start();
+      m_command.end(interrupted);
+      m_end.stop();
+    }
+  }
+}
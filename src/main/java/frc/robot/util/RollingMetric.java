@@ -0,0 +1,111 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.util;
+
+import edu.wpi.first.util.datalog.DataLog;
+import edu.wpi.first.util.datalog.DoubleLogEntry;
+
+/**
+ * One sampled metric's min, max and mean over a short window, a long window and the whole match
+ * Window lengths are given in seconds and converted to samples from the metric's sample period.
+ * All nine statistics are logged to DataLog under name/window/stat.
+ */
+public class RollingMetric {
+  private final RollingWindowStats m_short;
+  private final RollingWindowStats m_long;
+  private final RunningStats m_match = new RunningStats();
+
+  // Log entries in [short, long, match] x [min, max, mean] order
+  private final DoubleLogEntry[] m_entries = new DoubleLogEntry[9];
+
+  /**
+   * Creates a metric
+   * @param log Data log to write statistics to
+   * @param name Log entry prefix, e.g. "Safety/Voltage"
+   * @param samplePeriodSeconds Time between samples
+   * @param shortWindowSeconds Short window length
+   * @param longWindowSeconds Long window length
+   */
+  public RollingMetric(DataLog log, String name, double samplePeriodSeconds,
+                       double shortWindowSeconds, double longWindowSeconds) {
+    m_short = new RollingWindowStats(windowSamples(shortWindowSeconds, samplePeriodSeconds));
+    m_long = new RollingWindowStats(windowSamples(longWindowSeconds, samplePeriodSeconds));
+
+    String[] windows = {formatSeconds(shortWindowSeconds), formatSeconds(longWindowSeconds), "Match"};
+    String[] stats = {"Min", "Max", "Mean"};
+    for (int w = 0; w < windows.length; w++) {
+      for (int s = 0; s < stats.length; s++) {
+        m_entries[w * 3 + s] = new DoubleLogEntry(log, name + "/" + windows[w] + "/" + stats[s]);
+      }
+    }
+  }
+
+  /**
+   * Add a sample to every window
+   * @param value Sample value
+   */
+  public void add(double value) {
+    m_short.add(value);
+    m_long.add(value);
+    m_match.add(value);
+  }
+
+  /**
+   * Log the current statistics; unchanged values are not rewritten
+   */
+  public void log() {
+    if (m_match.getCount() == 0) {
+      return;
+    }
+    logWindow(0, m_short.getMin(), m_short.getMax(), m_short.getMean());
+    logWindow(1, m_long.getMin(), m_long.getMax(), m_long.getMean());
+    logWindow(2, m_match.getMin(), m_match.getMax(), m_match.getMean());
+  }
+
+  /**
+   * Start a new match, clearing the whole-match statistics
+   */
+  public void resetMatch() {
+    m_match.reset();
+  }
+
+  /**
+   * Get the short window statistics
+   * @return Short window
+   */
+  public RollingWindowStats getShortWindow() {
+    return m_short;
+  }
+
+  /**
+   * Get the long window statistics
+   * @return Long window
+   */
+  public RollingWindowStats getLongWindow() {
+    return m_long;
+  }
+
+  /**
+   * Get the statistics since the match started
+   * @return Whole-match statistics
+   */
+  public RunningStats getMatch() {
+    return m_match;
+  }
+
+  private void logWindow(int window, double min, double max, double mean) {
+    m_entries[window * 3].update(min);
+    m_entries[window * 3 + 1].update(max);
+    m_entries[window * 3 + 2].update(mean);
+  }
+
+  private static int windowSamples(double windowSeconds, double samplePeriodSeconds) {
+    return Math.max(1, (int) Math.round(windowSeconds / samplePeriodSeconds));
+  }
+
+  private static String formatSeconds(double seconds) {
+    return seconds == Math.rint(seconds) ? (long) seconds + "s" : seconds + "s";
+  }
+}
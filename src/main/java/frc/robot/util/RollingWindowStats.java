@@ -0,0 +1,171 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.util;
+
+/**
+ * Minimum, maximum and mean over the last N samples, each updated in O(1)
+ * Values live in a primitive ring buffer with a running sum. Minimum and maximum
+ * come from monotonic deques of sample sequence numbers: each sample is pushed and
+ * popped at most once, so an update is amortized O(1) and nothing allocates.
+ */
+public class RollingWindowStats {
+  private final int m_size;
+  private final double[] m_values;
+  private long m_count = 0; // samples ever added; also the next sequence number
+  private double m_sum = 0.0;
+  private int m_samplesSinceResum = 0;
+
+  // Sequence numbers with increasing (min) or decreasing (max) values, oldest at the head
+  private final LongDeque m_minDeque;
+  private final LongDeque m_maxDeque;
+
+  /**
+   * Creates a window
+   * @param size Number of samples in the window
+   */
+  public RollingWindowStats(int size) {
+    if (size <= 0) {
+      throw new IllegalArgumentException("Window size must be positive");
+    }
+    m_size = size;
+    m_values = new double[size];
+    m_minDeque = new LongDeque(size);
+    m_maxDeque = new LongDeque(size);
+  }
+
+  /**
+   * Add a sample, dropping the oldest one once the window is full
+   * @param value Sample value
+   */
+  public void add(double value) {
+    long seq = m_count++;
+    int slot = (int) (seq % m_size);
+    if (seq >= m_size) {
+      m_sum -= m_values[slot];
+    }
+    m_values[slot] = value;
+    m_sum += value;
+
+    // Expire the sample that just left the window
+    long oldest = seq - m_size + 1;
+    if (!m_minDeque.isEmpty() && m_minDeque.peekFirst() < oldest) {
+      m_minDeque.pollFirst();
+    }
+    if (!m_maxDeque.isEmpty() && m_maxDeque.peekFirst() < oldest) {
+      m_maxDeque.pollFirst();
+    }
+
+    // Samples that can never be the min (max) again are dropped from the back
+    while (!m_minDeque.isEmpty() && valueAt(m_minDeque.peekLast()) >= value) {
+      m_minDeque.pollLast();
+    }
+    m_minDeque.addLast(seq);
+    while (!m_maxDeque.isEmpty() && valueAt(m_maxDeque.peekLast()) <= value) {
+      m_maxDeque.pollLast();
+    }
+    m_maxDeque.addLast(seq);
+
+    // Adding and subtracting leaves rounding error behind; rebuild the sum once per window
+    if (++m_samplesSinceResum >= m_size) {
+      m_sum = 0.0;
+      for (int i = 0; i < getCount(); i++) {
+        m_sum += m_values[i];
+      }
+      m_samplesSinceResum = 0;
+    }
+  }
+
+  /**
+   * Get the number of samples currently in the window
+   * @return Sample count
+   */
+  public int getCount() {
+    return (int) Math.min(m_count, m_size);
+  }
+
+  /**
+   * Get the smallest sample in the window
+   * @return Minimum, or NaN if empty
+   */
+  public double getMin() {
+    return m_minDeque.isEmpty() ? Double.NaN : valueAt(m_minDeque.peekFirst());
+  }
+
+  /**
+   * Get the largest sample in the window
+   * @return Maximum, or NaN if empty
+   */
+  public double getMax() {
+    return m_maxDeque.isEmpty() ? Double.NaN : valueAt(m_maxDeque.peekFirst());
+  }
+
+  /**
+   * Get the mean of the samples in the window
+   * @return Mean, or NaN if empty
+   */
+  public double getMean() {
+    int count = getCount();
+    return count == 0 ? Double.NaN : m_sum / count;
+  }
+
+  /**
+   * Remove every sample
+   */
+  public void reset() {
+    m_count = 0;
+    m_sum = 0.0;
+    m_samplesSinceResum = 0;
+    m_minDeque.clear();
+    m_maxDeque.clear();
+  }
+
+  private double valueAt(long seq) {
+    return m_values[(int) (seq % m_size)];
+  }
+
+  /**
+   * Fixed-capacity double-ended queue of longs
+   */
+  private static final class LongDeque {
+    private final long[] m_items;
+    private int m_head = 0;
+    private int m_length = 0;
+
+    private LongDeque(int capacity) {
+      m_items = new long[capacity];
+    }
+
+    private boolean isEmpty() {
+      return m_length == 0;
+    }
+
+    private long peekFirst() {
+      return m_items[m_head];
+    }
+
+    private long peekLast() {
+      return m_items[(m_head + m_length - 1) % m_items.length];
+    }
+
+    private void pollFirst() {
+      m_head = (m_head + 1) % m_items.length;
+      m_length--;
+    }
+
+    private void pollLast() {
+      m_length--;
+    }
+
+    private void addLast(long value) {
+      m_items[(m_head + m_length) % m_items.length] = value;
+      m_length++;
+    }
+
+    private void clear() {
+      m_head = 0;
+      m_length = 0;
+    }
+  }
+}
@@ -0,0 +1,73 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.util;
+
+/**
+ * Minimum, maximum and mean of every sample since the last reset
+ */
+public class RunningStats {
+  private long m_count = 0;
+  private double m_sum = 0.0;
+  private double m_min = Double.NaN;
+  private double m_max = Double.NaN;
+
+  /**
+   * Add a sample
+   * @param value Sample value
+   */
+  public void add(double value) {
+    if (m_count == 0) {
+      m_min = value;
+      m_max = value;
+    } else {
+      m_min = Math.min(m_min, value);
+      m_max = Math.max(m_max, value);
+    }
+    m_sum += value;
+    m_count++;
+  }
+
+  /**
+   * Get the number of samples since the last reset
+   * @return Sample count
+   */
+  public long getCount() {
+    return m_count;
+  }
+
+  /**
+   * Get the smallest sample
+   * @return Minimum, or NaN if empty
+   */
+  public double getMin() {
+    return m_min;
+  }
+
+  /**
+   * Get the largest sample
+   * @return Maximum, or NaN if empty
+   */
+  public double getMax() {
+    return m_max;
+  }
+
+  /**
+   * Get the mean of the samples
+   * @return Mean, or NaN if empty
+   */
+  public double getMean() {
+    return m_count == 0 ? Double.NaN : m_sum / m_count;
+  }
+
+  /**
+   * Remove every sample
+   */
+  public void reset() {
+    m_count = 0;
+    m_sum = 0.0;
+    m_min = Double.NaN;
+    m_max = Double.NaN;
+  }
+}
@@ -0,0 +1,83 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs samplers at their own configured rates from a single periodic call
+ * Samplers are registered up front; running them does not allocate. A sampler
+ * that falls behind (for example after a long loop) runs once and is rescheduled
+ * from the current time instead of running in a burst to catch up.
+ */
+public class SamplingScheduler {
+  // A sampler may run this fraction of its period early, so loop jitter never
+  // makes a sampler at the loop rate skip a loop; the average rate is unchanged
+  private static final double EARLY_FRACTION = 0.25;
+
+  private final List<Sampler> m_samplers = new ArrayList<>();
+
+  /**
+   * Register a sampler
+   * Samplers due in the same call run in registration order; every sampler runs on the first call
+   * @param name Sampler name for reporting
+   * @param periodSeconds Time between samples in seconds
+   * @param sampler Code that takes the sample
+   */
+  public void addSampler(String name, double periodSeconds, Runnable sampler) {
+    if (periodSeconds <= 0) {
+      throw new IllegalArgumentException("Sample period must be positive: " + name);
+    }
+    m_samplers.add(new Sampler(name, periodSeconds, sampler));
+  }
+
+  /**
+   * Run every sampler that is due
+   * @param now Current time in seconds
+   */
+  public void run(double now) {
+    for (int i = 0; i < m_samplers.size(); i++) {
+      Sampler sampler = m_samplers.get(i);
+      if (now < sampler.m_nextTime - sampler.m_periodSeconds * EARLY_FRACTION) {
+        continue;
+      }
+      sampler.m_action.run();
+      sampler.m_count++;
+      sampler.m_nextTime += sampler.m_periodSeconds;
+      if (sampler.m_nextTime <= now) {
+        sampler.m_nextTime = now + sampler.m_periodSeconds;
+      }
+    }
+  }
+
+  /**
+   * Get how many times a sampler has run
+   * @param name Sampler name
+   * @return Sample count, or 0 if there is no sampler with that name
+   */
+  public long getSampleCount(String name) {
+    for (Sampler sampler : m_samplers) {
+      if (sampler.m_name.equals(name)) {
+        return sampler.m_count;
+      }
+    }
+    return 0;
+  }
+
+  private static final class Sampler {
+    private final String m_name;
+    private final double m_periodSeconds;
+    private final Runnable m_action;
+    private double m_nextTime = Double.NEGATIVE_INFINITY;
+    private long m_count = 0;
+
+    private Sampler(String name, double periodSeconds, Runnable action) {
+      m_name = name;
+      m_periodSeconds = periodSeconds;
+      m_action = action;
+    }
+  }
+}
@@ -0,0 +1,345 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import edu.wpi.first.networktables.BooleanPublisher;
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import frc.robot.Constants;
+
+/**
+ * Registry of dashboard telemetry channels sharing one bandwidth budget
+ * Each channel is created once with a tier, a minimum interval between updates
+ * and, for numbers, a deadband. A channel only sends when its value changed (or
+ * REFRESH_PERIOD_SECONDS passed, for dashboards that connect late), its minimum
+ * interval has passed, and the budget allows it. A change that is held back stays
+ * pending and goes out on a later set(). The budget is a token bucket of
+ * BYTES_PER_SECOND: critical channels always send, normal channels send while any
+ * budget is left, and debug channels only while more than DEBUG_RESERVE_FRACTION
+ * of the bucket is left. Sizes are estimates of the NT4 update on the wire.
+ * Channels are created on the main thread; each channel must only be set from
+ * one thread, and times are FPGA timestamps.
+ */
+public final class TelemetryRegistry {
+  private static final TelemetryRegistry INSTANCE = new TelemetryRegistry();
+
+  /**
+   * Channel priority tiers, most important first
+   */
+  public enum Tier {
+    /** Always sent; counts against the budget but is never held back by it */
+    CRITICAL,
+    /** Sent while any budget is left */
+    NORMAL,
+    /** Sent only while the budget is mostly unused */
+    DEBUG
+  }
+
+  private final NetworkTable m_table;
+  private final List<Channel> m_channels = new ArrayList<>();
+  private final Comparator<Channel> m_byRate =
+      Comparator.comparingDouble((Channel channel) -> channel.m_bytesPerSecond).reversed();
+
+  // Token bucket, shared by channels set from different threads
+  private final double m_capacity =
+      Constants.TelemetryBudget.BYTES_PER_SECOND * Constants.TelemetryBudget.BURST_SECONDS;
+  private double m_tokens = m_capacity;
+  private double m_lastRefillTime = Double.NaN;
+
+  // Main thread
+  private double m_lastStatsTime = Double.NaN;
+
+  /**
+   * Common change detection, rate limiting and accounting of a channel
+   */
+  public abstract static class Channel {
+    private final TelemetryRegistry m_registry;
+    private final String m_key;
+    private final Tier m_tier;
+    private final double m_minInterval;
+    private final int m_bytesPerUpdate;
+    private double m_lastSendTime = Double.NEGATIVE_INFINITY;
+    private volatile long m_updates = 0;
+    private volatile long m_bytes = 0;
+    private volatile long m_budgetHeld = 0;
+
+    // Main thread, for stats
+    private long m_bytesAtLastStats = 0;
+    private double m_bytesPerSecond = 0.0;
+
+    private Channel(TelemetryRegistry registry, String key, Tier tier, double minIntervalSeconds,
+        int valueBytes) {
+      m_registry = registry;
+      m_key = key;
+      m_tier = tier;
+      m_minInterval = minIntervalSeconds;
+      m_bytesPerUpdate = valueBytes + Constants.TelemetryBudget.UPDATE_OVERHEAD_BYTES;
+    }
+
+    /**
+     * Decide whether to send now, and account for it if so
+     * @param changed Whether the value differs from the last one sent
+     * @param now Current time in seconds
+     * @return True if the caller should send
+     */
+    boolean admit(boolean changed, double now) {
+      double sinceLast = now - m_lastSendTime;
+      if (!changed && sinceLast < Constants.TelemetryBudget.REFRESH_PERIOD_SECONDS) {
+        return false;
+      }
+      if (sinceLast < m_minInterval) {
+        return false;
+      }
+      if (!m_registry.consume(m_tier, m_bytesPerUpdate, now)) {
+        m_budgetHeld = m_budgetHeld + 1; // single caller thread, so not a lost update
+        return false;
+      }
+      m_lastSendTime = now;
+      m_updates = m_updates + 1;
+      m_bytes = m_bytes + m_bytesPerUpdate;
+      return true;
+    }
+
+    /**
+     * Get the channel key
+     * @return Key
+     */
+    public String getKey() {
+      return m_key;
+    }
+
+    /**
+     * Get how many updates were sent
+     * @return Update count
+     */
+    public long getUpdateCount() {
+      return m_updates;
+    }
+
+    /**
+     * Get how many bytes were sent, by estimate
+     * @return Bytes sent
+     */
+    public long getBytes() {
+      return m_bytes;
+    }
+
+    /**
+     * Get how many changes were held back by the bandwidth budget
+     * @return Held update count
+     */
+    public long getBudgetHeldCount() {
+      return m_budgetHeld;
+    }
+
+    /**
+     * Get the send rate over the last stats period (main thread only)
+     * @return Bytes per second
+     */
+    public double getBytesPerSecond() {
+      return m_bytesPerSecond;
+    }
+  }
+
+  /**
+   * A number published under a SmartDashboard key
+   */
+  public static final class DoubleChannel extends Channel {
+    private final DoublePublisher m_publisher;
+    private final double m_deadband;
+    private double m_sent = Double.NaN;
+
+    private DoubleChannel(TelemetryRegistry registry, String key, Tier tier, double minIntervalSeconds,
+        double deadband) {
+      super(registry, key, tier, minIntervalSeconds, Double.BYTES);
+      m_publisher = registry.m_table.getDoubleTopic(key).publish();
+      m_deadband = deadband;
+    }
+
+    /**
+     * Offer a new value
+     * @param value Value
+     * @param now Current time in seconds
+     */
+    public void set(double value, double now) {
+      boolean changed = Double.isNaN(m_sent) || Math.abs(value - m_sent) > m_deadband;
+      if (admit(changed, now)) {
+        m_publisher.set(value);
+        m_sent = value;
+      }
+    }
+  }
+
+  /**
+   * A boolean published under a SmartDashboard key
+   */
+  public static final class BooleanChannel extends Channel {
+    private final BooleanPublisher m_publisher;
+    private boolean m_hasSent = false;
+    private boolean m_sent = false;
+
+    private BooleanChannel(TelemetryRegistry registry, String key, Tier tier, double minIntervalSeconds) {
+      super(registry, key, tier, minIntervalSeconds, 1);
+      m_publisher = registry.m_table.getBooleanTopic(key).publish();
+    }
+
+    /**
+     * Offer a new value
+     * @param value Value
+     * @param now Current time in seconds
+     */
+    public void set(boolean value, double now) {
+      if (admit(!m_hasSent || value != m_sent, now)) {
+        m_publisher.set(value);
+        m_sent = value;
+        m_hasSent = true;
+      }
+    }
+  }
+
+  /**
+   * A group of values the caller publishes together with its own publishers,
+   * e.g. struct topics; the caller decides what counts as a change
+   */
+  public static final class FrameChannel extends Channel {
+    private FrameChannel(TelemetryRegistry registry, String key, Tier tier, double minIntervalSeconds,
+        int frameBytes) {
+      super(registry, key, tier, minIntervalSeconds, frameBytes);
+    }
+
+    /**
+     * Ask whether to publish a frame now
+     * @param changed Whether the frame differs from the last one published
+     * @param now Current time in seconds
+     * @return True if the caller should publish the frame
+     */
+    public boolean tryPublish(boolean changed, double now) {
+      return admit(changed, now);
+    }
+  }
+
+  TelemetryRegistry() {
+    m_table = NetworkTableInstance.getDefault().getTable("SmartDashboard");
+  }
+
+  /**
+   * Get the registry for dashboard telemetry
+   * @return The registry
+   */
+  public static TelemetryRegistry getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Create a number channel
+   * @param key SmartDashboard key, e.g. "Safety/Battery Voltage"
+   * @param tier Priority tier
+   * @param minIntervalSeconds Shortest time between updates
+   * @param deadband Smallest change worth sending
+   * @return The channel
+   */
+  public DoubleChannel doubleChannel(String key, Tier tier, double minIntervalSeconds, double deadband) {
+    return add(new DoubleChannel(this, key, tier, minIntervalSeconds, deadband));
+  }
+
+  /**
+   * Create a boolean channel
+   * @param key SmartDashboard key
+   * @param tier Priority tier
+   * @param minIntervalSeconds Shortest time between updates
+   * @return The channel
+   */
+  public BooleanChannel booleanChannel(String key, Tier tier, double minIntervalSeconds) {
+    return add(new BooleanChannel(this, key, tier, minIntervalSeconds));
+  }
+
+  /**
+   * Create a channel for a group of values published together
+   * @param key Name for stats
+   * @param tier Priority tier
+   * @param minIntervalSeconds Shortest time between frames
+   * @param frameBytes Estimated payload of one frame in bytes, without per-update overhead
+   * @return The channel
+   */
+  public FrameChannel frameChannel(String key, Tier tier, double minIntervalSeconds, int frameBytes) {
+    return add(new FrameChannel(this, key, tier, minIntervalSeconds, frameBytes));
+  }
+
+  private <T extends Channel> T add(T channel) {
+    m_channels.add(channel);
+    return channel;
+  }
+
+  private synchronized boolean consume(Tier tier, int bytes, double now) {
+    if (Double.isNaN(m_lastRefillTime)) {
+      m_lastRefillTime = now;
+    } else if (now > m_lastRefillTime) {
+      m_tokens = Math.min(m_capacity,
+          m_tokens + (now - m_lastRefillTime) * Constants.TelemetryBudget.BYTES_PER_SECOND);
+      m_lastRefillTime = now;
+    }
+
+    double floor = 0.0;
+    if (tier == Tier.DEBUG) {
+      floor = m_capacity * Constants.TelemetryBudget.DEBUG_RESERVE_FRACTION;
+    }
+    if (tier != Tier.CRITICAL && m_tokens <= floor) {
+      return false;
+    }
+    m_tokens -= bytes;
+    return true;
+  }
+
+  /**
+   * Publish the channels using the most bandwidth, at most every STATS_PERIOD_SECONDS (main thread only)
+   * @param now Current time in seconds
+   */
+  public void publishStats(double now) {
+    if (Double.isNaN(m_lastStatsTime)) {
+      m_lastStatsTime = now; // first call only sets the baseline
+      return;
+    }
+    double elapsed = now - m_lastStatsTime;
+    if (elapsed < Constants.TelemetryBudget.STATS_PERIOD_SECONDS) {
+      return;
+    }
+    m_lastStatsTime = now;
+
+    double totalRate = 0.0;
+    long held = 0;
+    for (Channel channel : m_channels) {
+      long bytes = channel.m_bytes;
+      channel.m_bytesPerSecond = (bytes - channel.m_bytesAtLastStats) / elapsed;
+      channel.m_bytesAtLastStats = bytes;
+      totalRate += channel.m_bytesPerSecond;
+      held += channel.m_budgetHeld;
+    }
+
+    m_channels.sort(m_byRate);
+    int count = Math.min(Constants.TelemetryBudget.TOP_N, m_channels.size());
+    String[] top = new String[count];
+    for (int i = 0; i < count; i++) {
+      Channel channel = m_channels.get(i);
+      top[i] = String.format("%s %.0f B/s", channel.m_key, channel.m_bytesPerSecond);
+    }
+    SmartDashboard.putStringArray("TelemetryRegistry/Top Channels", top);
+    SmartDashboard.putNumber("TelemetryRegistry/Bytes Per Second", totalRate);
+    SmartDashboard.putNumber("TelemetryRegistry/Budget Held Updates", held);
+  }
+
+  /**
+   * Get every channel
+   * @return Channels
+   */
+  public Iterable<Channel> getChannels() {
+    return m_channels;
+  }
+}
@@ -0,0 +1,120 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.wpi.first.hal.HAL;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for WarmupService and its steady-state detection
+ */
+class WarmupServiceTest {
+  private WarmupService.SteadyStateDetector detector;
+
+  @BeforeEach
+  void setup() {
+    assert HAL.initialize(500, 0);
+    detector = new WarmupService.SteadyStateDetector();
+  }
+
+  @Test
+  void testConstantTimingBecomesSteady() {
+    int rounds = Constants.Warmup.WINDOW_ROUNDS * (Constants.Warmup.STEADY_WINDOWS + 1);
+    for (int i = 0; i < rounds; i++) {
+      assertFalse(detector.isSteady(), "Should not be steady before enough windows");
+      detector.addSample(100.0);
+    }
+    assertTrue(detector.isSteady());
+    assertEquals(100.0, detector.getSteadyMean(), 1e-9);
+  }
+
+  @Test
+  void testImprovingTimingIsNotSteady() {
+    // Each round is much faster than the last, as while the JIT is still compiling
+    double value = 1e6;
+    for (int i = 0; i < Constants.Warmup.WINDOW_ROUNDS * 10; i++) {
+      detector.addSample(value);
+      value *= 0.9;
+    }
+    assertFalse(detector.isSteady());
+  }
+
+  @Test
+  void testResetStartsOver() {
+    for (int i = 0; i < Constants.Warmup.WINDOW_ROUNDS * (Constants.Warmup.STEADY_WINDOWS + 1); i++) {
+      detector.addSample(100.0);
+    }
+    detector.reset();
+    assertFalse(detector.isSteady());
+    assertEquals(0, detector.getSampleCount());
+  }
+
+  @Test
+  void testServiceRunsPathsUntilSteady() {
+    WarmupService service = new WarmupService();
+    int[] rounds = {0};
+    service.addPath("test", () -> rounds[0]++);
+    assertFalse(service.isSteady());
+
+    for (int i = 0; i < 500 && !service.isSteady(); i++) {
+      service.run();
+    }
+    assertTrue(service.isSteady(), "A trivial path should settle");
+    int settledRounds = rounds[0];
+
+    service.run();
+    assertEquals(settledRounds, rounds[0], "Steady paths should not run again");
+  }
+
+  @Test
+  void testPathThatGivesUpIsNotSteady() {
+    WarmupService service = new WarmupService();
+    int[] rounds = {0};
+    // Alternate slow and fast windows, so window means never settle
+    service.addPath("noisy", () -> {
+      if ((rounds[0]++ / Constants.Warmup.WINDOW_ROUNDS) % 2 == 0) {
+        long end = System.nanoTime() + 20_000;
+        while (System.nanoTime() < end) {
+          // spin
+        }
+      }
+    });
+
+    for (int i = 0; i < 100_000 && rounds[0] < Constants.Warmup.MAX_ROUNDS; i++) {
+      service.run();
+    }
+    service.run();
+    assertEquals(Constants.Warmup.MAX_ROUNDS, rounds[0], "A path that gave up should not run again");
+    assertFalse(service.isSteady());
+  }
+
+  @Test
+  void testIsSteadyDoesNotPrepareCommands() {
+    WarmupService service = new WarmupService();
+    int[] prepared = {0};
+    service.addCommandPath("counted", () -> {
+      prepared[0]++;
+      return null;
+    });
+    service.isSteady();
+    assertEquals(0, prepared[0]);
+    service.run();
+    assertTrue(prepared[0] > 0);
+    int afterRun = prepared[0];
+    assertTrue(service.isSteady());
+    assertEquals(afterRun, prepared[0]);
+  }
+
+  @Test
+  void testNothingToRunCountsAsSteady() {
+    WarmupService service = new WarmupService();
+    service.addCommandPath("empty", () -> null);
+    service.run();
+    assertTrue(service.isSteady());
+  }
+}
@@ -0,0 +1,68 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import frc.robot.Constants;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for CurrentLimitGovernor limit calculations
+ */
+class CurrentLimitGovernorTest {
+  private static final double MIN_SUPPLY = Constants.CurrentLimits.MIN_SUPPLY_LIMIT;
+  private static final double MAX_SUPPLY = Constants.CurrentLimits.MAX_SUPPLY_LIMIT;
+
+  @Test
+  void testFullLimitsOnHealthyBattery() {
+    double limit = CurrentLimitGovernor.supplyLimitFor(12.5, Double.POSITIVE_INFINITY, 4);
+    assertEquals(MAX_SUPPLY, limit, 1e-9);
+  }
+
+  @Test
+  void testTightensAsVoltageSags() {
+    double warning = Constants.Safety.VOLTAGE_WARNING_THRESHOLD;
+    double critical = Constants.Safety.VOLTAGE_CRITICAL_THRESHOLD;
+    double midway = CurrentLimitGovernor.supplyLimitFor((warning + critical) / 2, Double.POSITIVE_INFINITY, 4);
+
+    assertEquals((MIN_SUPPLY + MAX_SUPPLY) / 2, midway, 1e-9);
+    assertEquals(MIN_SUPPLY, CurrentLimitGovernor.supplyLimitFor(critical - 1.0, Double.POSITIVE_INFINITY, 4), 1e-9);
+  }
+
+  @Test
+  void testLimitedByCurrentBudget() {
+    double budget = 4 * 50.0 / Constants.CurrentLimits.DRIVE_BUDGET_FRACTION;
+    assertEquals(50.0, CurrentLimitGovernor.supplyLimitFor(12.5, budget, 4), 1e-9);
+    assertEquals(MIN_SUPPLY, CurrentLimitGovernor.supplyLimitFor(12.5, 0.0, 4), 1e-9,
+        "Limits never go below the minimum");
+  }
+
+  @Test
+  void testStatorFollowsSupply() {
+    assertEquals(Constants.CurrentLimits.MAX_STATOR_LIMIT, CurrentLimitGovernor.statorLimitFor(MAX_SUPPLY), 1.0);
+    assertEquals(Constants.CurrentLimits.MIN_STATOR_LIMIT, CurrentLimitGovernor.statorLimitFor(MIN_SUPPLY), 1e-9);
+  }
+
+  @Test
+  void testDropsImmediatelyAndRisesSlowly() {
+    assertEquals(30.0, CurrentLimitGovernor.slew(70.0, 30.0, 0.02), 1e-9);
+
+    double raised = CurrentLimitGovernor.slew(30.0, 70.0, 0.5);
+    assertEquals(30.0 + Constants.CurrentLimits.RAISE_RATE_AMPS_PER_SECOND * 0.5, raised, 1e-9);
+    assertEquals(70.0, CurrentLimitGovernor.slew(69.9, 70.0, 0.5), 1e-9, "Should not overshoot the target");
+  }
+
+  @Test
+  void testRateLimitsConfigWrites() {
+    double interval = Constants.CurrentLimits.MIN_WRITE_INTERVAL_SECONDS;
+    double deadband = Constants.CurrentLimits.WRITE_DEADBAND_AMPS;
+
+    assertTrue(CurrentLimitGovernor.shouldWrite(70.0, Double.NaN, 0.0), "First write always goes out");
+    assertFalse(CurrentLimitGovernor.shouldWrite(70.0 - deadband / 2, 70.0, interval * 10), "Small change");
+    assertFalse(CurrentLimitGovernor.shouldWrite(40.0, 70.0, interval / 2), "Too soon");
+    assertTrue(CurrentLimitGovernor.shouldWrite(40.0, 70.0, interval));
+  }
+}
@@ -0,0 +1,88 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import frc.robot.Constants;
+import frc.robot.subsystems.MotorHealthMonitor.Level;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for MotorHealthMonitor thresholds and TemperatureTrend
+ */
+class MotorHealthMonitorTest {
+  private static final double WARNING = Constants.Safety.TEMPERATURE_WARNING_THRESHOLD;
+  private static final double CRITICAL = Constants.Safety.TEMPERATURE_CRITICAL_THRESHOLD;
+  private static final double HYSTERESIS = Constants.MotorHealth.TEMPERATURE_HYSTERESIS;
+
+  @Test
+  void testClassifyThresholds() {
+    assertEquals(Level.OK, MotorHealthMonitor.classify(40.0, 40.0, Level.OK));
+    assertEquals(Level.WARNING, MotorHealthMonitor.classify(WARNING, WARNING, Level.OK));
+    assertEquals(Level.CRITICAL, MotorHealthMonitor.classify(CRITICAL, CRITICAL, Level.WARNING));
+  }
+
+  @Test
+  void testClassifyWarnsOnTrend() {
+    assertEquals(Level.WARNING, MotorHealthMonitor.classify(WARNING - 10.0, CRITICAL + 1.0, Level.OK),
+        "A motor heating toward critical should warn before it is hot");
+  }
+
+  @Test
+  void testClassifyHysteresis() {
+    // Just below a threshold keeps the level, well below it drops it
+    assertEquals(Level.CRITICAL,
+        MotorHealthMonitor.classify(CRITICAL - HYSTERESIS / 2, CRITICAL, Level.CRITICAL));
+    assertEquals(Level.WARNING,
+        MotorHealthMonitor.classify(CRITICAL - HYSTERESIS - 1.0, CRITICAL - HYSTERESIS - 1.0, Level.CRITICAL));
+    assertEquals(Level.WARNING,
+        MotorHealthMonitor.classify(WARNING - HYSTERESIS / 2, WARNING, Level.WARNING));
+    assertEquals(Level.OK,
+        MotorHealthMonitor.classify(WARNING - HYSTERESIS - 1.0, WARNING - HYSTERESIS - 1.0, Level.WARNING));
+    assertEquals(Level.OK,
+        MotorHealthMonitor.classify(WARNING - HYSTERESIS / 2, WARNING - HYSTERESIS / 2, Level.OK));
+  }
+
+  @Test
+  void testScaleForLevel() {
+    assertEquals(1.0, MotorHealthMonitor.scaleFor(Level.OK), 1e-9);
+    assertTrue(MotorHealthMonitor.scaleFor(Level.WARNING) < 1.0);
+    assertTrue(MotorHealthMonitor.scaleFor(Level.CRITICAL) < MotorHealthMonitor.scaleFor(Level.WARNING));
+  }
+
+  @Test
+  void testTrendFollowsSteadyRise() {
+    TemperatureTrend trend = new TemperatureTrend(5.0);
+    // 0.1 C/s for two minutes, sampled at 4 Hz
+    for (int i = 0; i <= 480; i++) {
+      double t = i * 0.25;
+      trend.update(30.0 + 0.1 * t, t);
+    }
+    assertEquals(0.1, trend.getSlopePerSecond(), 0.005);
+    // The moving average lags by about one time constant
+    assertEquals(30.0 + 0.1 * 120.0 - 0.1 * 5.0, trend.getFiltered(), 0.1);
+    assertTrue(trend.predict(30.0) > trend.getFiltered() + 2.5);
+  }
+
+  @Test
+  void testTrendHoldsFallingPrediction() {
+    TemperatureTrend trend = new TemperatureTrend(5.0);
+    for (int i = 0; i <= 240; i++) {
+      double t = i * 0.25;
+      trend.update(60.0 - 0.1 * t, t);
+    }
+    assertTrue(trend.getSlopePerSecond() < 0.0);
+    assertEquals(trend.getFiltered(), trend.predict(30.0), 1e-9);
+  }
+
+  @Test
+  void testTrendIgnoresRepeatedTimestamp() {
+    TemperatureTrend trend = new TemperatureTrend(5.0);
+    trend.update(40.0, 1.0);
+    trend.update(90.0, 1.0);
+    assertEquals(40.0, trend.getFiltered(), 1e-9);
+  }
+}
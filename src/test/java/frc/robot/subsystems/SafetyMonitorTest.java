@@ -7,6 +7,7 @@ package frc.robot.subsystems;
 import static org.junit.jupiter.api.Assertions.*;
 
 import edu.wpi.first.hal.HAL;
+import frc.robot.telemetry.BlackBoxRecorder;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -21,7 +22,7 @@ class SafetyMonitorTest {
   void setup() {
     // Initialize HAL for testing
     assert HAL.initialize(500, 0);
-    safetyMonitor = new SafetyMonitor();
+    safetyMonitor = new SafetyMonitor(new BlackBoxRecorder());
   }
 
   @AfterEach
@@ -87,6 +88,13 @@ class SafetyMonitorTest {
     assertTrue(afterPeriodic >= initialPeak, "Peak should not decrease");
   }
 
+  @Test
+  void testCurrentHeadroomIsNonNegative() {
+    safetyMonitor.periodic();
+    assertTrue(safetyMonitor.getCurrentHeadroom() >= 0.0, "Headroom should be non-negative");
+    assertTrue(safetyMonitor.predictBatteryVoltage(0.0) >= 0.0);
+  }
+
   @Test
   void testResetPeaksActuallyResets() {
     // Run periodic to potentially update peaks
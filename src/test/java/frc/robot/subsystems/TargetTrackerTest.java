@@ -0,0 +1,147 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Rotation3d;
+import edu.wpi.first.math.geometry.Transform3d;
+import edu.wpi.first.math.geometry.Translation3d;
+import frc.robot.Constants;
+
+/**
+ * Unit tests for TargetTracker
+ */
+class TargetTrackerTest {
+  private static final double DISTANCE = Constants.Auto.APRILTAG_DISTANCE_METERS;
+
+  @BeforeEach
+  void setup() {
+    assert HAL.initialize(500, 0);
+  }
+
+  private static VisionTarget target(int id, String camera, double x, double y) {
+    return new VisionTarget(id, camera,
+        new Transform3d(new Translation3d(x, y, 1.0), new Rotation3d()), 0.0, 0.1);
+  }
+
+  @Test
+  void testCostPrefersCloserTargets() {
+    VisionTarget near = target(1, "front", 1.0, 0.0);
+    VisionTarget far = target(2, "front", 3.0, 0.0);
+    assertTrue(TargetTracker.cost(near, DISTANCE) < TargetTracker.cost(far, DISTANCE),
+        "Closer target should cost less");
+  }
+
+  @Test
+  void testCostPenalizesRotation() {
+    VisionTarget ahead = target(1, "front", 2.0, 0.0);
+    VisionTarget behind = target(2, "rear", -2.0, 0.0);
+    assertTrue(TargetTracker.cost(ahead, DISTANCE) < TargetTracker.cost(behind, DISTANCE),
+        "Target behind the robot should cost more than one ahead at the same distance");
+  }
+
+  @Test
+  void testFindsRequestedTagInRearCamera() {
+    TargetTracker tracker = new TargetTracker(7, DISTANCE);
+    Optional<VisionTarget> result = tracker.update(
+        List.of(target(1, "front", 1.0, 0.0), target(7, "rear", -2.0, 0.5)),
+        Pose2d.kZero, 0.0);
+
+    assertTrue(result.isPresent());
+    assertEquals(7, result.get().getFiducialId());
+    assertEquals("rear", result.get().getCameraName());
+  }
+
+  @Test
+  void testKeepsLockAcrossCameraHandoff() {
+    TargetTracker tracker = new TargetTracker(-1, DISTANCE);
+    tracker.update(List.of(target(3, "rear", -2.0, 0.0)), Pose2d.kZero, 0.0);
+    assertEquals(3, tracker.getLockedId());
+
+    // Tag moves into the front camera while a slightly cheaper tag appears
+    Optional<VisionTarget> result = tracker.update(
+        List.of(target(3, "front", 2.0, 0.1), target(4, "front", 1.9, 0.0)),
+        Pose2d.kZero, 0.1);
+
+    assertTrue(result.isPresent());
+    assertEquals(3, result.get().getFiducialId(), "Should stay on the locked tag");
+    assertEquals("front", result.get().getCameraName());
+  }
+
+  @Test
+  void testPredictsTargetBetweenCameras() {
+    TargetTracker tracker = new TargetTracker(5, DISTANCE);
+    tracker.update(List.of(target(5, "rear", -2.0, 0.0)), Pose2d.kZero, 0.0);
+
+    // Robot turned 180 degrees in place and no camera sees the tag yet
+    Pose2d turned = new Pose2d(0.0, 0.0, Rotation2d.k180deg);
+    Optional<VisionTarget> result = tracker.update(List.of(), turned, 0.1);
+
+    assertTrue(result.isPresent());
+    assertTrue(result.get().isPredicted());
+    assertEquals(2.0, result.get().getRobotToTarget().getX(), 1e-9,
+        "Tag behind the robot should now be predicted in front");
+  }
+
+  @Test
+  void testPredictsLockedTagWhileAnotherTagIsVisible() {
+    TargetTracker tracker = new TargetTracker(-1, DISTANCE);
+    VisionTarget other = target(4, "front", 2.5, 0.5);
+    tracker.update(List.of(target(3, "front", 1.5, 0.0), other), Pose2d.kZero, 0.0);
+    assertEquals(3, tracker.getLockedId());
+
+    // Tag 3 leaves the front camera's view while tag 4 stays in it
+    Pose2d moved = new Pose2d(0.1, 0.0, Rotation2d.kZero);
+    Optional<VisionTarget> result = tracker.update(List.of(other), moved, 0.1);
+
+    assertTrue(result.isPresent());
+    assertTrue(result.get().isPredicted());
+    assertEquals(3, result.get().getFiducialId(), "Should keep predicting the locked tag");
+    assertEquals(1.4, result.get().getRobotToTarget().getX(), 1e-9);
+    assertEquals(3, tracker.getLockedId());
+
+    // Once the gap outlasts the handoff timeout, the visible tag takes over
+    result = tracker.update(List.of(other), moved, Constants.Vision.TARGET_HANDOFF_TIMEOUT_SECONDS + 0.1);
+    assertTrue(result.isPresent());
+    assertFalse(result.get().isPredicted());
+    assertEquals(4, tracker.getLockedId());
+  }
+
+  @Test
+  void testClearlyBetterTagReplacesPrediction() {
+    TargetTracker tracker = new TargetTracker(-1, DISTANCE);
+    tracker.update(List.of(target(3, "rear", -3.0, 0.0)), Pose2d.kZero, 0.0);
+
+    // Tag 3 drops out and a much closer tag comes into view
+    Optional<VisionTarget> result = tracker.update(
+        List.of(target(4, "front", DISTANCE, 0.0)), Pose2d.kZero, 0.1);
+
+    assertTrue(result.isPresent());
+    assertEquals(4, result.get().getFiducialId());
+    assertEquals(4, tracker.getLockedId());
+  }
+
+  @Test
+  void testDropsTargetAfterHandoffTimeout() {
+    TargetTracker tracker = new TargetTracker(5, DISTANCE);
+    tracker.update(List.of(target(5, "rear", -2.0, 0.0)), Pose2d.kZero, 0.0);
+
+    Optional<VisionTarget> result = tracker.update(List.of(), Pose2d.kZero,
+        Constants.Vision.TARGET_HANDOFF_TIMEOUT_SECONDS + 0.1);
+
+    assertTrue(result.isEmpty());
+    assertEquals(-1, tracker.getLockedId());
+  }
+}
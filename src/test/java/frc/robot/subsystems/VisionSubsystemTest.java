@@ -89,6 +89,13 @@ class VisionSubsystemTest {
         "Ambiguity threshold should be between 0 and 1");
   }
 
+  @Test
+  void testWarmupRoundRuns() {
+    Runnable round = VisionSubsystem.createWarmupRound();
+    assertDoesNotThrow(round::run);
+    assertDoesNotThrow(round::run);
+  }
+
   @Test
   void testVisionStandardDeviationsArray() {
     // Should have exactly 3 values [x, y, rotation]
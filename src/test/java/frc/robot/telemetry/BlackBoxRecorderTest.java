@@ -0,0 +1,151 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.telemetry;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import frc.robot.util.AllocationAssertions;
+
+/**
+ * Unit tests for BlackBoxRecorder
+ */
+class BlackBoxRecorderTest {
+  private Path m_directory;
+  private double m_time = 0.0;
+
+  @BeforeEach
+  void setup() throws IOException {
+    m_directory = Files.createTempDirectory("blackbox");
+  }
+
+  @AfterEach
+  void teardown() throws IOException {
+    try (var files = Files.list(m_directory)) {
+      for (Path file : (Iterable<Path>) files::iterator) {
+        Files.delete(file);
+      }
+    }
+    Files.delete(m_directory);
+  }
+
+  private BlackBoxRecorder createRecorder(int capacity) {
+    return new BlackBoxRecorder(capacity, () -> m_time, m_directory);
+  }
+
+  private static ByteBuffer newSnapshotBuffer(BlackBoxRecorder recorder) {
+    return ByteBuffer.allocate(recorder.getCapacity() * BlackBoxRecorder.RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  private static double value(ByteBuffer buffer, int record, int index) {
+    return buffer.getDouble(record * BlackBoxRecorder.RECORD_BYTES + BlackBoxRecorder.OFFSET_VALUES
+        + index * Double.BYTES);
+  }
+
+  private static int type(ByteBuffer buffer, int record) {
+    return buffer.getInt(record * BlackBoxRecorder.RECORD_BYTES + BlackBoxRecorder.OFFSET_TYPE);
+  }
+
+  @Test
+  void testRecordsInOrder() {
+    BlackBoxRecorder recorder = createRecorder(16);
+    for (int i = 0; i < 5; i++) {
+      m_time = i;
+      recorder.recordPower(12.0 - i, 10.0 * i, 40.0, false);
+    }
+
+    ByteBuffer out = newSnapshotBuffer(recorder);
+    assertEquals(5, recorder.snapshot(out));
+    for (int i = 0; i < 5; i++) {
+      assertEquals(BlackBoxRecorder.TYPE_POWER, type(out, i));
+      assertEquals(i, out.getDouble(i * BlackBoxRecorder.RECORD_BYTES + BlackBoxRecorder.OFFSET_TIMESTAMP), 1e-9);
+      assertEquals(12.0 - i, value(out, i, 0), 1e-9);
+      assertEquals(10.0 * i, value(out, i, 1), 1e-9);
+    }
+  }
+
+  @Test
+  void testKeepsNewestRecordsWhenFull() {
+    BlackBoxRecorder recorder = createRecorder(8);
+    for (int i = 0; i < 20; i++) {
+      recorder.recordVision(i % 2, i % 3 == 0, i, i, 0.0, 0.0);
+    }
+    assertEquals(20, recorder.getRecordCount());
+
+    ByteBuffer out = newSnapshotBuffer(recorder);
+    assertEquals(8, recorder.snapshot(out));
+    for (int i = 0; i < 8; i++) {
+      int expected = 12 + i;
+      assertEquals(expected, value(out, i, 1), 1e-9, "Oldest records should be overwritten first");
+      int expectedType = expected % 3 == 0
+          ? BlackBoxRecorder.TYPE_VISION_ACCEPTED
+          : BlackBoxRecorder.TYPE_VISION_REJECTED;
+      assertEquals(expectedType, type(out, i));
+    }
+  }
+
+  @Test
+  void testRecordsDriveState() {
+    BlackBoxRecorder recorder = createRecorder(4);
+    SwerveStateSnapshot state = new SwerveStateSnapshot();
+    state.timestamp = 3.5;
+    state.poseX = 1.0;
+    state.poseY = 2.0;
+    state.omega = 0.25;
+    state.failedDaqs = 7;
+    recorder.recordDrive(state);
+
+    ByteBuffer out = newSnapshotBuffer(recorder);
+    assertEquals(1, recorder.snapshot(out));
+    assertEquals(BlackBoxRecorder.TYPE_DRIVE, type(out, 0));
+    assertEquals(7, out.getInt(BlackBoxRecorder.OFFSET_ARG));
+    assertEquals(3.5, out.getDouble(BlackBoxRecorder.OFFSET_TIMESTAMP), 1e-9);
+    assertEquals(1.0, value(out, 0, 0), 1e-9);
+    assertEquals(0.25, value(out, 0, 5), 1e-9);
+  }
+
+  @Test
+  void testDumpWritesHeaderAndRecords() throws IOException {
+    BlackBoxRecorder recorder = createRecorder(8);
+    for (int i = 0; i < 3; i++) {
+      recorder.recordPower(12.0, 5.0, 30.0, i == 2);
+    }
+
+    Path path = recorder.dump(BlackBoxRecorder.Trigger.BROWNOUT, 42.0, 1);
+    assertTrue(path.getFileName().toString().endsWith("_brownout.bin"));
+
+    ByteBuffer file = ByteBuffer.wrap(Files.readAllBytes(path)).order(ByteOrder.LITTLE_ENDIAN);
+    assertEquals(BlackBoxRecorder.HEADER_BYTES + 3 * BlackBoxRecorder.RECORD_BYTES, file.capacity());
+    assertEquals(BlackBoxRecorder.MAGIC, file.getInt(0));
+    assertEquals(BlackBoxRecorder.VERSION, file.getInt(4));
+    assertEquals(BlackBoxRecorder.RECORD_BYTES, file.getInt(8));
+    assertEquals(3, file.getInt(12));
+    assertEquals(BlackBoxRecorder.Trigger.BROWNOUT.ordinal(), file.getInt(16));
+    assertEquals(42.0, file.getDouble(24), 1e-9);
+    assertEquals(1, file.getInt(BlackBoxRecorder.HEADER_BYTES + 2 * BlackBoxRecorder.RECORD_BYTES
+        + BlackBoxRecorder.OFFSET_ARG), "Last record should be flagged browned out");
+  }
+
+  @Test
+  void testRejectsBadCapacity() {
+    assertThrows(IllegalArgumentException.class, () -> createRecorder(6));
+  }
+
+  @Test
+  void testRecordPowerIsAllocationFree() {
+    BlackBoxRecorder recorder = createRecorder(64);
+    AllocationAssertions.assertAllocationFree("BlackBoxRecorder.recordPower",
+        () -> recorder.recordPower(12.0, 40.0, 30.0, false));
+  }
+}
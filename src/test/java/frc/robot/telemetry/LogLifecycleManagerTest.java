@@ -0,0 +1,171 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.telemetry;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import frc.robot.Constants;
+
+/**
+ * Unit tests for LogLifecycleManager
+ */
+class LogLifecycleManagerTest {
+  private static final double AFTER_BOOT = Constants.LogLifecycle.BOOT_RECORD_SECONDS + 1.0;
+
+  private Path m_directory;
+
+  private static final class CountingRecorder implements LogLifecycleManager.Recorder {
+    private int m_starts = 0;
+    private int m_stops = 0;
+    private int m_flushes = 0;
+
+    @Override
+    public void start() {
+      m_starts++;
+    }
+
+    @Override
+    public void stop() {
+      m_stops++;
+    }
+
+    @Override
+    public void flush() {
+      m_flushes++;
+    }
+  }
+
+  @BeforeEach
+  void setup() throws IOException {
+    m_directory = Files.createTempDirectory("logs");
+  }
+
+  @AfterEach
+  void teardown() throws IOException {
+    try (var files = Files.list(m_directory)) {
+      for (Path file : (Iterable<Path>) files::iterator) {
+        Files.delete(file);
+      }
+    }
+    Files.delete(m_directory);
+  }
+
+  private Path createLog(String name, int bytes, long modifiedMillis) throws IOException {
+    Path file = m_directory.resolve(name);
+    Files.write(file, new byte[bytes]);
+    Files.setLastModifiedTime(file, FileTime.fromMillis(modifiedMillis));
+    return file;
+  }
+
+  @Test
+  void testRecordsAtBootThenStopsWhileIdle() {
+    CountingRecorder recorder = new CountingRecorder();
+    LogLifecycleManager manager = new LogLifecycleManager(recorder, null, 0);
+
+    manager.update(false, false, 0.0);
+    assertTrue(manager.isRecording());
+    assertEquals(1, recorder.m_starts);
+
+    manager.update(false, false, AFTER_BOOT);
+    assertFalse(manager.isRecording());
+    assertEquals(1, recorder.m_stops);
+  }
+
+  @Test
+  void testFlushesOnDisableAndStopsAfterDelay() {
+    CountingRecorder recorder = new CountingRecorder();
+    LogLifecycleManager manager = new LogLifecycleManager(recorder, null, 0);
+    manager.update(false, false, 0.0);
+    manager.update(false, false, AFTER_BOOT);
+
+    manager.update(true, false, 100.0);
+    assertTrue(manager.isRecording());
+    assertEquals(2, recorder.m_starts);
+
+    manager.update(false, false, 101.0);
+    assertEquals(1, recorder.m_flushes);
+    assertTrue(manager.isRecording());
+
+    manager.update(false, false, 101.0 + Constants.LogLifecycle.STOP_DELAY_SECONDS);
+    assertFalse(manager.isRecording());
+    assertEquals(2, recorder.m_stops);
+  }
+
+  @Test
+  void testKeepsRecordingWhileFmsAttached() {
+    CountingRecorder recorder = new CountingRecorder();
+    LogLifecycleManager manager = new LogLifecycleManager(recorder, null, 0);
+    manager.update(false, true, 0.0);
+
+    // Disabled between autonomous and teleop, and after the match, while still on the field
+    manager.update(true, true, 20.0);
+    manager.update(false, true, 35.0);
+    manager.update(false, true, 200.0);
+    assertTrue(manager.isRecording());
+    assertEquals(1, recorder.m_starts);
+    assertEquals(0, recorder.m_stops);
+
+    manager.update(false, false, 300.0);
+    manager.update(false, false, 300.0 + Constants.LogLifecycle.STOP_DELAY_SECONDS);
+    assertFalse(manager.isRecording());
+  }
+
+  @Test
+  void testQuotaDeletesOldestFirst() throws IOException {
+    Path oldest = createLog("a.hoot", 100, 1000);
+    Path older = createLog("b.wpilog", 100, 2000);
+    Path newer = createLog("c.hoot", 100, 3000);
+    Path newestWpilog = createLog("d.wpilog", 100, 4000);
+    Path newestHoot = createLog("e.hoot", 100, 5000);
+
+    List<Path> deleted = LogLifecycleManager.enforceQuota(m_directory, 300, Long.MAX_VALUE / 2);
+
+    assertEquals(List.of(oldest, older), deleted);
+    assertFalse(Files.exists(oldest));
+    assertFalse(Files.exists(older));
+    assertTrue(Files.exists(newer));
+    assertTrue(Files.exists(newestWpilog));
+    assertTrue(Files.exists(newestHoot));
+  }
+
+  @Test
+  void testFreeSpaceLimitTighterThanQuota() throws IOException {
+    Path oldest = createLog("a.wpilog", 100, 1000);
+    Path older = createLog("b.wpilog", 100, 2000);
+    Path newer = createLog("c.wpilog", 100, 3000);
+    Path newest = createLog("d.wpilog", 100, 4000);
+
+    // 400 bytes of logs and 200 free, so the disk allows half of 600 bytes, far under the quota
+    assertEquals(0.5, Constants.LogLifecycle.MAX_DISK_FRACTION);
+    List<Path> deleted = LogLifecycleManager.enforceQuota(m_directory, 1L << 30, 200);
+
+    assertEquals(List.of(oldest), deleted);
+    assertTrue(Files.exists(older));
+    assertTrue(Files.exists(newer));
+    assertTrue(Files.exists(newest));
+  }
+
+  @Test
+  void testQuotaKeepsNewestOfEachTypeAndIgnoresOtherFiles() throws IOException {
+    Path hoot = createLog("a.hoot", 1000, 1000);
+    Path wpilog = createLog("b.wpilog", 1000, 2000);
+    Path other = createLog("notes.txt", 1000, 500);
+
+    assertTrue(LogLifecycleManager.enforceQuota(m_directory, 0, 0).isEmpty());
+    assertTrue(Files.exists(hoot));
+    assertTrue(Files.exists(wpilog));
+    assertTrue(Files.exists(other));
+  }
+}
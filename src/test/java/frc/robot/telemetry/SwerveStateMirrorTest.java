@@ -0,0 +1,111 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.telemetry;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.ctre.phoenix6.swerve.SwerveDrivetrain.SwerveDriveState;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for SwerveStateMirror
+ */
+class SwerveStateMirrorTest {
+  private static SwerveDriveState createState(double timestamp) {
+    SwerveDriveState state = new SwerveDriveState();
+    state.Timestamp = timestamp;
+    state.Pose = new Pose2d(timestamp, -timestamp, Rotation2d.kZero);
+    return state;
+  }
+
+  @Test
+  void testReadsNewestState() {
+    SwerveStateMirror mirror = new SwerveStateMirror();
+    SwerveStateMirror.Reader reader = mirror.createReader("Test");
+
+    assertEquals(0.0, reader.read().timestamp, 1e-9, "Nothing published yet");
+
+    mirror.update(createState(1.0));
+    mirror.update(createState(2.0));
+    SwerveStateSnapshot snapshot = reader.read();
+    assertEquals(2.0, snapshot.timestamp, 1e-9);
+    assertEquals(2.0, snapshot.poseX, 1e-9);
+    assertEquals(2, reader.getReadCount());
+  }
+
+  @Test
+  void testCountsMissedUpdates() {
+    SwerveStateMirror mirror = new SwerveStateMirror();
+    SwerveStateMirror.Reader reader = mirror.createReader("Slow");
+
+    mirror.update(createState(1.0));
+    reader.read();
+    assertEquals(0, reader.getMissedUpdates());
+
+    // Three more states, only the last one is seen
+    mirror.update(createState(2.0));
+    mirror.update(createState(3.0));
+    mirror.update(createState(4.0));
+    reader.read();
+    assertEquals(2, reader.getMissedUpdates());
+
+    // Reading again without a new state is not a miss
+    reader.read();
+    assertEquals(2, reader.getMissedUpdates());
+  }
+
+  @Test
+  void testReadersAreIndependent() {
+    SwerveStateMirror mirror = new SwerveStateMirror();
+    SwerveStateMirror.Reader a = mirror.createReader("A");
+    SwerveStateMirror.Reader b = mirror.createReader("B");
+    assertEquals(2, mirror.getReaders().size());
+
+    mirror.update(createState(1.0));
+    SwerveStateSnapshot fromA = a.read();
+    mirror.update(createState(2.0));
+    SwerveStateSnapshot fromB = b.read();
+
+    assertNotSame(fromA, fromB);
+    assertEquals(1.0, fromA.timestamp, 1e-9, "A's snapshot is only refreshed by A");
+    assertEquals(2.0, fromB.timestamp, 1e-9);
+  }
+
+  @Test
+  void testConcurrentReadsAreConsistent() throws InterruptedException {
+    SwerveStateMirror mirror = new SwerveStateMirror();
+    SwerveStateMirror.Reader reader = mirror.createReader("Concurrent");
+    AtomicBoolean running = new AtomicBoolean(true);
+
+    Thread writer = new Thread(() -> {
+      SwerveDriveState state = new SwerveDriveState();
+      double t = 1.0;
+      while (running.get()) {
+        state.Timestamp = t;
+        state.Pose = new Pose2d(t, -t, Rotation2d.kZero);
+        mirror.update(state);
+        t += 1.0;
+      }
+    });
+    writer.start();
+
+    try {
+      for (int i = 0; i < 100000; i++) {
+        SwerveStateSnapshot s = reader.read();
+        // Every field must come from the same update
+        assertEquals(s.timestamp, s.poseX, 0.0);
+        assertEquals(-s.timestamp, s.poseY, 0.0);
+      }
+    } finally {
+      running.set(false);
+      writer.join();
+    }
+  }
+}
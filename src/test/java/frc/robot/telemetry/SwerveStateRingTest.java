@@ -0,0 +1,104 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.telemetry;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.ctre.phoenix6.swerve.SwerveDrivetrain.SwerveDriveState;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import org.junit.jupiter.api.Test;
+
+import frc.robot.util.AllocationAssertions;
+
+/**
+ * Unit tests for SwerveStateRing and SwerveStateSnapshot
+ */
+class SwerveStateRingTest {
+  private static SwerveDriveState createState(double timestamp) {
+    SwerveDriveState state = new SwerveDriveState();
+    state.Timestamp = timestamp;
+    state.Pose = new Pose2d(timestamp, 2.0, Rotation2d.fromDegrees(90));
+    state.ModuleStates = new SwerveModuleState[] {
+        new SwerveModuleState(1.0, Rotation2d.kZero),
+        new SwerveModuleState(2.0, Rotation2d.kZero),
+        new SwerveModuleState(3.0, Rotation2d.kZero),
+        new SwerveModuleState(4.0, Rotation2d.fromDegrees(45)),
+    };
+    return state;
+  }
+
+  @Test
+  void testFifoOrder() {
+    SwerveStateRing ring = new SwerveStateRing(8);
+    SwerveStateSnapshot out = new SwerveStateSnapshot();
+
+    for (int i = 0; i < 5; i++) {
+      assertTrue(ring.offer(createState(i)));
+    }
+    assertEquals(5, ring.size());
+
+    for (int i = 0; i < 5; i++) {
+      assertTrue(ring.poll(out));
+      assertEquals(i, out.timestamp, 1e-9);
+      assertEquals(i, out.poseX, 1e-9);
+    }
+    assertFalse(ring.poll(out), "Ring should be empty");
+  }
+
+  @Test
+  void testDropsWhenFull() {
+    SwerveStateRing ring = new SwerveStateRing(4);
+    for (int i = 0; i < 6; i++) {
+      ring.offer(createState(i));
+    }
+    assertEquals(4, ring.size());
+    assertEquals(2, ring.getDroppedCount());
+
+    // The oldest states are kept; newer ones are dropped
+    SwerveStateSnapshot out = new SwerveStateSnapshot();
+    ring.poll(out);
+    assertEquals(0.0, out.timestamp, 1e-9);
+  }
+
+  @Test
+  void testWrapsAround() {
+    SwerveStateRing ring = new SwerveStateRing(4);
+    SwerveStateSnapshot out = new SwerveStateSnapshot();
+    for (int i = 0; i < 20; i++) {
+      assertTrue(ring.offer(createState(i)));
+      assertTrue(ring.poll(out));
+      assertEquals(i, out.timestamp, 1e-9);
+    }
+    assertEquals(0, ring.getDroppedCount());
+  }
+
+  @Test
+  void testSnapshotCopiesModules() {
+    SwerveStateSnapshot snapshot = new SwerveStateSnapshot();
+    snapshot.copyFrom(createState(1.0));
+    assertEquals(Math.PI / 2, snapshot.poseHeadingRadians, 1e-9);
+    assertEquals(4.0, snapshot.moduleSpeeds[3], 1e-9);
+    assertEquals(Math.PI / 4, snapshot.moduleAngleRadians[3], 1e-9);
+  }
+
+  @Test
+  void testRejectsBadCapacity() {
+    assertThrows(IllegalArgumentException.class, () -> new SwerveStateRing(3));
+  }
+
+  @Test
+  void testHandoffIsAllocationFree() {
+    SwerveStateRing ring = new SwerveStateRing(8);
+    SwerveStateSnapshot out = new SwerveStateSnapshot();
+    SwerveDriveState state = createState(1.0);
+    AllocationAssertions.assertAllocationFree("SwerveStateRing offer/poll", () -> {
+      ring.offer(state);
+      ring.poll(out);
+    });
+  }
+}
@@ -0,0 +1,111 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.trajectory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for HolonomicTrajectory and HolonomicTrajectoryGenerator
+ */
+class HolonomicTrajectoryTest {
+  private static final TrajectoryConstraints kConstraints =
+      new TrajectoryConstraints(2.0, 2.0, Math.PI, 2.0 * Math.PI);
+
+  @Test
+  void testStraightLineEndpoints() {
+    HolonomicTrajectory trajectory = HolonomicTrajectoryGenerator.straightLine(
+        "test", 0.0, 0.0, 0.0, 3.0, 0.0, 0.0, kConstraints, 0.02);
+    TrajectorySample sample = new TrajectorySample();
+
+    trajectory.getInitialState(sample);
+    assertEquals(0.0, sample.x, 1e-9);
+    assertEquals(0.0, sample.vx, 1e-9);
+
+    trajectory.getFinalState(sample);
+    assertEquals(3.0, sample.x, 1e-9);
+    assertEquals(0.0, sample.vx, 1e-9);
+  }
+
+  @Test
+  void testStraightLineRespectsConstraints() {
+    HolonomicTrajectory trajectory = HolonomicTrajectoryGenerator.straightLine(
+        "test", 0.0, 0.0, 0.0, 4.0, 3.0, Math.PI / 2, kConstraints, 0.02);
+    TrajectorySample sample = new TrajectorySample();
+
+    for (double t = 0.0; t <= trajectory.getTotalTimeSeconds(); t += 0.01) {
+      trajectory.sample(t, sample);
+      assertTrue(Math.hypot(sample.vx, sample.vy) <= 2.0 + 1e-6, "Speed should stay under the limit");
+      assertTrue(Math.abs(sample.omega) <= Math.PI + 1e-6, "Rotation rate should stay under the limit");
+    }
+  }
+
+  @Test
+  void testTrapezoidDuration() {
+    // 4 m at 2 m/s and 2 m/s²: 1 s to accelerate, 1 s cruise, 1 s to stop
+    HolonomicTrajectory trajectory = HolonomicTrajectoryGenerator.straightLine(
+        "test", 0.0, 0.0, 0.0, 4.0, 0.0, 0.0, kConstraints, 0.02);
+    assertEquals(3.0, trajectory.getTotalTimeSeconds(), 1e-9);
+
+    TrajectorySample sample = new TrajectorySample();
+    trajectory.sample(1.5, sample);
+    assertEquals(2.0, sample.vx, 1e-6);
+    assertEquals(2.0, sample.x, 1e-6);
+  }
+
+  @Test
+  void testBackwardMotion() {
+    HolonomicTrajectory trajectory = HolonomicTrajectoryGenerator.straightLine(
+        "test", 0.0, 0.0, 0.0, -1.0, 0.0, 0.0, kConstraints, 0.02);
+    TrajectorySample sample = new TrajectorySample();
+    trajectory.sample(trajectory.getTotalTimeSeconds() / 2, sample);
+    assertTrue(sample.vx < 0.0, "Should drive backward");
+  }
+
+  @Test
+  void testSamplingOutOfOrder() {
+    HolonomicTrajectory trajectory = HolonomicTrajectoryGenerator.straightLine(
+        "test", 0.0, 0.0, 0.0, 4.0, 0.0, 0.0, kConstraints, 0.02);
+    TrajectorySample forward = new TrajectorySample();
+    TrajectorySample jumped = new TrajectorySample();
+
+    trajectory.sample(2.5, forward);
+    trajectory.sample(0.5, jumped);
+    trajectory.sample(2.5, jumped);
+    assertEquals(forward.x, jumped.x, 1e-12, "Sample should not depend on previous lookups");
+  }
+
+  @Test
+  void testWaypointsStopAtEachPoint() {
+    double[][] waypoints = {
+        {0.0, 0.0, 0.0},
+        {1.0, 0.0, 0.0},
+        {1.0, 1.0, Math.PI / 2}
+    };
+    HolonomicTrajectory trajectory = HolonomicTrajectoryGenerator.throughWaypoints(
+        "test", waypoints, kConstraints, 0.02);
+    TrajectorySample sample = new TrajectorySample();
+
+    trajectory.getFinalState(sample);
+    assertEquals(1.0, sample.x, 1e-9);
+    assertEquals(1.0, sample.y, 1e-9);
+    assertEquals(Math.PI / 2, sample.heading, 1e-9);
+  }
+
+  @Test
+  void testPureRotation() {
+    HolonomicTrajectory trajectory = HolonomicTrajectoryGenerator.straightLine(
+        "test", 0.0, 0.0, 0.0, 0.0, 0.0, Math.PI, kConstraints, 0.02);
+    assertTrue(trajectory.getTotalTimeSeconds() > 0.0, "Turning in place should take time");
+  }
+
+  @Test
+  void testRejectsMismatchedArrays() {
+    assertThrows(IllegalArgumentException.class, () -> new HolonomicTrajectory("bad",
+        new double[] {0.0, 1.0}, new double[2], new double[2], new double[2], new double[2],
+        new double[2], new double[2], new double[2], new double[2], new double[1]));
+  }
+}
@@ -0,0 +1,92 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.trajectory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the trajectory cache file format and the trajectory library
+ */
+class TrajectoryCacheFileTest {
+  private Path m_directory;
+
+  @BeforeEach
+  void setup() throws IOException {
+    m_directory = Files.createTempDirectory("trajectory-cache");
+  }
+
+  @AfterEach
+  void teardown() throws IOException {
+    try (var files = Files.list(m_directory)) {
+      for (Path file : (Iterable<Path>) files::iterator) {
+        Files.delete(file);
+      }
+    }
+    Files.delete(m_directory);
+  }
+
+  @Test
+  void testRoundTrip() throws IOException {
+    HolonomicTrajectory forward = TrajectoryLibrary.generate(TrajectoryLibrary.DRIVE_FORWARD);
+    HolonomicTrajectory longer = TrajectoryLibrary.generate(TrajectoryLibrary.DRIVE_FORWARD_LONG);
+    Path file = m_directory.resolve("trajectories.bin");
+    TrajectoryCacheFile.write(file, List.of(forward, longer), new long[] {11L, 22L});
+
+    Map<String, TrajectoryCacheFile.Entry> entries = TrajectoryCacheFile.read(file);
+    assertEquals(2, entries.size());
+    assertEquals(11L, entries.get(forward.getName()).fingerprint);
+    assertEquals(22L, entries.get(longer.getName()).fingerprint);
+
+    HolonomicTrajectory loaded = entries.get(longer.getName()).trajectory;
+    assertArrayEquals(longer.times(), loaded.times());
+    assertArrayEquals(longer.xs(), loaded.xs());
+    assertArrayEquals(longer.vxs(), loaded.vxs());
+    assertArrayEquals(longer.alphas(), loaded.alphas());
+  }
+
+  @Test
+  void testRejectsWrongMagic() {
+    ByteBuffer buffer = ByteBuffer.allocate(16);
+    assertThrows(IOException.class, () -> TrajectoryCacheFile.read(buffer));
+  }
+
+  @Test
+  void testRejectsTruncatedFile() throws IOException {
+    HolonomicTrajectory forward = TrajectoryLibrary.generate(TrajectoryLibrary.DRIVE_FORWARD);
+    Path file = m_directory.resolve("trajectories.bin");
+    TrajectoryCacheFile.write(file, List.of(forward), new long[] {1L});
+
+    byte[] bytes = Files.readAllBytes(file);
+    ByteBuffer truncated = ByteBuffer.wrap(Arrays.copyOf(bytes, bytes.length / 2));
+    assertThrows(IOException.class, () -> TrajectoryCacheFile.read(truncated));
+  }
+
+  @Test
+  void testFingerprintTracksParameters() {
+    assertNotEquals(
+        TrajectoryLibrary.getFingerprint(TrajectoryLibrary.DRIVE_FORWARD_SHORT),
+        TrajectoryLibrary.getFingerprint(TrajectoryLibrary.DRIVE_FORWARD_LONG));
+    assertEquals(
+        TrajectoryLibrary.getFingerprint(TrajectoryLibrary.DRIVE_FORWARD),
+        TrajectoryLibrary.getFingerprint(TrajectoryLibrary.DRIVE_FORWARD));
+  }
+
+  @Test
+  void testUnknownTrajectory() {
+    assertThrows(IllegalArgumentException.class, () -> TrajectoryLibrary.generate("Nope"));
+  }
+}
@@ -0,0 +1,44 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.util;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Test helper that fails when a path marked allocation-free allocates
+ * The path is warmed up first so one-time work (class loading, lazy init) is not
+ * counted, then run many times; any steady per-call allocation shows up in the
+ * average even if the JIT hasn't compiled the path yet.
+ */
+public final class AllocationAssertions {
+  private static final int WARMUP_CALLS = 1_000;
+  private static final int MEASURED_CALLS = 10_000;
+
+  private AllocationAssertions() {}
+
+  /**
+   * Assert that a path does not allocate
+   * Skips the test on a JVM without per-thread allocation counters.
+   * @param description What the path is, for the failure message
+   * @param path Path to run; must be repeatable
+   */
+  public static void assertAllocationFree(String description, Runnable path) {
+    assumeTrue(AllocationCounter.isSupported(), "Thread allocation counters not available");
+    for (int i = 0; i < WARMUP_CALLS; i++) {
+      path.run();
+    }
+
+    long before = AllocationCounter.currentThreadBytes();
+    for (int i = 0; i < MEASURED_CALLS; i++) {
+      path.run();
+    }
+    long allocated = AllocationCounter.currentThreadBytes() - before;
+
+    // Less than a byte per call: nothing is allocated per call
+    assertTrue(allocated < MEASURED_CALLS,
+        description + " allocated " + allocated + " bytes over " + MEASURED_CALLS + " calls");
+  }
+}
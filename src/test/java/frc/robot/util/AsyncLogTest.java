@@ -0,0 +1,130 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for AsyncLog
+ */
+class AsyncLogTest {
+  private static final double FLUSH_TIMEOUT_SECONDS = 5.0;
+
+  /**
+   * Records what was written; can hold the writer on its first message to simulate a stalled drive
+   */
+  private static final class RecordingSink implements AsyncLog.Sink {
+    private final List<String> m_messages = new ArrayList<>();
+    private final List<Long> m_timestamps = new ArrayList<>();
+    private final CountDownLatch m_stalled = new CountDownLatch(1);
+    private final CountDownLatch m_release;
+
+    RecordingSink(boolean stallFirstWrite) {
+      m_release = new CountDownLatch(stallFirstWrite ? 1 : 0);
+    }
+
+    @Override
+    public void write(String message, long timestampMicros) {
+      m_stalled.countDown();
+      try {
+        m_release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      synchronized (this) {
+        m_messages.add(message);
+        m_timestamps.add(timestampMicros);
+      }
+    }
+
+    synchronized List<String> getMessages() {
+      return new ArrayList<>(m_messages);
+    }
+
+    synchronized List<Long> getTimestamps() {
+      return new ArrayList<>(m_timestamps);
+    }
+  }
+
+  @Test
+  void testWritesEveryMessageInOrderWithItsTimestamp() {
+    RecordingSink sink = new RecordingSink(false);
+    AsyncLog log = new AsyncLog(sink, 64, 8, AsyncLog.DropPolicy.DROP_NEWEST);
+    for (int i = 0; i < 20; i++) {
+      assertTrue(log.enqueue("message " + i, 1000L + i));
+    }
+
+    assertTrue(log.flush(FLUSH_TIMEOUT_SECONDS));
+    List<String> messages = sink.getMessages();
+    List<Long> timestamps = sink.getTimestamps();
+    assertEquals(20, messages.size());
+    for (int i = 0; i < 20; i++) {
+      assertEquals("message " + i, messages.get(i));
+      assertEquals(1000L + i, timestamps.get(i).longValue());
+    }
+    assertEquals(20, log.getWrittenCount());
+    assertEquals(0, log.getDepth());
+  }
+
+  @Test
+  void testStalledWriterDropsNewestWhenFull() throws InterruptedException {
+    RecordingSink sink = new RecordingSink(true);
+    AsyncLog log = new AsyncLog(sink, 4, 1, AsyncLog.DropPolicy.DROP_NEWEST);
+    log.enqueue("stalled", 0);
+    assertTrue(sink.m_stalled.await(5, TimeUnit.SECONDS));
+
+    // The writer is stuck on "stalled"; callers must not block
+    for (int i = 0; i < 6; i++) {
+      log.enqueue("queued " + i, i);
+    }
+    assertEquals(4, log.getDepth());
+    assertEquals(4, log.getMaxDepth());
+    assertEquals(2, log.getDroppedCount());
+
+    sink.m_release.countDown();
+    assertTrue(log.flush(FLUSH_TIMEOUT_SECONDS));
+    List<String> messages = sink.getMessages();
+    assertEquals("stalled", messages.get(0));
+    assertTrue(messages.get(1).contains("dropped 2"), messages.get(1));
+    assertEquals(List.of("queued 0", "queued 1", "queued 2", "queued 3"), messages.subList(2, 6));
+  }
+
+  @Test
+  void testStalledWriterDropsOldestWhenFull() throws InterruptedException {
+    RecordingSink sink = new RecordingSink(true);
+    AsyncLog log = new AsyncLog(sink, 4, 1, AsyncLog.DropPolicy.DROP_OLDEST);
+    log.enqueue("stalled", 0);
+    assertTrue(sink.m_stalled.await(5, TimeUnit.SECONDS));
+
+    for (int i = 0; i < 6; i++) {
+      assertTrue(log.enqueue("queued " + i, i));
+    }
+    assertEquals(2, log.getDroppedCount());
+
+    sink.m_release.countDown();
+    assertTrue(log.flush(FLUSH_TIMEOUT_SECONDS));
+    List<String> messages = sink.getMessages();
+    assertEquals(List.of("queued 2", "queued 3", "queued 4", "queued 5"), messages.subList(2, 6));
+  }
+
+  @Test
+  void testFlushTimesOutWhileWriterIsStalled() throws InterruptedException {
+    RecordingSink sink = new RecordingSink(true);
+    AsyncLog log = new AsyncLog(sink, 4, 1, AsyncLog.DropPolicy.DROP_NEWEST);
+    log.enqueue("stalled", 0);
+    assertTrue(sink.m_stalled.await(5, TimeUnit.SECONDS));
+
+    assertFalse(log.flush(0.05));
+    sink.m_release.countDown();
+    assertTrue(log.flush(FLUSH_TIMEOUT_SECONDS));
+  }
+}
@@ -0,0 +1,98 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for BatteryEstimator
+ */
+class BatteryEstimatorTest {
+  private static final double VOC = 12.6;
+  private static final double RESISTANCE = 0.02;
+
+  private static BatteryEstimator createEstimator() {
+    return new BatteryEstimator(150, 5.0, 0.005, 0.1);
+  }
+
+  @Test
+  void testFitsOpenCircuitVoltageAndResistance() {
+    BatteryEstimator estimator = createEstimator();
+    Random random = new Random(1234);
+    for (int i = 0; i < 300; i++) {
+      double current = 20.0 + 80.0 * Math.abs(Math.sin(i * 0.1));
+      double noise = random.nextGaussian() * 0.02;
+      estimator.addSample(current, VOC - RESISTANCE * current + noise);
+    }
+
+    assertTrue(estimator.hasEstimate());
+    assertEquals(VOC, estimator.getOpenCircuitVoltage(), 0.05);
+    assertEquals(RESISTANCE, estimator.getResistance(), 0.002);
+  }
+
+  @Test
+  void testPredictsVoltageAndHeadroom() {
+    BatteryEstimator estimator = createEstimator();
+    for (int i = 0; i < 150; i++) {
+      double current = (i % 10) * 10.0;
+      estimator.addSample(current, VOC - RESISTANCE * current);
+    }
+    double lastVoltage = VOC - RESISTANCE * estimator.getLastCurrent();
+
+    assertEquals(lastVoltage - RESISTANCE * 100.0, estimator.predictVoltage(100.0), 1e-6);
+    assertEquals((lastVoltage - 7.5) / RESISTANCE, estimator.getCurrentHeadroom(7.5), 1e-3);
+    assertEquals(0.0, estimator.getCurrentHeadroom(20.0), 1e-9, "Headroom is never negative");
+  }
+
+  @Test
+  void testNoEstimateFromSteadyCurrent() {
+    BatteryEstimator estimator = createEstimator();
+    for (int i = 0; i < 150; i++) {
+      estimator.addSample(30.0 + (i % 2) * 0.5, 12.0 + (i % 3) * 0.01);
+    }
+    assertFalse(estimator.hasEstimate(), "Voltage noise at steady current must not give a resistance");
+    assertEquals(Double.POSITIVE_INFINITY, estimator.getCurrentHeadroom(7.5));
+  }
+
+  @Test
+  void testKeepsLastFitWhenCurrentSettles() {
+    BatteryEstimator estimator = createEstimator();
+    for (int i = 0; i < 150; i++) {
+      double current = (i % 10) * 10.0;
+      estimator.addSample(current, VOC - RESISTANCE * current);
+    }
+    // A full window of idle current does not discard the resistance
+    for (int i = 0; i < 300; i++) {
+      estimator.addSample(2.0, VOC - RESISTANCE * 2.0);
+    }
+    assertTrue(estimator.hasEstimate());
+    assertEquals(RESISTANCE, estimator.getResistance(), 1e-6);
+  }
+
+  @Test
+  void testRejectsImplausibleResistance() {
+    BatteryEstimator estimator = createEstimator();
+    for (int i = 0; i < 150; i++) {
+      double current = (i % 10) * 10.0;
+      // Voltage rising with current, e.g. a charger on the bus
+      estimator.addSample(current, 12.0 + 0.01 * current);
+    }
+    assertFalse(estimator.hasEstimate());
+  }
+
+  @Test
+  void testAddSampleIsAllocationFree() {
+    BatteryEstimator estimator = createEstimator();
+    int[] step = {0};
+    AllocationAssertions.assertAllocationFree("BatteryEstimator.addSample", () -> {
+      double current = (step[0]++ % 10) * 10.0;
+      estimator.addSample(current, VOC - RESISTANCE * current);
+    });
+  }
+}
@@ -0,0 +1,134 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for EnergyAccountant and BatteryHistory
+ */
+class EnergyAccountantTest {
+  private static final double DT = 0.02;
+  private Path m_directory;
+
+  @BeforeEach
+  void setup() throws IOException {
+    m_directory = Files.createTempDirectory("battery-history");
+  }
+
+  @AfterEach
+  void teardown() throws IOException {
+    try (var files = Files.list(m_directory)) {
+      for (Path file : (Iterable<Path>) files::iterator) {
+        Files.delete(file);
+      }
+    }
+    Files.delete(m_directory);
+  }
+
+  /** One hour at 10 A and 12 V in one mode */
+  private static void runHour(EnergyAccountant energy, EnergyAccountant.Mode mode, double[] currents) {
+    for (int i = 0; i < 3600 / DT; i++) {
+      energy.addSample(mode, 12.0, 10.0, currents, DT);
+    }
+  }
+
+  @Test
+  void testIntegratesChargeAndEnergyPerMode() {
+    EnergyAccountant energy = new EnergyAccountant();
+    runHour(energy, EnergyAccountant.Mode.TELEOP, new double[0]);
+    runHour(energy, EnergyAccountant.Mode.DISABLED, new double[0]);
+
+    assertEquals(10.0, energy.getAmpHours(EnergyAccountant.Mode.TELEOP), 1e-6);
+    assertEquals(120.0, energy.getWattHours(EnergyAccountant.Mode.TELEOP), 1e-4);
+    assertEquals(10.0, energy.getAmpHours(EnergyAccountant.Mode.DISABLED), 1e-6);
+    assertEquals(0.0, energy.getAmpHours(EnergyAccountant.Mode.AUTONOMOUS));
+    assertEquals(20.0, energy.getTotalAmpHours(), 1e-6);
+    assertEquals(240.0, energy.getTotalWattHours(), 1e-4);
+  }
+
+  @Test
+  void testSplitsBySubsystemWithRemainderAsOther() {
+    EnergyAccountant energy = new EnergyAccountant();
+    int drive = energy.addSubsystem("Drive");
+    int steer = energy.addSubsystem("Steer");
+    runHour(energy, EnergyAccountant.Mode.TELEOP, new double[] {6.0, 1.0});
+
+    assertEquals(6.0, energy.getSubsystemAmpHours(drive), 1e-6);
+    assertEquals(1.0, energy.getSubsystemAmpHours(steer), 1e-6);
+    assertEquals(3.0, energy.getOtherAmpHours(), 1e-6);
+    assertEquals(36.0, energy.getOtherWattHours(), 1e-4);
+  }
+
+  @Test
+  void testOtherNeverNegative() {
+    EnergyAccountant energy = new EnergyAccountant();
+    energy.addSubsystem("Drive");
+    energy.addSample(EnergyAccountant.Mode.TELEOP, 12.0, 10.0, new double[] {12.0}, 1.0);
+
+    assertEquals(0.0, energy.getOtherAmpHours());
+  }
+
+  @Test
+  void testResetClearsTotalsButKeepsSubsystems() {
+    EnergyAccountant energy = new EnergyAccountant();
+    energy.addSubsystem("Drive");
+    runHour(energy, EnergyAccountant.Mode.AUTONOMOUS, new double[] {5.0});
+    energy.reset();
+
+    assertEquals(0.0, energy.getTotalAmpHours());
+    assertEquals(0.0, energy.getSubsystemAmpHours(0));
+    assertEquals(List.of("Drive"), energy.getSubsystemNames());
+  }
+
+  @Test
+  void testHistoryWritesHeaderOnceAndAppendsRows() throws IOException {
+    EnergyAccountant energy = new EnergyAccountant();
+    energy.addSubsystem("Drive");
+    runHour(energy, EnergyAccountant.Mode.TELEOP, new double[] {4.0});
+
+    BatteryHistory history = new BatteryHistory(m_directory);
+    String header = BatteryHistory.header(energy.getSubsystemNames());
+    String row = BatteryHistory.row("2025-03-01 10:00:00", "Practice", energy, 11.2, 0.015);
+    Path path = history.append("B7", header, row);
+    history.append("B7", header, row);
+
+    List<String> lines = Files.readAllLines(path);
+    assertEquals(3, lines.size());
+    assertEquals(header, lines.get(0));
+    assertEquals(header.split(",").length, lines.get(1).split(",").length);
+    assertTrue(header.startsWith("time,label,total_ah,total_wh,auto_ah,teleop_ah,disabled_ah,test_ah,"
+        + "auto_wh,teleop_wh,disabled_wh,test_wh,drive_ah,drive_wh,"));
+    // Totals, then charge and energy per mode
+    assertTrue(lines.get(1).startsWith("2025-03-01 10:00:00,Practice,10.0000,120.0000,"
+        + "0.0000,10.0000,0.0000,0.0000,0.0000,120.0000,0.0000,0.0000,"), lines.get(1));
+    assertTrue(lines.get(1).endsWith(",11.20,15.0"));
+  }
+
+  @Test
+  void testSanitizesBatteryId() {
+    assertEquals("2025_A", BatteryHistory.sanitizeId(" 2025/A "));
+    assertEquals(BatteryHistory.UNKNOWN_BATTERY, BatteryHistory.sanitizeId(""));
+    assertEquals(BatteryHistory.UNKNOWN_BATTERY, BatteryHistory.sanitizeId(null));
+  }
+
+  @Test
+  void testAddSampleIsAllocationFree() {
+    EnergyAccountant energy = new EnergyAccountant();
+    energy.addSubsystem("Drive");
+    double[] currents = {4.0};
+    AllocationAssertions.assertAllocationFree("EnergyAccountant.addSample",
+        () -> energy.addSample(EnergyAccountant.Mode.TELEOP, 12.0, 10.0, currents, DT));
+  }
+}
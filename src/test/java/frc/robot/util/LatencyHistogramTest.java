@@ -0,0 +1,69 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for LatencyHistogram
+ */
+class LatencyHistogramTest {
+  private static final double BIN = 0.001;
+
+  @Test
+  void testEmptyHistogram() {
+    LatencyHistogram histogram = new LatencyHistogram(BIN, 20);
+    assertEquals(0, histogram.getCount());
+    assertEquals(0.0, histogram.getPercentile(0.5));
+    assertEquals(0.0, histogram.getMax());
+  }
+
+  @Test
+  void testPercentilesAreBinUpperEdges() {
+    LatencyHistogram histogram = new LatencyHistogram(BIN, 20);
+    // 99 samples at 4.5 ms and one at 9.5 ms
+    for (int i = 0; i < 99; i++) {
+      histogram.record(0.0045);
+    }
+    histogram.record(0.0095);
+
+    assertEquals(100, histogram.getCount());
+    assertEquals(0.005, histogram.getPercentile(0.5), 1e-9);
+    assertEquals(0.005, histogram.getPercentile(0.99), 1e-9);
+    assertEquals(0.010, histogram.getPercentile(1.0), 1e-9);
+    assertEquals(0.0095, histogram.getMax(), 1e-12);
+  }
+
+  @Test
+  void testOverflowReportsMax() {
+    LatencyHistogram histogram = new LatencyHistogram(BIN, 10);
+    histogram.record(0.002);
+    histogram.record(0.250);
+
+    assertEquals(0.250, histogram.getPercentile(1.0), 1e-12);
+    assertEquals(0.003, histogram.getPercentile(0.5), 1e-9);
+  }
+
+  @Test
+  void testNegativeValuesCountAsZero() {
+    LatencyHistogram histogram = new LatencyHistogram(BIN, 10);
+    histogram.record(-0.5);
+    assertEquals(BIN, histogram.getPercentile(0.5), 1e-12);
+  }
+
+  @Test
+  void testRejectsBadBins() {
+    assertThrows(IllegalArgumentException.class, () -> new LatencyHistogram(0.0, 10));
+    assertThrows(IllegalArgumentException.class, () -> new LatencyHistogram(BIN, 1));
+  }
+
+  @Test
+  void testRecordIsAllocationFree() {
+    LatencyHistogram histogram = new LatencyHistogram(BIN, 20);
+    AllocationAssertions.assertAllocationFree("LatencyHistogram.record", () -> histogram.record(0.004));
+  }
+}
@@ -0,0 +1,113 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import frc.robot.Constants;
+
+/**
+ * Unit tests for LoadShedder
+ */
+class LoadShedderTest {
+  private static final double PERIOD = 0.02;
+  private static final double LONG_LOOP = PERIOD;
+  private static final double SHORT_LOOP = PERIOD * 0.1;
+
+  private LoadShedder m_shedder;
+
+  @BeforeEach
+  void setup() {
+    m_shedder = new LoadShedder();
+  }
+
+  private void runLoops(int count, double loopSeconds) {
+    for (int i = 0; i < count; i++) {
+      m_shedder.update(loopSeconds, PERIOD);
+    }
+  }
+
+  private static int countRuns(LoadShedder.WorkItem item, int calls) {
+    int runs = 0;
+    for (int i = 0; i < calls; i++) {
+      if (item.shouldRun()) {
+        runs++;
+      }
+    }
+    return runs;
+  }
+
+  @Test
+  void testEverythingRunsWithHeadroom() {
+    runLoops(100, SHORT_LOOP);
+    assertEquals(0, m_shedder.getLevel());
+    for (LoadShedder.Priority priority : LoadShedder.Priority.values()) {
+      assertEquals(10, countRuns(m_shedder.register("test", priority), 10), priority.toString());
+    }
+  }
+
+  @Test
+  void testEscalatesOneLevelPerRunOfLongLoops() {
+    runLoops(Constants.LoadShed.ESCALATE_LOOPS - 1, LONG_LOOP);
+    assertEquals(0, m_shedder.getLevel());
+    runLoops(1, LONG_LOOP);
+    assertEquals(1, m_shedder.getLevel());
+    runLoops(Constants.LoadShed.ESCALATE_LOOPS * 10, LONG_LOOP);
+    assertEquals(LoadShedder.MAX_LEVEL, m_shedder.getLevel());
+  }
+
+  @Test
+  void testShedsLowestPrioritiesFirst() {
+    LoadShedder.WorkItem control = m_shedder.register("control", LoadShedder.Priority.CONTROL);
+    LoadShedder.WorkItem vision = m_shedder.register("vision", LoadShedder.Priority.VISION_FUSION);
+    LoadShedder.WorkItem dashboard = m_shedder.register("dashboard", LoadShedder.Priority.DASHBOARD);
+    LoadShedder.WorkItem log = m_shedder.register("log", LoadShedder.Priority.TEXT_LOG);
+    int calls = Constants.LoadShed.DECIMATION_FACTOR * 10;
+
+    runLoops(Constants.LoadShed.ESCALATE_LOOPS * 2, LONG_LOOP);
+    assertEquals(2, m_shedder.getLevel());
+    assertEquals(calls, countRuns(control, calls));
+    assertEquals(calls, countRuns(vision, calls));
+    assertEquals(10, countRuns(dashboard, calls));
+    assertEquals(0, countRuns(log, calls));
+    assertEquals(calls, log.getSkippedCount());
+
+    runLoops(Constants.LoadShed.ESCALATE_LOOPS, LONG_LOOP);
+    assertEquals(calls, countRuns(control, calls));
+    assertEquals(10, countRuns(vision, calls));
+    assertEquals(0, countRuns(dashboard, calls));
+  }
+
+  @Test
+  void testRestoresAfterSustainedHeadroom() {
+    runLoops(Constants.LoadShed.ESCALATE_LOOPS * 2, LONG_LOOP);
+    assertEquals(2, m_shedder.getLevel());
+
+    runLoops(Constants.LoadShed.RESTORE_LOOPS - 1, SHORT_LOOP);
+    assertEquals(2, m_shedder.getLevel());
+    runLoops(1, SHORT_LOOP);
+    assertEquals(1, m_shedder.getLevel());
+    runLoops(Constants.LoadShed.RESTORE_LOOPS, SHORT_LOOP);
+    assertEquals(0, m_shedder.getLevel());
+  }
+
+  @Test
+  void testLoopsInsideTheBandHoldTheLevel() {
+    runLoops(Constants.LoadShed.ESCALATE_LOOPS, LONG_LOOP);
+    double middle = PERIOD * (Constants.LoadShed.BUDGET_FRACTION + Constants.LoadShed.RESTORE_FRACTION) / 2.0;
+    runLoops(Constants.LoadShed.RESTORE_LOOPS * 4, middle);
+    assertEquals(1, m_shedder.getLevel());
+  }
+
+  @Test
+  void testShouldRunIsAllocationFree() {
+    LoadShedder.WorkItem item = m_shedder.register("allocation", LoadShedder.Priority.DASHBOARD);
+    runLoops(Constants.LoadShed.ESCALATE_LOOPS * 2, LONG_LOOP);
+    AllocationAssertions.assertAllocationFree("LoadShedder.WorkItem.shouldRun", item::shouldRun);
+  }
+}
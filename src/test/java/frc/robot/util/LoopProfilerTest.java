@@ -0,0 +1,57 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for LoopProfiler
+ */
+class LoopProfilerTest {
+  @Test
+  void testSectionsAreSharedByName() {
+    LoopProfiler profiler = LoopProfiler.getInstance();
+    assertSame(profiler.section("LoopProfilerTest.shared"), profiler.section("LoopProfilerTest.shared"));
+    assertNotSame(profiler.section("LoopProfilerTest.shared"), profiler.section("LoopProfilerTest.other"));
+  }
+
+  @Test
+  void testStopRecordsElapsedTime() throws InterruptedException {
+    LoopProfiler.Section section = LoopProfiler.getInstance().section("LoopProfilerTest.sleep");
+    long before = section.getHistogram().getCount();
+
+    section.start();
+    Thread.sleep(2);
+    section.stop();
+
+    assertEquals(before + 1, section.getHistogram().getCount());
+    assertTrue(section.getHistogram().getMax() >= 0.002);
+  }
+
+  @Test
+  void testTimingIsAllocationFree() {
+    LoopProfiler.Section section = LoopProfiler.getInstance().section("LoopProfilerTest.allocation");
+    AllocationAssertions.assertAllocationFree("LoopProfiler.Section start/stop", () -> {
+      section.start();
+      section.stop();
+    });
+  }
+
+  @Test
+  void testTracksAllocationPerCall() {
+    LoopProfiler.Section section = LoopProfiler.getInstance().section("LoopProfilerTest.allocating");
+    Object[] sink = new Object[1];
+    for (int i = 0; i < 200; i++) {
+      section.start();
+      sink[0] = new byte[4096];
+      section.stop();
+    }
+    if (AllocationCounter.isSupported()) {
+      assertTrue(section.getAverageBytes() >= 4096, "average " + section.getAverageBytes());
+    }
+  }
+}
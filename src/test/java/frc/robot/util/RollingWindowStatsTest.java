@@ -0,0 +1,112 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for RollingWindowStats and RunningStats
+ */
+class RollingWindowStatsTest {
+  @Test
+  void testMatchesBruteForce() {
+    int size = 50;
+    RollingWindowStats stats = new RollingWindowStats(size);
+    double[] history = new double[2000];
+    Random random = new Random(42);
+
+    for (int i = 0; i < history.length; i++) {
+      // Random walk with occasional spikes, like battery voltage
+      double previous = i == 0 ? 12.0 : history[i - 1];
+      history[i] = previous + random.nextGaussian() * 0.05 + (random.nextInt(100) == 0 ? -2.0 : 0.0);
+      stats.add(history[i]);
+
+      int from = Math.max(0, i - size + 1);
+      double min = Double.MAX_VALUE;
+      double max = -Double.MAX_VALUE;
+      double sum = 0.0;
+      for (int j = from; j <= i; j++) {
+        min = Math.min(min, history[j]);
+        max = Math.max(max, history[j]);
+        sum += history[j];
+      }
+      assertEquals(i - from + 1, stats.getCount());
+      assertEquals(min, stats.getMin(), 0.0, "min at sample " + i);
+      assertEquals(max, stats.getMax(), 0.0, "max at sample " + i);
+      assertEquals(sum / (i - from + 1), stats.getMean(), 1e-9, "mean at sample " + i);
+    }
+  }
+
+  @Test
+  void testHandlesRepeatedValues() {
+    RollingWindowStats stats = new RollingWindowStats(3);
+    for (int i = 0; i < 10; i++) {
+      stats.add(5.0);
+    }
+    assertEquals(5.0, stats.getMin(), 0.0);
+    assertEquals(5.0, stats.getMax(), 0.0);
+
+    stats.add(1.0);
+    stats.add(5.0);
+    stats.add(5.0);
+    assertEquals(1.0, stats.getMin(), 0.0);
+    stats.add(5.0);
+    assertEquals(5.0, stats.getMin(), 0.0, "The dip has left the window");
+  }
+
+  @Test
+  void testEmptyAndReset() {
+    RollingWindowStats stats = new RollingWindowStats(4);
+    assertTrue(Double.isNaN(stats.getMin()));
+    assertTrue(Double.isNaN(stats.getMean()));
+
+    stats.add(3.0);
+    stats.add(7.0);
+    stats.reset();
+    assertEquals(0, stats.getCount());
+    assertTrue(Double.isNaN(stats.getMax()));
+
+    stats.add(2.0);
+    assertEquals(2.0, stats.getMin(), 0.0);
+    assertEquals(2.0, stats.getMax(), 0.0);
+    assertEquals(2.0, stats.getMean(), 0.0);
+  }
+
+  @Test
+  void testRunningStats() {
+    RunningStats stats = new RunningStats();
+    assertTrue(Double.isNaN(stats.getMean()));
+    for (double value : new double[] {4.0, -1.0, 9.0, 2.0}) {
+      stats.add(value);
+    }
+    assertEquals(4, stats.getCount());
+    assertEquals(-1.0, stats.getMin(), 0.0);
+    assertEquals(9.0, stats.getMax(), 0.0);
+    assertEquals(3.5, stats.getMean(), 1e-12);
+
+    stats.reset();
+    assertEquals(0, stats.getCount());
+    assertTrue(Double.isNaN(stats.getMin()));
+  }
+
+  @Test
+  void testRejectsBadSize() {
+    assertThrows(IllegalArgumentException.class, () -> new RollingWindowStats(0));
+  }
+
+  @Test
+  void testAddIsAllocationFree() {
+    RollingWindowStats stats = new RollingWindowStats(50);
+    double[] value = {0.0};
+    AllocationAssertions.assertAllocationFree("RollingWindowStats.add", () -> {
+      value[0] = (value[0] + 1.7) % 13.0;
+      stats.add(value[0]);
+    });
+  }
+}
@@ -0,0 +1,82 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for SamplingScheduler
+ */
+class SamplingSchedulerTest {
+  @Test
+  void testRunsEachSamplerAtItsRate() {
+    SamplingScheduler scheduler = new SamplingScheduler();
+    int[] fast = {0};
+    int[] slow = {0};
+    scheduler.addSampler("Fast", 0.02, () -> fast[0]++);
+    scheduler.addSampler("Slow", 0.5, () -> slow[0]++);
+
+    // 2 seconds of 20 ms loops, both ends included
+    for (int i = 0; i <= 100; i++) {
+      scheduler.run(i * 0.02);
+    }
+
+    assertEquals(101, fast[0]);
+    assertEquals(5, slow[0]);
+    assertEquals(5, scheduler.getSampleCount("Slow"));
+    assertEquals(0, scheduler.getSampleCount("Missing"));
+  }
+
+  @Test
+  void testRunsEverySamplerFirstInOrder() {
+    SamplingScheduler scheduler = new SamplingScheduler();
+    List<String> order = new ArrayList<>();
+    scheduler.addSampler("A", 1.0, () -> order.add("A"));
+    scheduler.addSampler("B", 0.1, () -> order.add("B"));
+
+    scheduler.run(100.0);
+    assertEquals(List.of("A", "B"), order);
+  }
+
+  @Test
+  void testDoesNotBurstAfterLongGap() {
+    SamplingScheduler scheduler = new SamplingScheduler();
+    int[] count = {0};
+    scheduler.addSampler("Sampler", 0.1, () -> count[0]++);
+
+    scheduler.run(0.0);
+    scheduler.run(5.0); // a long stall
+    scheduler.run(5.02);
+    scheduler.run(5.04);
+    assertEquals(2, count[0], "A stalled sampler should run once, not catch up");
+
+    scheduler.run(5.1);
+    assertEquals(3, count[0]);
+  }
+
+  @Test
+  void testToleratesLoopJitter() {
+    SamplingScheduler scheduler = new SamplingScheduler();
+    int[] count = {0};
+    scheduler.addSampler("Sampler", 0.02, () -> count[0]++);
+
+    // Loops alternate 2 ms early and 2 ms late
+    for (int i = 0; i < 50; i++) {
+      scheduler.run(i * 0.02 + (i % 2 == 0 ? -0.002 : 0.002));
+    }
+    assertEquals(50, count[0]);
+  }
+
+  @Test
+  void testRejectsBadPeriod() {
+    SamplingScheduler scheduler = new SamplingScheduler();
+    assertThrows(IllegalArgumentException.class, () -> scheduler.addSampler("Bad", 0.0, () -> {}));
+  }
+}
@@ -0,0 +1,124 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import frc.robot.Constants;
+import frc.robot.util.TelemetryRegistry.Tier;
+
+/**
+ * Unit tests for TelemetryRegistry
+ */
+class TelemetryRegistryTest {
+  private static final int OVERHEAD = Constants.TelemetryBudget.UPDATE_OVERHEAD_BYTES;
+  private static final double BURST_BYTES =
+      Constants.TelemetryBudget.BYTES_PER_SECOND * Constants.TelemetryBudget.BURST_SECONDS;
+
+  private TelemetryRegistry m_registry;
+
+  @BeforeEach
+  void setup() {
+    m_registry = new TelemetryRegistry();
+  }
+
+  @Test
+  void testDoubleChannelSendsOnlyChangesBeyondDeadband() {
+    TelemetryRegistry.DoubleChannel channel = m_registry.doubleChannel("Test/Double", Tier.NORMAL, 0.0, 0.1);
+
+    channel.set(1.0, 0.0);
+    channel.set(1.05, 0.02);
+    channel.set(0.95, 0.04);
+    assertEquals(1, channel.getUpdateCount());
+
+    channel.set(1.2, 0.06);
+    assertEquals(2, channel.getUpdateCount());
+    assertEquals(2 * (Double.BYTES + OVERHEAD), channel.getBytes());
+  }
+
+  @Test
+  void testUnchangedValuesAreRefreshed() {
+    TelemetryRegistry.BooleanChannel channel = m_registry.booleanChannel("Test/Boolean", Tier.NORMAL, 0.0);
+
+    channel.set(true, 0.0);
+    channel.set(true, Constants.TelemetryBudget.REFRESH_PERIOD_SECONDS / 2.0);
+    assertEquals(1, channel.getUpdateCount());
+
+    channel.set(true, Constants.TelemetryBudget.REFRESH_PERIOD_SECONDS);
+    assertEquals(2, channel.getUpdateCount());
+  }
+
+  @Test
+  void testMinIntervalHoldsChangeUntilDue() {
+    TelemetryRegistry.DoubleChannel channel = m_registry.doubleChannel("Test/Interval", Tier.NORMAL, 0.1, 0.0);
+
+    channel.set(1.0, 0.0);
+    channel.set(2.0, 0.05);
+    assertEquals(1, channel.getUpdateCount());
+
+    // The held change goes out once the interval has passed
+    channel.set(2.0, 0.1);
+    assertEquals(2, channel.getUpdateCount());
+  }
+
+  @Test
+  void testBudgetHoldsNormalButNotCritical() {
+    int frameBytes = (int) BURST_BYTES;
+    TelemetryRegistry.FrameChannel normal = m_registry.frameChannel("Test/Normal", Tier.NORMAL, 0.0, frameBytes);
+    TelemetryRegistry.FrameChannel critical = m_registry.frameChannel("Test/Critical", Tier.CRITICAL, 0.0, frameBytes);
+
+    // The first frame empties the bucket
+    assertTrue(normal.tryPublish(true, 0.0));
+    assertFalse(normal.tryPublish(true, 0.0));
+    assertEquals(1, normal.getBudgetHeldCount());
+    assertTrue(critical.tryPublish(true, 0.0));
+
+    // Refills at BYTES_PER_SECOND, capped at the burst
+    double refill = 2.0 * (frameBytes + OVERHEAD) / Constants.TelemetryBudget.BYTES_PER_SECOND
+        + Constants.TelemetryBudget.BURST_SECONDS;
+    assertTrue(normal.tryPublish(true, refill));
+  }
+
+  @Test
+  void testDebugChannelsKeepReserveForNormal() {
+    int frameBytes = (int) (BURST_BYTES * (1.0 - Constants.TelemetryBudget.DEBUG_RESERVE_FRACTION)) + 1;
+    TelemetryRegistry.FrameChannel debug = m_registry.frameChannel("Test/Debug", Tier.DEBUG, 0.0, frameBytes);
+    TelemetryRegistry.FrameChannel normal = m_registry.frameChannel("Test/Normal", Tier.NORMAL, 0.0, 0);
+
+    assertTrue(debug.tryPublish(true, 0.0));
+    assertFalse(debug.tryPublish(true, 0.0));
+    assertTrue(normal.tryPublish(true, 0.0));
+  }
+
+  @Test
+  void testStatsRankChannelsByRate() {
+    TelemetryRegistry.FrameChannel busy = m_registry.frameChannel("Test/Busy", Tier.NORMAL, 0.0, 100);
+    TelemetryRegistry.FrameChannel quiet = m_registry.frameChannel("Test/Quiet", Tier.NORMAL, 0.0, 100);
+
+    m_registry.publishStats(0.0);
+    for (int i = 0; i < 10; i++) {
+      busy.tryPublish(true, i * 0.1);
+    }
+    quiet.tryPublish(true, 0.0);
+    m_registry.publishStats(1.0);
+
+    assertEquals(10 * (100 + OVERHEAD), busy.getBytesPerSecond(), 1e-9);
+    assertEquals(100 + OVERHEAD, quiet.getBytesPerSecond(), 1e-9);
+    assertSame(busy, m_registry.getChannels().iterator().next());
+  }
+
+  @Test
+  void testSetIsAllocationFree() {
+    TelemetryRegistry.DoubleChannel channel = m_registry.doubleChannel("Test/Allocation", Tier.NORMAL, 0.0, 0.0);
+    double[] now = new double[1];
+    AllocationAssertions.assertAllocationFree("TelemetryRegistry.DoubleChannel.set", () -> {
+      now[0] += 0.02;
+      channel.set(now[0], now[0]);
+    });
+  }
+}
@@ -0,0 +1,116 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.loganalyzer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Command line log analyzer
+ * Usage: loganalyzer (file or directory)...
+ * Directories are searched for .wpilog files. Logs are read in parallel, one per
+ * thread, and each gets loop overrun, vision accept rate, voltage sag and odometry
+ * jitter reports, printed in file name order. Phoenix .hoot logs are in a closed
+ * format; they are listed so they can be converted to .wpilog with Phoenix's
+ * owlet tool and analyzed alongside.
+ */
+public final class LogAnalyzer {
+  private static final List<Report> REPORTS = List.of(
+      new LoopOverrunReport(),
+      new VisionAcceptReport(),
+      new VoltageSagReport(),
+      new OdometryJitterReport());
+
+  private LogAnalyzer() {}
+
+  public static void main(String[] args) throws IOException, InterruptedException {
+    if (args.length == 0) {
+      System.err.println("Usage: loganalyzer <.wpilog file or directory>...");
+      System.exit(2);
+    }
+
+    List<Path> logs = new ArrayList<>();
+    List<Path> hoots = new ArrayList<>();
+    for (String arg : args) {
+      try (Stream<Path> files = Files.walk(Paths.get(arg))) {
+        files.filter(Files::isRegularFile).sorted().forEach(file -> {
+          String name = file.getFileName().toString();
+          if (name.endsWith(".wpilog")) {
+            logs.add(file);
+          } else if (name.endsWith(".hoot")) {
+            hoots.add(file);
+          }
+        });
+      }
+    }
+    if (!hoots.isEmpty()) {
+      System.err.println("Skipping " + hoots.size() + " .hoot logs; convert them to .wpilog"
+          + " with Phoenix's owlet tool to include them");
+    }
+
+    long startNanos = System.nanoTime();
+    ExecutorService pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    List<Future<String>> results = new ArrayList<>();
+    for (Path log : logs) {
+      results.add(pool.submit(() -> analyze(log)));
+    }
+    pool.shutdown();
+
+    long bytes = 0;
+    int failed = 0;
+    for (int i = 0; i < logs.size(); i++) {
+      bytes += Files.size(logs.get(i));
+      try {
+        System.out.print(results.get(i).get());
+      } catch (ExecutionException e) {
+        System.out.println("== " + logs.get(i) + ": " + e.getCause().getMessage());
+        failed++;
+      }
+    }
+    System.out.println(String.format(Locale.ROOT, "Analyzed %d logs (%.1f MB) in %.2f s", logs.size() - failed,
+        bytes / 1e6, (System.nanoTime() - startNanos) * 1e-9));
+    if (failed > 0) {
+      System.exit(1);
+    }
+  }
+
+  /**
+   * Run every report on one log
+   * @param path .wpilog file
+   * @return Report text
+   * @throws IOException If the log can't be read
+   */
+  static String analyze(Path path) throws IOException {
+    LogData data = LogData.read(path, name -> {
+      for (Report report : REPORTS) {
+        if (report.wants(name)) {
+          return true;
+        }
+      }
+      return false;
+    });
+
+    StringBuilder out = new StringBuilder();
+    boolean empty = data.getEndMicros() < data.getStartMicros();
+    double seconds = empty ? 0.0 : (data.getEndMicros() - data.getStartMicros()) * 1e-6;
+    out.append(String.format(Locale.ROOT, "== %s (%.1f s, %d records%s)%n", path, seconds,
+        data.getRecordCount(), data.isTruncated() ? ", truncated" : ""));
+    for (Report report : REPORTS) {
+      out.append("-- ").append(report.getTitle()).append('\n');
+      report.write(data, out);
+    }
+    return out.append('\n').toString();
+  }
+}
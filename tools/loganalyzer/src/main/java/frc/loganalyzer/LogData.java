@@ -0,0 +1,195 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.loganalyzer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Time series for the entries of one log that an analysis asked for
+ * Only numeric ("double", "float", "int64") and "boolean" entries are collected;
+ * everything else is skipped without decoding. Entries that are restarted under
+ * the same name append to one series.
+ */
+public final class LogData {
+  private final Map<String, TimeSeries> m_series = new LinkedHashMap<>();
+  private long m_startMicros = Long.MAX_VALUE;
+  private long m_endMicros = Long.MIN_VALUE;
+  private long m_recordCount = 0;
+  private boolean m_truncated = false;
+
+  private LogData() {}
+
+  /**
+   * Read a log, keeping the entries a filter accepts
+   * @param path .wpilog file
+   * @param wanted Entry names to keep
+   * @return The collected series
+   * @throws IOException If the file can't be read
+   */
+  public static LogData read(Path path, Predicate<String> wanted) throws IOException {
+    LogData data = new LogData();
+    WpiLogReader reader = new WpiLogReader(path);
+    reader.read(data.new Collector(wanted));
+    data.m_recordCount = reader.getRecordCount();
+    data.m_truncated = reader.isTruncated();
+    return data;
+  }
+
+  /**
+   * Get a series by entry name
+   * @param names Entry names to try, in order
+   * @return The first series found, or null
+   */
+  public TimeSeries get(String... names) {
+    for (String name : names) {
+      TimeSeries series = m_series.get(name);
+      if (series != null) {
+        return series;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Get every collected series
+   * @return Series in the order their entries started
+   */
+  public Collection<TimeSeries> getAll() {
+    return m_series.values();
+  }
+
+  /**
+   * Get the first record time in the log
+   * @return Time in microseconds, or Long.MAX_VALUE for an empty log
+   */
+  public long getStartMicros() {
+    return m_startMicros;
+  }
+
+  /**
+   * Get the last record time in the log
+   * @return Time in microseconds, or Long.MIN_VALUE for an empty log
+   */
+  public long getEndMicros() {
+    return m_endMicros;
+  }
+
+  /**
+   * Get the number of records in the log, collected or not
+   * @return Record count
+   */
+  public long getRecordCount() {
+    return m_recordCount;
+  }
+
+  /**
+   * Whether the log ended partway through a record
+   * @return True if the file was truncated
+   */
+  public boolean isTruncated() {
+    return m_truncated;
+  }
+
+  private enum Decoder {
+    DOUBLE(8),
+    FLOAT(4),
+    INT64(8),
+    BOOLEAN(1);
+
+    private final int m_size;
+
+    Decoder(int size) {
+      m_size = size;
+    }
+
+    private static Decoder of(String type) {
+      switch (type) {
+        case "double":
+          return DOUBLE;
+        case "float":
+          return FLOAT;
+        case "int64":
+          return INT64;
+        case "boolean":
+          return BOOLEAN;
+        default:
+          return null;
+      }
+    }
+
+    private double decode(ByteBuffer buffer, int offset) {
+      switch (this) {
+        case DOUBLE:
+          return buffer.getDouble(offset);
+        case FLOAT:
+          return buffer.getFloat(offset);
+        case INT64:
+          return buffer.getLong(offset);
+        default:
+          return buffer.get(offset) != 0 ? 1.0 : 0.0;
+      }
+    }
+  }
+
+  /**
+   * Routes records to series by entry id; ids are small, so arrays replace maps
+   */
+  private final class Collector implements WpiLogReader.Visitor {
+    private final Predicate<String> m_wanted;
+    private TimeSeries[] m_byEntry = new TimeSeries[64];
+    private Decoder[] m_decoders = new Decoder[64];
+
+    private Collector(Predicate<String> wanted) {
+      m_wanted = wanted;
+    }
+
+    @Override
+    public void start(int entry, String name, String type, long timestampMicros) {
+      Decoder decoder = Decoder.of(type);
+      if (decoder == null || entry < 0 || !m_wanted.test(name)) {
+        return;
+      }
+      if (entry >= m_byEntry.length) {
+        int length = Math.max(entry + 1, m_byEntry.length * 2);
+        m_byEntry = Arrays.copyOf(m_byEntry, length);
+        m_decoders = Arrays.copyOf(m_decoders, length);
+      }
+      m_byEntry[entry] = m_series.computeIfAbsent(name, TimeSeries::new);
+      m_decoders[entry] = decoder;
+    }
+
+    @Override
+    public void finish(int entry) {
+      if (entry >= 0 && entry < m_byEntry.length) {
+        m_byEntry[entry] = null;
+      }
+    }
+
+    @Override
+    public void record(int entry, long timestampMicros, ByteBuffer buffer, int offset, int length) {
+      if (timestampMicros < m_startMicros) {
+        m_startMicros = timestampMicros;
+      }
+      if (timestampMicros > m_endMicros) {
+        m_endMicros = timestampMicros;
+      }
+      if (entry < 0 || entry >= m_byEntry.length) {
+        return;
+      }
+      TimeSeries series = m_byEntry[entry];
+      if (series == null || length != m_decoders[entry].m_size) {
+        return;
+      }
+      series.append(timestampMicros, m_decoders[entry].decode(buffer, offset));
+    }
+  }
+}
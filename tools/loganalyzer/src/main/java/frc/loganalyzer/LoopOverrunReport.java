@@ -0,0 +1,100 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.loganalyzer;
+
+/**
+ * Main loop and odometry overruns, and how many line up with GC pauses
+ * Reads the overrun markers OdometryTimingMonitor writes (the value is the late
+ * period in seconds) and GcTelemetry's pause log. A main loop overrun counts as
+ * GC-caused when a pause ended within GC_WINDOW_MICROS before it, as on the robot;
+ * an odometry overrun counts as shared when it falls inside a late main loop period.
+ */
+final class LoopOverrunReport implements Report {
+  static final String MAIN_LOOP = "Odometry/Main Loop Overrun Period";
+  static final String ODOMETRY = "Odometry/Overrun Period";
+  static final String GC_PAUSE = "GC/Pause ms";
+
+  // Constants.Gc.CORRELATION_WINDOW_SECONDS in the robot project
+  private static final long GC_WINDOW_MICROS = 100_000;
+
+  @Override
+  public String getTitle() {
+    return "Loop overruns";
+  }
+
+  @Override
+  public boolean wants(String entryName) {
+    return entryName.equals(MAIN_LOOP) || entryName.equals(ODOMETRY) || entryName.equals(GC_PAUSE);
+  }
+
+  @Override
+  public void write(LogData data, StringBuilder out) {
+    TimeSeries mainLoop = data.get(MAIN_LOOP);
+    TimeSeries odometry = data.get(ODOMETRY);
+    TimeSeries gcPauses = data.get(GC_PAUSE);
+    if (gcPauses != null) {
+      double[] pauses = gcPauses.sortedValues();
+      Report.line(out, "GC pauses: %d (p50 %.1f ms, p99 %.1f ms, max %.1f ms)", pauses.length,
+          TimeSeries.percentile(pauses, 0.5), TimeSeries.percentile(pauses, 0.99),
+          pauses.length > 0 ? pauses[pauses.length - 1] : Double.NaN);
+    }
+    if (mainLoop == null && odometry == null) {
+      Report.line(out, "No overrun markers in this log");
+      return;
+    }
+
+    if (mainLoop != null) {
+      double[] periods = mainLoop.sortedValues();
+      Report.line(out, "Main loop overruns: %d (p50 %.1f ms, p99 %.1f ms, max %.1f ms)", periods.length,
+          TimeSeries.percentile(periods, 0.5) * 1000.0, TimeSeries.percentile(periods, 0.99) * 1000.0,
+          periods.length > 0 ? periods[periods.length - 1] * 1000.0 : Double.NaN);
+      if (gcPauses != null) {
+        Report.line(out, "  right after a GC pause: %d (%d pauses logged)", countAfterGc(mainLoop, gcPauses),
+            gcPauses.size());
+      }
+    }
+    if (odometry != null) {
+      double[] periods = odometry.sortedValues();
+      Report.line(out, "Odometry overruns: %d (max %.1f ms)", periods.length,
+          periods.length > 0 ? periods[periods.length - 1] * 1000.0 : Double.NaN);
+      if (mainLoop != null) {
+        Report.line(out, "  during a late main loop: %d", countShared(odometry, mainLoop));
+      }
+    }
+  }
+
+  /* Main loop overruns with a GC pause ending in the window before them; both series are in time order */
+  static int countAfterGc(TimeSeries mainLoop, TimeSeries gcPauses) {
+    int count = 0;
+    int pause = 0;
+    for (int i = 0; i < mainLoop.size(); i++) {
+      long time = mainLoop.getTimestamp(i);
+      while (pause < gcPauses.size() && gcPauses.getTimestamp(pause) < time - GC_WINDOW_MICROS) {
+        pause++;
+      }
+      if (pause < gcPauses.size() && gcPauses.getTimestamp(pause) <= time) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /* Odometry overruns inside a late main loop period, which ends at the marker time */
+  static int countShared(TimeSeries odometry, TimeSeries mainLoop) {
+    int count = 0;
+    int loop = 0;
+    for (int i = 0; i < odometry.size(); i++) {
+      long time = odometry.getTimestamp(i);
+      while (loop < mainLoop.size() && mainLoop.getTimestamp(loop) < time) {
+        loop++;
+      }
+      if (loop < mainLoop.size()
+          && mainLoop.getTimestamp(loop) - (long) (mainLoop.getValue(loop) * 1e6) <= time) {
+        count++;
+      }
+    }
+    return count;
+  }
+}
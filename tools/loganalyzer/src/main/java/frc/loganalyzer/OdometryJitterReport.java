@@ -0,0 +1,64 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.loganalyzer;
+
+import java.util.Arrays;
+
+/**
+ * Odometry period jitter
+ * Per-sample periods come from "DriveState/OdometryPeriod", which Telemetry writes
+ * to the hoot log; it appears here once that log is converted to .wpilog. Jitter
+ * is each period's distance from the median period. Without it, falls back to the
+ * robot's own p99 jitter that DataLogManager recorded from the dashboard.
+ */
+final class OdometryJitterReport implements Report {
+  static final String PERIOD = "DriveState/OdometryPeriod";
+  static final String ROBOT_JITTER_P99 = "Odometry/Jitter p99 ms";
+
+  // Constants.Odometry.OVERRUN_FACTOR in the robot project
+  private static final double OVERRUN_FACTOR = 2.0;
+
+  @Override
+  public String getTitle() {
+    return "Odometry jitter";
+  }
+
+  @Override
+  public boolean wants(String entryName) {
+    return entryName.equals(PERIOD) || Report.dashboardKey(entryName).equals(ROBOT_JITTER_P99);
+  }
+
+  @Override
+  public void write(LogData data, StringBuilder out) {
+    TimeSeries period = data.get(PERIOD);
+    if (period != null && period.size() > 0) {
+      double[] periods = period.sortedValues();
+      double nominal = TimeSeries.percentile(periods, 0.5);
+      double[] jitter = new double[periods.length];
+      int overruns = 0;
+      for (int i = 0; i < periods.length; i++) {
+        jitter[i] = Math.abs(periods[i] - nominal);
+        overruns += periods[i] > nominal * OVERRUN_FACTOR ? 1 : 0;
+      }
+      Arrays.sort(jitter);
+      Report.line(out, "%d periods, median %.2f ms (%.0f Hz)", periods.length, nominal * 1000.0,
+          nominal > 0.0 ? 1.0 / nominal : 0.0);
+      Report.line(out, "Jitter p50 %.3f ms, p99 %.3f ms, max %.3f ms", TimeSeries.percentile(jitter, 0.5) * 1000.0,
+          TimeSeries.percentile(jitter, 0.99) * 1000.0, jitter[jitter.length - 1] * 1000.0);
+      Report.line(out, "Periods over %.0fx median: %d", OVERRUN_FACTOR, overruns);
+      return;
+    }
+
+    TimeSeries robotP99 = data.get(ROBOT_JITTER_P99, DASHBOARD_PREFIX + ROBOT_JITTER_P99);
+    if (robotP99 != null && robotP99.size() > 0) {
+      double[] values = robotP99.sortedValues();
+      Report.line(out, "Robot-reported jitter p99: final %.3f ms, worst %.3f ms",
+          robotP99.getValue(robotP99.size() - 1), values[values.length - 1]);
+      Report.line(out, "(convert the hoot log to .wpilog for per-sample periods)");
+      return;
+    }
+    Report.line(out, "No odometry timing in this log");
+  }
+}
@@ -0,0 +1,55 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.loganalyzer;
+
+import java.util.Locale;
+
+/**
+ * One analysis of a log
+ * A report names the entries it needs up front so only those are collected.
+ */
+public interface Report {
+  /** Prefix DataLogManager gives SmartDashboard values it records from NetworkTables */
+  String DASHBOARD_PREFIX = "NT:/SmartDashboard/";
+
+  /**
+   * Get the report heading
+   * @return Title
+   */
+  String getTitle();
+
+  /**
+   * Whether the report needs an entry
+   * @param entryName Entry name as written in the log
+   * @return True to collect the entry
+   */
+  boolean wants(String entryName);
+
+  /**
+   * Write the report for one log
+   * @param data Collected entries
+   * @param out Text to append to
+   */
+  void write(LogData data, StringBuilder out);
+
+  /**
+   * Get the dashboard key of an entry recorded from NetworkTables
+   * @param entryName Entry name as written in the log
+   * @return Key without the NetworkTables prefix, e.g. "Safety/Battery Voltage"
+   */
+  static String dashboardKey(String entryName) {
+    return entryName.startsWith(DASHBOARD_PREFIX) ? entryName.substring(DASHBOARD_PREFIX.length()) : entryName;
+  }
+
+  /**
+   * Format a line of report text
+   * @param out Text to append to
+   * @param format Format string
+   * @param args Format arguments
+   */
+  static void line(StringBuilder out, String format, Object... args) {
+    out.append("  ").append(String.format(Locale.ROOT, format, args)).append('\n');
+  }
+}
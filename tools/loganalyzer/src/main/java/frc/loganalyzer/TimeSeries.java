@@ -0,0 +1,128 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.loganalyzer;
+
+import java.util.Arrays;
+
+/**
+ * One log entry as columns of timestamps and values
+ * Numeric and boolean entries are both stored as doubles (booleans as 0 or 1),
+ * in file order, which is time order for a single entry.
+ */
+public final class TimeSeries {
+  private static final int INITIAL_CAPACITY = 256;
+
+  private final String m_name;
+  private long[] m_timestamps = new long[INITIAL_CAPACITY];
+  private double[] m_values = new double[INITIAL_CAPACITY];
+  private int m_size = 0;
+
+  /**
+   * Creates an empty series
+   * @param name Entry name
+   */
+  public TimeSeries(String name) {
+    m_name = name;
+  }
+
+  /**
+   * Add a sample
+   * @param timestampMicros Sample time
+   * @param value Sample value
+   */
+  public void append(long timestampMicros, double value) {
+    if (m_size == m_timestamps.length) {
+      m_timestamps = Arrays.copyOf(m_timestamps, m_size * 2);
+      m_values = Arrays.copyOf(m_values, m_size * 2);
+    }
+    m_timestamps[m_size] = timestampMicros;
+    m_values[m_size] = value;
+    m_size++;
+  }
+
+  /**
+   * Get the entry name
+   * @return Name
+   */
+  public String getName() {
+    return m_name;
+  }
+
+  /**
+   * Get the number of samples
+   * @return Sample count
+   */
+  public int size() {
+    return m_size;
+  }
+
+  /**
+   * Get a sample time
+   * @param index Sample index
+   * @return Time in microseconds
+   */
+  public long getTimestamp(int index) {
+    return m_timestamps[index];
+  }
+
+  /**
+   * Get a sample time in seconds
+   * @param index Sample index
+   * @return Time in seconds
+   */
+  public double getSeconds(int index) {
+    return m_timestamps[index] * 1e-6;
+  }
+
+  /**
+   * Get a sample value
+   * @param index Sample index
+   * @return Value
+   */
+  public double getValue(int index) {
+    return m_values[index];
+  }
+
+  /**
+   * Find the sample in effect at a time
+   * @param timestampMicros Time
+   * @return Index of the last sample at or before the time, or -1 if none
+   */
+  public int indexAt(long timestampMicros) {
+    int index = Arrays.binarySearch(m_timestamps, 0, m_size, timestampMicros);
+    if (index < 0) {
+      return -index - 2;
+    }
+    // Several samples can share a timestamp; the last one is in effect
+    while (index + 1 < m_size && m_timestamps[index + 1] == timestampMicros) {
+      index++;
+    }
+    return index;
+  }
+
+  /**
+   * Copy the values out, sorted ascending
+   * @return Sorted values
+   */
+  public double[] sortedValues() {
+    double[] sorted = Arrays.copyOf(m_values, m_size);
+    Arrays.sort(sorted);
+    return sorted;
+  }
+
+  /**
+   * Get a percentile of sorted values by nearest rank
+   * @param sorted Values sorted ascending
+   * @param fraction Percentile, from 0 to 1
+   * @return The value, or NaN if there are none
+   */
+  public static double percentile(double[] sorted, double fraction) {
+    if (sorted.length == 0) {
+      return Double.NaN;
+    }
+    int rank = (int) Math.ceil(fraction * sorted.length) - 1;
+    return sorted[Math.max(0, Math.min(sorted.length - 1, rank))];
+  }
+}
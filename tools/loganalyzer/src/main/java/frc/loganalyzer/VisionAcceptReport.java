@@ -0,0 +1,97 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.loganalyzer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * How often each camera's pose estimate was used while it saw targets
+ * Built from the per-camera "Vision/(camera)/Has Targets" and "Using Measurement"
+ * dashboard values, which DataLogManager records from NetworkTables. They are
+ * published on change and refreshed every second, so the rate is time-weighted at
+ * dashboard resolution rather than counted per frame.
+ */
+final class VisionAcceptReport implements Report {
+  private static final String VISION = "Vision/";
+  private static final String HAS_TARGETS = "/Has Targets";
+  private static final String USING_MEASUREMENT = "/Using Measurement";
+
+  @Override
+  public String getTitle() {
+    return "Vision accept rate";
+  }
+
+  @Override
+  public boolean wants(String entryName) {
+    String key = Report.dashboardKey(entryName);
+    return key.startsWith(VISION) && (key.endsWith(HAS_TARGETS) || key.endsWith(USING_MEASUREMENT));
+  }
+
+  @Override
+  public void write(LogData data, StringBuilder out) {
+    List<String> cameras = new ArrayList<>();
+    for (TimeSeries series : data.getAll()) {
+      String key = Report.dashboardKey(series.getName());
+      if (key.endsWith(HAS_TARGETS)) {
+        String camera = key.substring(VISION.length(), key.length() - HAS_TARGETS.length());
+        if (!cameras.contains(camera)) {
+          cameras.add(camera);
+        }
+      }
+    }
+    if (cameras.isEmpty()) {
+      Report.line(out, "No camera telemetry in this log");
+      return;
+    }
+
+    for (String camera : cameras) {
+      String prefix = VISION + camera;
+      TimeSeries hasTargets = data.get(prefix + HAS_TARGETS, DASHBOARD_PREFIX + prefix + HAS_TARGETS);
+      TimeSeries using = data.get(prefix + USING_MEASUREMENT, DASHBOARD_PREFIX + prefix + USING_MEASUREMENT);
+      long[] micros = acceptedMicros(hasTargets, using, data.getEndMicros());
+      Report.line(out, "%s: targets seen %.1f s, estimate used %.1f s (%.1f%%)", camera,
+          micros[0] * 1e-6, micros[1] * 1e-6, micros[0] > 0 ? 100.0 * micros[1] / micros[0] : 0.0);
+    }
+  }
+
+  /**
+   * Integrate two step signals up to the end of the log
+   * @param hasTargets Whether the camera saw targets
+   * @param using Whether its estimate was used, or null if never published
+   * @param endMicros End of the log
+   * @return Time with targets, and time with targets and the estimate used, in microseconds
+   */
+  static long[] acceptedMicros(TimeSeries hasTargets, TimeSeries using, long endMicros) {
+    long targetMicros = 0;
+    long acceptedMicros = 0;
+    int usingSize = using != null ? using.size() : 0;
+    int i = 0;
+    int j = 0;
+    boolean seen = false;
+    boolean used = false;
+    long time = Long.MIN_VALUE;
+    while (i < hasTargets.size() || j < usingSize) {
+      long next = Math.min(i < hasTargets.size() ? hasTargets.getTimestamp(i) : Long.MAX_VALUE,
+          j < usingSize ? using.getTimestamp(j) : Long.MAX_VALUE);
+      if (seen) {
+        targetMicros += next - time;
+        acceptedMicros += used ? next - time : 0;
+      }
+      time = next;
+      while (i < hasTargets.size() && hasTargets.getTimestamp(i) == next) {
+        seen = hasTargets.getValue(i++) != 0.0;
+      }
+      while (j < usingSize && using.getTimestamp(j) == next) {
+        used = using.getValue(j++) != 0.0;
+      }
+    }
+    if (seen && endMicros > time) {
+      targetMicros += endMicros - time;
+      acceptedMicros += used ? endMicros - time : 0;
+    }
+    return new long[] {targetMicros, acceptedMicros};
+  }
+}
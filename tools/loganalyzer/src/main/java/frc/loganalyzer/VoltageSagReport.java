@@ -0,0 +1,133 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.loganalyzer;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Battery voltage sag events and brownouts
+ * A sag starts when the battery voltage drops below SAG_VOLTS and ends when it
+ * recovers to SAG_VOLTS + RECOVERY_VOLTS, so noise around the threshold isn't
+ * counted as many events. The deepest MAX_LISTED sags are listed.
+ */
+final class VoltageSagReport implements Report {
+  static final String VOLTAGE = "Safety/Battery Voltage";
+  static final String BROWNED_OUT = "Safety/Browned Out";
+
+  // Constants.Safety.VOLTAGE_WARNING_THRESHOLD and VOLTAGE_CRITICAL_THRESHOLD in the robot project
+  static final double SAG_VOLTS = 11.5;
+  static final double CRITICAL_VOLTS = 10.5;
+  static final double RECOVERY_VOLTS = 0.25;
+  private static final int MAX_LISTED = 10;
+
+  /**
+   * A period below the sag threshold
+   */
+  static final class Sag {
+    final long startMicros;
+    final long endMicros;
+    final double minimumVolts;
+
+    Sag(long startMicros, long endMicros, double minimumVolts) {
+      this.startMicros = startMicros;
+      this.endMicros = endMicros;
+      this.minimumVolts = minimumVolts;
+    }
+  }
+
+  @Override
+  public String getTitle() {
+    return "Voltage sag";
+  }
+
+  @Override
+  public boolean wants(String entryName) {
+    String key = Report.dashboardKey(entryName);
+    return key.equals(VOLTAGE) || key.equals(BROWNED_OUT);
+  }
+
+  @Override
+  public void write(LogData data, StringBuilder out) {
+    TimeSeries voltage = data.get(VOLTAGE, DASHBOARD_PREFIX + VOLTAGE);
+    if (voltage == null || voltage.size() == 0) {
+      Report.line(out, "No battery voltage in this log");
+      return;
+    }
+
+    double[] sorted = voltage.sortedValues();
+    int firstValid = 0;
+    while (firstValid < sorted.length - 1 && sorted[firstValid] <= 0.0) {
+      firstValid++;
+    }
+    List<Sag> sags = findSags(voltage, data.getEndMicros());
+    long sagMicros = 0;
+    int critical = 0;
+    for (Sag sag : sags) {
+      sagMicros += sag.endMicros - sag.startMicros;
+      critical += sag.minimumVolts < CRITICAL_VOLTS ? 1 : 0;
+    }
+    Report.line(out, "Sags below %.2f V: %d (%d below %.2f V), %.2f s total, lowest %.2f V, median %.2f V",
+        SAG_VOLTS, sags.size(), critical, CRITICAL_VOLTS, sagMicros * 1e-6, sorted[firstValid],
+        TimeSeries.percentile(sorted, 0.5));
+
+    TimeSeries brownedOut = data.get(BROWNED_OUT, DASHBOARD_PREFIX + BROWNED_OUT);
+    if (brownedOut != null) {
+      Report.line(out, "Brownouts: %d", countRisingEdges(brownedOut));
+    }
+
+    sags.sort(Comparator.comparingDouble((Sag sag) -> sag.minimumVolts));
+    for (Sag sag : sags.subList(0, Math.min(MAX_LISTED, sags.size()))) {
+      Report.line(out, "  at %8.2f s: %.2f V for %.2f s", sag.startMicros * 1e-6, sag.minimumVolts,
+          (sag.endMicros - sag.startMicros) * 1e-6);
+    }
+  }
+
+  /**
+   * Find sag events
+   * @param voltage Battery voltage
+   * @param endMicros End of the log, which ends a sag still in progress
+   * @return Sags in time order
+   */
+  static List<Sag> findSags(TimeSeries voltage, long endMicros) {
+    List<Sag> sags = new ArrayList<>();
+    long start = -1;
+    double minimum = Double.POSITIVE_INFINITY;
+    for (int i = 0; i < voltage.size(); i++) {
+      double volts = voltage.getValue(i);
+      // 0 V means the reading isn't valid yet, as on the robot
+      if (volts <= 0.0) {
+        continue;
+      }
+      if (start < 0) {
+        if (volts < SAG_VOLTS) {
+          start = voltage.getTimestamp(i);
+          minimum = volts;
+        }
+      } else if (volts >= SAG_VOLTS + RECOVERY_VOLTS) {
+        sags.add(new Sag(start, voltage.getTimestamp(i), minimum));
+        start = -1;
+      } else {
+        minimum = Math.min(minimum, volts);
+      }
+    }
+    if (start >= 0) {
+      sags.add(new Sag(start, Math.max(start, endMicros), minimum));
+    }
+    return sags;
+  }
+
+  private static int countRisingEdges(TimeSeries series) {
+    int count = 0;
+    double last = 0.0;
+    for (int i = 0; i < series.size(); i++) {
+      double value = series.getValue(i);
+      count += value != 0.0 && last == 0.0 ? 1 : 0;
+      last = value;
+    }
+    return count;
+  }
+}
@@ -0,0 +1,250 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.loganalyzer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Memory-mapped reader for WPILib .wpilog files
+ *
+ * <p>Layout (little-endian), per the WPILib data log spec:
+ * <pre>
+ * header: "WPILOG", uint16 version 0x0100, uint32 extra header length, extra header
+ * record: 1 byte of field lengths (bits 0-1 entry id, 2-3 payload size, 4-6 timestamp, each minus 1)
+ *         entry id, payload size, timestamp in microseconds, payload
+ * entry 0 is control: payload byte 0 is 0 start, 1 finish, 2 set metadata
+ * </pre>
+ * The file is mapped in windows of up to WINDOW_BYTES, so files over 2 GB work;
+ * record payloads are handed to the visitor as a position in the mapped window
+ * and never copied. A record cut off by the end of the file (power lost while
+ * logging) ends the read instead of failing it.
+ */
+public final class WpiLogReader {
+  private static final byte[] kMagic = "WPILOG".getBytes(StandardCharsets.US_ASCII);
+  private static final int kVersion = 0x0100;
+  private static final long WINDOW_BYTES = 1L << 30;
+  private static final int CONTROL_ENTRY = 0;
+  private static final int CONTROL_START = 0;
+  private static final int CONTROL_FINISH = 1;
+
+  /**
+   * Receives the contents of a log, in file order
+   */
+  public interface Visitor {
+    /**
+     * An entry was started
+     * @param entry Entry id, unique until the entry is finished
+     * @param name Entry name
+     * @param type Data type, e.g. "double" or "boolean"
+     * @param timestampMicros Start time
+     */
+    void start(int entry, String name, String type, long timestampMicros);
+
+    /**
+     * An entry was finished; its id may be reused
+     * @param entry Entry id
+     */
+    default void finish(int entry) {}
+
+    /**
+     * A data record; only valid during the call
+     * @param entry Entry id
+     * @param timestampMicros Record time
+     * @param buffer Little-endian buffer holding the payload
+     * @param offset Payload index in the buffer
+     * @param length Payload length in bytes
+     */
+    void record(int entry, long timestampMicros, ByteBuffer buffer, int offset, int length);
+  }
+
+  private final Path m_path;
+  private final long m_windowBytes;
+
+  private FileChannel m_channel;
+  private long m_size;
+  private ByteBuffer m_window;
+  private long m_windowStart;
+  private String m_extraHeader = "";
+  private boolean m_truncated = false;
+  private long m_recordCount = 0;
+
+  /**
+   * Creates a reader for a file
+   * @param path .wpilog file
+   */
+  public WpiLogReader(Path path) {
+    this(path, WINDOW_BYTES);
+  }
+
+  /**
+   * Creates a reader with a given mapping window
+   * @param path .wpilog file
+   * @param windowBytes Most bytes mapped at once
+   */
+  WpiLogReader(Path path, long windowBytes) {
+    m_path = path;
+    m_windowBytes = windowBytes;
+  }
+
+  /**
+   * Read the whole file
+   * @param visitor Receives entries and records
+   * @throws IOException If the file can't be read or isn't a supported data log
+   */
+  public void read(Visitor visitor) throws IOException {
+    try (FileChannel channel = FileChannel.open(m_path, StandardOpenOption.READ)) {
+      m_channel = channel;
+      m_size = channel.size();
+      m_window = null;
+      m_truncated = false;
+      m_recordCount = 0;
+
+      long position = readHeader();
+      while (position < m_size) {
+        if (!ensure(position, 1)) {
+          break;
+        }
+        int lengths = m_window.get(index(position)) & 0xFF;
+        int idLength = (lengths & 0x3) + 1;
+        int sizeLength = ((lengths >> 2) & 0x3) + 1;
+        int timestampLength = ((lengths >> 4) & 0x7) + 1;
+        int headerLength = 1 + idLength + sizeLength + timestampLength;
+        if (!ensure(position, headerLength)) {
+          m_truncated = true;
+          break;
+        }
+        int at = index(position) + 1;
+        int entry = (int) readVariable(at, idLength);
+        long payloadSize = readVariable(at + idLength, sizeLength);
+        long timestamp = readVariable(at + idLength + sizeLength, timestampLength);
+        if (!ensure(position, headerLength + payloadSize)) {
+          m_truncated = true;
+          break;
+        }
+
+        int payload = index(position) + headerLength;
+        if (entry == CONTROL_ENTRY) {
+          readControl(visitor, payload, (int) payloadSize, timestamp);
+        } else {
+          visitor.record(entry, timestamp, m_window, payload, (int) payloadSize);
+        }
+        m_recordCount++;
+        position += headerLength + payloadSize;
+      }
+    } finally {
+      m_channel = null;
+      m_window = null;
+    }
+  }
+
+  /**
+   * Get the extra header string from the last read
+   * @return Extra header, often empty
+   */
+  public String getExtraHeader() {
+    return m_extraHeader;
+  }
+
+  /**
+   * Whether the last read stopped at a record cut off by the end of the file
+   * @return True if the file was truncated
+   */
+  public boolean isTruncated() {
+    return m_truncated;
+  }
+
+  /**
+   * Get the number of records in the last read, control records included
+   * @return Record count
+   */
+  public long getRecordCount() {
+    return m_recordCount;
+  }
+
+  private long readHeader() throws IOException {
+    if (!ensure(0, 12)) {
+      throw new IOException(m_path + " is too short to be a data log");
+    }
+    for (int i = 0; i < kMagic.length; i++) {
+      if (m_window.get(i) != kMagic[i]) {
+        throw new IOException(m_path + " is not a data log (bad magic)");
+      }
+    }
+    int version = m_window.getShort(6) & 0xFFFF;
+    if (version != kVersion) {
+      throw new IOException(m_path + " has unsupported data log version 0x" + Integer.toHexString(version));
+    }
+    long extraLength = m_window.getInt(8) & 0xFFFFFFFFL;
+    if (!ensure(12, extraLength)) {
+      throw new IOException(m_path + " has a truncated header");
+    }
+    m_extraHeader = readString(index(12), (int) extraLength);
+    return 12 + extraLength;
+  }
+
+  private void readControl(Visitor visitor, int payload, int length, long timestamp) throws IOException {
+    if (length < 5) {
+      throw new IOException(m_path + " has a malformed control record");
+    }
+    int type = m_window.get(payload) & 0xFF;
+    int entry = m_window.getInt(payload + 1);
+    if (type == CONTROL_START) {
+      int at = payload + 5;
+      int end = payload + length;
+      int nameLength = at + 4 <= end ? m_window.getInt(at) : -1;
+      int typeAt = at + 4 + nameLength;
+      int typeLength = nameLength >= 0 && typeAt + 4 <= end ? m_window.getInt(typeAt) : -1;
+      if (typeLength < 0 || typeAt + 4 + typeLength > end) {
+        throw new IOException(m_path + " has a malformed start record for entry " + entry);
+      }
+      visitor.start(entry, readString(at + 4, nameLength), readString(typeAt + 4, typeLength), timestamp);
+    } else if (type == CONTROL_FINISH) {
+      visitor.finish(entry);
+    }
+    // Metadata updates aren't needed by any analysis
+  }
+
+  private String readString(int index, int length) {
+    byte[] bytes = new byte[length];
+    m_window.get(index, bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private long readVariable(int index, int length) {
+    long value = 0;
+    for (int i = 0; i < length; i++) {
+      value |= (long) (m_window.get(index + i) & 0xFF) << (8 * i);
+    }
+    return value;
+  }
+
+  private int index(long position) {
+    return (int) (position - m_windowStart);
+  }
+
+  /* Map a window holding [position, position + length); false if the file ends first */
+  private boolean ensure(long position, long length) throws IOException {
+    if (position + length > m_size) {
+      return false;
+    }
+    if (m_window != null && position >= m_windowStart
+        && position + length <= m_windowStart + m_window.limit()) {
+      return true;
+    }
+    long mapLength = Math.min(Math.max(m_windowBytes, length), m_size - position);
+    if (mapLength > Integer.MAX_VALUE) {
+      throw new IOException(m_path + " has a record too large to map");
+    }
+    m_window = m_channel.map(FileChannel.MapMode.READ_ONLY, position, mapLength).order(ByteOrder.LITTLE_ENDIAN);
+    m_windowStart = position;
+    return true;
+  }
+}
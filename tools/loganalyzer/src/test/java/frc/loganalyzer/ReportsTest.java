@@ -0,0 +1,112 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.loganalyzer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the log reports
+ */
+class ReportsTest {
+  private static TimeSeries series(String name, long[] timestamps, double[] values) {
+    TimeSeries series = new TimeSeries(name);
+    for (int i = 0; i < timestamps.length; i++) {
+      series.append(timestamps[i], values[i]);
+    }
+    return series;
+  }
+
+  @Test
+  void testSagNeedsRecoveryToEnd() {
+    TimeSeries voltage = series("Safety/Battery Voltage",
+        new long[] {0, 1_000_000, 2_000_000, 3_000_000, 4_000_000, 5_000_000, 6_000_000},
+        new double[] {0.0, 12.4, 11.2, 11.6, 10.2, 12.0, 11.0});
+
+    List<VoltageSagReport.Sag> sags = VoltageSagReport.findSags(voltage, 8_000_000);
+
+    // 11.6 V is inside the recovery band, so the first sag runs until 12.0 V
+    assertEquals(2, sags.size());
+    assertEquals(2_000_000, sags.get(0).startMicros);
+    assertEquals(5_000_000, sags.get(0).endMicros);
+    assertEquals(10.2, sags.get(0).minimumVolts);
+    // A sag still in progress ends with the log
+    assertEquals(6_000_000, sags.get(1).startMicros);
+    assertEquals(8_000_000, sags.get(1).endMicros);
+  }
+
+  @Test
+  void testVisionAcceptRateCountsOnlyTimeWithTargets() {
+    TimeSeries hasTargets = series("Vision/Front/Has Targets",
+        new long[] {0, 2_000_000, 6_000_000},
+        new double[] {0.0, 1.0, 0.0});
+    // Left true after targets are lost, as the robot only updates it while it has targets
+    TimeSeries using = series("Vision/Front/Using Measurement",
+        new long[] {2_000_000, 5_000_000},
+        new double[] {0.0, 1.0});
+
+    long[] micros = VisionAcceptReport.acceptedMicros(hasTargets, using, 10_000_000);
+
+    assertEquals(4_000_000, micros[0]);
+    assertEquals(1_000_000, micros[1]);
+  }
+
+  @Test
+  void testLoopOverrunCorrelation() {
+    TimeSeries mainLoop = series(LoopOverrunReport.MAIN_LOOP,
+        new long[] {1_000_000, 2_000_000, 3_000_000},
+        new double[] {0.05, 0.05, 0.05});
+    TimeSeries gcPauses = series(LoopOverrunReport.GC_PAUSE,
+        new long[] {950_000, 1_500_000, 3_010_000},
+        new double[] {12.0, 3.0, 20.0});
+    TimeSeries odometry = series(LoopOverrunReport.ODOMETRY,
+        new long[] {960_000, 1_200_000, 2_000_000},
+        new double[] {0.01, 0.01, 0.01});
+
+    // Only the first overrun has a pause ending in the 100 ms before it
+    assertEquals(1, LoopOverrunReport.countAfterGc(mainLoop, gcPauses));
+    // Odometry overruns at 0.96 s and 2.0 s fall in late loops; 1.2 s doesn't
+    assertEquals(2, LoopOverrunReport.countShared(odometry, mainLoop));
+  }
+
+  @Test
+  void testAnalyzeRunsEveryReport() throws IOException {
+    Path directory = Files.createTempDirectory("wpilog");
+    Path log = directory.resolve("match.wpilog");
+    try {
+      new TestLogWriter("")
+          .start(1, "NT:/SmartDashboard/Safety/Battery Voltage", "double", 0)
+          .start(2, LoopOverrunReport.MAIN_LOOP, "double", 0)
+          .start(3, OdometryJitterReport.PERIOD, "double", 0)
+          .start(4, LoopOverrunReport.GC_PAUSE, "double", 0)
+          .appendDouble(4, 1_400_000, 7.5)
+          .appendDouble(1, 0, 12.5)
+          .appendDouble(1, 1_000_000, 10.0)
+          .appendDouble(1, 2_000_000, 12.5)
+          .appendDouble(2, 1_500_000, 0.045)
+          .appendDouble(3, 1_000_000, 0.004)
+          .appendDouble(3, 1_004_000, 0.004)
+          .appendDouble(3, 1_013_000, 0.009)
+          .write(log);
+
+      String report = LogAnalyzer.analyze(log);
+
+      assertTrue(report.contains("GC pauses: 1 (p50 7.5 ms"), report);
+      assertTrue(report.contains("Main loop overruns: 1"), report);
+      assertTrue(report.contains("Sags below 11.50 V: 1 (1 below 10.50 V)"), report);
+      assertTrue(report.contains("Periods over 2x median: 1"), report);
+      assertTrue(report.contains("No camera telemetry"), report);
+    } finally {
+      Files.deleteIfExists(log);
+      Files.delete(directory);
+    }
+  }
+}
@@ -0,0 +1,95 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.loganalyzer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Builds .wpilog files for tests, using the smallest field widths like WPILib does
+ */
+final class TestLogWriter {
+  private final ByteArrayOutputStream m_bytes = new ByteArrayOutputStream();
+
+  TestLogWriter(String extraHeader) {
+    byte[] extra = extraHeader.getBytes(StandardCharsets.UTF_8);
+    m_bytes.writeBytes("WPILOG".getBytes(StandardCharsets.US_ASCII));
+    m_bytes.writeBytes(littleEndian(0x0100, 2));
+    m_bytes.writeBytes(littleEndian(extra.length, 4));
+    m_bytes.writeBytes(extra);
+  }
+
+  TestLogWriter start(int entry, String name, String type, long timestampMicros) {
+    byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+    byte[] typeBytes = type.getBytes(StandardCharsets.UTF_8);
+    ByteBuffer payload = ByteBuffer.allocate(17 + nameBytes.length + typeBytes.length)
+        .order(ByteOrder.LITTLE_ENDIAN);
+    payload.put((byte) 0).putInt(entry);
+    payload.putInt(nameBytes.length).put(nameBytes);
+    payload.putInt(typeBytes.length).put(typeBytes);
+    payload.putInt(0);
+    return record(0, timestampMicros, payload.array());
+  }
+
+  TestLogWriter finish(int entry, long timestampMicros) {
+    ByteBuffer payload = ByteBuffer.allocate(5).order(ByteOrder.LITTLE_ENDIAN);
+    payload.put((byte) 1).putInt(entry);
+    return record(0, timestampMicros, payload.array());
+  }
+
+  TestLogWriter appendDouble(int entry, long timestampMicros, double value) {
+    return record(entry, timestampMicros,
+        ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putDouble(value).array());
+  }
+
+  TestLogWriter appendBoolean(int entry, long timestampMicros, boolean value) {
+    return record(entry, timestampMicros, new byte[] {(byte) (value ? 1 : 0)});
+  }
+
+  TestLogWriter appendString(int entry, long timestampMicros, String value) {
+    return record(entry, timestampMicros, value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  TestLogWriter record(int entry, long timestampMicros, byte[] payload) {
+    int idLength = width(entry);
+    int sizeLength = width(payload.length);
+    int timestampLength = width(timestampMicros);
+    m_bytes.write((idLength - 1) | ((sizeLength - 1) << 2) | ((timestampLength - 1) << 4));
+    m_bytes.writeBytes(littleEndian(entry, idLength));
+    m_bytes.writeBytes(littleEndian(payload.length, sizeLength));
+    m_bytes.writeBytes(littleEndian(timestampMicros, timestampLength));
+    m_bytes.writeBytes(payload);
+    return this;
+  }
+
+  byte[] toByteArray() {
+    return m_bytes.toByteArray();
+  }
+
+  void write(Path path) throws IOException {
+    Files.write(path, toByteArray());
+  }
+
+  private static int width(long value) {
+    int width = 1;
+    while (width < 8 && (value >>> (8 * width)) != 0) {
+      width++;
+    }
+    return width;
+  }
+
+  private static byte[] littleEndian(long value, int length) {
+    byte[] bytes = new byte[length];
+    for (int i = 0; i < length; i++) {
+      bytes[i] = (byte) (value >>> (8 * i));
+    }
+    return bytes;
+  }
+}
@@ -0,0 +1,148 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.loganalyzer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for WpiLogReader and LogData
+ */
+class WpiLogReaderTest {
+  private Path m_directory;
+  private Path m_log;
+
+  @BeforeEach
+  void setup() throws IOException {
+    m_directory = Files.createTempDirectory("wpilog");
+    m_log = m_directory.resolve("test.wpilog");
+  }
+
+  @AfterEach
+  void teardown() throws IOException {
+    Files.deleteIfExists(m_log);
+    Files.delete(m_directory);
+  }
+
+  /**
+   * Sums every double record, so window handling can be checked without collecting
+   */
+  private static final class SummingVisitor implements WpiLogReader.Visitor {
+    private final List<String> m_names = new ArrayList<>();
+    private double m_sum = 0.0;
+    private int m_records = 0;
+
+    @Override
+    public void start(int entry, String name, String type, long timestampMicros) {
+      m_names.add(name);
+    }
+
+    @Override
+    public void record(int entry, long timestampMicros, ByteBuffer buffer, int offset, int length) {
+      m_sum += buffer.getDouble(offset);
+      m_records++;
+    }
+  }
+
+  @Test
+  void testCollectsWantedNumericEntries() throws IOException {
+    new TestLogWriter("team 1234")
+        .start(1, "Safety/Battery Voltage", "double", 10)
+        .start(2, "Vision/Front/Has Targets", "boolean", 10)
+        .start(3, "messages", "string", 10)
+        .start(4, "Other", "double", 10)
+        .appendDouble(1, 1_000, 12.5)
+        .appendBoolean(2, 2_000, true)
+        .appendString(3, 3_000, "hello")
+        .appendDouble(4, 4_000, 1.0)
+        .appendDouble(1, 5_000_000_000L, 11.0)
+        .write(m_log);
+
+    LogData data = LogData.read(m_log, name -> !name.equals("Other"));
+
+    TimeSeries voltage = data.get("Safety/Battery Voltage");
+    assertEquals(2, voltage.size());
+    assertEquals(1_000, voltage.getTimestamp(0));
+    assertEquals(12.5, voltage.getValue(0));
+    assertEquals(5_000_000_000L, voltage.getTimestamp(1));
+    assertEquals(11.0, voltage.getValue(1));
+    assertEquals(1.0, data.get("Vision/Front/Has Targets").getValue(0));
+    assertNull(data.get("messages"));
+    assertNull(data.get("Other"));
+    assertEquals(1_000, data.getStartMicros());
+    assertEquals(5_000_000_000L, data.getEndMicros());
+    assertEquals(9, data.getRecordCount());
+    assertFalse(data.isTruncated());
+  }
+
+  @Test
+  void testRestartedEntryAppendsToSameSeries() throws IOException {
+    new TestLogWriter("")
+        .start(1, "GC/Pause ms", "double", 0)
+        .appendDouble(1, 100, 1.0)
+        .finish(1, 200)
+        .start(1, "Unwanted", "double", 300)
+        .appendDouble(1, 400, 99.0)
+        .start(2, "GC/Pause ms", "double", 500)
+        .appendDouble(2, 600, 2.0)
+        .write(m_log);
+
+    TimeSeries pauses = LogData.read(m_log, name -> name.startsWith("GC/")).get("GC/Pause ms");
+    assertEquals(2, pauses.size());
+    assertEquals(1.0, pauses.getValue(0));
+    assertEquals(2.0, pauses.getValue(1));
+  }
+
+  @Test
+  void testRecordsSpanningMappingWindows() throws IOException {
+    TestLogWriter writer = new TestLogWriter("").start(1, "Value", "double", 0);
+    double expected = 0.0;
+    for (int i = 0; i < 1000; i++) {
+      writer.appendDouble(1, i * 20_000L, i);
+      expected += i;
+    }
+    writer.write(m_log);
+
+    // A window smaller than a record forces a remap for almost every record
+    SummingVisitor visitor = new SummingVisitor();
+    WpiLogReader reader = new WpiLogReader(m_log, 7);
+    reader.read(visitor);
+
+    assertEquals(List.of("Value"), visitor.m_names);
+    assertEquals(1000, visitor.m_records);
+    assertEquals(expected, visitor.m_sum);
+  }
+
+  @Test
+  void testTruncatedRecordEndsRead() throws IOException {
+    byte[] bytes = new TestLogWriter("")
+        .start(1, "Value", "double", 0)
+        .appendDouble(1, 10, 1.0)
+        .appendDouble(1, 20, 2.0)
+        .toByteArray();
+    Files.write(m_log, Arrays.copyOf(bytes, bytes.length - 3));
+
+    LogData data = LogData.read(m_log, name -> true);
+    assertTrue(data.isTruncated());
+    assertEquals(1, data.get("Value").size());
+  }
+
+  @Test
+  void testRejectsFileThatIsNotADataLog() throws IOException {
+    Files.write(m_log, "not a data log at all".getBytes());
+    assertThrows(IOException.class, () -> LogData.read(m_log, name -> true));
+  }
+}